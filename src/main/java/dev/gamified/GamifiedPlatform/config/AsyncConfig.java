@@ -1,19 +1,31 @@
 package dev.gamified.GamifiedPlatform.config;
 
 import dev.gamified.GamifiedPlatform.deadletter.DeadLetterQueue;
+import dev.gamified.GamifiedPlatform.enums.AsyncExecutorMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * Configuração para execução assíncrona e agendamento de tarefas.
- * Permite que logs de auditoria sejam gravados sem bloquear requisições.
+ * Permite que tarefas de I/O (ex.: envio de emails) rodem sem bloquear requisições.
+ * Tarefas rejeitadas vão para o DeadLetterQueue (persistente, com replay).
+ *
+ * async.executor.mode:
+ *  - PLATFORM: pool fixo (padrão). Sob rajadas de I/O bloqueante a fila enche e o excedente vai para o DLQ.
+ *  - VIRTUAL: uma thread virtual por tarefa (JDK 21+). O limite passa a ser por dependência, nos
+ *    DownstreamBulkheads. Em JDKs sem threads virtuais usa uma thread de plataforma por tarefa.
  */
 @Configuration
 @EnableAsync
@@ -21,27 +33,53 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+    private static final String THREAD_NAME_PREFIX = "GamifiedAsync-";
+    private static final int VIRTUAL_THREADS_MIN_JDK = 21;
+
     private final DeadLetterQueue deadLetterQueue;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${async.executor.mode:PLATFORM}")
+    private AsyncExecutorMode mode = AsyncExecutorMode.PLATFORM;
+
+    @Value("${async.executor.core-pool-size:5}")
+    private int corePoolSize = 5;
+
+    @Value("${async.executor.max-pool-size:10}")
+    private int maxPoolSize = 10;
 
-    public AsyncConfig(DeadLetterQueue deadLetterQueue) {
+    @Value("${async.executor.queue-capacity:100}")
+    private int queueCapacity = 100;
+
+    // Teto de segurança do modo VIRTUAL: acima dele execute() aguarda em vez de criar mais threads
+    @Value("${async.executor.max-concurrency:1000}")
+    private int maxConcurrency = 1000;
+
+    public AsyncConfig(DeadLetterQueue deadLetterQueue, MeterRegistry meterRegistry) {
         this.deadLetterQueue = deadLetterQueue;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
+        log.info("Async task executor mode: {}", mode);
+        return mode == AsyncExecutorMode.VIRTUAL ? perTaskExecutor() : platformExecutor();
+    }
+
+    private Executor platformExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
         // Número de threads que ficam sempre ativas
-        executor.setCorePoolSize(5);
+        executor.setCorePoolSize(corePoolSize);
 
         // Número máximo de threads que podem ser criadas
-        executor.setMaxPoolSize(10);
+        executor.setMaxPoolSize(maxPoolSize);
 
         // Capacidade da fila de tarefas pendentes
-        executor.setQueueCapacity(100);
+        executor.setQueueCapacity(queueCapacity);
 
         // Prefixo para facilitar debug nos logs
-        executor.setThreadNamePrefix("GamifiedAsync-");
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
 
         // Aguarda conclusão de tarefas no shutdown
         executor.setWaitForTasksToCompleteOnShutdown(true);
@@ -50,11 +88,45 @@ public class AsyncConfig {
         executor.setAwaitTerminationSeconds(60);
 
         executor.setRejectedExecutionHandler((r, exec) -> {
-            log.error("Task rejected, sending to DLQ: {}", r);
+            log.error("Task rejected by executor, sending to DLQ: {}", r);
             deadLetterQueue.add(r);
         });
 
         executor.initialize();
+
+        Gauge.builder("async.executor.in_flight", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("mode", "platform").register(meterRegistry);
+        Gauge.builder("async.executor.queued", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("mode", "platform").register(meterRegistry);
+        return executor;
+    }
+
+    private Executor perTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        if (Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JDK) {
+            executor.setVirtualThreads(true);
+        } else {
+            log.warn("Virtual threads require JDK {}+, running one platform thread per task (JDK {})",
+                    VIRTUAL_THREADS_MIN_JDK, Runtime.version().feature());
+        }
+        executor.setConcurrencyLimit(maxConcurrency);
+
+        // Aguarda conclusão de tarefas no shutdown (60 segundos)
+        executor.setTaskTerminationTimeout(60_000);
+
+        // Sem fila: "em voo" inclui as tarefas esperando permissão em algum bulkhead
+        AtomicInteger inFlight = new AtomicInteger();
+        executor.setTaskDecorator(task -> () -> {
+            inFlight.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        Gauge.builder("async.executor.in_flight", inFlight, AtomicInteger::get)
+                .tag("mode", "virtual").register(meterRegistry);
         return executor;
     }
 }
@@ -0,0 +1,90 @@
+package dev.gamified.GamifiedPlatform.config;
+
+import dev.gamified.GamifiedPlatform.enums.RateLimitAlgorithm;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Regras de rate limiting por caso de uso (rate-limit.rules.<nome> no application.yaml).
+ * Os valores abaixo são os padrões usados quando a regra não é configurada.
+ * rate-limit.routes define os grupos de endpoints aplicados pelo RateLimitFilter, antes da autenticação.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    public static final String LOGIN = "login";
+    public static final String EMAIL_VERIFICATION = "email-verification";
+    public static final String MISSION_SUBMISSION = "mission-submission";
+    public static final String BOSS_SUBMISSION = "boss-submission";
+    public static final String IP = "ip";
+
+    private Map<String, Rule> rules = new HashMap<>(Map.of(
+            LOGIN, new Rule(RateLimitAlgorithm.SLIDING_WINDOW_LOG, 5, Duration.ofMinutes(15), null),
+            EMAIL_VERIFICATION, new Rule(RateLimitAlgorithm.FIXED_WINDOW, 3, Duration.ofHours(1), null),
+            MISSION_SUBMISSION, new Rule(RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 10, Duration.ofMinutes(5), null),
+            BOSS_SUBMISSION, new Rule(RateLimitAlgorithm.SLIDING_WINDOW_LOG, 3, Duration.ofHours(1), null),
+            IP, new Rule(RateLimitAlgorithm.TOKEN_BUCKET, 100, Duration.ofMinutes(1), 20, 5)
+    ));
+
+    // RateLimitFilter: a regra "ip" vale para todas as requisições; as rotas somam limites por grupo de endpoints
+    private boolean filterEnabled = true;
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/health"));
+    private List<RouteRule> routes = new ArrayList<>();
+
+    public Rule rule(String name) {
+        Rule rule = rules.get(name);
+        if (rule == null) {
+            throw new IllegalStateException("Rate limit rule not configured: " + name);
+        }
+        return rule;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.FIXED_WINDOW;
+        private int limit = 100;
+        private Duration window = Duration.ofMinutes(1);
+        // Apenas TOKEN_BUCKET: requisições aceitas de uma vez com o balde cheio (padrão = limit)
+        private Integer burst;
+        // Permissões reservadas no Redis por consulta e consumidas em memória (RateLimitLocalTier); 1 = desligado
+        private int leaseChunk = 1;
+
+        public Rule(RateLimitAlgorithm algorithm, int limit, Duration window, Integer burst) {
+            this(algorithm, limit, window, burst, 1);
+        }
+
+        public int effectiveBurst() {
+            return burst != null && burst > 0 ? burst : limit;
+        }
+    }
+
+    public enum KeyType {
+        IP,     // Endereço do cliente
+        USER    // Claim userId do JWT; cai para o IP em requisições anônimas
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RouteRule {
+        private String name;
+        private List<String> patterns = new ArrayList<>();
+        // Vazio = todos os métodos
+        private List<String> methods = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        private Rule rule = new Rule();
+    }
+}
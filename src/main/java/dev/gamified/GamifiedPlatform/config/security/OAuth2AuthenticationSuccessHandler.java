@@ -72,13 +72,13 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
                 // Gerar tokens JWT
                 String accessToken = jwtTokenService.generateAccessToken(user);
-                String refreshToken = jwtTokenService.generateRefreshToken(user, getClientIp(request));
+                String refreshToken = jwtTokenService.generateRefreshToken(user, SecurityUtils.getClientIp(request));
 
                 // Registrar log de auditoria
                 securityAuditService.logLoginSuccess(
                         user.getId(),
                         user.getUsername(),
-                        getClientIp(request),
+                        SecurityUtils.getClientIp(request),
                         request.getHeader("User-Agent")
                 );
 
@@ -109,19 +109,5 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
                 .build().toUriString();
         response.sendRedirect(targetUrl);
     }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
 }
 
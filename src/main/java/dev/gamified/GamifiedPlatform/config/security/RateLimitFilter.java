@@ -0,0 +1,163 @@
+package dev.gamified.GamifiedPlatform.config.security;
+
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.KeyType;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.RouteRule;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitResult;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Rate limiting global, aplicado logo após o CORS na cadeia do Spring Security:
+ * requisições abusivas são rejeitadas antes da validação do JWT, de transações e de acesso ao banco.
+ *
+ * Ordem: regra "ip" (todas as requisições) e depois cada grupo de rotas que casar com a requisição.
+ * O IP é o endereço da conexão (SecurityUtils.getClientIp): X-Forwarded-For só vale quando vem de um proxy confiável.
+ * Grupos por usuário só usam o claim userId de um JWT com assinatura verificada; sem token válido, caem para o IP.
+ * Só as rotas com chave USER decodificam o token (a regra genérica é por IP); o JwtDecoder é o
+ * RequestCachingJwtDecoder, então o resource server reaproveita essa verificação em vez de repeti-la.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final RateLimitService rateLimitService;
+    private final RateLimitProperties rateLimitProperties;
+    private final JwtDecoder jwtDecoder;
+    private final List<PathPattern> excludedPaths;
+    private final List<CompiledRoute> routes;
+
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitProperties rateLimitProperties,
+                           JwtDecoder jwtDecoder) {
+        this.rateLimitService = rateLimitService;
+        this.rateLimitProperties = rateLimitProperties;
+        this.jwtDecoder = jwtDecoder;
+        this.excludedPaths = rateLimitProperties.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.routes = rateLimitProperties.getRoutes().stream()
+                .map(CompiledRoute::of)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!rateLimitProperties.isFilterEnabled() || "OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        PathContainer path = pathOf(request);
+        return excludedPaths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ip = SecurityUtils.getClientIp(request);
+
+        RateLimitResult tightest = rateLimitService.checkIp(ip);
+        if (!tightest.allowed()) {
+            reject(response, tightest);
+            return;
+        }
+
+        PathContainer path = pathOf(request);
+        Optional<Long> userId = Optional.empty();
+        boolean userIdResolved = false;
+        for (CompiledRoute route : routes) {
+            if (!route.matches(request.getMethod(), path)) {
+                continue;
+            }
+
+            String subject = "ip:" + ip;
+            if (route.key() == KeyType.USER) {
+                if (!userIdResolved) {
+                    userId = verifiedUserId(request);
+                    userIdResolved = true;
+                }
+                subject = userId.map(id -> "user:" + id).orElse(subject);
+            }
+
+            RateLimitResult result = rateLimitService.check("route:" + route.name() + ":" + subject, route.rule());
+            if (!result.allowed()) {
+                reject(response, result);
+                return;
+            }
+            if (result.remaining() < tightest.remaining()) {
+                tightest = result;
+            }
+        }
+
+        // Os headers refletem o limite mais próximo de estourar
+        RateLimitHeaders.apply(response, tightest.limit(), tightest.remaining(), tightest.resetSeconds());
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, RateLimitResult result) throws IOException {
+        RateLimitHeaders.applyRejected(response, result.limit(), result.remaining(), result.resetSeconds());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(String.format(
+                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"Too Many Requests\"," +
+                        "\"message\":\"Too many requests. Please try again in %d seconds\"}",
+                LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(), result.resetSeconds()));
+    }
+
+    //userId de um token com assinatura e validade conferidas; token forjado ou expirado não escolhe a chave de ninguém
+    private Optional<Long> verifiedUserId(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            Object claim = jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()).trim())
+                    .getClaim("userId");
+            return claim instanceof Number number ? Optional.of(number.longValue()) : Optional.empty();
+        } catch (JwtException e) {
+            log.debug("Ignoring bearer token for rate limiting: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static PathContainer pathOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return PathContainer.parsePath(contextPath != null && uri.startsWith(contextPath)
+                ? uri.substring(contextPath.length())
+                : uri);
+    }
+
+    private record CompiledRoute(String name, List<PathPattern> patterns, List<String> methods,
+                                 KeyType key, RateLimitProperties.Rule rule) {
+
+        static CompiledRoute of(RouteRule route) {
+            return new CompiledRoute(route.getName(),
+                    route.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    route.getMethods().stream().map(String::toUpperCase).toList(),
+                    route.getKey(), route.getRule());
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method.toUpperCase()))
+                    && patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.gamified.GamifiedPlatform.config.security;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Headers de rate limiting enviados ao cliente (filtro e respostas 429 do GlobalExceptionHandler).
+ */
+public final class RateLimitHeaders {
+
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String REMAINING = "X-RateLimit-Remaining";
+    public static final String RESET = "X-RateLimit-Reset";
+
+    private RateLimitHeaders() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void apply(HttpServletResponse response, int limit, int remaining, long resetSeconds) {
+        response.setHeader(LIMIT, String.valueOf(limit));
+        response.setHeader(REMAINING, String.valueOf(remaining));
+        response.setHeader(RESET, String.valueOf(resetSeconds));
+    }
+
+    public static void applyRejected(HttpServletResponse response, int limit, int remaining, long resetSeconds) {
+        apply(response, limit, remaining, resetSeconds);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(resetSeconds));
+    }
+}
@@ -0,0 +1,55 @@
+package dev.gamified.GamifiedPlatform.config.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+ * JwtDecoder que guarda o resultado da verificação nos atributos da requisição corrente.
+ * O RateLimitFilter decodifica o token nas rotas com chave USER antes da autenticação; o resource server
+ * recebe o mesmo token logo depois e reaproveita o Jwt (ou a falha) em vez de verificar a assinatura RSA de novo.
+ * Fora de uma requisição (sem RequestContextHolder) apenas delega.
+ */
+public class RequestCachingJwtDecoder implements JwtDecoder {
+
+    static final String ATTRIBUTE = RequestCachingJwtDecoder.class.getName() + ".decoded";
+
+    private final JwtDecoder delegate;
+
+    public RequestCachingJwtDecoder(JwtDecoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return delegate.decode(token);
+        }
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Decoded decoded
+                && decoded.token().equals(token)) {
+            return decoded.result();
+        }
+
+        Decoded decoded;
+        try {
+            decoded = new Decoded(token, delegate.decode(token), null);
+        } catch (JwtException e) {
+            decoded = new Decoded(token, null, e);
+        }
+        attributes.setAttribute(ATTRIBUTE, decoded, RequestAttributes.SCOPE_REQUEST);
+        return decoded.result();
+    }
+
+    private record Decoded(String token, Jwt jwt, JwtException error) {
+
+        Jwt result() {
+            if (error != null) {
+                throw error;
+            }
+            return jwt;
+        }
+    }
+}
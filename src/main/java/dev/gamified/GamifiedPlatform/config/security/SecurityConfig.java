@@ -5,6 +5,8 @@ import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.proc.SecurityContext;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +25,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
@@ -53,12 +56,17 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
-                                                   CorsConfigurationSource corsConfigurationSource) throws Exception {
+                                                   CorsConfigurationSource corsConfigurationSource,
+                                                   RateLimitService rateLimitService,
+                                                   RateLimitProperties rateLimitProperties,
+                                                   JwtDecoder jwtDecoder) throws Exception {
 
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
+                // Rate limiting antes de qualquer autenticação/JWT (não é um @Bean para não virar filtro do servlet também)
+                .addFilterAfter(new RateLimitFilter(rateLimitService, rateLimitProperties, jwtDecoder), CorsFilter.class)
                 .authorizeHttpRequests(authorize ->
                         authorize
                                 .requestMatchers("/auth/login", "/auth/register",
@@ -67,7 +75,8 @@ public class SecurityConfig {
                                         "/auth/forgot-password", "/auth/reset-password",
                                         "/oauth2/**", "/login/oauth2/**",
                                         "/swagger-ui/**", "/swagger-ui.html",
-                                        "/v3/api-docs/**", "/v3/api-docs.yaml").permitAll()
+                                        "/v3/api-docs/**", "/v3/api-docs.yaml",
+                                        "/actuator/health").permitAll()
                                 .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
@@ -92,7 +101,8 @@ public class SecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(this.publicKey).build();
+        // O RateLimitFilter e o resource server compartilham a verificação do token da requisição
+        return new RequestCachingJwtDecoder(NimbusJwtDecoder.withPublicKey(this.publicKey).build());
     }
 
 
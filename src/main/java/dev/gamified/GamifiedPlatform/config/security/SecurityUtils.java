@@ -1,6 +1,7 @@
 package dev.gamified.GamifiedPlatform.config.security;
 
 import dev.gamified.GamifiedPlatform.enums.Roles;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -60,6 +61,15 @@ public final class SecurityUtils {
                 || getCurrentUserId().map(resourceOwnerId::equals).orElse(false);
     }
 
+    /*
+     * IP do cliente: o endereço da conexão, nunca um header enviado pelo próprio cliente.
+     * Atrás de proxy reverso, server.forward-headers-strategy=native faz o Tomcat substituir o remoteAddr
+     * pelo X-Forwarded-For somente quando a conexão vem de um proxy confiável (server.tomcat.remoteip.internal-proxies).
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
     private static Optional<Authentication> getAuthentication() {
         return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication());
     }
@@ -0,0 +1,50 @@
+package dev.gamified.GamifiedPlatform.controller.admin;
+
+import dev.gamified.GamifiedPlatform.config.annotations.IsAdmin;
+import dev.gamified.GamifiedPlatform.enums.ExportDataset;
+import dev.gamified.GamifiedPlatform.enums.ExportFormat;
+import dev.gamified.GamifiedPlatform.services.admin.export.AdminExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/*
+ * Escrita síncrona direto no OutputStream da resposta (sem StreamingResponseBody):
+ * a exportação não fica sujeita ao timeout de requisições assíncronas e as linhas saem à medida que o cursor avança.
+ * O intervalo é validado e a vaga reservada antes de qualquer cabeçalho, para que erros voltem como JSON.
+ */
+@RestController
+@RequestMapping("/admin/exports")
+@RequiredArgsConstructor
+public class AdminExportController {
+
+    private final AdminExportService adminExportService;
+
+    @GetMapping("/{dataset}")
+    @IsAdmin
+    public void export(@PathVariable String dataset,
+                       @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                       HttpServletResponse response) throws IOException {
+        ExportDataset exportDataset = ExportDataset.fromPath(dataset);
+
+        try (AdminExportService.PreparedExport export = adminExportService.prepare(exportDataset, format, from, to)) {
+            response.setContentType(format.getMediaType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(exportDataset.getPath() + "." + format.getExtension())
+                    .build()
+                    .toString());
+
+            export.writeTo(response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.gamified.GamifiedPlatform.controller.admin;
+
+import dev.gamified.GamifiedPlatform.config.annotations.IsAdmin;
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterQueue;
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterReplayer;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterEntryResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterPurgeResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterReplayResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterStatsResponse;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/admin/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterAdminController {
+
+    private final DeadLetterQueue deadLetterQueue;
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @GetMapping("/stats")
+    @IsAdmin
+    public ResponseEntity<DeadLetterStatsResponse> getStats() {
+        return ResponseEntity.ok(deadLetterQueue.stats());
+    }
+
+    @GetMapping
+    @IsAdmin
+    public ResponseEntity<Page<DeadLetterEntryResponse>> list(
+            @RequestParam(defaultValue = "PENDING") DeadLetterStatus status,
+            Pageable pageable) {
+        return ResponseEntity.ok(deadLetterQueue.list(status, pageable));
+    }
+
+    @PostMapping("/replay")
+    @IsAdmin
+    public ResponseEntity<DeadLetterReplayResponse> replayDue() {
+        return ResponseEntity.ok(deadLetterReplayer.replayDue());
+    }
+
+    @PostMapping("/{id}/replay")
+    @IsAdmin
+    public ResponseEntity<DeadLetterReplayResponse> replay(@PathVariable Long id) {
+        return ResponseEntity.ok(deadLetterReplayer.replay(id));
+    }
+
+    @DeleteMapping("/{id}")
+    @IsAdmin
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        deadLetterQueue.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    //Sem olderThan remove todas as entradas do status
+    @DeleteMapping
+    @IsAdmin
+    public ResponseEntity<DeadLetterPurgeResponse> purge(
+            @RequestParam(defaultValue = "EXHAUSTED") DeadLetterStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime olderThan) {
+        LocalDateTime before = olderThan != null ? olderThan : LocalDateTime.now().plusSeconds(1);
+        return ResponseEntity.ok(new DeadLetterPurgeResponse(deadLetterQueue.purge(status, before)));
+    }
+}
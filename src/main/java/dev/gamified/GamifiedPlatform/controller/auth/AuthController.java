@@ -1,5 +1,6 @@
 package dev.gamified.GamifiedPlatform.controller.auth;
 
+import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
 import dev.gamified.GamifiedPlatform.dtos.request.auth.LoginRequest;
 import dev.gamified.GamifiedPlatform.dtos.request.auth.RefreshTokenRequest;
 import dev.gamified.GamifiedPlatform.dtos.request.auth.ResendVerificationEmailRequest;
@@ -56,7 +57,7 @@ public class AuthController {
     @SecurityRequirement(name = "")
     public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request,
                                                HttpServletRequest httpRequest) {
-        String ipAddress = getClientIp(httpRequest);
+        String ipAddress = SecurityUtils.getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         LoginResponse response = authService.authenticate(request, ipAddress, userAgent);
         return ResponseEntity.ok(response);
@@ -108,7 +109,7 @@ public class AuthController {
     @SecurityRequirement(name = "")
     public ResponseEntity<LoginResponse> refreshToken(@RequestBody @Valid RefreshTokenRequest request,
                                                       HttpServletRequest httpRequest) {
-        String ipAddress = getClientIp(httpRequest);
+        String ipAddress = SecurityUtils.getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
 
         LoginResponse response = authService.refreshAccessToken(request.refreshToken(), ipAddress, userAgent);
@@ -127,7 +128,7 @@ public class AuthController {
     @SecurityRequirement(name = "")
     public ResponseEntity<String> logout(@RequestBody @Valid RefreshTokenRequest request,
                                          HttpServletRequest httpRequest) {
-        String ipAddress = getClientIp(httpRequest);
+        String ipAddress = SecurityUtils.getClientIp(httpRequest);
         authService.logout(request.refreshToken(), ipAddress);
         return ResponseEntity.ok("Logged out successfully");
     }
@@ -142,7 +143,7 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Não autenticado")
     })
     public ResponseEntity<String> logoutAllDevices(HttpServletRequest httpRequest) {
-        String ipAddress = getClientIp(httpRequest);
+        String ipAddress = SecurityUtils.getClientIp(httpRequest);
         authService.logoutAllDevices(ipAddress);
         return ResponseEntity.ok("Logged out from all devices successfully");
     }
@@ -195,19 +196,5 @@ public class AuthController {
         emailVerificationService.resendVerificationEmail(request.email());
         return ResponseEntity.ok("Verification email sent successfully!");
     }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
 }
 
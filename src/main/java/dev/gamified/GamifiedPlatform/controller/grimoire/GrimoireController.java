@@ -87,11 +87,12 @@ public class GrimoireController {
     public ResponseEntity<InputStreamResource> downloadGrimoire(
             @Parameter(description = "ID do nível", required = true) @PathVariable Long levelId) {
 
-        InputStream grimoireStream = downloadGrimoireService.execute(levelId);
-
         // Busca informações do grimório para o nome do arquivo
         GrimoireResponse grimoire = getGrimoireInfoService.execute(levelId);
 
+        // Aberto por último: o stream segura uma permissão do bulkhead do MinIO até ser fechado ao fim da resposta
+        InputStream grimoireStream = downloadGrimoireService.execute(levelId);
+
         // SEGURANÇA: Sanitizar nome do arquivo para prevenir path traversal
         String safeFilename = sanitizeFilename(grimoire.originalName());
 
@@ -4,8 +4,10 @@ import dev.gamified.GamifiedPlatform.config.annotations.CanReadUsers;
 import dev.gamified.GamifiedPlatform.config.annotations.IsAdmin;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.MyRankingResponse;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
+import dev.gamified.GamifiedPlatform.enums.RankingPeriod;
 import dev.gamified.GamifiedPlatform.services.ranking.GetGlobalRankingService;
 import dev.gamified.GamifiedPlatform.services.ranking.GetMyRankingService;
+import dev.gamified.GamifiedPlatform.services.ranking.GetPeriodRankingService;
 import dev.gamified.GamifiedPlatform.services.ranking.GetRankingByLevelService;
 import dev.gamified.GamifiedPlatform.services.ranking.RefreshRankingCacheService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,6 +39,7 @@ public class RankingController {
     private final GetGlobalRankingService getGlobalRankingService;
     private final GetMyRankingService getMyRankingService;
     private final GetRankingByLevelService getRankingByLevelService;
+    private final GetPeriodRankingService getPeriodRankingService;
     private final RefreshRankingCacheService refreshRankingCacheService;
 
     @GetMapping
@@ -57,14 +61,17 @@ public class RankingController {
     @CanReadUsers
     @Operation(
             summary = "Buscar minha posição no ranking",
-            description = "Retorna a posição e informações do usuário autenticado no ranking global"
+            description = "Retorna a posição e informações do usuário autenticado no ranking global, " +
+                    "junto com os jogadores imediatamente acima e abaixo dele"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Posição no ranking retornada com sucesso",
                     content = @Content(schema = @Schema(implementation = MyRankingResponse.class)))
     })
-    public ResponseEntity<MyRankingResponse> getMyRanking() {
-        return ResponseEntity.ok(getMyRankingService.execute());
+    public ResponseEntity<MyRankingResponse> getMyRanking(
+            @Parameter(description = "Quantidade de jogadores acima e abaixo (máx. 25)")
+            @RequestParam(defaultValue = "5") int around) {
+        return ResponseEntity.ok(getMyRankingService.execute(around));
     }
 
     @GetMapping("/level/{levelId}")
@@ -84,6 +91,24 @@ public class RankingController {
         return ResponseEntity.ok(getRankingByLevelService.execute(levelId, pageable));
     }
 
+    @GetMapping("/period/{period}")
+    @CanReadUsers
+    @Operation(
+            summary = "Buscar ranking por período",
+            description = "Retorna o ranking paginado pelo XP ganho no período: daily, weekly, monthly, " +
+                    "last-7-days ou last-30-days"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking do período retornado com sucesso",
+                    content = @Content(schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<Page<RankingResponse>> getPeriodRanking(
+            @Parameter(description = "Período do ranking", required = true) @PathVariable String period,
+            @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(getPeriodRankingService.execute(RankingPeriod.fromPath(period), pageable));
+    }
+
     @PostMapping("/refresh")
     @IsAdmin
     @Operation(
@@ -92,10 +117,13 @@ public class RankingController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cache atualizado com sucesso"),
-            @ApiResponse(responseCode = "403", description = "Apenas administradores podem atualizar o cache")
+            @ApiResponse(responseCode = "403", description = "Apenas administradores podem atualizar o cache"),
+            @ApiResponse(responseCode = "409", description = "Outro nó já está reconstruindo o ranking")
     })
     public ResponseEntity<String> refreshRanking() {
-        refreshRankingCacheService.execute();
+        if (!refreshRankingCacheService.execute()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Ranking refresh already running on another node");
+        }
         return ResponseEntity.ok("Ranking cache refreshed successfully");
     }
 }
@@ -0,0 +1,12 @@
+package dev.gamified.GamifiedPlatform.deadletter;
+
+/*
+ * Reexecuta tarefas do DLQ a partir do payload gravado pelo DeadLetterTask de mesmo taskType.
+ * Lançar exceção conta como tentativa falha (nova tentativa com backoff até o limite).
+ */
+public interface DeadLetterHandler {
+
+    String taskType();
+
+    void replay(String payload) throws Exception;
+}
@@ -1,28 +1,294 @@
 package dev.gamified.GamifiedPlatform.deadletter;
 
+import dev.gamified.GamifiedPlatform.domain.DeadLetterEntry;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterEntryResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterStatsResponse;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
+import dev.gamified.GamifiedPlatform.repository.DeadLetterEntryRepository;
+import dev.gamified.GamifiedPlatform.services.async.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/*
+ * Dead-letter queue durável (tb_dead_letter) para tarefas rejeitadas pelo taskExecutor.
+ * Capacidade limitada: acima de dead-letter.capacity entradas PENDING a tarefa é descartada e contabilizada,
+ * em vez de crescer sem limite. Entradas EXHAUSTED (inclusive as opacas) não contam para a capacidade:
+ * ficam para inspeção até o DeadLetterRetentionJob ou um admin removê-las.
+ * Nunca propaga exceção para quem submeteu a tarefa.
+ *
+ * add() roda na thread que teve a tarefa rejeitada (muitas vezes uma requisição com transação aberta, justamente
+ * quando o pool está saturado), então não toca no banco: a entrada vai para um buffer em memória limitado
+ * (dead-letter.handoff-capacity) e uma única thread (dlq-writer) grava em lotes. Com o banco fora a thread
+ * retenta com backoff (dead-letter.writer.retry-backoff até max-retry-backoff); buffer cheio descarta e contabiliza.
+ */
 @Component
 public class DeadLetterQueue {
     private static final Logger log = LoggerFactory.getLogger(DeadLetterQueue.class);
-    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
 
+    static final String OPAQUE_TYPE = "opaque";
+    private static final int MAX_PAYLOAD_LENGTH = 2000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final int WRITE_BATCH_SIZE = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final DeadLetterEntryRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final long capacity;
+    private final MpscRingBuffer<DeadLetterEntry> handoff;
+    private final long retryBackoffNanos;
+    private final long maxRetryBackoffNanos;
+
+    // Usados apenas pela thread escritora (ou pelo shutdown, depois que ela parou)
+    private final List<DeadLetterEntry> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+    private long currentBackoffNanos;  // 0 = banco disponível
+    private long nextAttempt;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    // Entradas PENDING (aproximado): evita um COUNT(*) por rejeição; ressincronizado a cada ciclo do replayer
+    private final AtomicLong approximateSize = new AtomicLong(-1);
+
+    private final Counter persisted;
+    private final Counter dropped;
+    private final Counter persistFailures;
+
+    public DeadLetterQueue(DeadLetterEntryRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${dead-letter.capacity:10000}") long capacity,
+                           @Value("${dead-letter.handoff-capacity:1024}") int handoffCapacity,
+                           @Value("${dead-letter.writer.retry-backoff:1s}") Duration retryBackoff,
+                           @Value("${dead-letter.writer.max-retry-backoff:30s}") Duration maxRetryBackoff) {
+        this.repository = repository;
+        this.capacity = capacity;
+        this.handoff = new MpscRingBuffer<>(handoffCapacity);
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.maxRetryBackoffNanos = maxRetryBackoff.toNanos();
+        // A rejeição pode acontecer dentro da transação de quem submeteu; o registro não deve depender dela
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.persisted = meterRegistry.counter("dlq.persisted");
+        this.dropped = meterRegistry.counter("dlq.dropped");
+        this.persistFailures = meterRegistry.counter("dlq.persist.failures");
+        Gauge.builder("dlq.size", approximateSize, size -> Math.max(size.get(), 0))
+                .description("Entradas PENDING (aproximado) da dead-letter queue")
+                .register(meterRegistry);
+        Gauge.builder("dlq.handoff.size", handoff, MpscRingBuffer::size)
+                .description("Entradas aguardando a thread dlq-writer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "dlq-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            if (thread.isAlive()) {
+                log.warn("Dead letter writer did not stop in time, {} entries left in memory", handoff.size());
+                return;
+            }
+        }
+        flushPending();
+    }
+
+    //Não acessa o banco: só serializa o descritor e entrega à thread dlq-writer
     public void add(Runnable task) {
-        queue.offer(task);
-        log.warn("Task added to Dead Letter Queue: {}", task);
+        // Tamanho ainda desconhecido (antes do primeiro refresh) não bloqueia a admissão com um COUNT(*)
+        long pending = Math.max(approximateSize.get(), 0) + handoff.size();
+        if (pending >= capacity) {
+            dropped.increment();
+            log.error("Dead letter queue is full ({} entries), dropping task: {}", capacity, task);
+            return;
+        }
+
+        DeadLetterEntry entry = toEntry(task);
+        if (!handoff.offer(entry)) {
+            dropped.increment();
+            log.error("Dead letter handoff buffer is full, dropping task: {}", task);
+            return;
+        }
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
     }
 
-    public Runnable poll() {
-        return queue.poll();
+    //Grava tudo o que está em memória; usado no shutdown e nos testes. Retorna quantas entradas ficaram pendentes
+    int flushPending() {
+        do {
+            handoff.drain(batch::add, WRITE_BATCH_SIZE - batch.size());
+        } while (!batch.isEmpty() && write() && handoff.size() > 0);
+        return batch.size() + handoff.size();
     }
 
-    public int size() {
-        return queue.size();
+    private void runWriter() {
+        refreshSizeQuietly();
+        while (running) {
+            handoff.drain(batch::add, WRITE_BATCH_SIZE - batch.size());
+            long now = System.nanoTime();
+            boolean retryDue = currentBackoffNanos == 0 || now - nextAttempt >= 0;
+            if (!batch.isEmpty() && retryDue) {
+                write();
+            } else {
+                LockSupport.parkNanos(this, batch.isEmpty() ? IDLE_PARK_NANOS : nextAttempt - now);
+            }
+        }
+    }
+
+    //Um lote por transação; em falha o lote fica em memória e a próxima tentativa espera o backoff
+    private boolean write() {
+        try {
+            requiresNew.executeWithoutResult(status -> batch.forEach(repository::save));
+        } catch (RuntimeException e) {
+            persistFailures.increment();
+            currentBackoffNanos = currentBackoffNanos == 0
+                    ? retryBackoffNanos
+                    : Math.min(currentBackoffNanos * 2, maxRetryBackoffNanos);
+            nextAttempt = System.nanoTime() + currentBackoffNanos;
+            log.error("Failed to persist {} dead letter entries, retrying in {} ms", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(currentBackoffNanos), e);
+            return false;
+        }
+
+        for (DeadLetterEntry entry : batch) {
+            if (entry.getStatus() == DeadLetterStatus.PENDING) {
+                approximateSize.updateAndGet(size -> size >= 0 ? size + 1 : size);
+            }
+            log.warn("Task added to Dead Letter Queue: type={}, status={}", entry.getTaskType(), entry.getStatus());
+        }
+        persisted.increment(batch.size());
+        batch.clear();
+        currentBackoffNanos = 0;
+        return true;
+    }
+
+    private void refreshSizeQuietly() {
+        try {
+            refreshSize();
+        } catch (RuntimeException e) {
+            log.warn("Could not read dead letter queue size: {}", e.getMessage());
+        }
+    }
+
+    public long size() {
+        long size = approximateSize.get();
+        return size >= 0 ? size : refreshSize();
+    }
+
+    public long refreshSize() {
+        long size = repository.countByStatus(DeadLetterStatus.PENDING);
+        approximateSize.set(size);
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public DeadLetterStatsResponse stats() {
+        long pending = repository.countByStatus(DeadLetterStatus.PENDING);
+        long exhausted = repository.countByStatus(DeadLetterStatus.EXHAUSTED);
+        approximateSize.set(pending);
+
+        LocalDateTime oldest = repository.findOldestCreatedAt();
+        Long oldestAgeSeconds = oldest != null
+                ? Math.max(Duration.between(oldest, LocalDateTime.now()).toSeconds(), 0)
+                : null;
+
+        return new DeadLetterStatsResponse(capacity, pending, exhausted, oldest, oldestAgeSeconds,
+                repository.countByTaskType());
+    }
+
+    public Page<DeadLetterEntryResponse> list(DeadLetterStatus status, Pageable pageable) {
+        return repository.findByStatusOrderByCreatedAtAsc(status, pageable).map(DeadLetterEntryResponse::from);
     }
-}
 
+    public void delete(Long id) {
+        DeadLetterEntry entry = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dead letter entry not found with ID: " + id));
+        repository.delete(entry);
+        refreshSize();
+        log.info("Dead letter {} ({}) deleted", id, entry.getTaskType());
+    }
+
+    //Remove em lotes as entradas do status cuja última tentativa foi antes de before; retorna quantas saíram
+    public long purge(DeadLetterStatus status, LocalDateTime before) {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = requiresNew.execute(tx -> repository.deleteBatch(status.name(), before, PURGE_BATCH_SIZE));
+            deleted += batch;
+        } while (batch == PURGE_BATCH_SIZE);
+
+        if (status == DeadLetterStatus.PENDING) {
+            refreshSize();
+        }
+        if (deleted > 0) {
+            log.info("Purged {} {} dead letter entries older than {}", deleted, status, before);
+        }
+        return deleted;
+    }
+
+    private static DeadLetterEntry toEntry(Runnable task) {
+        LocalDateTime now = LocalDateTime.now();
+        if (task instanceof DeadLetterTask descriptor) {
+            try {
+                return DeadLetterEntry.builder()
+                        .taskType(descriptor.taskType())
+                        .payload(descriptor.payload())
+                        .status(DeadLetterStatus.PENDING)
+                        .nextAttemptAt(now)
+                        .build();
+            } catch (RuntimeException e) {
+                log.error("Could not serialize dead letter task {}, storing it as opaque", descriptor.taskType(), e);
+            }
+        }
+
+        // Sem descritor não há como reexecutar: fica registrado apenas para inspeção
+        return DeadLetterEntry.builder()
+                .taskType(OPAQUE_TYPE)
+                .payload(truncate(String.valueOf(task)))
+                .status(DeadLetterStatus.EXHAUSTED)
+                .lastError("Task has no replayable descriptor")
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    static String truncate(String value) {
+        return value != null && value.length() > MAX_PAYLOAD_LENGTH ? value.substring(0, MAX_PAYLOAD_LENGTH) : value;
+    }
+}
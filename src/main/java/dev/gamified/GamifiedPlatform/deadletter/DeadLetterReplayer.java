@@ -0,0 +1,153 @@
+package dev.gamified.GamifiedPlatform.deadletter;
+
+import dev.gamified.GamifiedPlatform.domain.DeadLetterEntry;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterReplayResponse;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
+import dev.gamified.GamifiedPlatform.repository.DeadLetterEntryRepository;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Reexecuta as tarefas do DLQ com backoff exponencial (base * 2^(tentativas-1), limitado a max-backoff).
+ * Após max-attempts falhas a entrada vira EXHAUSTED e só volta a rodar por replay manual (admin).
+ * O ciclo agendado roda em um único nó do cluster.
+ */
+@Component
+@Slf4j
+public class DeadLetterReplayer {
+
+    static final String LEASE_NAME = "dead-letter-replay";
+
+    private final DeadLetterEntryRepository repository;
+    private final DeadLetterQueue deadLetterQueue;
+    private final ClusterLeaseService clusterLeaseService;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DeadLetterHandler> handlers;
+
+    @Value("${dead-letter.replay.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${dead-letter.replay.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${dead-letter.replay.base-backoff:30s}")
+    private Duration baseBackoff = Duration.ofSeconds(30);
+
+    @Value("${dead-letter.replay.max-backoff:1h}")
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    @Value("${dead-letter.replay.lease-ttl:5m}")
+    private Duration leaseTtl = Duration.ofMinutes(5);
+
+    public DeadLetterReplayer(DeadLetterEntryRepository repository,
+                              DeadLetterQueue deadLetterQueue,
+                              ClusterLeaseService clusterLeaseService,
+                              MeterRegistry meterRegistry,
+                              List<DeadLetterHandler> handlers) {
+        this.repository = repository;
+        this.deadLetterQueue = deadLetterQueue;
+        this.clusterLeaseService = clusterLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toUnmodifiableMap(DeadLetterHandler::taskType, Function.identity()));
+    }
+
+    @Scheduled(fixedDelayString = "${dead-letter.replay.interval:30s}",
+            initialDelayString = "${dead-letter.replay.interval:30s}")
+    public void scheduledReplay() {
+        clusterLeaseService.runExclusively(LEASE_NAME, leaseTtl, Duration.ZERO, lease -> replayDue());
+    }
+
+    //Reexecuta as entradas PENDING cujo backoff já venceu
+    public DeadLetterReplayResponse replayDue() {
+        List<DeadLetterEntry> due = repository.findDue(DeadLetterStatus.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        DeadLetterReplayResponse response = replayAll(due);
+        deadLetterQueue.refreshSize();
+
+        if (!due.isEmpty()) {
+            log.info("Dead letter replay finished: {} replayed, {} failed", response.replayed(), response.failed());
+        }
+        return response;
+    }
+
+    //Replay manual: ignora o backoff e dá um novo ciclo de tentativas, inclusive para entradas EXHAUSTED
+    public DeadLetterReplayResponse replay(Long id) {
+        DeadLetterEntry entry = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dead letter entry not found with ID: " + id));
+        entry.setAttempts(0);
+        entry.setStatus(DeadLetterStatus.PENDING);
+
+        DeadLetterReplayResponse response = replayAll(List.of(entry));
+        deadLetterQueue.refreshSize();
+        return response;
+    }
+
+    private DeadLetterReplayResponse replayAll(List<DeadLetterEntry> entries) {
+        int replayed = 0;
+        for (DeadLetterEntry entry : entries) {
+            if (attempt(entry)) {
+                replayed++;
+            }
+        }
+        return new DeadLetterReplayResponse(replayed, entries.size() - replayed);
+    }
+
+    private boolean attempt(DeadLetterEntry entry) {
+        DeadLetterHandler handler = handlers.get(entry.getTaskType());
+        if (handler == null) {
+            markExhausted(entry, "No handler registered for task type " + entry.getTaskType());
+            return false;
+        }
+
+        try {
+            handler.replay(entry.getPayload());
+            repository.delete(entry);
+            meterRegistry.counter("dlq.replayed", "type", entry.getTaskType()).increment();
+            return true;
+        } catch (Exception e) {
+            meterRegistry.counter("dlq.replay.failures", "type", entry.getTaskType()).increment();
+            entry.setAttempts(entry.getAttempts() + 1);
+            String error = DeadLetterQueue.truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+
+            if (entry.getAttempts() >= maxAttempts) {
+                markExhausted(entry, error);
+            } else {
+                entry.setLastError(error);
+                entry.setNextAttemptAt(LocalDateTime.now().plus(backoff(entry.getAttempts())));
+                repository.save(entry);
+                log.warn("Dead letter {} ({}) failed attempt {}/{}: {}",
+                        entry.getId(), entry.getTaskType(), entry.getAttempts(), maxAttempts, error);
+            }
+            return false;
+        }
+    }
+
+    private void markExhausted(DeadLetterEntry entry, String error) {
+        entry.setStatus(DeadLetterStatus.EXHAUSTED);
+        entry.setLastError(DeadLetterQueue.truncate(error));
+        repository.save(entry);
+        meterRegistry.counter("dlq.exhausted", "type", entry.getTaskType()).increment();
+        log.error("Dead letter {} ({}) exhausted after {} attempts: {}",
+                entry.getId(), entry.getTaskType(), entry.getAttempts(), error);
+    }
+
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = baseBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.gamified.GamifiedPlatform.deadletter;
+
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/*
+ * Retenção das entradas EXHAUSTED do DLQ: depois de dead-letter.retention.exhausted-max-age sem nova tentativa
+ * elas são removidas, para a tabela não crescer sem limite com tarefas que ninguém vai reexecutar.
+ * Roda em um único nó do cluster.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterRetentionJob {
+
+    static final String LEASE_NAME = "dead-letter-retention";
+
+    private final DeadLetterQueue deadLetterQueue;
+    private final ClusterLeaseService clusterLeaseService;
+    private final MeterRegistry meterRegistry;
+
+    // Zero ou negativo desativa a retenção
+    @Value("${dead-letter.retention.exhausted-max-age:30d}")
+    private Duration exhaustedMaxAge = Duration.ofDays(30);
+
+    @Scheduled(cron = "${dead-letter.retention.cron:0 45 3 * * ?}")
+    public void scheduledPurge() {
+        clusterLeaseService.runExclusively(LEASE_NAME, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                lease -> purgeExhausted(LocalDateTime.now()));
+    }
+
+    long purgeExhausted(LocalDateTime now) {
+        if (exhaustedMaxAge.isZero() || exhaustedMaxAge.isNegative()) {
+            return 0;
+        }
+        long deleted = deadLetterQueue.purge(DeadLetterStatus.EXHAUSTED, now.minus(exhaustedMaxAge));
+        meterRegistry.counter("dlq.purged").increment(deleted);
+        return deleted;
+    }
+}
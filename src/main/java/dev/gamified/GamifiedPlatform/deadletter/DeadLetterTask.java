@@ -0,0 +1,13 @@
+package dev.gamified.GamifiedPlatform.deadletter;
+
+/*
+ * Tarefa assíncrona que sabe se descrever: se o executor rejeitá-la, o DeadLetterQueue persiste
+ * o descritor (tipo + payload) e o DeadLetterReplayer a reexecuta pelo DeadLetterHandler do mesmo tipo.
+ * Runnables comuns também são aceitos pelo DLQ, mas ficam registrados apenas para inspeção.
+ */
+public interface DeadLetterTask extends Runnable {
+
+    String taskType();
+
+    String payload();
+}
@@ -0,0 +1,35 @@
+package dev.gamified.GamifiedPlatform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores materializados de um boss, mantidos pelo AdminStatsRecorder.
+ */
+@Entity
+@Table(name = "tb_boss_stats")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BossStats {
+
+    @Id
+    @Column(name = "boss_id")
+    private Long bossId;
+
+    @Column(nullable = false)
+    private Long attempts;
+
+    @Column(nullable = false)
+    private Long defeated;
+
+    @Column(nullable = false)
+    private Long failed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,51 @@
+package dev.gamified.GamifiedPlatform.domain;
+
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tarefa assíncrona rejeitada pelo executor, persistida para reexecução.
+ */
+@Entity
+@Table(name = "tb_dead_letter", indexes = {
+        @Index(name = "idx_dead_letter_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_type", nullable = false, length = 100)
+    private String taskType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DeadLetterStatus status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
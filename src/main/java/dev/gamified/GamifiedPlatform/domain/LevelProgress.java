@@ -0,0 +1,45 @@
+package dev.gamified.GamifiedPlatform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Faixa do histograma de progresso de um nível: usuários com exatamente completedMissions missões concluídas.
+ */
+@Entity
+@Table(name = "tb_level_progress")
+@IdClass(LevelProgress.Key.class)
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelProgress {
+
+    @Id
+    @Column(name = "level_id")
+    private Long levelId;
+
+    @Id
+    @Column(name = "completed_missions")
+    private Integer completedMissions;
+
+    @Column(nullable = false)
+    private Long users;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long levelId;
+        private Integer completedMissions;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.gamified.GamifiedPlatform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usuários distintos que já iniciaram alguma missão do nível, mantido pelo AdminStatsRecorder.
+ * Os totais de tentativas do nível são a soma de MissionStats.
+ */
+@Entity
+@Table(name = "tb_level_stats")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelStats {
+
+    @Id
+    @Column(name = "level_id")
+    private Long levelId;
+
+    @Column(name = "distinct_users", nullable = false)
+    private Long distinctUsers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
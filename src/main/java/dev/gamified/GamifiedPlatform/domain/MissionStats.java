@@ -0,0 +1,35 @@
+package dev.gamified.GamifiedPlatform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores materializados de uma missão, mantidos pelo AdminStatsRecorder.
+ */
+@Entity
+@Table(name = "tb_mission_stats")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MissionStats {
+
+    @Id
+    @Column(name = "mission_id")
+    private Long missionId;
+
+    @Column(nullable = false)
+    private Long attempts;
+
+    @Column(nullable = false)
+    private Long completed;
+
+    @Column(nullable = false)
+    private Long failed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -36,6 +36,11 @@ public class PlayerCharacter {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    //Desempate do ranking: quem alcançou o XP atual primeiro fica na frente
+    @Column(name = "xp_achieved_at")
+    @Builder.Default
+    private LocalDateTime xpAchievedAt = LocalDateTime.now();
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
@@ -48,5 +53,6 @@ public class PlayerCharacter {
             throw new BusinessException("XP to add must be a positive number");
         }
         this.xp += xpToAdd;
+        this.xpAchievedAt = LocalDateTime.now();
     }
 }
@@ -9,13 +9,14 @@ import java.time.LocalDateTime;
 /**
  * Entidade para logs de auditoria de segurança.
  * Rastreia eventos críticos como login, logout, alterações de senha, etc.
+ * A tabela é particionada por mês em timestamp (V33): consultas devem sempre informar um intervalo de tempo.
  */
 @Entity
 @Table(name = "tb_security_audit_log", indexes = {
-        @Index(name = "idx_audit_user_id", columnList = "user_id"),
-        @Index(name = "idx_audit_event_type", columnList = "event_type"),
-        @Index(name = "idx_audit_timestamp", columnList = "timestamp"),
-        @Index(name = "idx_audit_severity", columnList = "severity")
+        @Index(name = "idx_security_audit_user_timestamp", columnList = "user_id, timestamp DESC"),
+        @Index(name = "idx_security_audit_event_timestamp", columnList = "event_type, timestamp DESC"),
+        @Index(name = "idx_security_audit_severity_timestamp", columnList = "severity, timestamp DESC"),
+        @Index(name = "idx_security_audit_ip_timestamp", columnList = "ip_address, timestamp DESC")
 })
 @Getter
 @Setter
@@ -55,7 +56,10 @@ public class SecurityAuditLog {
 
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        // Eventos regravados pelo DLQ já chegam com o horário original
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
 }
 
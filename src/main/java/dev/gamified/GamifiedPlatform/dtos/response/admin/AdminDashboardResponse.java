@@ -2,6 +2,8 @@ package dev.gamified.GamifiedPlatform.dtos.response.admin;
 
 import lombok.Builder;
 
+import java.util.List;
+
 @Builder
 public record AdminDashboardResponse(
         Long totalUsers,
@@ -12,7 +14,10 @@ public record AdminDashboardResponse(
         Long totalBadges,
         Double averageCompletionRate,
         MissionDifficultyStats missionDifficultyStats,
-        BossDefeatedStats bossDefeatedStats
+        BossDefeatedStats bossDefeatedStats,
+        // true quando alguma consulta estourou o tempo ou falhou; os campos dela vêm nulos
+        Boolean partial,
+        List<String> unavailableSections
 ) {
     @Builder
     public record MissionDifficultyStats(
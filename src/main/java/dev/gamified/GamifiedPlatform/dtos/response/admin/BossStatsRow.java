@@ -0,0 +1,8 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Contadores materializados de um boss com o nome do nível (zeros quando nunca foi enfrentado).
+ */
+public record BossStatsRow(Long bossId, String bossName, String levelName,
+                           Long attempts, Long defeated, Long failed) {
+}
@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Contagem de tentativas por status de um boss (somente bosses com ao menos uma tentativa).
+ */
+public record BossStatusHistogram(Long bossId, String bossName, Long total, Long defeated, Long failed) {
+}
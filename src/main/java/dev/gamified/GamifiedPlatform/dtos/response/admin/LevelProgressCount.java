@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Usuários de um nível com exatamente completedMissions missões concluídas.
+ */
+public record LevelProgressCount(Long levelId, Integer completedMissions, Long users) {
+}
@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Usuários distintos que já iniciaram ao menos uma missão do nível.
+ */
+public record LevelUserCount(Long levelId, Long users) {
+}
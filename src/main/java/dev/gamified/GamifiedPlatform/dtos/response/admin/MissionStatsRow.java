@@ -0,0 +1,8 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Contadores materializados de uma missão com o nível ao qual pertence (zeros quando nunca foi iniciada).
+ */
+public record MissionStatsRow(Long missionId, String missionTitle, Long levelId, String levelName,
+                              Long attempts, Long completed, Long failed) {
+}
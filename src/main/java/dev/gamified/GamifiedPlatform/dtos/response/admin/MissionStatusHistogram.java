@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.dtos.response.admin;
+
+/*
+ * Contagem de tentativas por status de uma missão (somente missões com ao menos uma tentativa).
+ */
+public record MissionStatusHistogram(Long missionId, String missionTitle, Long total, Long completed, Long failed) {
+}
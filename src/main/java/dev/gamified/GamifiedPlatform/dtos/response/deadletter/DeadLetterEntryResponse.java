@@ -0,0 +1,21 @@
+package dev.gamified.GamifiedPlatform.dtos.response.deadletter;
+
+import dev.gamified.GamifiedPlatform.domain.DeadLetterEntry;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+
+import java.time.LocalDateTime;
+
+public record DeadLetterEntryResponse(
+        Long id,
+        String taskType,
+        DeadLetterStatus status,
+        Integer attempts,
+        String lastError,
+        LocalDateTime createdAt,
+        LocalDateTime nextAttemptAt
+) {
+    public static DeadLetterEntryResponse from(DeadLetterEntry entry) {
+        return new DeadLetterEntryResponse(entry.getId(), entry.getTaskType(), entry.getStatus(), entry.getAttempts(),
+                entry.getLastError(), entry.getCreatedAt(), entry.getNextAttemptAt());
+    }
+}
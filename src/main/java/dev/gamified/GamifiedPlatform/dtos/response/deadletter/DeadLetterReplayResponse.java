@@ -0,0 +1,4 @@
+package dev.gamified.GamifiedPlatform.dtos.response.deadletter;
+
+public record DeadLetterReplayResponse(int replayed, int failed) {
+}
@@ -0,0 +1,14 @@
+package dev.gamified.GamifiedPlatform.dtos.response.deadletter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DeadLetterStatsResponse(
+        long capacity,
+        long pending,
+        long exhausted,
+        LocalDateTime oldestCreatedAt,
+        Long oldestAgeSeconds,
+        List<DeadLetterTypeCount> byType
+) {
+}
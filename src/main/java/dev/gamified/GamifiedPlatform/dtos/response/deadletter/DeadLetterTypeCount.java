@@ -0,0 +1,4 @@
+package dev.gamified.GamifiedPlatform.dtos.response.deadletter;
+
+public record DeadLetterTypeCount(String taskType, Long count) {
+}
@@ -3,6 +3,8 @@ package dev.gamified.GamifiedPlatform.dtos.response.ranking;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 
+import java.util.List;
+
 /**
  * DTO para resposta da posição do usuário no ranking.
  */
@@ -30,7 +32,10 @@ public record MyRankingResponse(
         String levelTitle,
 
         @JsonProperty("percentile")
-        Double percentile
+        Double percentile,
+
+        @JsonProperty("neighbors")
+        List<RankingNeighborResponse> neighbors
 ) {
 }
 
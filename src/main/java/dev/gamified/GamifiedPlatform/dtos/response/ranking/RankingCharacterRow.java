@@ -0,0 +1,10 @@
+package dev.gamified.GamifiedPlatform.dtos.response.ranking;
+
+//Dados de identificação de uma linha do ranking (nível e XP vêm do score do ZSET).
+public record RankingCharacterRow(
+        Long characterId,
+        Long userId,
+        String username,
+        String characterName
+) {
+}
@@ -0,0 +1,12 @@
+package dev.gamified.GamifiedPlatform.dtos.response.ranking;
+
+//Linha do ranking lida direto do banco, usada enquanto o cache do Redis está sendo reconstruído.
+public record RankingFallbackRow(
+        Long characterId,
+        Long userId,
+        String username,
+        String characterName,
+        Integer level,
+        Integer xp
+) {
+}
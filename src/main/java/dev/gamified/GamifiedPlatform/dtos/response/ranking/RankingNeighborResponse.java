@@ -0,0 +1,27 @@
+package dev.gamified.GamifiedPlatform.dtos.response.ranking;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+/**
+ * DTO para os jogadores ao redor do usuário no ranking global.
+ * Montado apenas a partir do ZSET do Redis, sem consulta ao banco.
+ */
+@Builder
+public record RankingNeighborResponse(
+        @JsonProperty("position")
+        Long position,
+
+        @JsonProperty("character_id")
+        Long characterId,
+
+        @JsonProperty("level")
+        Integer level,
+
+        @JsonProperty("xp")
+        Integer xp,
+
+        @JsonProperty("is_me")
+        Boolean isMe
+) {
+}
@@ -0,0 +1,12 @@
+package dev.gamified.GamifiedPlatform.dtos.response.ranking;
+
+import java.time.LocalDateTime;
+
+//Projeção mínima usada na reconstrução dos ZSETs de ranking.
+public record RankingScoreRow(
+        Long characterId,
+        Integer level,
+        Integer xp,
+        LocalDateTime xpAchievedAt
+) {
+}
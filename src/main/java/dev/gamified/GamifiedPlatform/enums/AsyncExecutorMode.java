@@ -0,0 +1,6 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+public enum AsyncExecutorMode {
+    PLATFORM, // Pool fixo de threads com fila limitada; excedente vai para o DLQ
+    VIRTUAL   // Uma thread virtual por tarefa; concorrência limitada pelos bulkheads de cada dependência
+}
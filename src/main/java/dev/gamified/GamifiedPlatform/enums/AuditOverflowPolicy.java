@@ -0,0 +1,11 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+/*
+ * O que fazer com um evento de auditoria quando o buffer do AuditLogWriter está cheio.
+ * Eventos CRITICAL nunca são descartados: sem espaço, vão para o spool local (AuditSpillFile) em qualquer política.
+ */
+public enum AuditOverflowPolicy {
+    DROP,   // Descarta na hora (métrica audit.buffer.dropped)
+    BLOCK,  // Espera até audit.buffer.block-timeout por espaço e então descarta
+    SPILL   // Grava o evento no spool local em disco; a thread escritora reenvia ao banco depois
+}
@@ -0,0 +1,6 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+public enum DeadLetterStatus {
+    PENDING,    // Aguardando a próxima tentativa do replayer
+    EXHAUSTED   // Tentativas esgotadas ou tarefa sem descritor; só é reexecutada manualmente
+}
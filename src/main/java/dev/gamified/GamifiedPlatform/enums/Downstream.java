@@ -0,0 +1,20 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Dependências externas bloqueantes com limite próprio de concorrência (DownstreamBulkheads).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Downstream {
+    DATABASE("database"),
+    SMTP("smtp"),
+    MINIO("minio"),
+    // Downloads seguram a permissão enquanto o arquivo é enviado ao cliente, por isso têm limite separado
+    MINIO_DOWNLOAD("minio-download");
+
+    // Valor da tag "downstream" nas métricas e chave em async.bulkhead.*
+    private final String tag;
+}
@@ -0,0 +1,6 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,30 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/*
+ * Conjuntos de dados exportáveis em /admin/exports/{path} (AdminExportService).
+ */
+@Getter
+public enum ExportDataset {
+    MISSION_ATTEMPTS("mission-attempts"),   // tb_user_missions já iniciadas, por started_at
+    BOSS_FIGHTS("boss-fights"),             // tb_user_bosses já iniciadas, por started_at
+    BADGE_UNLOCKS("badge-unlocks"),         // tb_user_badges, por unlocked_at
+    AUDIT_LOGS("audit-logs");               // tb_security_audit_log, por timestamp (poda as partições)
+
+    private final String path;
+
+    ExportDataset(String path) {
+        this.path = path;
+    }
+
+    public static ExportDataset fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(d -> d.path.equalsIgnoreCase(path) || d.name().equalsIgnoreCase(path))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Invalid export dataset: " + path));
+    }
+}
@@ -0,0 +1,14 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");  // um objeto JSON por linha
+
+    private final String mediaType;
+    private final String extension;
+}
@@ -0,0 +1,34 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+@Getter
+public enum RankingPeriod {
+    DAILY("daily", 0),               // XP ganho hoje
+    WEEKLY("weekly", 0),             // XP ganho na semana ISO atual
+    MONTHLY("monthly", 0),           // XP ganho no mês atual
+    LAST_7_DAYS("last-7-days", 7),   // Janela móvel: soma dos últimos 7 dias
+    LAST_30_DAYS("last-30-days", 30); // Janela móvel: soma dos últimos 30 dias
+
+    private final String path;
+    private final int rollingDays;
+
+    RankingPeriod(String path, int rollingDays) {
+        this.path = path;
+        this.rollingDays = rollingDays;
+    }
+
+    public boolean isRolling() {
+        return rollingDays > 0;
+    }
+
+    public static RankingPeriod fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(p -> p.path.equalsIgnoreCase(path) || p.name().equalsIgnoreCase(path))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Invalid ranking period: " + path));
+    }
+}
@@ -0,0 +1,18 @@
+package dev.gamified.GamifiedPlatform.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum RateLimitAlgorithm {
+    FIXED_WINDOW(""),                 // Contador simples por janela; permite rajada de 2x na virada
+    SLIDING_WINDOW_LOG(":swl"),       // ZSET com o horário de cada requisição; exato, custo O(limite) em memória
+    SLIDING_WINDOW_COUNTER(":swc"),   // Janela atual + anterior ponderada; aproximado, custo O(1)
+    TOKEN_BUCKET(":gcra");            // GCRA: um único timestamp (TAT) por chave; rajada controlada por burst
+
+    // Sufixo da chave no Redis: cada algoritmo usa um tipo de estrutura diferente
+    private final String keySuffix;
+
+    RateLimitAlgorithm(String keySuffix) {
+        this.keySuffix = keySuffix;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.gamified.GamifiedPlatform.exceptions;
+
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import lombok.Getter;
+
+/*
+ * Nenhuma permissão do bulkhead ficou livre dentro do tempo de espera configurado.
+ * Em tarefas assíncronas a tarefa vai para o DLQ; em requisições vira 503.
+ */
+@Getter
+public class DownstreamSaturatedException extends RuntimeException {
+
+    private final Downstream downstream;
+
+    public DownstreamSaturatedException(Downstream downstream) {
+        super("Downstream " + downstream.getTag() + " is saturated, try again later");
+        this.downstream = downstream;
+    }
+}
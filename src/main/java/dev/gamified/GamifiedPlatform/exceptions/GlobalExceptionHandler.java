@@ -1,8 +1,10 @@
 package dev.gamified.GamifiedPlatform.exceptions;
 
+import dev.gamified.GamifiedPlatform.config.security.RateLimitHeaders;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -63,6 +65,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(RateLimitHeaders.LIMIT, String.valueOf(ex.getLimit()))
+                .header(RateLimitHeaders.REMAINING, String.valueOf(ex.getRemaining()))
+                .header(RateLimitHeaders.RESET, String.valueOf(ex.getResetSeconds()))
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getResetSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(DownstreamSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> handleDownstreamSaturatedException(DownstreamSaturatedException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, Object>> handleBussinesException(BusinessException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -0,0 +1,22 @@
+package dev.gamified.GamifiedPlatform.exceptions;
+
+import lombok.Getter;
+
+/*
+ * Limite de requisições excedido. Carrega os dados da janela para que a resposta 429
+ * inclua os headers X-RateLimit-* e Retry-After sem nova consulta ao Redis.
+ */
+@Getter
+public class RateLimitExceededException extends BusinessException {
+
+    private final int limit;
+    private final int remaining;
+    private final long resetSeconds;
+
+    public RateLimitExceededException(String message, int limit, int remaining, long resetSeconds) {
+        super(message);
+        this.limit = limit;
+        this.remaining = remaining;
+        this.resetSeconds = resetSeconds;
+    }
+}
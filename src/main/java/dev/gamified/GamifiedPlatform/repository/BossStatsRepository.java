@@ -0,0 +1,42 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.BossStats;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatsRow;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BossStatsRepository extends JpaRepository<BossStats, Long> {
+
+    //Upsert atômico dos deltas, na transação de quem chamou
+    @Modifying
+    @Query(value = "INSERT INTO tb_boss_stats (boss_id, attempts, defeated, failed, updated_at) " +
+            "VALUES (:bossId, :attempts, :defeated, :failed, NOW()) " +
+            "ON CONFLICT (boss_id) DO UPDATE SET " +
+            "attempts = tb_boss_stats.attempts + EXCLUDED.attempts, " +
+            "defeated = tb_boss_stats.defeated + EXCLUDED.defeated, " +
+            "failed = tb_boss_stats.failed + EXCLUDED.failed, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int increment(@Param("bossId") Long bossId, @Param("attempts") long attempts,
+                  @Param("defeated") long defeated, @Param("failed") long failed);
+
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram(" +
+           "b.id, b.name, s.attempts, s.defeated, s.failed) " +
+           "FROM BossStats s JOIN Boss b ON b.id = s.bossId " +
+           "WHERE s.attempts > 0 " +
+           "ORDER BY b.id")
+    List<BossStatusHistogram> findHistograms();
+
+    //Todos os bosses, com zeros para os que nunca foram enfrentados
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatsRow(" +
+           "b.id, b.name, l.name, COALESCE(s.attempts, 0L), COALESCE(s.defeated, 0L), COALESCE(s.failed, 0L)) " +
+           "FROM Boss b JOIN b.level l LEFT JOIN BossStats s ON s.bossId = b.id " +
+           "ORDER BY l.orderLevel")
+    List<BossStatsRow> findAllRows();
+}
@@ -0,0 +1,45 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.DeadLetterEntry;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterTypeCount;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeadLetterEntryRepository extends JpaRepository<DeadLetterEntry, Long> {
+
+    @Query("SELECT d FROM DeadLetterEntry d WHERE d.status = :status AND d.nextAttemptAt <= :now " +
+            "ORDER BY d.nextAttemptAt ASC")
+    List<DeadLetterEntry> findDue(@Param("status") DeadLetterStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    Page<DeadLetterEntry> findByStatusOrderByCreatedAtAsc(DeadLetterStatus status, Pageable pageable);
+
+    long countByStatus(DeadLetterStatus status);
+
+    //Remove até :limit entradas do status cuja última tentativa foi antes de :before (lotes curtos, sem travar a tabela)
+    @Modifying
+    @Query(value = "DELETE FROM tb_dead_letter WHERE id IN (" +
+            "SELECT id FROM tb_dead_letter WHERE status = :status AND next_attempt_at < :before " +
+            "ORDER BY next_attempt_at LIMIT :limit)", nativeQuery = true)
+    int deleteBatch(@Param("status") String status,
+                    @Param("before") LocalDateTime before,
+                    @Param("limit") int limit);
+
+    @Query("SELECT MIN(d.createdAt) FROM DeadLetterEntry d")
+    LocalDateTime findOldestCreatedAt();
+
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterTypeCount(d.taskType, COUNT(d)) " +
+            "FROM DeadLetterEntry d GROUP BY d.taskType ORDER BY COUNT(d) DESC")
+    List<DeadLetterTypeCount> countByTaskType();
+}
@@ -0,0 +1,38 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.EmailOutboxMessage;
+import dev.gamified.GamifiedPlatform.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /*
+     * Trava os próximos emails vencidos; SKIP LOCKED deixa cada worker (de qualquer nó) com um lote diferente.
+     * Deve rodar dentro de uma transação, que só dura o tempo de marcar o claim.
+     */
+    @Query(value = "SELECT * FROM tb_email_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    //Remove até :limit emails do status cuja última tentativa foi antes de :before (lotes curtos, sem travar a tabela)
+    @Modifying
+    @Query(value = "DELETE FROM tb_email_outbox WHERE id IN (" +
+            "SELECT id FROM tb_email_outbox WHERE status = :status AND next_attempt_at < :before " +
+            "ORDER BY next_attempt_at LIMIT :limit)", nativeQuery = true)
+    int deleteBatch(@Param("status") String status,
+                    @Param("before") LocalDateTime before,
+                    @Param("limit") int limit);
+}
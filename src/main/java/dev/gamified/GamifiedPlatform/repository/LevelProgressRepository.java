@@ -0,0 +1,22 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.LevelProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LevelProgressRepository extends JpaRepository<LevelProgress, LevelProgress.Key> {
+
+    //Upsert atômico do delta de uma faixa do histograma, na transação de quem chamou
+    @Modifying
+    @Query(value = "INSERT INTO tb_level_progress (level_id, completed_missions, users, updated_at) " +
+            "VALUES (:levelId, :completedMissions, :users, NOW()) " +
+            "ON CONFLICT (level_id, completed_missions) DO UPDATE SET " +
+            "users = tb_level_progress.users + EXCLUDED.users, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int increment(@Param("levelId") Long levelId, @Param("completedMissions") int completedMissions,
+                  @Param("users") long users);
+}
@@ -28,6 +28,9 @@ public interface LevelRepository extends JpaRepository<Levels, Long> {
 
     Optional<Levels> findTopByOrderLevelLessThanEqualOrderByOrderLevelDesc(Integer orderLevel);
 
+    @Query("SELECT l.orderLevel FROM Levels l ORDER BY l.orderLevel ASC")
+    List<Integer> findAllOrderLevels();
+
     @Query("SELECT l FROM Levels l WHERE l.orderLevel IN :orderLevels")
     List<Levels> findAllByOrderLevelIn(@Param("orderLevels") Set<Integer> orderLevels);
 }
@@ -0,0 +1,21 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.LevelStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LevelStatsRepository extends JpaRepository<LevelStats, Long> {
+
+    //Upsert atômico do delta, na transação de quem chamou
+    @Modifying
+    @Query(value = "INSERT INTO tb_level_stats (level_id, distinct_users, updated_at) " +
+            "VALUES (:levelId, :distinctUsers, NOW()) " +
+            "ON CONFLICT (level_id) DO UPDATE SET " +
+            "distinct_users = tb_level_stats.distinct_users + EXCLUDED.distinct_users, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int increment(@Param("levelId") Long levelId, @Param("distinctUsers") long distinctUsers);
+}
@@ -0,0 +1,45 @@
+package dev.gamified.GamifiedPlatform.repository;
+
+import dev.gamified.GamifiedPlatform.domain.MissionStats;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatsRow;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MissionStatsRepository extends JpaRepository<MissionStats, Long> {
+
+    /*
+     * Soma os deltas aos contadores da missão (cria a linha se não existir).
+     * O upsert é atômico e roda na transação de quem chamou: some junto com o rollback da mudança de status.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_mission_stats (mission_id, attempts, completed, failed, updated_at) " +
+            "VALUES (:missionId, :attempts, :completed, :failed, NOW()) " +
+            "ON CONFLICT (mission_id) DO UPDATE SET " +
+            "attempts = tb_mission_stats.attempts + EXCLUDED.attempts, " +
+            "completed = tb_mission_stats.completed + EXCLUDED.completed, " +
+            "failed = tb_mission_stats.failed + EXCLUDED.failed, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int increment(@Param("missionId") Long missionId, @Param("attempts") long attempts,
+                  @Param("completed") long completed, @Param("failed") long failed);
+
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram(" +
+           "m.id, m.title, s.attempts, s.completed, s.failed) " +
+           "FROM MissionStats s JOIN Mission m ON m.id = s.missionId " +
+           "WHERE s.attempts > 0 " +
+           "ORDER BY m.id")
+    List<MissionStatusHistogram> findHistograms();
+
+    //Todas as missões, em ordem de nível e de missão, com zeros para as que nunca foram iniciadas
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatsRow(" +
+           "m.id, m.title, l.id, l.name, COALESCE(s.attempts, 0L), COALESCE(s.completed, 0L), COALESCE(s.failed, 0L)) " +
+           "FROM Mission m JOIN m.level l LEFT JOIN MissionStats s ON s.missionId = m.id " +
+           "ORDER BY l.orderLevel, m.orderNumber")
+    List<MissionStatsRow> findAllRows();
+}
@@ -1,12 +1,17 @@
 package dev.gamified.GamifiedPlatform.repository;
 
 import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingFallbackRow;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingInfo;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingScoreRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +20,25 @@ public interface PlayerCharacterRepository extends JpaRepository<PlayerCharacter
 
     Optional<PlayerCharacter> findByUserId(Long userId);
 
-    @Query("SELECT pc FROM PlayerCharacter pc LEFT JOIN FETCH pc.user WHERE pc.id IN :ids")
-    List<PlayerCharacter> findAllByIdInWithUser(@Param("ids") List<Long> ids);
+    //Projeção das linhas do ranking: só as colunas exibidas, sem entidades gerenciadas nem carregar os scopes do User
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow(pc.id, u.id, u.username, pc.name) " +
+            "FROM PlayerCharacter pc JOIN pc.user u WHERE pc.id IN :ids")
+    List<RankingCharacterRow> findRankingRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //Página do ranking direto no banco (modo degradado): mesma ordem dos ZSETs, apoiada em idx_player_character_ranking
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingFallbackRow(" +
+            "pc.id, u.id, u.username, pc.name, pc.level, pc.xp) " +
+            "FROM PlayerCharacter pc JOIN pc.user u " +
+            "ORDER BY pc.level DESC, pc.xp DESC, pc.xpAchievedAt ASC, pc.id ASC")
+    List<RankingFallbackRow> findRankingPage(Pageable pageable);
+
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingFallbackRow(" +
+            "pc.id, u.id, u.username, pc.name, pc.level, pc.xp) " +
+            "FROM PlayerCharacter pc JOIN pc.user u WHERE pc.level = :level " +
+            "ORDER BY pc.xp DESC, pc.xpAchievedAt ASC, pc.id ASC")
+    List<RankingFallbackRow> findRankingPageByLevel(@Param("level") Integer level, Pageable pageable);
+
+    long countByLevel(Integer level);
 
     @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingInfo(" +
             "  (SELECT COUNT(pc) + 1 FROM PlayerCharacter pc " +
@@ -24,4 +46,9 @@ public interface PlayerCharacterRepository extends JpaRepository<PlayerCharacter
             "  (SELECT COUNT(pc2) FROM PlayerCharacter pc2)) " +
             "FROM PlayerCharacter p WHERE p.id = :id")
     RankingInfo findPlayerPosition(@Param("id") Long id);
+
+    //Paginação por keyset (id > lastId): custo constante por página, sem OFFSET
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingScoreRow(pc.id, pc.level, pc.xp, pc.xpAchievedAt) " +
+            "FROM PlayerCharacter pc WHERE pc.id > :lastId ORDER BY pc.id ASC")
+    List<RankingScoreRow> findRankingScoresAfter(@Param("lastId") Long lastId, Pageable pageable);
 }
@@ -11,21 +11,44 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/*
+ * tb_security_audit_log é particionada por mês em timestamp: todas as consultas recebem um intervalo
+ * [from, to) para que o Postgres leia apenas as partições do período, em vez do histórico inteiro.
+ */
 @Repository
 public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditLog, Long> {
 
-    Page<SecurityAuditLog> findByUserIdOrderByTimestampDesc(Long userId, Pageable pageable);
-
-    Page<SecurityAuditLog> findByEventTypeOrderByTimestampDesc(String eventType, Pageable pageable);
-
-    Page<SecurityAuditLog> findBySeverityOrderByTimestampDesc(String severity, Pageable pageable);
-
-    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.timestamp BETWEEN :start AND :end ORDER BY sal.timestamp DESC")
-    List<SecurityAuditLog> findByTimestampBetween(@Param("start") LocalDateTime start,
-                                                    @Param("end") LocalDateTime end);
-
-    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.userId = :userId AND sal.eventType = :eventType ORDER BY sal.timestamp DESC")
-    List<SecurityAuditLog> findByUserIdAndEventType(@Param("userId") Long userId,
-                                                      @Param("eventType") String eventType);
+    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.userId = :userId " +
+            "AND sal.timestamp >= :from AND sal.timestamp < :to ORDER BY sal.timestamp DESC")
+    Page<SecurityAuditLog> findByUserIdInPeriod(@Param("userId") Long userId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+
+    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.eventType = :eventType " +
+            "AND sal.timestamp >= :from AND sal.timestamp < :to ORDER BY sal.timestamp DESC")
+    Page<SecurityAuditLog> findByEventTypeInPeriod(@Param("eventType") String eventType,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   Pageable pageable);
+
+    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.severity = :severity " +
+            "AND sal.timestamp >= :from AND sal.timestamp < :to ORDER BY sal.timestamp DESC")
+    Page<SecurityAuditLog> findBySeverityInPeriod(@Param("severity") String severity,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
+
+    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.timestamp >= :from AND sal.timestamp < :to " +
+            "ORDER BY sal.timestamp DESC")
+    Page<SecurityAuditLog> findInPeriod(@Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    @Query("SELECT sal FROM SecurityAuditLog sal WHERE sal.userId = :userId AND sal.eventType = :eventType " +
+            "AND sal.timestamp >= :from AND sal.timestamp < :to ORDER BY sal.timestamp DESC")
+    List<SecurityAuditLog> findByUserIdAndEventTypeInPeriod(@Param("userId") Long userId,
+                                                            @Param("eventType") String eventType,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
 }
-
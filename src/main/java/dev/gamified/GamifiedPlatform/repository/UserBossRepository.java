@@ -1,6 +1,7 @@
 package dev.gamified.GamifiedPlatform.repository;
 
 import dev.gamified.GamifiedPlatform.domain.UserBoss;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
 import dev.gamified.GamifiedPlatform.enums.BossFightStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,14 +39,15 @@ public interface UserBossRepository extends JpaRepository<UserBoss, Long> {
            "ORDER BY ub.evaluatedAt DESC")
     Page<UserBoss> findEvaluationsByMentor(@Param("mentorId") Long mentorId, Pageable pageable);
 
-    @Query("SELECT COUNT(ub) FROM UserBoss ub WHERE ub.boss.id = :bossId")
-    Long countByBossId(@Param("bossId") Long bossId);
-
-    @Query("SELECT COUNT(ub) FROM UserBoss ub WHERE ub.boss.id = :bossId AND ub.status = 'DEFEATED'")
-    Long countDefeatedByBossId(@Param("bossId") Long bossId);
-
-    @Query("SELECT COUNT(ub) FROM UserBoss ub WHERE ub.boss.id = :bossId AND ub.status = 'FAILED'")
-    Long countFailedByBossId(@Param("bossId") Long bossId);
+    //Histograma de status por boss em uma única passada (GROUP BY + FILTER), base da reconciliação de tb_boss_stats
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram(" +
+           "b.id, b.name, COUNT(ub) FILTER (WHERE ub.startedAt IS NOT NULL), " +
+           "COUNT(ub) FILTER (WHERE ub.status = dev.gamified.GamifiedPlatform.enums.BossFightStatus.DEFEATED), " +
+           "COUNT(ub) FILTER (WHERE ub.status = dev.gamified.GamifiedPlatform.enums.BossFightStatus.FAILED)) " +
+           "FROM UserBoss ub JOIN ub.boss b " +
+           "GROUP BY b.id, b.name " +
+           "ORDER BY b.id")
+    List<BossStatusHistogram> findStatusHistogramByBoss();
 
     @Query("SELECT COUNT(ub) FROM UserBoss ub WHERE ub.status IN ('LOCKED', 'UNLOCKED')")
     Long countUndefeatedBosses();
@@ -1,6 +1,9 @@
 package dev.gamified.GamifiedPlatform.repository;
 
 import dev.gamified.GamifiedPlatform.domain.UserMission;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelProgressCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelUserCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
 import dev.gamified.GamifiedPlatform.enums.MissionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,7 +33,7 @@ public interface UserMissionRepository extends JpaRepository<UserMission, Long>
     @Query("SELECT COUNT(um) FROM UserMission um " +
            "WHERE um.user.id = :userId " +
            "AND um.mission.level.id = :levelId " +
-           "AND um.status = 'CONCLUIDA'")
+           "AND um.status = dev.gamified.GamifiedPlatform.enums.MissionStatus.COMPLETED")
     Long countCompletedMissionsByUserAndLevel(@Param("userId") Long userId,
                                                 @Param("levelId") Long levelId);
 
@@ -49,17 +52,38 @@ public interface UserMissionRepository extends JpaRepository<UserMission, Long>
            "ORDER BY um.evaluatedAt DESC")
     Page<UserMission> findAllEvaluatedByMentor(@Param("mentorId") Long mentorId, Pageable pageable);
 
-    @Query("SELECT COUNT(um) FROM UserMission um WHERE um.mission.id = :missionId")
-    Long countByMissionId(@Param("missionId") Long missionId);
+    //Histograma de status por missão em uma única passada (GROUP BY + FILTER), base da reconciliação de tb_mission_stats
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram(" +
+           "m.id, m.title, COUNT(um) FILTER (WHERE um.startedAt IS NOT NULL), " +
+           "COUNT(um) FILTER (WHERE um.status = dev.gamified.GamifiedPlatform.enums.MissionStatus.COMPLETED), " +
+           "COUNT(um) FILTER (WHERE um.status = dev.gamified.GamifiedPlatform.enums.MissionStatus.FAILED)) " +
+           "FROM UserMission um JOIN um.mission m " +
+           "GROUP BY m.id, m.title " +
+           "ORDER BY m.id")
+    List<MissionStatusHistogram> findStatusHistogramByMission();
+
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.LevelUserCount(" +
+           "m.level.id, COUNT(DISTINCT um.user.id)) " +
+           "FROM UserMission um JOIN um.mission m " +
+           "WHERE um.startedAt IS NOT NULL " +
+           "GROUP BY m.level.id")
+    List<LevelUserCount> countStartedUsersByLevel();
+
+    //Histograma de progresso por nível em uma passada: missões concluídas por usuário, depois usuários por contagem
+    @Query("SELECT new dev.gamified.GamifiedPlatform.dtos.response.admin.LevelProgressCount(" +
+           "p.levelId, p.completed, COUNT(*)) " +
+           "FROM (SELECT m.level.id AS levelId, um.user.id AS userId, " +
+           "CAST(COUNT(um) FILTER (WHERE um.status = dev.gamified.GamifiedPlatform.enums.MissionStatus.COMPLETED) AS Integer) AS completed " +
+           "FROM UserMission um JOIN um.mission m " +
+           "WHERE um.startedAt IS NOT NULL " +
+           "GROUP BY m.level.id, um.user.id) p " +
+           "GROUP BY p.levelId, p.completed")
+    List<LevelProgressCount> findProgressHistogramByLevel();
+
+    @Query("SELECT COUNT(um) > 0 FROM UserMission um " +
+           "WHERE um.user.id = :userId AND um.mission.level.id = :levelId AND um.startedAt IS NOT NULL")
+    boolean hasStartedMissionInLevel(@Param("userId") Long userId, @Param("levelId") Long levelId);
 
-    @Query("SELECT COUNT(um) FROM UserMission um WHERE um.mission.id = :missionId AND um.status = 'COMPLETED'")
-    Long countCompletedByMissionId(@Param("missionId") Long missionId);
-
-    @Query("SELECT COUNT(um) FROM UserMission um WHERE um.mission.id = :missionId AND um.status = 'FAILED'")
-    Long countFailedByMissionId(@Param("missionId") Long missionId);
-
-    @Query("SELECT COUNT(DISTINCT um.user.id) FROM UserMission um WHERE um.mission.level.id = :levelId")
-    Long countDistinctUsersByLevelId(@Param("levelId") Long levelId);
     @Query("SELECT um FROM UserMission um " +
            "WHERE um.evaluatedBy IS NOT NULL " +
            "ORDER BY um.evaluatedAt DESC")
@@ -0,0 +1,184 @@
+package dev.gamified.GamifiedPlatform.services.admin;
+
+import dev.gamified.GamifiedPlatform.domain.BossStats;
+import dev.gamified.GamifiedPlatform.domain.LevelProgress;
+import dev.gamified.GamifiedPlatform.domain.LevelStats;
+import dev.gamified.GamifiedPlatform.domain.MissionStats;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelProgressCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelUserCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
+import dev.gamified.GamifiedPlatform.repository.*;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/*
+ * Corrige à noite qualquer divergência dos contadores materializados e do histograma de progresso dos níveis
+ * (exclusões em cascata, linhas alteradas fora dos serviços, bugs), recalculando-os a partir de
+ * tb_user_missions e tb_user_bosses.
+ *
+ * Verdade e contadores são lidos na mesma foto (REPEATABLE READ), e a correção é aplicada como delta
+ * pelo mesmo upsert do AdminStatsRecorder: incrementos confirmados durante a reconciliação não são perdidos.
+ */
+@Service
+@Slf4j
+public class AdminStatsReconciliationJob {
+
+    static final String LEASE_NAME = "admin-stats-reconciliation";
+
+    private final UserMissionRepository userMissionRepository;
+    private final UserBossRepository userBossRepository;
+    private final MissionStatsRepository missionStatsRepository;
+    private final BossStatsRepository bossStatsRepository;
+    private final LevelStatsRepository levelStatsRepository;
+    private final LevelProgressRepository levelProgressRepository;
+    private final ClusterLeaseService clusterLeaseService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate snapshot;
+    private final TransactionTemplate transactionTemplate;
+
+    public AdminStatsReconciliationJob(UserMissionRepository userMissionRepository,
+                                       UserBossRepository userBossRepository,
+                                       MissionStatsRepository missionStatsRepository,
+                                       BossStatsRepository bossStatsRepository,
+                                       LevelStatsRepository levelStatsRepository,
+                                       LevelProgressRepository levelProgressRepository,
+                                       ClusterLeaseService clusterLeaseService,
+                                       MeterRegistry meterRegistry,
+                                       PlatformTransactionManager transactionManager) {
+        this.userMissionRepository = userMissionRepository;
+        this.userBossRepository = userBossRepository;
+        this.missionStatsRepository = missionStatsRepository;
+        this.bossStatsRepository = bossStatsRepository;
+        this.levelStatsRepository = levelStatsRepository;
+        this.levelProgressRepository = levelProgressRepository;
+        this.clusterLeaseService = clusterLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshot.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Executa diariamente às 4:30 da manhã, em apenas um nó do cluster
+    @Scheduled(cron = "${admin.stats.reconciliation.cron:0 30 4 * * ?}")
+    public void scheduledReconciliation() {
+        clusterLeaseService.runExclusively(LEASE_NAME, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                lease -> reconcile());
+    }
+
+    //Retorna quantas linhas de contadores precisaram de correção
+    int reconcile() {
+        Corrections corrections = snapshot.execute(status -> computeCorrections());
+        if (corrections == null || corrections.isEmpty()) {
+            log.info("Admin stats reconciled: no drift");
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            corrections.missions().forEach(d ->
+                    missionStatsRepository.increment(d.id(), d.attempts(), d.succeeded(), d.failed()));
+            corrections.bosses().forEach(d ->
+                    bossStatsRepository.increment(d.id(), d.attempts(), d.succeeded(), d.failed()));
+            // Em níveis, a primeira posição do delta é distinct_users
+            corrections.levels().forEach(d ->
+                    levelStatsRepository.increment(d.id(), d.attempts()));
+            corrections.progress().forEach((key, users) ->
+                    levelProgressRepository.increment(key.getLevelId(), key.getCompletedMissions(), users));
+        });
+
+        meterRegistry.counter("admin.stats.reconcile.corrections", "table", "mission")
+                .increment(corrections.missions().size());
+        meterRegistry.counter("admin.stats.reconcile.corrections", "table", "boss")
+                .increment(corrections.bosses().size());
+        meterRegistry.counter("admin.stats.reconcile.corrections", "table", "level")
+                .increment(corrections.levels().size());
+        meterRegistry.counter("admin.stats.reconcile.corrections", "table", "level_progress")
+                .increment(corrections.progress().size());
+        log.warn("Admin stats drift corrected: {} missions, {} bosses, {} levels, {} level progress buckets",
+                corrections.missions().size(), corrections.bosses().size(), corrections.levels().size(),
+                corrections.progress().size());
+        return corrections.size();
+    }
+
+    private Corrections computeCorrections() {
+        Map<Long, long[]> missions = new HashMap<>();
+        for (MissionStatusHistogram h : userMissionRepository.findStatusHistogramByMission()) {
+            add(missions, h.missionId(), h.total(), h.completed(), h.failed());
+        }
+        for (MissionStats s : missionStatsRepository.findAll()) {
+            add(missions, s.getMissionId(), -s.getAttempts(), -s.getCompleted(), -s.getFailed());
+        }
+
+        Map<Long, long[]> bosses = new HashMap<>();
+        for (BossStatusHistogram h : userBossRepository.findStatusHistogramByBoss()) {
+            add(bosses, h.bossId(), h.total(), h.defeated(), h.failed());
+        }
+        for (BossStats s : bossStatsRepository.findAll()) {
+            add(bosses, s.getBossId(), -s.getAttempts(), -s.getDefeated(), -s.getFailed());
+        }
+
+        Map<Long, long[]> levels = new HashMap<>();
+        for (LevelUserCount c : userMissionRepository.countStartedUsersByLevel()) {
+            add(levels, c.levelId(), c.users(), 0, 0);
+        }
+        for (LevelStats s : levelStatsRepository.findAll()) {
+            add(levels, s.getLevelId(), -s.getDistinctUsers(), 0, 0);
+        }
+
+        Map<LevelProgress.Key, Long> progress = new TreeMap<>(Comparator
+                .comparing(LevelProgress.Key::getLevelId)
+                .thenComparing(LevelProgress.Key::getCompletedMissions));
+        for (LevelProgressCount c : userMissionRepository.findProgressHistogramByLevel()) {
+            progress.merge(new LevelProgress.Key(c.levelId(), c.completedMissions()), c.users(), Long::sum);
+        }
+        for (LevelProgress p : levelProgressRepository.findAll()) {
+            progress.merge(new LevelProgress.Key(p.getLevelId(), p.getCompletedMissions()), -p.getUsers(), Long::sum);
+        }
+        progress.values().removeIf(delta -> delta == 0);
+
+        return new Corrections(nonZero(missions), nonZero(bosses), nonZero(levels), progress);
+    }
+
+    private static void add(Map<Long, long[]> deltas, Long id, long attempts, long succeeded, long failed) {
+        long[] delta = deltas.computeIfAbsent(id, key -> new long[3]);
+        delta[0] += attempts;
+        delta[1] += succeeded;
+        delta[2] += failed;
+    }
+
+    private static List<Delta> nonZero(Map<Long, long[]> deltas) {
+        List<Delta> result = new ArrayList<>();
+        deltas.forEach((id, d) -> {
+            if (d[0] != 0 || d[1] != 0 || d[2] != 0) {
+                result.add(new Delta(id, d[0], d[1], d[2]));
+            }
+        });
+        result.sort(Comparator.comparing(Delta::id));
+        return result;
+    }
+
+    private record Delta(Long id, long attempts, long succeeded, long failed) {
+    }
+
+    private record Corrections(List<Delta> missions, List<Delta> bosses, List<Delta> levels,
+                               Map<LevelProgress.Key, Long> progress) {
+
+        int size() {
+            return missions.size() + bosses.size() + levels.size() + progress.size();
+        }
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.gamified.GamifiedPlatform.services.admin;
+
+import dev.gamified.GamifiedPlatform.domain.Mission;
+import dev.gamified.GamifiedPlatform.domain.UserBoss;
+import dev.gamified.GamifiedPlatform.domain.UserMission;
+import dev.gamified.GamifiedPlatform.enums.BossFightStatus;
+import dev.gamified.GamifiedPlatform.enums.MissionStatus;
+import dev.gamified.GamifiedPlatform.repository.BossStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelProgressRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.MissionStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+ * Mantém tb_mission_stats, tb_boss_stats, tb_level_stats e tb_level_progress a cada mudança de status relevante.
+ * Roda obrigatoriamente dentro da transação do serviço que muda o status: contadores e linha
+ * de UserMission/UserBoss são confirmados (ou desfeitos) juntos.
+ *
+ * Os contadores espelham o estado atual das linhas, como o AdminStatsReconciliationJob recalcula:
+ *  - attempts: linhas já iniciadas (primeiro start);
+ *  - completed/defeated e failed: linhas nesse status (recomeçar após FAILED decrementa failed);
+ *  - tb_level_progress: o usuário entra na faixa 0 ao iniciar a primeira missão do nível
+ *    e sobe uma faixa a cada missão do nível aprovada.
+ * Os métodos de start devem ser chamados antes de alterar a entidade.
+ *
+ * Ordem de lock fixa em todos os métodos, para que transações concorrentes não se travem em deadlock:
+ * tb_mission_stats -> tb_level_stats -> tb_level_progress (faixas em ordem crescente).
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class AdminStatsRecorder {
+
+    private final MissionStatsRepository missionStatsRepository;
+    private final BossStatsRepository bossStatsRepository;
+    private final LevelStatsRepository levelStatsRepository;
+    private final LevelProgressRepository levelProgressRepository;
+    private final UserMissionRepository userMissionRepository;
+
+    public void missionStarting(UserMission userMission) {
+        Mission mission = userMission.getMission();
+        boolean firstAttempt = userMission.getStartedAt() == null;
+        long failed = userMission.getStatus() == MissionStatus.FAILED ? -1 : 0;
+
+        if (firstAttempt || failed != 0) {
+            missionStatsRepository.increment(mission.getId(), firstAttempt ? 1 : 0, 0, failed);
+        }
+
+        if (firstAttempt) {
+            Long userId = userMission.getUser().getId();
+            Long levelId = mission.getLevel().getId();
+            if (!userMissionRepository.hasStartedMissionInLevel(userId, levelId)) {
+                levelStatsRepository.increment(levelId, 1);
+                levelProgressRepository.increment(levelId, 0, 1);
+            }
+        }
+    }
+
+    //Deve ser chamado depois de a entidade receber o novo status
+    public void missionEvaluated(UserMission userMission, boolean approved) {
+        Mission mission = userMission.getMission();
+        missionStatsRepository.increment(mission.getId(), 0, approved ? 1 : 0, approved ? 0 : 1);
+
+        if (approved) {
+            // A consulta dispara o flush automático, então a contagem já inclui esta missão
+            Long levelId = mission.getLevel().getId();
+            int completed = userMissionRepository
+                    .countCompletedMissionsByUserAndLevel(userMission.getUser().getId(), levelId).intValue();
+            levelProgressRepository.increment(levelId, completed - 1, -1);
+            levelProgressRepository.increment(levelId, completed, 1);
+        }
+    }
+
+    public void bossFightStarting(UserBoss userBoss) {
+        boolean firstAttempt = userBoss.getStartedAt() == null;
+        long failed = userBoss.getStatus() == BossFightStatus.FAILED ? -1 : 0;
+
+        if (firstAttempt || failed != 0) {
+            bossStatsRepository.increment(userBoss.getBoss().getId(), firstAttempt ? 1 : 0, 0, failed);
+        }
+    }
+
+    public void bossFightEvaluated(UserBoss userBoss, boolean approved) {
+        bossStatsRepository.increment(userBoss.getBoss().getId(), 0, approved ? 1 : 0, approved ? 0 : 1);
+    }
+}
@@ -1,100 +1,194 @@
 package dev.gamified.GamifiedPlatform.services.admin;
 
 import dev.gamified.GamifiedPlatform.constants.BusinessConstants;
-import dev.gamified.GamifiedPlatform.domain.Mission;
-import dev.gamified.GamifiedPlatform.domain.Boss;
 import dev.gamified.GamifiedPlatform.dtos.response.admin.AdminDashboardResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
 import dev.gamified.GamifiedPlatform.repository.*;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/*
+ * Monta o dashboard disparando as consultas independentes em paralelo: a latência fica próxima
+ * da consulta mais lenta, não da soma de todas.
+ *
+ * - Cada consulta roda em uma thread própria (virtual no JDK 21+), com a própria transação somente leitura
+ *   dos repositórios; um semáforo global limita quantas ocupam conexões do pool ao mesmo tempo.
+ * - A requisição reserva de uma vez as permissões de todas as suas consultas (no máximo
+ *   admin.dashboard.permit-timeout de espera, senão 503), então elas rodam numa única leva; cada consulta
+ *   devolve a sua ao terminar. Por isso max-concurrent-queries não pode ser menor que QUERIES.
+ * - Todas compartilham o prazo admin.dashboard.query-timeout, contado depois da reserva: a espera pela
+ *   permissão não consome o tempo das consultas. A que não terminar a tempo (ou falhar)
+ *   vira um campo nulo e entra em unavailableSections, com partial = true, em vez de derrubar o dashboard.
+ *   A consulta atrasada não é interrompida no banco; o resultado dela é apenas descartado.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class GetAdminDashboardService {
 
+    private static final int VIRTUAL_THREADS_MIN_JDK = 21;
+    static final int QUERIES = 8;
+
     private final UserRepository userRepository;
     private final MissionRepository missionRepository;
     private final BossRepository bossRepository;
     private final LevelRepository levelRepository;
     private final BadgeRepository badgeRepository;
-    private final UserMissionRepository userMissionRepository;
-    private final UserBossRepository userBossRepository;
+    private final MissionStatsRepository missionStatsRepository;
+    private final BossStatsRepository bossStatsRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration queryTimeout;
+    private final Duration permitTimeout;
+    private final Semaphore permits;
+    private final SimpleAsyncTaskExecutor executor;
+
+    public GetAdminDashboardService(UserRepository userRepository,
+                                    MissionRepository missionRepository,
+                                    BossRepository bossRepository,
+                                    LevelRepository levelRepository,
+                                    BadgeRepository badgeRepository,
+                                    MissionStatsRepository missionStatsRepository,
+                                    BossStatsRepository bossStatsRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${admin.dashboard.query-timeout:2s}") Duration queryTimeout,
+                                    @Value("${admin.dashboard.permit-timeout:500ms}") Duration permitTimeout,
+                                    @Value("${admin.dashboard.max-concurrent-queries:8}") int maxConcurrentQueries) {
+        if (maxConcurrentQueries < QUERIES) {
+            throw new IllegalStateException("admin.dashboard.max-concurrent-queries must be at least " + QUERIES);
+        }
+        this.userRepository = userRepository;
+        this.missionRepository = missionRepository;
+        this.bossRepository = bossRepository;
+        this.levelRepository = levelRepository;
+        this.badgeRepository = badgeRepository;
+        this.missionStatsRepository = missionStatsRepository;
+        this.bossStatsRepository = bossStatsRepository;
+        this.meterRegistry = meterRegistry;
+        this.queryTimeout = queryTimeout;
+        this.permitTimeout = permitTimeout;
+        this.permits = new Semaphore(maxConcurrentQueries);
+        this.executor = new SimpleAsyncTaskExecutor("admin-dashboard-");
+        if (Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JDK) {
+            this.executor.setVirtualThreads(true);
+        }
+    }
 
-    @Transactional(readOnly = true)
     public AdminDashboardResponse execute() {
         log.info("Fetching admin dashboard data");
-
-        Long totalUsers = userRepository.count();
-        Long activeUsers = userRepository.countActiveUsers();
-        Long totalMissions = missionRepository.count();
-        Long totalBosses = bossRepository.count();
-        Long totalLevels = levelRepository.count();
-        Long totalBadges = badgeRepository.count();
-
-        Double averageCompletionRate = calculateAverageCompletionRate();
-        AdminDashboardResponse.MissionDifficultyStats hardestMission = getHardestMission();
-        AdminDashboardResponse.BossDefeatedStats undefeatedBoss = getMostUndefeatedBoss();
+        acquirePermits();
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+
+        CompletableFuture<Long> totalUsers = fork(userRepository::count);
+        CompletableFuture<Long> activeUsers = fork(userRepository::countActiveUsers);
+        CompletableFuture<Long> totalMissions = fork(missionRepository::count);
+        CompletableFuture<Long> totalBosses = fork(bossRepository::count);
+        CompletableFuture<Long> totalLevels = fork(levelRepository::count);
+        CompletableFuture<Long> totalBadges = fork(badgeRepository::count);
+        // Contadores materializados (AdminStatsRecorder): uma leitura por tabela, sem agregar tb_user_missions
+        CompletableFuture<List<MissionStatusHistogram>> missionHistograms = fork(missionStatsRepository::findHistograms);
+        CompletableFuture<List<BossStatusHistogram>> bossHistograms = fork(bossStatsRepository::findHistograms);
+
+        List<String> unavailable = new ArrayList<>();
+        List<MissionStatusHistogram> missions = join("missionStats", missionHistograms, deadline, unavailable);
+        List<BossStatusHistogram> bosses = join("bossStats", bossHistograms, deadline, unavailable);
 
         return AdminDashboardResponse.builder()
-                .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .totalMissions(totalMissions)
-                .totalBosses(totalBosses)
-                .totalLevels(totalLevels)
-                .totalBadges(totalBadges)
-                .averageCompletionRate(averageCompletionRate)
-                .missionDifficultyStats(hardestMission)
-                .bossDefeatedStats(undefeatedBoss)
+                .totalUsers(join("totalUsers", totalUsers, deadline, unavailable))
+                .activeUsers(join("activeUsers", activeUsers, deadline, unavailable))
+                .totalMissions(join("totalMissions", totalMissions, deadline, unavailable))
+                .totalBosses(join("totalBosses", totalBosses, deadline, unavailable))
+                .totalLevels(join("totalLevels", totalLevels, deadline, unavailable))
+                .totalBadges(join("totalBadges", totalBadges, deadline, unavailable))
+                .averageCompletionRate(missions != null ? calculateAverageCompletionRate(missions) : null)
+                .missionDifficultyStats(missions != null ? getHardestMission(missions) : null)
+                .bossDefeatedStats(bosses != null ? getMostUndefeatedBoss(bosses) : null)
+                .partial(!unavailable.isEmpty())
+                .unavailableSections(unavailable)
                 .build();
     }
 
-    private Double calculateAverageCompletionRate() {
-        List<Mission> allMissions = missionRepository.findAll();
-        if (allMissions.isEmpty()) {
-            return BusinessConstants.DEFAULT_RATE;
+    //Reserva uma permissão por consulta; cada fork devolve a sua quando a consulta termina
+    private void acquirePermits() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(QUERIES, permitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("No admin dashboard query permits available within {} ms", permitTimeout.toMillis());
+            meterRegistry.counter("admin.dashboard.permit.timeouts").increment();
+            throw new DownstreamSaturatedException(Downstream.DATABASE);
         }
+    }
 
-        double totalCompletionRate = BusinessConstants.DEFAULT_RATE;
-        int missionCount = 0;
-
-        for (Mission mission : allMissions) {
-            Long totalAttempts = userMissionRepository.countByMissionId(mission.getId());
-            if (totalAttempts > 0) {
-                Long completed = userMissionRepository.countCompletedByMissionId(mission.getId());
-                double completionRate = (completed.doubleValue() / totalAttempts) * BusinessConstants.PERCENTAGE_MULTIPLIER;
-                totalCompletionRate += completionRate;
-                missionCount++;
+    private <T> CompletableFuture<T> fork(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.get();
+            } finally {
+                permits.release();
             }
+        }, executor);
+    }
+
+    private <T> T join(String section, CompletableFuture<T> future, long deadline, List<String> unavailable) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Admin dashboard query '{}' exceeded {} ms, returning partial result",
+                    section, queryTimeout.toMillis());
+            meterRegistry.counter("admin.dashboard.query.timeouts", "section", section).increment();
+        } catch (ExecutionException e) {
+            log.warn("Admin dashboard query '{}' failed: {}", section, e.getCause().getMessage());
+            meterRegistry.counter("admin.dashboard.query.failures", "section", section).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        unavailable.add(section);
+        return null;
+    }
 
-        return missionCount > 0 ? totalCompletionRate / missionCount : BusinessConstants.DEFAULT_RATE;
+    @PreDestroy
+    void shutdown() {
+        executor.close();
     }
 
-    private AdminDashboardResponse.MissionDifficultyStats getHardestMission() {
-        List<Mission> allMissions = missionRepository.findAll();
+    private Double calculateAverageCompletionRate(List<MissionStatusHistogram> missions) {
+        if (missions.isEmpty()) {
+            return BusinessConstants.DEFAULT_RATE;
+        }
+
+        double totalCompletionRate = BusinessConstants.DEFAULT_RATE;
+        for (MissionStatusHistogram mission : missions) {
+            totalCompletionRate += percentage(mission.completed(), mission.total());
+        }
+        return totalCompletionRate / missions.size();
+    }
 
-        Mission hardest = null;
+    private AdminDashboardResponse.MissionDifficultyStats getHardestMission(List<MissionStatusHistogram> missions) {
+        MissionStatusHistogram hardest = null;
         double highestFailureRate = BusinessConstants.INITIAL_FAILURE_RATE;
-        long maxFailedAttempts = 0L;
-        long maxTotalAttempts = 0L;
-
-        for (Mission mission : allMissions) {
-            Long totalAttempts = userMissionRepository.countByMissionId(mission.getId());
-            if (totalAttempts > 0) {
-                Long failed = userMissionRepository.countFailedByMissionId(mission.getId());
-                double failureRate = (failed.doubleValue() / totalAttempts) * BusinessConstants.PERCENTAGE_MULTIPLIER;
-
-                if (failureRate > highestFailureRate) {
-                    highestFailureRate = failureRate;
-                    hardest = mission;
-                    maxFailedAttempts = failed;
-                    maxTotalAttempts = totalAttempts;
-                }
+
+        for (MissionStatusHistogram mission : missions) {
+            double failureRate = percentage(mission.failed(), mission.total());
+            if (failureRate > highestFailureRate) {
+                highestFailureRate = failureRate;
+                hardest = mission;
             }
         }
 
@@ -103,34 +197,25 @@ public class GetAdminDashboardService {
         }
 
         return AdminDashboardResponse.MissionDifficultyStats.builder()
-                .missionId(hardest.getId())
-                .missionTitle(hardest.getTitle())
-                .totalAttempts(maxTotalAttempts)
-                .failedAttempts(maxFailedAttempts)
+                .missionId(hardest.missionId())
+                .missionTitle(hardest.missionTitle())
+                .totalAttempts(hardest.total())
+                .failedAttempts(hardest.failed())
                 .failureRate(highestFailureRate)
                 .build();
     }
 
-    private AdminDashboardResponse.BossDefeatedStats getMostUndefeatedBoss() {
-        List<Boss> allBosses = bossRepository.findAll();
-
-        Boss mostUndefeated = null;
+    private AdminDashboardResponse.BossDefeatedStats getMostUndefeatedBoss(List<BossStatusHistogram> bosses) {
+        BossStatusHistogram mostUndefeated = null;
         double lowestDefeatRate = BusinessConstants.INITIAL_DEFEAT_RATE;
         long minDefeated = Long.MAX_VALUE;
-        long maxTotalAttempts = 0L;
-
-        for (Boss boss : allBosses) {
-            Long totalAttempts = userBossRepository.countByBossId(boss.getId());
-            if (totalAttempts > 0) {
-                Long defeated = userBossRepository.countDefeatedByBossId(boss.getId());
-                double defeatRate = (defeated.doubleValue() / totalAttempts) * BusinessConstants.PERCENTAGE_MULTIPLIER;
-
-                if (defeatRate < lowestDefeatRate || (defeatRate == lowestDefeatRate && defeated < minDefeated)) {
-                    lowestDefeatRate = defeatRate;
-                    mostUndefeated = boss;
-                    minDefeated = defeated;
-                    maxTotalAttempts = totalAttempts;
-                }
+
+        for (BossStatusHistogram boss : bosses) {
+            double defeatRate = percentage(boss.defeated(), boss.total());
+            if (defeatRate < lowestDefeatRate || (defeatRate == lowestDefeatRate && boss.defeated() < minDefeated)) {
+                lowestDefeatRate = defeatRate;
+                mostUndefeated = boss;
+                minDefeated = boss.defeated();
             }
         }
 
@@ -139,11 +224,15 @@ public class GetAdminDashboardService {
         }
 
         return AdminDashboardResponse.BossDefeatedStats.builder()
-                .bossId(mostUndefeated.getId())
-                .bossName(mostUndefeated.getName())
-                .totalAttempts(maxTotalAttempts)
+                .bossId(mostUndefeated.bossId())
+                .bossName(mostUndefeated.bossName())
+                .totalAttempts(mostUndefeated.total())
                 .defeated(minDefeated)
                 .defeatRate(lowestDefeatRate)
                 .build();
     }
+
+    private static double percentage(Long part, Long total) {
+        return (part.doubleValue() / total) * BusinessConstants.PERCENTAGE_MULTIPLIER;
+    }
 }
@@ -1,10 +1,9 @@
 package dev.gamified.GamifiedPlatform.services.admin;
 
 import dev.gamified.GamifiedPlatform.constants.BusinessConstants;
-import dev.gamified.GamifiedPlatform.domain.Boss;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatsRow;
 import dev.gamified.GamifiedPlatform.dtos.response.bosses.BossStatsResponse;
-import dev.gamified.GamifiedPlatform.repository.BossRepository;
-import dev.gamified.GamifiedPlatform.repository.UserBossRepository;
+import dev.gamified.GamifiedPlatform.repository.BossStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,24 +19,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GetBossStatsService {
 
-    private final BossRepository bossRepository;
-    private final UserBossRepository userBossRepository;
+    private final BossStatsRepository bossStatsRepository;
 
     @Transactional(readOnly = true)
     public BossStatsResponse execute() {
         log.info("Fetching boss statistics");
 
-        List<Boss> allBosses = bossRepository.findAll();
+        // Contadores materializados: uma única leitura, sem consultas por boss
+        List<BossStatsRow> allBosses = bossStatsRepository.findAllRows();
         List<BossStatsResponse.BossStat> bossStats = new ArrayList<>();
 
         long totalAttempts = 0;
         double totalDefeatRate = BusinessConstants.DEFAULT_RATE;
         int bossCount = 0;
 
-        for (Boss boss : allBosses) {
-            Long attempts = userBossRepository.countByBossId(boss.getId());
-            Long defeats = userBossRepository.countDefeatedByBossId(boss.getId());
-            Long failures = userBossRepository.countFailedByBossId(boss.getId());
+        for (BossStatsRow boss : allBosses) {
+            Long attempts = boss.attempts();
+            Long defeats = boss.defeated();
+            Long failures = boss.failed();
 
             double defeatRate = attempts > 0 ? (defeats.doubleValue() / attempts) *
                     BusinessConstants.PERCENTAGE_MULTIPLIER : BusinessConstants.DEFAULT_RATE;
@@ -50,9 +49,9 @@ public class GetBossStatsService {
             bossCount++;
 
             bossStats.add(BossStatsResponse.BossStat.builder()
-                    .bossId(boss.getId())
-                    .bossName(boss.getName())
-                    .levelName(boss.getLevel().getName())
+                    .bossId(boss.bossId())
+                    .bossName(boss.bossName())
+                    .levelName(boss.levelName())
                     .totalAttempts(attempts)
                     .totalDefeats(defeats)
                     .totalFailures(failures)
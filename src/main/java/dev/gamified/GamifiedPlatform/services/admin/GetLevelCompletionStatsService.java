@@ -1,12 +1,15 @@
 package dev.gamified.GamifiedPlatform.services.admin;
 
 import dev.gamified.GamifiedPlatform.constants.BusinessConstants;
+import dev.gamified.GamifiedPlatform.domain.LevelProgress;
+import dev.gamified.GamifiedPlatform.domain.LevelStats;
 import dev.gamified.GamifiedPlatform.domain.Levels;
-import dev.gamified.GamifiedPlatform.domain.Mission;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatsRow;
 import dev.gamified.GamifiedPlatform.dtos.response.levels.LevelCompletionStatsResponse;
+import dev.gamified.GamifiedPlatform.repository.LevelProgressRepository;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
-import dev.gamified.GamifiedPlatform.repository.MissionRepository;
-import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.MissionStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +17,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,29 +26,36 @@ import java.util.List;
 public class GetLevelCompletionStatsService {
 
     private final LevelRepository levelRepository;
-    private final MissionRepository missionRepository;
-    private final UserMissionRepository userMissionRepository;
+    private final MissionStatsRepository missionStatsRepository;
+    private final LevelStatsRepository levelStatsRepository;
+    private final LevelProgressRepository levelProgressRepository;
 
     @Transactional(readOnly = true)
     public List<LevelCompletionStatsResponse> execute() {
         log.info("Fetching level completion statistics");
 
+        // Contadores materializados: quatro leituras no total, independente do número de níveis, missões e usuários
         List<Levels> allLevels = levelRepository.findAll();
+        Map<Long, List<MissionStatsRow>> missionsByLevel = missionStatsRepository.findAllRows().stream()
+                .collect(Collectors.groupingBy(MissionStatsRow::levelId));
+        Map<Long, Long> usersByLevel = levelStatsRepository.findAll().stream()
+                .collect(Collectors.toMap(LevelStats::getLevelId, LevelStats::getDistinctUsers));
+        Map<Long, List<LevelProgress>> progressByLevel = levelProgressRepository.findAll().stream()
+                .collect(Collectors.groupingBy(LevelProgress::getLevelId));
+
         List<LevelCompletionStatsResponse> stats = new ArrayList<>();
 
         for (Levels level : allLevels) {
-            Long totalMissions = missionRepository.countByLevelId(level.getId());
-            Long totalUsers = userMissionRepository.countDistinctUsersByLevelId(level.getId());
+            List<MissionStatsRow> missions = missionsByLevel.getOrDefault(level.getId(), List.of());
+            Long totalMissions = (long) missions.size();
+            Long totalUsers = usersByLevel.getOrDefault(level.getId(), 0L);
 
-            // Calcula usuários que completaram o nível (simplificado)
-            Long usersCompleted = 0L;
+            ProgressSummary progress = summarize(progressByLevel.getOrDefault(level.getId(), List.of()), totalMissions);
+            Long usersCompleted = progress.usersCompleted();
 
             Double completionRate = totalUsers > 0 ? (usersCompleted.doubleValue() / totalUsers) *
                     BusinessConstants.PERCENTAGE_MULTIPLIER : BusinessConstants.DEFAULT_RATE;
 
-            List<LevelCompletionStatsResponse.MissionStatsInLevel> missionStats =
-                    getMissionStatsForLevel(level.getId());
-
             stats.add(LevelCompletionStatsResponse.builder()
                     .levelId(level.getId())
                     .levelName(level.getName())
@@ -52,33 +64,60 @@ public class GetLevelCompletionStatsService {
                     .usersCompleted(usersCompleted)
                     .completionRate(completionRate)
                     .totalMissions(totalMissions)
-                    .averageProgress(BusinessConstants.DEFAULT_RATE)
-                    .missionStats(missionStats)
+                    .averageProgress(progress.averageProgress())
+                    .missionStats(toMissionStats(missions))
                     .build());
         }
 
         return stats;
     }
 
-    private List<LevelCompletionStatsResponse.MissionStatsInLevel> getMissionStatsForLevel(Long levelId) {
-        List<Mission> missions = missionRepository.findByLevelIdOrderByOrderNumberAsc(levelId);
+    /*
+     * Resume o histograma do nível (usuários por número de missões concluídas) em O(faixas):
+     * concluiu o nível quem tem todas as missões atuais concluídas; o progresso de cada usuário é
+     * concluídas / total de missões, limitado a 100% caso missões tenham sido removidas.
+     */
+    private ProgressSummary summarize(List<LevelProgress> buckets, long totalMissions) {
+        long users = 0;
+        long usersCompleted = 0;
+        double progressSum = BusinessConstants.DEFAULT_RATE;
+
+        for (LevelProgress bucket : buckets) {
+            users += bucket.getUsers();
+            if (totalMissions > 0) {
+                long completed = Math.min(bucket.getCompletedMissions(), totalMissions);
+                progressSum += bucket.getUsers() * ((double) completed / totalMissions);
+                if (completed == totalMissions) {
+                    usersCompleted += bucket.getUsers();
+                }
+            }
+        }
+
+        Double averageProgress = users > 0 ? (progressSum / users) * BusinessConstants.PERCENTAGE_MULTIPLIER :
+                BusinessConstants.DEFAULT_RATE;
+        return new ProgressSummary(usersCompleted, averageProgress);
+    }
+
+    private record ProgressSummary(Long usersCompleted, Double averageProgress) {
+    }
+
+    private List<LevelCompletionStatsResponse.MissionStatsInLevel> toMissionStats(List<MissionStatsRow> missions) {
         List<LevelCompletionStatsResponse.MissionStatsInLevel> stats = new ArrayList<>();
 
-        for (Mission mission : missions) {
-            Long totalAttempts = userMissionRepository.countByMissionId(mission.getId());
-            Long completed = userMissionRepository.countCompletedByMissionId(mission.getId());
-            Long failed = userMissionRepository.countFailedByMissionId(mission.getId());
+        for (MissionStatsRow mission : missions) {
+            Long totalAttempts = mission.attempts();
+            Long completed = mission.completed();
 
             Double completionRate = totalAttempts > 0 ?
                     (completed.doubleValue() / totalAttempts) * BusinessConstants.PERCENTAGE_MULTIPLIER :
                     BusinessConstants.DEFAULT_RATE;
 
             stats.add(LevelCompletionStatsResponse.MissionStatsInLevel.builder()
-                    .missionId(mission.getId())
-                    .missionTitle(mission.getTitle())
+                    .missionId(mission.missionId())
+                    .missionTitle(mission.missionTitle())
                     .totalAttempts(totalAttempts)
                     .completed(completed)
-                    .failed(failed)
+                    .failed(mission.failed())
                     .completionRate(completionRate)
                     .build());
         }
@@ -86,4 +125,3 @@ public class GetLevelCompletionStatsService {
         return stats;
     }
 }
-
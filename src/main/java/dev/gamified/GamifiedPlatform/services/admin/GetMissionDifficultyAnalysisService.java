@@ -1,10 +1,9 @@
 package dev.gamified.GamifiedPlatform.services.admin;
 
 import dev.gamified.GamifiedPlatform.constants.BusinessConstants;
-import dev.gamified.GamifiedPlatform.domain.Mission;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatsRow;
 import dev.gamified.GamifiedPlatform.dtos.response.missions.MissionDifficultyAnalysisResponse;
-import dev.gamified.GamifiedPlatform.repository.MissionRepository;
-import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
+import dev.gamified.GamifiedPlatform.repository.MissionStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,25 +19,25 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GetMissionDifficultyAnalysisService {
 
-    private final MissionRepository missionRepository;
-    private final UserMissionRepository userMissionRepository;
+    private final MissionStatsRepository missionStatsRepository;
 
     @Transactional(readOnly = true)
     public MissionDifficultyAnalysisResponse execute() {
         log.info("Analyzing mission difficulty");
 
-        List<Mission> allMissions = missionRepository.findAll();
+        // Contadores materializados: uma única leitura, sem consultas por missão
+        List<MissionStatsRow> allMissions = missionStatsRepository.findAllRows();
         List<MissionDifficultyAnalysisResponse.DifficultMission> missionStats = new ArrayList<>();
 
         double totalFailureRate = BusinessConstants.DEFAULT_RATE;
         int missionCount = 0;
 
-        for (Mission mission : allMissions) {
-            Long totalSubmissions = userMissionRepository.countByMissionId(mission.getId());
+        for (MissionStatsRow mission : allMissions) {
+            Long totalSubmissions = mission.attempts();
 
             if (totalSubmissions > 0) {
-                Long approved = userMissionRepository.countCompletedByMissionId(mission.getId());
-                Long failed = userMissionRepository.countFailedByMissionId(mission.getId());
+                Long approved = mission.completed();
+                Long failed = mission.failed();
 
                 double failureRate = (failed.doubleValue() / totalSubmissions)
                         * BusinessConstants.PERCENTAGE_MULTIPLIER;
@@ -49,9 +48,9 @@ public class GetMissionDifficultyAnalysisService {
                 missionCount++;
 
                 missionStats.add(MissionDifficultyAnalysisResponse.DifficultMission.builder()
-                        .missionId(mission.getId())
-                        .missionTitle(mission.getTitle())
-                        .levelName(mission.getLevel().getName())
+                        .missionId(mission.missionId())
+                        .missionTitle(mission.missionTitle())
+                        .levelName(mission.levelName())
                         .totalSubmissions(totalSubmissions)
                         .approvedSubmissions(approved)
                         .failedSubmissions(failed)
@@ -81,4 +80,3 @@ public class GetMissionDifficultyAnalysisService {
                 .build();
     }
 }
-
@@ -0,0 +1,277 @@
+package dev.gamified.GamifiedPlatform.services.admin.export;
+
+import dev.gamified.GamifiedPlatform.enums.ExportDataset;
+import dev.gamified.GamifiedPlatform.enums.ExportFormat;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Exportação em streaming dos dados administrativos (CSV ou NDJSON), com memória constante:
+ *  - cursor no servidor: o driver do PostgreSQL só busca admin.export.fetch-size linhas por vez
+ *    quando a consulta roda dentro de uma transação (autocommit desligado) com ResultSet forward-only;
+ *  - cada linha é serializada direto no OutputStream da resposta, sem entidades JPA nem listas.
+ * Milhões de linhas passam com o heap estável; o custo é manter uma conexão durante a exportação, por isso:
+ *  - no máximo admin.export.max-concurrent exportações simultâneas (semáforo próprio, fora do bulkhead
+ *    DATABASE das tarefas); quem não consegue vaga em admin.export.acquire-timeout recebe 503;
+ *  - a transação tem timeout de admin.export.max-duration (vira o query timeout do statement) e o laço
+ *    de leitura aborta quando ele vence, mesmo entre buscas do cursor;
+ *  - idle_in_transaction_session_timeout (admin.export.idle-timeout) encerra a sessão no PostgreSQL se o
+ *    cliente parar de ler e a conexão ficar ociosa dentro da transação.
+ */
+@Service
+@Slf4j
+public class AdminExportService {
+
+    static final LocalDateTime DEFAULT_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    static final String MISSION_ATTEMPTS_SQL = "SELECT um.id, um.user_id, u.username, um.mission_id, " +
+            "m.title AS mission_title, l.name AS level_name, um.status, um.started_at, um.submitted_at, " +
+            "um.evaluated_at, um.completed_at, um.evaluated_by " +
+            "FROM tb_user_missions um " +
+            "JOIN tb_user u ON u.id = um.user_id " +
+            "JOIN tb_missions m ON m.id = um.mission_id " +
+            "JOIN tb_levels l ON l.id = m.level_id " +
+            "WHERE um.started_at >= ? AND um.started_at < ? " +
+            "ORDER BY um.started_at";
+
+    static final String BOSS_FIGHTS_SQL = "SELECT ub.id, ub.user_id, u.username, ub.boss_id, " +
+            "b.name AS boss_name, l.name AS level_name, ub.status, ub.started_at, ub.submitted_at, " +
+            "ub.evaluated_at, ub.completed_at, ub.evaluated_by " +
+            "FROM tb_user_bosses ub " +
+            "JOIN tb_user u ON u.id = ub.user_id " +
+            "JOIN tb_bosses b ON b.id = ub.boss_id " +
+            "JOIN tb_levels l ON l.id = b.level_id " +
+            "WHERE ub.started_at >= ? AND ub.started_at < ? " +
+            "ORDER BY ub.started_at";
+
+    static final String BADGE_UNLOCKS_SQL = "SELECT ub.id, ub.user_id, u.username, ub.badge_id, " +
+            "b.name AS badge_name, b.rarity, ub.unlocked_by_boss_id, ub.unlocked_at " +
+            "FROM tb_user_badges ub " +
+            "JOIN tb_user u ON u.id = ub.user_id " +
+            "JOIN tb_badges b ON b.id = ub.badge_id " +
+            "WHERE ub.unlocked_at >= ? AND ub.unlocked_at < ? " +
+            "ORDER BY ub.unlocked_at";
+
+    static final String AUDIT_LOGS_SQL = "SELECT id, timestamp, event_type, severity, user_id, username, " +
+            "ip_address, user_agent, details " +
+            "FROM tb_security_audit_log " +
+            "WHERE timestamp >= ? AND timestamp < ? " +
+            "ORDER BY timestamp";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Duration maxDuration;
+    private final Duration idleTimeout;
+
+    public AdminExportService(JdbcTemplate jdbcTemplate,
+                              JsonMapper jsonMapper,
+                              MeterRegistry meterRegistry,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${admin.export.fetch-size:1000}") int fetchSize,
+                              @Value("${admin.export.max-concurrent:2}") int maxConcurrent,
+                              @Value("${admin.export.acquire-timeout:2s}") Duration acquireTimeout,
+                              @Value("${admin.export.max-duration:15m}") Duration maxDuration,
+                              @Value("${admin.export.idle-timeout:60s}") Duration idleTimeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalStateException("admin.export.max-concurrent must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, maxDuration.toSeconds()));
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(maxConcurrent);
+        this.acquireTimeout = acquireTimeout;
+        this.maxDuration = maxDuration;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /*
+     * Escreve o conjunto de linhas com started_at/unlocked_at/timestamp em [from, to) e retorna quantas foram escritas.
+     * Não fecha o OutputStream (pertence à resposta HTTP).
+     */
+    public long export(ExportDataset dataset, ExportFormat format, LocalDateTime from, LocalDateTime to,
+                       OutputStream output) throws IOException {
+        try (PreparedExport export = prepare(dataset, format, from, to)) {
+            return export.writeTo(output);
+        }
+    }
+
+    /*
+     * Primeira etapa da exportação: valida o intervalo e reserva uma vaga, sem escrever nada.
+     * O controller só define Content-Type/Content-Disposition depois daqui, então um 400 ou 503
+     * não chega ao cliente como um download. A vaga é devolvida no close() do PreparedExport.
+     */
+    public PreparedExport prepare(ExportDataset dataset, ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : DEFAULT_FROM;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!start.isBefore(end)) {
+            throw new BusinessException("Export range start must be before its end");
+        }
+
+        acquirePermit();
+        return new PreparedExport(dataset, format, start, end);
+    }
+
+    //Exportação validada e com vaga reservada; writeTo faz o streaming e close devolve a vaga (uma única vez)
+    public final class PreparedExport implements AutoCloseable {
+
+        private final ExportDataset dataset;
+        private final ExportFormat format;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PreparedExport(ExportDataset dataset, ExportFormat format, LocalDateTime start, LocalDateTime end) {
+            this.dataset = dataset;
+            this.format = format;
+            this.start = start;
+            this.end = end;
+        }
+
+        public long writeTo(OutputStream output) throws IOException {
+            if (released.get()) {
+                throw new IllegalStateException("Export already closed");
+            }
+            return streamExport(dataset, format, start, end, output);
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private long streamExport(ExportDataset dataset, ExportFormat format, LocalDateTime start, LocalDateTime end,
+                              OutputStream output) throws IOException {
+        log.info("Exporting {} as {} from {} to {}", dataset, format, start, end);
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + maxDuration.toNanos();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        ExportRowWriter rows = format == ExportFormat.CSV
+                ? new CsvExportRowWriter(writer)
+                : new NdjsonExportRowWriter(writer, jsonMapper);
+
+        Long written;
+        try {
+            written = readOnlyTransaction.execute(status -> {
+                // Vale só para esta transação; o valor vem da configuração (milissegundos), não do usuário
+                jdbcTemplate.execute("SET LOCAL idle_in_transaction_session_timeout = " + idleTimeout.toMillis());
+                return jdbcTemplate.query(
+                        connection -> prepare(connection, sql(dataset), start, end),
+                        resultSet -> {
+                            try {
+                                return stream(resultSet, rows, deadline);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou no meio do download
+            throw e.getCause();
+        }
+        writer.flush();
+
+        long count = written != null ? written : 0L;
+        meterRegistry.counter("admin.export.rows", "dataset", dataset.getPath()).increment(count);
+        log.info("Exported {} {} rows in {} ms", count, dataset,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return count;
+    }
+
+    private void acquirePermit() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            meterRegistry.counter("admin.export.rejected").increment();
+            throw new DownstreamSaturatedException(Downstream.DATABASE);
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        statement.setTimestamp(1, Timestamp.valueOf(from));
+        statement.setTimestamp(2, Timestamp.valueOf(to));
+        return statement;
+    }
+
+    private long stream(ResultSet resultSet, ExportRowWriter rows, long deadline) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        rows.header(columns);
+
+        long count = 0;
+        Object[] values = new Object[columnCount];
+        while (resultSet.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = value(resultSet.getObject(i + 1));
+            }
+            rows.row(values);
+            count++;
+            if (count % fetchSize == 0 && System.nanoTime() - deadline >= 0) {
+                throw new QueryTimeoutException("Export exceeded " + maxDuration + " after " + count + " rows");
+            }
+        }
+        return count;
+    }
+
+    //Datas em ISO-8601 nos dois formatos; números e textos como vieram do banco
+    private static Object value(Object raw) {
+        return raw instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : raw;
+    }
+
+    static String sql(ExportDataset dataset) {
+        return switch (dataset) {
+            case MISSION_ATTEMPTS -> MISSION_ATTEMPTS_SQL;
+            case BOSS_FIGHTS -> BOSS_FIGHTS_SQL;
+            case BADGE_UNLOCKS -> BADGE_UNLOCKS_SQL;
+            case AUDIT_LOGS -> AUDIT_LOGS_SQL;
+        };
+    }
+}
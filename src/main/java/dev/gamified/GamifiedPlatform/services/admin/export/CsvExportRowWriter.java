@@ -0,0 +1,58 @@
+package dev.gamified.GamifiedPlatform.services.admin.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/*
+ * CSV no formato RFC 4180 (aspas quando necessário, CRLF entre linhas).
+ * Texto que começa com =, +, -, @, tab ou CR ganha um apóstrofo na frente: os campos vêm de usuários
+ * (username, user agent, detalhes) e não podem virar fórmulas ao abrir a planilha.
+ */
+final class CsvExportRowWriter implements ExportRowWriter {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer out;
+
+    CsvExportRowWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void header(List<String> columns) throws IOException {
+        row(columns.toArray());
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeCell(values[i]);
+            }
+        }
+        out.write(LINE_SEPARATOR);
+    }
+
+    private void writeCell(Object value) throws IOException {
+        if (!(value instanceof CharSequence)) {
+            out.write(value.toString());
+            return;
+        }
+
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,14 @@
+package dev.gamified.GamifiedPlatform.services.admin.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Serializa as linhas de uma exportação direto no Writer da resposta, uma por vez (sem acumular em memória).
+ */
+interface ExportRowWriter {
+
+    void header(List<String> columns) throws IOException;
+
+    void row(Object[] values) throws IOException;
+}
@@ -0,0 +1,39 @@
+package dev.gamified.GamifiedPlatform.services.admin.export;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * NDJSON: um objeto JSON por linha, com as colunas como chaves (na ordem da consulta).
+ */
+final class NdjsonExportRowWriter implements ExportRowWriter {
+
+    private final Writer out;
+    private final JsonMapper jsonMapper;
+    private List<String> columns = List.of();
+
+    NdjsonExportRowWriter(Writer out, JsonMapper jsonMapper) {
+        this.out = out;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>(columns.size() * 2);
+        for (int i = 0; i < values.length; i++) {
+            line.put(columns.get(i), values[i]);
+        }
+        out.write(jsonMapper.writeValueAsString(line));
+        out.write('\n');
+    }
+}
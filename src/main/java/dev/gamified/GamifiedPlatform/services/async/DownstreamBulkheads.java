@@ -0,0 +1,198 @@
+package dev.gamified.GamifiedPlatform.services.async;
+
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Limite de concorrência por dependência (banco, SMTP, MinIO) via semáforo, em vez de limitar threads.
+ * Com o executor em modo virtual as tarefas são baratas e podem esperar aqui; o que protege o pool
+ * do Hikari, o servidor SMTP e o MinIO é o número de permissões de cada bulkhead.
+ *
+ * Streams (ex.: download do MinIO) seguram a permissão até serem fechados, não só até serem abertos.
+ * Por isso downloads usam um bulkhead próprio (MINIO_DOWNLOAD): downloads lentos não tomam as permissões
+ * de upload e remoção.
+ *
+ * Tarefas em segundo plano esperam até async.bulkhead.acquire-timeout. Threads de requisição
+ * (callOnRequest, openStream) esperam só async.bulkhead.request-acquire-timeout e recebem 503 em seguida,
+ * em vez de ficarem paradas segurando uma thread do Tomcat.
+ *
+ * Métricas (tag downstream): async.downstream.in_flight, async.downstream.waiting,
+ * async.downstream.wait (tempo até obter a permissão) e async.downstream.rejected.
+ */
+@Component
+@Slf4j
+public class DownstreamBulkheads {
+
+    private final Map<Downstream, Bulkhead> bulkheads = new EnumMap<>(Downstream.class);
+    private final Duration acquireTimeout;
+    private final Duration requestAcquireTimeout;
+
+    public DownstreamBulkheads(MeterRegistry meterRegistry,
+                               @Value("${async.bulkhead.database:5}") int databasePermits,
+                               @Value("${async.bulkhead.smtp:5}") int smtpPermits,
+                               @Value("${async.bulkhead.minio:10}") int minioPermits,
+                               @Value("${async.bulkhead.minio-download:10}") int minioDownloadPermits,
+                               @Value("${async.bulkhead.acquire-timeout:30s}") Duration acquireTimeout,
+                               @Value("${async.bulkhead.request-acquire-timeout:250ms}") Duration requestAcquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+        this.requestAcquireTimeout = requestAcquireTimeout;
+        bulkheads.put(Downstream.DATABASE, new Bulkhead(Downstream.DATABASE, databasePermits, meterRegistry));
+        bulkheads.put(Downstream.SMTP, new Bulkhead(Downstream.SMTP, smtpPermits, meterRegistry));
+        bulkheads.put(Downstream.MINIO, new Bulkhead(Downstream.MINIO, minioPermits, meterRegistry));
+        bulkheads.put(Downstream.MINIO_DOWNLOAD,
+                new Bulkhead(Downstream.MINIO_DOWNLOAD, minioDownloadPermits, meterRegistry));
+    }
+
+    public <T> T call(Downstream downstream, Callable<T> action) throws Exception {
+        return call(downstream, acquireTimeout, action);
+    }
+
+    //Mesmo que call, para threads de requisição: desiste rápido (503) quando o bulkhead está cheio
+    public <T> T callOnRequest(Downstream downstream, Callable<T> action) throws Exception {
+        return call(downstream, requestAcquireTimeout, action);
+    }
+
+    private <T> T call(Downstream downstream, Duration timeout, Callable<T> action) throws Exception {
+        Bulkhead bulkhead = bulkheads.get(downstream);
+        bulkhead.acquire(timeout);
+        try {
+            return action.call();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public void run(Downstream downstream, Runnable action) {
+        Bulkhead bulkhead = bulkheads.get(downstream);
+        bulkhead.acquire(acquireTimeout);
+        try {
+            action.run();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /*
+     * Abre um stream sob o bulkhead: a permissão só é devolvida quando o stream for fechado
+     * (a transferência de fato acontece enquanto ele é lido). Quem recebe o stream deve sempre fechá-lo.
+     * Usado no caminho da requisição, então espera no máximo request-acquire-timeout pela permissão.
+     */
+    public InputStream openStream(Downstream downstream, Callable<InputStream> opener) throws Exception {
+        Bulkhead bulkhead = bulkheads.get(downstream);
+        bulkhead.acquire(requestAcquireTimeout);
+        InputStream stream;
+        try {
+            stream = opener.call();
+        } catch (Exception | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+        return new PermitReleasingInputStream(stream, bulkhead);
+    }
+
+    public int inFlight(Downstream downstream) {
+        return bulkheads.get(downstream).inFlight.get();
+    }
+
+    public int waiting(Downstream downstream) {
+        return bulkheads.get(downstream).waiting.get();
+    }
+
+    private static final class PermitReleasingInputStream extends FilterInputStream {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingInputStream(InputStream in, Bulkhead bulkhead) {
+            super(in);
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                // close() pode ser chamado mais de uma vez; a permissão só volta uma vez
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+
+    private static final class Bulkhead {
+        private final Downstream downstream;
+        private final Semaphore semaphore;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        private Bulkhead(Downstream downstream, int permits, MeterRegistry meterRegistry) {
+            if (permits <= 0) {
+                throw new IllegalStateException("async.bulkhead." + downstream.getTag() + " must be positive");
+            }
+            this.downstream = downstream;
+            // Justo: quem espera há mais tempo é atendido primeiro, evitando starvation sob tempestade de tarefas
+            this.semaphore = new Semaphore(permits, true);
+
+            String tag = downstream.getTag();
+            Gauge.builder("async.downstream.in_flight", inFlight, AtomicInteger::get)
+                    .tag("downstream", tag).register(meterRegistry);
+            Gauge.builder("async.downstream.waiting", waiting, AtomicInteger::get)
+                    .tag("downstream", tag).register(meterRegistry);
+            Gauge.builder("async.downstream.permits", () -> permits)
+                    .tag("downstream", tag).register(meterRegistry);
+            this.waitTimer = Timer.builder("async.downstream.wait")
+                    .description("Tempo de espera por uma permissão do bulkhead")
+                    .tag("downstream", tag).register(meterRegistry);
+            this.rejected = meterRegistry.counter("async.downstream.rejected", "downstream", tag);
+        }
+
+        void acquire(Duration timeout) {
+            long start = System.nanoTime();
+            boolean acquired;
+            waiting.incrementAndGet();
+            try {
+                acquired = semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+
+            if (!acquired) {
+                rejected.increment();
+                log.warn("Bulkhead {} saturated: no permit within {}", downstream.getTag(), timeout);
+                throw new DownstreamSaturatedException(downstream);
+            }
+            inFlight.incrementAndGet();
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+            semaphore.release();
+        }
+    }
+}
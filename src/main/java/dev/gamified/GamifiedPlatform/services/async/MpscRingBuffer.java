@@ -0,0 +1,82 @@
+package dev.gamified.GamifiedPlatform.services.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/*
+ * Buffer circular limitado, sem locks, para vários produtores e um único consumidor.
+ * Produtores reservam uma posição com CAS no índice de produção e publicam o elemento na célula;
+ * o consumidor lê em ordem e libera a célula. Com o buffer cheio offer() devolve false na hora,
+ * deixando a política de overflow para quem chama.
+ *
+ * poll()/drain() só podem ser chamados pela thread consumidora.
+ */
+public final class MpscRingBuffer<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<E> cells;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0 || requestedCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ": " + requestedCapacity);
+        }
+        // Arredonda para potência de 2: o índice da célula vira um AND em vez de um módulo
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.cells = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() >= cells.length()) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                cells.lazySet((int) (index & mask), element);
+                return true;
+            }
+        }
+    }
+
+    //null quando vazio ou quando o produtor da próxima posição ainda não publicou o elemento
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) (index & mask);
+        E element = cells.get(offset);
+        if (element == null) {
+            return null;
+        }
+        cells.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    //Aproximado sob concorrência (inclui posições reservadas ainda não publicadas)
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, cells.length()));
+    }
+
+    public int capacity() {
+        return cells.length();
+    }
+}
@@ -7,7 +7,9 @@ import dev.gamified.GamifiedPlatform.dtos.request.auth.LoginRequest;
 import dev.gamified.GamifiedPlatform.dtos.response.login.LoginResponse;
 import dev.gamified.GamifiedPlatform.exceptions.AccessDeniedException;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.RateLimitExceededException;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitResult;
 import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
 import dev.gamified.GamifiedPlatform.services.security.SecurityAuditService;
 import lombok.RequiredArgsConstructor;
@@ -32,15 +34,16 @@ public class AuthService {
     @Transactional
     public LoginResponse authenticate(LoginRequest request, String ipAddress, String userAgent) {
         // Verifica rate limiting antes de processar login
-        if (!rateLimitService.isLoginAllowed(request.username())) {
-            long resetTime = rateLimitService.getResetTime("login:" + request.username());
-
+        // Uma única ida ao Redis: contabiliza a tentativa e já traz restantes/tempo de reset
+        RateLimitResult rateLimit = rateLimitService.checkLogin(request.username());
+        if (!rateLimit.allowed()) {
             // Log de tentativa bloqueada por rate limit
             auditService.logSuspiciousActivity(null, request.username(), ipAddress,
                 "Rate limit exceeded - Too many login attempts");
 
-            throw new BusinessException(
-                "Too many login attempts. Please try again in " + (resetTime / 60) + " minutes"
+            throw new RateLimitExceededException(
+                "Too many login attempts. Please try again in " + (rateLimit.resetSeconds() / 60) + " minutes",
+                rateLimit.limit(), rateLimit.remaining(), rateLimit.resetSeconds()
             );
         }
 
@@ -1,19 +1,26 @@
 package dev.gamified.GamifiedPlatform.services.auth;
 
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenCleanupJob {
 
+    private static final String LEASE_NAME = "refresh-token-cleanup";
+
     private final RefreshTokenService refreshTokenService;
+    private final ClusterLeaseService clusterLeaseService;
 
-    // Executa diariamente às 3 da manhã
+    // Executa diariamente às 3 da manhã, em apenas um nó do cluster
     @Scheduled(cron = "0 0 3 * * ?")
     public void cleanupExpiredTokens() {
-        refreshTokenService.cleanupExpiredTokens();
+        clusterLeaseService.runExclusively(LEASE_NAME, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                lease -> refreshTokenService.cleanupExpiredTokens());
     }
 
 }
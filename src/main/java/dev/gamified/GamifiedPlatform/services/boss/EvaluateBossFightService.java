@@ -13,10 +13,13 @@ import dev.gamified.GamifiedPlatform.mapper.BossMapper;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.repository.UserBossRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.admin.AdminStatsRecorder;
 import dev.gamified.GamifiedPlatform.services.badge.UnlockBadgeService;
 import dev.gamified.GamifiedPlatform.services.notification.NotificationService;
+import dev.gamified.GamifiedPlatform.services.ranking.CharacterXpChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +39,8 @@ public class EvaluateBossFightService {
     private final UserRepository userRepository;
     private final UnlockBadgeService unlockBadgeService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AdminStatsRecorder adminStatsRecorder;
 
     /*
      * Avalia uma submissão de luta contra um boss.
@@ -63,6 +68,7 @@ public class EvaluateBossFightService {
         } else {
             rejectBossFight(userBoss, evaluator);
         }
+        adminStatsRecorder.bossFightEvaluated(userBoss, request.approved());
 
         UserBoss savedUserBoss = userBossRepository.save(userBoss);
         log.info("Boss fight {} evaluated by {}: {}", userBossId, evaluatorId,
@@ -125,6 +131,11 @@ public class EvaluateBossFightService {
         character.addXp(xpReward);
         playerCharacterRepository.save(character);
 
+        // Atualiza o ranking no Redis após o commit
+        eventPublisher.publishEvent(new CharacterXpChangedEvent(
+                character.getId(), character.getLevel(), character.getLevel(), character.getXp(), xpReward,
+                character.getXpAchievedAt()));
+
         log.info("Granted {} XP to user {} for defeating boss {}",
                 xpReward, userBoss.getUser().getId(), userBoss.getBoss().getName());
 
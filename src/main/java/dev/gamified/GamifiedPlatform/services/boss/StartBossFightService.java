@@ -14,6 +14,7 @@ import dev.gamified.GamifiedPlatform.mapper.BossMapper;
 import dev.gamified.GamifiedPlatform.repository.BossRepository;
 import dev.gamified.GamifiedPlatform.repository.UserBossRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.admin.AdminStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,6 +33,7 @@ public class StartBossFightService {
     private final UserBossRepository userBossRepository;
     private final BossRepository bossRepository;
     private final UserRepository userRepository;
+    private final AdminStatsRecorder adminStatsRecorder;
 
     /*
      * Inicia uma luta contra um boss.
@@ -52,6 +54,7 @@ public class StartBossFightService {
         UserBoss userBoss = findOrCreateUserBoss(user, boss);
         validateBossStatus(userBoss);
 
+        adminStatsRecorder.bossFightStarting(userBoss);
         startBossFight(userBoss);
 
         UserBoss savedUserBoss = userBossRepository.save(userBoss);
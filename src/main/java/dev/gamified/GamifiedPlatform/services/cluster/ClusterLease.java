@@ -0,0 +1,21 @@
+package dev.gamified.GamifiedPlatform.services.cluster;
+
+import java.time.Instant;
+
+/*
+ * Lease exclusivo de uma tarefa no cluster.
+ * O token de fencing é crescente por nome: um nó com token antigo nunca deve publicar resultados
+ * depois que outro nó adquiriu um token maior.
+ */
+public record ClusterLease(String name, String holder, long token, Instant acquiredAt) {
+
+    //Chave do lease no Redis, para scripts que precisam verificar o fencing atomicamente
+    public String key() {
+        return ClusterLeaseService.leaseKey(name);
+    }
+
+    //Valor gravado na chave do lease no Redis
+    public String value() {
+        return holder + "|" + token;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.gamified.GamifiedPlatform.services.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Expõe em /actuator/health quem detém cada lease de tarefa agendada.
+@Component
+@RequiredArgsConstructor
+public class ClusterLeaseHealthIndicator implements HealthIndicator {
+
+    private final ClusterLeaseService clusterLeaseService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up().withDetail("node", clusterLeaseService.nodeId());
+        try {
+            for (String name : clusterLeaseService.knownLeases()) {
+                builder.withDetail(name, clusterLeaseService.currentHolder(name)
+                        .map(this::details)
+                        .orElseGet(() -> Map.of("holder", "none")));
+            }
+            return builder.build();
+        } catch (Exception e) {
+            // Falha ao ler os leases não torna a aplicação indisponível
+            return Health.unknown().withException(e).build();
+        }
+    }
+
+    private Map<String, Object> details(ClusterLeaseService.LeaseHolder holder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("holder", holder.holder());
+        details.put("token", holder.token());
+        details.put("ttl_ms", holder.ttlMillis());
+        details.put("held_by_me", holder.holder().equals(clusterLeaseService.nodeId()));
+        return details;
+    }
+}
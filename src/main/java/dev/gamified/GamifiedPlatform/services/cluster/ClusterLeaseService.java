@@ -0,0 +1,178 @@
+package dev.gamified.GamifiedPlatform.services.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/*
+ * Leases no Redis para que apenas um nó do cluster execute cada tarefa agendada.
+ * Cada aquisição recebe um token de fencing (INCR), usado para validar o lease antes de publicar resultados.
+ * Os demais nós apenas pulam a execução.
+ */
+@Service
+@Slf4j
+public class ClusterLeaseService {
+
+    private static final String LEASE_PREFIX = "cluster_lease:";
+    private static final String FENCING_SUFFIX = ":fencing";
+
+    // Só adquire se ninguém tiver o lease; o token é incrementado na mesma operação atômica
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "local token = redis.call('INCR', KEYS[2]) " +
+            "redis.call('SET', KEYS[1], ARGV[1] .. '|' .. token, 'PX', ARGV[2]) " +
+            "return token", Long.class);
+
+    // Só o dono libera; com tempo mínimo restante o lease é mantido até lá (evita reexecução por relógio atrasado)
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "if tonumber(ARGV[2]) > 0 then redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "else redis.call('DEL', KEYS[1]) end " +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Map<String, ClusterLease> heldLeases = new ConcurrentHashMap<>();
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    public ClusterLeaseService(RedisTemplate<String, Object> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${cluster.node-id:}") String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    /*
+     * Executa a tarefa somente se este nó conseguir o lease.
+     * ttl deve ser maior que a duração esperada da tarefa; minHold mantém o lease após o fim
+     * para que nós com o cron levemente atrasado não executem a mesma rodada de novo.
+     * Retorna true se a tarefa rodou neste nó.
+     */
+    public boolean runExclusively(String name, Duration ttl, Duration minHold, Consumer<ClusterLease> task) {
+        Optional<ClusterLease> lease = tryAcquire(name, ttl);
+        if (lease.isEmpty()) {
+            meterRegistry.counter("cluster.lease.skipped", "name", name).increment();
+            log.info("Skipping '{}': lease held by another node ({})", name,
+                    currentHolder(name).map(LeaseHolder::holder).orElse("unknown"));
+            return false;
+        }
+
+        meterRegistry.counter("cluster.lease.acquired", "name", name).increment();
+        try {
+            task.accept(lease.get());
+            return true;
+        } finally {
+            release(lease.get(), minHold);
+        }
+    }
+
+    public Optional<ClusterLease> tryAcquire(String name, Duration ttl) {
+        register(name);
+        try {
+            Long token = redisTemplate.execute(ACQUIRE, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class),
+                    List.of(leaseKey(name), leaseKey(name) + FENCING_SUFFIX),
+                    nodeId, String.valueOf(ttl.toMillis()));
+
+            if (token == null || token == 0) {
+                return Optional.empty();
+            }
+
+            ClusterLease lease = new ClusterLease(name, nodeId, token, Instant.now());
+            heldLeases.put(name, lease);
+            log.debug("Lease '{}' acquired by {} with fencing token {}", name, nodeId, token);
+            return Optional.of(lease);
+        } catch (Exception e) {
+            // Sem Redis não há como garantir exclusividade: a execução é pulada
+            log.error("Failed to acquire lease '{}'", name, e);
+            return Optional.empty();
+        }
+    }
+
+    //Verificação de fencing: o lease ainda pertence a este nó com o mesmo token?
+    public boolean isHeld(ClusterLease lease) {
+        return currentHolder(lease.name())
+                .map(holder -> holder.holder().equals(lease.holder()) && holder.token() == lease.token())
+                .orElse(false);
+    }
+
+    public void release(ClusterLease lease, Duration minHold) {
+        heldLeases.remove(lease.name(), lease);
+        long elapsed = Duration.between(lease.acquiredAt(), Instant.now()).toMillis();
+        long remainingHold = Math.max(0, minHold.toMillis() - elapsed);
+        try {
+            redisTemplate.execute(RELEASE, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                    List.of(leaseKey(lease.name())), lease.value(), String.valueOf(remainingHold));
+        } catch (Exception e) {
+            // O TTL libera o lease mesmo se o DEL falhar
+            log.warn("Failed to release lease '{}', it will expire on its own", lease.name(), e);
+        }
+    }
+
+    public Optional<LeaseHolder> currentHolder(String name) {
+        byte[] key = leaseKey(name).getBytes(StandardCharsets.UTF_8);
+        return Optional.ofNullable(redisTemplate.execute((RedisCallback<LeaseHolder>) connection ->
+                readHolder(connection, key)));
+    }
+
+    public Set<String> knownLeases() {
+        return Collections.unmodifiableSet(knownLeases);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    private LeaseHolder readHolder(RedisConnection connection, byte[] key) {
+        byte[] raw = connection.stringCommands().get(key);
+        if (raw == null) {
+            return null;
+        }
+        String value = new String(raw, StandardCharsets.UTF_8);
+        int separator = value.lastIndexOf('|');
+        Long ttl = connection.keyCommands().pTtl(key);
+        return new LeaseHolder(value.substring(0, separator),
+                Long.parseLong(value.substring(separator + 1)),
+                ttl != null ? ttl : -1);
+    }
+
+    private void register(String name) {
+        if (knownLeases.add(name)) {
+            Gauge.builder("cluster.lease.held", heldLeases, leases -> leases.containsKey(name) ? 1 : 0)
+                    .description("1 quando este nó detém o lease")
+                    .tag("name", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    static String leaseKey(String name) {
+        return LEASE_PREFIX + name;
+    }
+
+    private static String defaultNodeId() {
+        // pid@hostname + sufixo aleatório, para distinguir reinícios no mesmo host
+        return ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public record LeaseHolder(String holder, long token, long ttlMillis) {
+    }
+}
@@ -0,0 +1,349 @@
+package dev.gamified.GamifiedPlatform.services.email;
+
+import dev.gamified.GamifiedPlatform.domain.EmailOutboxMessage;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.enums.EmailOutboxStatus;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
+import dev.gamified.GamifiedPlatform.repository.EmailOutboxRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Entrega os emails do outbox (tb_email_outbox) com email.outbox.workers threads próprias.
+ * Cada worker trava um lote com SKIP LOCKED numa transação curta (o claim adia next_attempt_at por
+ * claim-timeout, então um nó que cair no meio do envio não perde o lote), envia o lote inteiro
+ * por uma única conexão SMTP e registra o resultado em outra transação curta: nenhuma conexão
+ * do banco fica presa durante o SMTP.
+ *
+ * Destinatários recusados voltam para a fila com backoff exponencial (base * 2^(tentativas-1), limitado a
+ * max-backoff); depois de max-attempts o email vira FAILED. Falhas que não dizem nada sobre o email
+ * (bulkhead do SMTP cheio, servidor inacessível, autenticação) reagendam o lote após base-backoff
+ * sem consumir tentativas. Os workers acordam após o commit de cada novo email e, sem eventos, a cada poll-interval.
+ * Emails FAILED são removidos pelo EmailOutboxRetentionJob.
+ */
+@Component
+@Slf4j
+public class EmailDeliveryWorker {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final DownstreamBulkheads bulkheads;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong depth = new AtomicLong();
+    private final Counter sent;
+    private final Counter failures;
+    private final Counter exhausted;
+    private final Counter deferred;
+    private final Timer latency;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public EmailDeliveryWorker(EmailOutboxRepository repository,
+                               JavaMailSender mailSender,
+                               DownstreamBulkheads bulkheads,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${spring.mail.username}") String fromEmail,
+                               @Value("${email.outbox.workers:2}") int workers,
+                               @Value("${email.outbox.batch-size:20}") int batchSize,
+                               @Value("${email.outbox.poll-interval:1s}") Duration pollInterval,
+                               @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                               @Value("${email.outbox.base-backoff:30s}") Duration baseBackoff,
+                               @Value("${email.outbox.max-backoff:1h}") Duration maxBackoff,
+                               @Value("${email.outbox.claim-timeout:5m}") Duration claimTimeout) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.bulkheads = bulkheads;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+
+        Gauge.builder("email.outbox.depth", depth, AtomicLong::get)
+                .description("Emails PENDING no outbox")
+                .register(meterRegistry);
+        this.sent = meterRegistry.counter("email.outbox.sent");
+        this.failures = meterRegistry.counter("email.outbox.failures");
+        this.exhausted = meterRegistry.counter("email.outbox.exhausted");
+        this.deferred = meterRegistry.counter("email.outbox.deferred");
+        this.latency = Timer.builder("email.outbox.latency")
+                .description("Tempo entre gravar o email no outbox e entregá-lo ao servidor SMTP")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("email.outbox.batch.size")
+                .description("Emails enviados por conexão SMTP")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::runLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUp.release(workers);
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Email workers did not finish in time; claimed emails will be retried after the claim timeout");
+            executor.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        if (wakeUp.availablePermits() < workers) {
+            wakeUp.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.depth-refresh-interval:15s}")
+    public void refreshDepth() {
+        depth.set(repository.countByStatus(EmailOutboxStatus.PENDING));
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                // Lote cheio: provavelmente há mais na fila, segue sem esperar
+                if (deliverBatch() < batchSize) {
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email delivery loop failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    //Remove os emails FAILED cuja falha definitiva foi antes de before, em transações curtas
+    public long purgeFailed(LocalDateTime before) {
+        long deleted = 0;
+        int batch;
+        do {
+            Integer removed = transactionTemplate.execute(status ->
+                    repository.deleteBatch(EmailOutboxStatus.FAILED.name(), before, PURGE_BATCH_SIZE));
+            batch = removed != null ? removed : 0;
+            deleted += batch;
+        } while (batch == PURGE_BATCH_SIZE);
+
+        if (deleted > 0) {
+            log.info("Purged {} failed outbox emails older than {}", deleted, before);
+        }
+        return deleted;
+    }
+
+    //Entrega um lote; retorna quantos emails foram travados
+    int deliverBatch() {
+        List<EmailOutboxMessage> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[claimed.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = toMailMessage(claimed.get(i));
+        }
+
+        Map<Object, Exception> failed = new IdentityHashMap<>();
+        try {
+            // Um único send com vários emails = uma conexão SMTP para o lote inteiro
+            bulkheads.run(Downstream.SMTP, () -> mailSender.send(messages));
+        } catch (MailSendException e) {
+            failed.putAll(e.getFailedMessages());
+            if (failed.isEmpty()) {
+                markAll(messages, failed, e);
+            }
+        } catch (RuntimeException e) {
+            markAll(messages, failed, e);
+        }
+
+        record(claimed, messages, failed);
+        return claimed.size();
+    }
+
+    private List<EmailOutboxMessage> claim() {
+        List<EmailOutboxMessage> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutboxMessage> due = repository.lockDue(now, batchSize);
+            for (EmailOutboxMessage message : due) {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setNextAttemptAt(now.plus(claimTimeout));
+            }
+            return due;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void record(List<EmailOutboxMessage> claimed, SimpleMailMessage[] messages, Map<Object, Exception> failed) {
+        List<Long> delivered = new ArrayList<>();
+        List<EmailOutboxMessage> retries = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < messages.length; i++) {
+            EmailOutboxMessage message = claimed.get(i);
+            Exception error = failed.get(messages[i]);
+            if (error == null) {
+                delivered.add(message.getId());
+                if (message.getCreatedAt() != null) {
+                    latency.record(Duration.between(message.getCreatedAt(), now));
+                }
+                continue;
+            }
+
+            message.setLastError(truncate(error.getClass().getSimpleName() + ": " + error.getMessage()));
+            if (!countsAsAttempt(error)) {
+                // Falha do SMTP, não do email: devolve a tentativa consumida no claim
+                message.setAttempts(Math.max(0, message.getAttempts() - 1));
+                message.setNextAttemptAt(now.plus(baseBackoff));
+                deferred.increment();
+                log.warn("Email {} to {} rescheduled without consuming an attempt: {}",
+                        message.getId(), message.getRecipient(), message.getLastError());
+                retries.add(message);
+                continue;
+            }
+
+            failures.increment();
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.FAILED);
+                // Marca o momento da falha definitiva; a retenção conta a idade a partir daqui
+                message.setNextAttemptAt(now);
+                exhausted.increment();
+                log.error("Email {} to {} failed permanently after {} attempts: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), message.getLastError());
+            } else {
+                message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                log.warn("Email {} to {} failed attempt {}/{}: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), maxAttempts,
+                        message.getLastError());
+            }
+            retries.add(message);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                repository.deleteAllByIdInBatch(delivered);
+            }
+            if (!retries.isEmpty()) {
+                repository.saveAll(retries);
+            }
+        });
+
+        sent.increment(delivered.size());
+        batchSizes.record(messages.length);
+        log.debug("Email batch delivered: {} sent, {} failed", delivered.size(), retries.size());
+    }
+
+    private SimpleMailMessage toMailMessage(EmailOutboxMessage outboxMessage) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(outboxMessage.getRecipient());
+        message.setSubject(outboxMessage.getSubject());
+        message.setText(outboxMessage.getBody());
+        return message;
+    }
+
+    /*
+     * Só falhas do próprio email contam como tentativa: destinatário ou mensagem recusados pelo servidor
+     * (SendFailedException) ou mensagem inválida. Bulkhead cheio, autenticação e falhas de conexão
+     * (MessagingException sem recusa, MailSendException sem mensagens) não dizem nada sobre o email.
+     */
+    static boolean countsAsAttempt(Exception error) {
+        if (error instanceof DownstreamSaturatedException || error instanceof MailAuthenticationException) {
+            return false;
+        }
+        if (error instanceof MailSendException sendException && sendException.getFailedMessages().isEmpty()) {
+            return false;
+        }
+        if (error instanceof MessagingException) {
+            return error instanceof SendFailedException;
+        }
+        return true;
+    }
+
+    private static void markAll(SimpleMailMessage[] messages, Map<Object, Exception> failed, Exception error) {
+        for (SimpleMailMessage message : messages) {
+            failed.put(message, error);
+        }
+    }
+
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = baseBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
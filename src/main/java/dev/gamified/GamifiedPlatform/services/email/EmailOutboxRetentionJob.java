@@ -0,0 +1,46 @@
+package dev.gamified.GamifiedPlatform.services.email;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/*
+ * Retenção dos emails FAILED do outbox: depois de email.outbox.retention.failed-max-age desde a falha definitiva
+ * eles são removidos, para tb_email_outbox não crescer sem limite com emails que não serão mais enviados.
+ * Roda em um único nó do cluster.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxRetentionJob {
+
+    static final String LEASE_NAME = "email-outbox-retention";
+
+    private final EmailDeliveryWorker emailDeliveryWorker;
+    private final ClusterLeaseService clusterLeaseService;
+    private final MeterRegistry meterRegistry;
+
+    // Zero ou negativo desativa a retenção
+    @Value("${email.outbox.retention.failed-max-age:30d}")
+    private Duration failedMaxAge = Duration.ofDays(30);
+
+    @Scheduled(cron = "${email.outbox.retention.cron:0 50 3 * * ?}")
+    public void scheduledPurge() {
+        clusterLeaseService.runExclusively(LEASE_NAME, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                lease -> purgeFailed(LocalDateTime.now()));
+    }
+
+    long purgeFailed(LocalDateTime now) {
+        if (failedMaxAge.isZero() || failedMaxAge.isNegative()) {
+            return 0;
+        }
+        long deleted = emailDeliveryWorker.purgeFailed(now.minus(failedMaxAge));
+        meterRegistry.counter("email.outbox.purged").increment(deleted);
+        return deleted;
+    }
+}
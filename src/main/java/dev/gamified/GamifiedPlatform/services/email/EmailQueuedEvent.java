@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.services.email;
+
+/*
+ * Publicado ao gravar um email no outbox; entregue ao EmailDeliveryWorker só após o commit.
+ */
+public record EmailQueuedEvent(Long outboxId) {
+}
@@ -1,42 +1,36 @@
 package dev.gamified.GamifiedPlatform.services.email;
 
+import dev.gamified.GamifiedPlatform.domain.EmailOutboxMessage;
+import dev.gamified.GamifiedPlatform.enums.EmailOutboxStatus;
+import dev.gamified.GamifiedPlatform.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
+/*
+ * Monta os emails da plataforma e os grava no outbox (tb_email_outbox), na transação de quem chamou:
+ * se o cadastro der rollback, o email some junto. A entrega via SMTP é do EmailDeliveryWorker,
+ * fora da transação, então a requisição não espera o servidor de email.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    // Email configurado no application.yaml como remetente
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // URL base da aplicação para construir links de confirmação/redefinição
     @Value("${app.base-url}")
     private String baseUrl;
 
     public void sendVerificationEmail(String toEmail, String username, String token) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("🎮 Confirm sua conta na Gamified Platform");
-            message.setText(buildVerificationEmailBody(username, token));
-
-            // Envia o email através do JavaMailSender configurado
-            mailSender.send(message);
-            log.info("Verification email sent to: {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send verification email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send verification email", e);
-        }
+        enqueue(toEmail, "🎮 Confirm sua conta na Gamified Platform", buildVerificationEmailBody(username, token));
+        log.info("Verification email queued for: {}", toEmail);
     }
 
     private String buildVerificationEmailBody(String username, String token) {
@@ -65,20 +59,20 @@ public class EmailService {
     }
 
     public void sendPasswordResetEmail(String toEmail, String username, String token) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("🔒 Redefinição de senha - Gamified Platform");
-            message.setText(buildPasswordResetEmailBody(username, token));
+        enqueue(toEmail, "🔒 Redefinição de senha - Gamified Platform", buildPasswordResetEmailBody(username, token));
+        log.info("Password reset email queued for: {}", toEmail);
+    }
 
-            // Envia o email através do JavaMailSender configurado
-            mailSender.send(message);
-            log.info("Password reset email sent to: {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send password reset email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send password reset email", e);
-        }
+    private void enqueue(String toEmail, String subject, String body) {
+        EmailOutboxMessage message = outboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(body)
+                .status(EmailOutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        // Acorda um worker assim que a transação confirmar (sem esperar o próximo poll)
+        eventPublisher.publishEvent(new EmailQueuedEvent(message.getId()));
     }
 
     private String buildPasswordResetEmailBody(String username, String token) {
@@ -2,7 +2,9 @@ package dev.gamified.GamifiedPlatform.services.email;
 
 import dev.gamified.GamifiedPlatform.domain.User;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.RateLimitExceededException;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitResult;
 import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -87,10 +89,11 @@ public class EmailVerificationService {
     @Transactional
     public void resendVerificationEmail(String email) {
         // Verifica rate limiting para prevenir spam
-        if (!rateLimitService.isEmailVerificationAllowed(email)) {
-            long resetTime = rateLimitService.getResetTime("email_verification:" + email);
-            throw new BusinessException(
-                "Too many verification email requests. Please try again in " + (resetTime / 60) + " minutes"
+        RateLimitResult rateLimit = rateLimitService.checkEmailVerification(email);
+        if (!rateLimit.allowed()) {
+            throw new RateLimitExceededException(
+                "Too many verification email requests. Please try again in " + (rateLimit.resetSeconds() / 60) + " minutes",
+                rateLimit.limit(), rateLimit.remaining(), rateLimit.resetSeconds()
             );
         }
 
@@ -1,9 +1,12 @@
 package dev.gamified.GamifiedPlatform.services.grimoire;
 
 import dev.gamified.GamifiedPlatform.domain.Grimoire;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.GrimoireRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
 import io.minio.MinioClient;
 import io.minio.RemoveObjectArgs;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class DeleteGrimoireService {
 
     private final MinioClient minioClient;
+    private final DownstreamBulkheads bulkheads;
     private final GrimoireRepository grimoireRepository;
 
     /*
@@ -30,15 +34,20 @@ public class DeleteGrimoireService {
                 .orElseThrow(() -> new ResourceNotFoundException("Grimoire not found for level: " + levelId));
 
         try {
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
-                            .bucket(grimoire.getMinioBucket())
-                            .object(grimoire.getMinioObjectKey())
-                            .build()
-            );
+            bulkheads.callOnRequest(Downstream.MINIO, () -> {
+                minioClient.removeObject(
+                        RemoveObjectArgs.builder()
+                                .bucket(grimoire.getMinioBucket())
+                                .object(grimoire.getMinioObjectKey())
+                                .build()
+                );
+                return null;
+            });
 
             grimoireRepository.delete(grimoire);
             log.info("Grimoire deleted successfully - id: {}", grimoire.getId());
+        } catch (DownstreamSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error deleting grimoire from MinIO", e);
             throw new BusinessException("Failed to delete grimoire: " + e.getMessage());
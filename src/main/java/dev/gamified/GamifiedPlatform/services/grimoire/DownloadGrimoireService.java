@@ -5,13 +5,16 @@ import dev.gamified.GamifiedPlatform.domain.Grimoire;
 import dev.gamified.GamifiedPlatform.domain.GrimoireDownload;
 import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
 import dev.gamified.GamifiedPlatform.domain.User;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
 import dev.gamified.GamifiedPlatform.exceptions.AccessDeniedException;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.GrimoireDownloadRepository;
 import dev.gamified.GamifiedPlatform.repository.GrimoireRepository;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
 import io.minio.GetObjectArgs;
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +31,7 @@ import java.time.LocalDateTime;
 public class DownloadGrimoireService {
 
     private final MinioClient minioClient;
+    private final DownstreamBulkheads bulkheads;
     private final GrimoireRepository grimoireRepository;
     private final GrimoireDownloadRepository downloadRepository;
     private final PlayerCharacterRepository playerCharacterRepository;
@@ -69,15 +73,18 @@ public class DownloadGrimoireService {
                     .build();
 
             downloadRepository.save(download);
-            InputStream stream = minioClient.getObject(
+            // A permissão do MinIO fica com o stream até o controller terminar de enviá-lo e fechá-lo
+            InputStream stream = bulkheads.openStream(Downstream.MINIO_DOWNLOAD, () -> minioClient.getObject(
                     GetObjectArgs.builder()
                             .bucket(grimoire.getMinioBucket())
                             .object(grimoire.getMinioObjectKey())
                             .build()
-            );
+            ));
 
             log.info("Grimoire downloaded successfully - grimoire: {}, user: {}", grimoire.getId(), currentUser.getId());
             return stream;
+        } catch (DownstreamSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error downloading grimoire from MinIO", e);
             throw new BusinessException("Failed to download grimoire: " + e.getMessage());
@@ -5,12 +5,15 @@ import dev.gamified.GamifiedPlatform.domain.Grimoire;
 import dev.gamified.GamifiedPlatform.domain.Levels;
 import dev.gamified.GamifiedPlatform.domain.User;
 import dev.gamified.GamifiedPlatform.dtos.response.grimoire.GrimoireResponse;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.GrimoireDownloadRepository;
 import dev.gamified.GamifiedPlatform.repository.GrimoireRepository;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,7 @@ public class UploadGrimoireService {
     private static final String ALLOWED_CONTENT_TYPE = "application/pdf";
     private static final long MAX_FILE_SIZE = 50 * 1024 * 1024;
     private final MinioClient minioClient;
+    private final DownstreamBulkheads bulkheads;
     private final GrimoireRepository grimoireRepository;
     private final GrimoireDownloadRepository downloadRepository;
     private final LevelRepository levelRepository;
@@ -67,14 +71,14 @@ public class UploadGrimoireService {
             String uniqueFileName = UUID.randomUUID() + "." + fileExtension;
             String objectKey = "level-" + level.getOrderLevel() + "/" + uniqueFileName;
 
-            minioClient.putObject(
+            bulkheads.callOnRequest(Downstream.MINIO, () -> minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(grimoiresBucket)
                             .object(objectKey)
                             .stream(file.getInputStream(), file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build()
-            );
+            ));
 
             Grimoire grimoire = Grimoire.builder()
                     .level(level)
@@ -91,6 +95,8 @@ public class UploadGrimoireService {
             grimoire = grimoireRepository.save(grimoire);
             log.info("Grimoire uploaded successfully - id: {}, level: {}", grimoire.getId(), level.getName());
             return buildGrimoireResponse(grimoire);
+        } catch (DownstreamSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error uploading grimoire to MinIO", e);
             throw new BusinessException("Failed to upload grimoire: " + e.getMessage());
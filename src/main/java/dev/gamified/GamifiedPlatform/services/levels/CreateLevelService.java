@@ -8,6 +8,7 @@ import dev.gamified.GamifiedPlatform.mapper.LevelMapper;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +21,7 @@ import org.springframework.stereotype.Service;
 public class CreateLevelService {
 
     private final LevelRepository levelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Cria um novo nível na jornada épica de aprendizado.
@@ -44,6 +46,7 @@ public class CreateLevelService {
         try {
             // Salvar o nível no repositório
             Levels savedLevel = levelRepository.save(level);
+            eventPublisher.publishEvent(new LevelsChangedEvent(savedLevel.getId()));
 
             // Mapear Levels para LevelResponse
             return LevelMapper.toResponse(savedLevel);
@@ -4,6 +4,7 @@ import dev.gamified.GamifiedPlatform.domain.Levels;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 public class DeleteLevelService {
 
     private final LevelRepository levelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /*
      * Deleta um nível existente na plataforma gamificada.
@@ -20,6 +22,7 @@ public class DeleteLevelService {
         Levels level = levelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Level with id " + id + " not found"));
         levelRepository.delete(level);
+        eventPublisher.publishEvent(new LevelsChangedEvent(id));
     }
 
 }
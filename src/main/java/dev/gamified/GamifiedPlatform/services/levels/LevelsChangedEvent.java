@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.services.levels;
+
+/*
+ * Publicado ao criar, atualizar ou remover um nível; caches da tabela de níveis são descartados após o commit.
+ */
+public record LevelsChangedEvent(Long levelId) {
+}
@@ -8,6 +8,7 @@ import dev.gamified.GamifiedPlatform.mapper.LevelMapper;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 public class UpdateLevelService {
 
     private final LevelRepository levelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Atualiza um nível existente
@@ -29,6 +31,7 @@ public class UpdateLevelService {
 
         LevelMapper.updateEntityFromRequest(level, request);
         Levels updatedLevel = levelRepository.save(level);
+        eventPublisher.publishEvent(new LevelsChangedEvent(updatedLevel.getId()));
 
         return LevelMapper.toResponse(updatedLevel);
     }
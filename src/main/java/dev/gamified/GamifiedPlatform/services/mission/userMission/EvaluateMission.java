@@ -14,6 +14,7 @@ import dev.gamified.GamifiedPlatform.mapper.MissionMapper;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.admin.AdminStatsRecorder;
 import dev.gamified.GamifiedPlatform.services.notification.NotificationService;
 import dev.gamified.GamifiedPlatform.services.playerCharacter.AddXpToCharacterService;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,7 @@ public class EvaluateMission {
     private final PlayerCharacterRepository playerCharacterRepository;
     private final AddXpToCharacterService addXpToCharacterService;
     private final NotificationService notificationService;
+    private final AdminStatsRecorder adminStatsRecorder;
 
     @Transactional
     public UserMissionResponse execute(Long userMissionId, MissionEvaluationRequest request) {
@@ -47,6 +49,7 @@ public class EvaluateMission {
 
         updateMissionEvaluation(userMission, currentUser, request);
         processMissionResult(userMission, request.approved());
+        adminStatsRecorder.missionEvaluated(userMission, request.approved());
 
         UserMission savedUserMission = userMissionRepository.save(userMission);
         return MissionMapper.toUserMissionResponse(savedUserMission);
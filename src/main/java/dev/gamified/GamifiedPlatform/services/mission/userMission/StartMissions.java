@@ -13,6 +13,7 @@ import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.mapper.MissionMapper;
 import dev.gamified.GamifiedPlatform.repository.*;
+import dev.gamified.GamifiedPlatform.services.admin.AdminStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,7 @@ public class StartMissions {
     private final MissionRepository missionRepository;
     private final UserRepository userRepository;
     private final PlayerCharacterRepository playerCharacterRepository;
+    private final AdminStatsRecorder adminStatsRecorder;
 
     /*
      * Inicia uma missão para um usuário específico.
@@ -57,6 +59,7 @@ public class StartMissions {
         UserMission userMission = findOrCreateUserMission(currentUser, mission);
         validateMissionStatus(userMission);
 
+        adminStatsRecorder.missionStarting(userMission);
         startMission(userMission);
 
         UserMission savedUserMission = userMissionRepository.save(userMission);
@@ -5,8 +5,10 @@ import dev.gamified.GamifiedPlatform.dtos.response.levels.LevelResponse;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.services.levels.CalculateLevelByXpService;
+import dev.gamified.GamifiedPlatform.services.ranking.CharacterXpChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,7 @@ public class AddXpToCharacterService {
 
     private final PlayerCharacterRepository characterRepository;
     private final CalculateLevelByXpService calculateLevelByXp;
+    private final ApplicationEventPublisher eventPublisher;
 
     /*
      * Adiciona XP ao personagem e recalcular seu nível baseado na tabela tb_levels.
@@ -42,6 +45,11 @@ public class AddXpToCharacterService {
         // Salva alterações
         characterRepository.save(character);
 
+        // Atualiza o ranking no Redis após o commit
+        eventPublisher.publishEvent(new CharacterXpChangedEvent(
+                characterId, previousLevel, character.getLevel(), character.getXp(), xpToAdd,
+                character.getXpAchievedAt()));
+
         // Log informativo
         if (!previousLevel.equals(character.getLevel())) {
             log.info("Character {} leveled up! {} -> {} (XP: {} -> {})",
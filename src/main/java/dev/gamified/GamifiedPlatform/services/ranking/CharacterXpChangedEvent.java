@@ -0,0 +1,27 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import java.time.LocalDateTime;
+
+/*
+ * Evento publicado sempre que um personagem ganha XP.
+ * Carrega o estado anterior e o novo para que o ranking seja atualizado de forma incremental
+ * após o commit da transação, sem reconstruir os ZSETs inteiros.
+ */
+public record CharacterXpChangedEvent(
+        Long characterId,
+        Integer previousLevel,
+        Integer level,
+        Integer xp,
+        Integer xpDelta,
+        LocalDateTime xpAchievedAt
+) {
+
+    public double score() {
+        return RankingScoreCodec.encode(level, xp, xpAchievedAt);
+    }
+
+
+    public boolean levelChanged() {
+        return previousLevel != null && !previousLevel.equals(level);
+    }
+}
@@ -1,12 +1,8 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
-import dev.gamified.GamifiedPlatform.domain.Levels;
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
-import dev.gamified.GamifiedPlatform.domain.User;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
-import dev.gamified.GamifiedPlatform.repository.LevelRepository;
-import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,10 +11,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,13 +20,11 @@ import java.util.stream.Collectors;
 
 public class GetGlobalRankingService {
 
-    private static final String RANKING_CACHE_KEY = "global_ranking";
-    private final PlayerCharacterRepository playerCharacterRepository;
-    private final LevelRepository levelRepository;
     private final RedisTemplate<String, Object> redisTemplate;
-    private final RefreshRankingCacheService refreshRankingCache;
+    private final RankingNearCache rankingNearCache;
+    private final RankingRebuildCoordinator rankingRebuildCoordinator;
+    private final RankingSqlFallback rankingSqlFallback;
 
-    @Transactional(readOnly = true)
     public Page<RankingResponse> execute(Pageable pageable) {
         log.info("Fetching global ranking - page: {}, size: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
@@ -40,11 +32,16 @@ public class GetGlobalRankingService {
         validatePagination(pageable);
 
         ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        Long cacheSize = zSetOps.size(RANKING_CACHE_KEY);
+        Long cacheSize = zSetOps.size(RankingCacheKeys.GLOBAL);
 
         if (cacheSize == null || cacheSize == 0) {
-            refreshRankingCache.execute();
-            cacheSize = zSetOps.size(RANKING_CACHE_KEY);
+            // Cache frio: uma única reconstrução por vez; se não terminar a tempo, responde pelo banco
+            if (rankingRebuildCoordinator.awaitRebuild(RankingCacheKeys.GLOBAL)) {
+                cacheSize = zSetOps.size(RankingCacheKeys.GLOBAL);
+            }
+            if (cacheSize == null || cacheSize == 0) {
+                return rankingSqlFallback.globalPage(pageable);
+            }
         }
 
         long start = pageable.getOffset();
@@ -52,32 +49,24 @@ public class GetGlobalRankingService {
 
 
 
-        Set<Object> characterIds = zSetOps.reverseRange(RANKING_CACHE_KEY, start, end);
+        Set<ZSetOperations.TypedTuple<Object>> entries =
+                zSetOps.reverseRangeWithScores(RankingCacheKeys.GLOBAL, start, end);
 
-        if (characterIds == null || characterIds.isEmpty()) {
+        if (entries == null || entries.isEmpty()) {
             return new PageImpl<>(List.of(), pageable, cacheSize != null ? cacheSize : 0);
         }
 
-        //Converte IDs para List<Long>
-        List<Long> charIds = characterIds.stream()
-                .map(id -> ((Number) id).longValue())
-                .collect(Collectors.toList());
-
-        List<PlayerCharacter> characters = playerCharacterRepository.findAllByIdInWithUser(charIds);
-
-        //Cria mapa de characters por ID para manter a ordem do ranking
-        Map<Long, PlayerCharacter> characterMap = characters.stream()
-                .collect(Collectors.toMap(PlayerCharacter::getId, c -> c));
-
-        //Coleta todos os níveis únicos necessários
-        Set<Integer> levelOrders = characters.stream()
-                .map(PlayerCharacter::getLevel)
-                .collect(Collectors.toSet());
+        //Scores na ordem do Redis; nível e XP exibidos saem do próprio score, então a página é coerente com a ordem
+        Map<Long, Double> scoresById = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<Object> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                scoresById.put(((Number) entry.getValue()).longValue(), entry.getScore());
+            }
+        }
+        List<Long> charIds = new ArrayList<>(scoresById.keySet());
 
-        //Busca todos os níveis em uma única query
-        Map<Integer, Levels> levelsMap = levelRepository.findAllByOrderLevelIn(levelOrders)
-                .stream()
-                .collect(Collectors.toMap(Levels::getOrderLevel, l -> l));
+        //Linhas e nomes de nível vêm do near-cache; só ids ausentes da memória vão ao banco
+        Map<Long, RankingCharacterRow> rows = rankingNearCache.getRows(charIds);
 
         //Monta a resposta mantendo a ordem do ranking
         List<RankingResponse> ranking = new ArrayList<>();
@@ -85,28 +74,29 @@ public class GetGlobalRankingService {
         Long currentUserId = SecurityUtils.getCurrentUserId().orElse(null);
 
         for (Long charId : charIds) {
-            PlayerCharacter character = characterMap.get(charId);
+            RankingCharacterRow row = rows.get(charId);
 
-            if (character != null) {
-                User user = character.getUser();
-                Levels level = levelsMap.get(character.getLevel());
+            if (row != null) {
+                double score = scoresById.get(charId);
+                int levelOrder = RankingScoreCodec.level(score);
+                RankingNearCache.LevelLabel level = rankingNearCache.level(levelOrder);
 
                 ranking.add(RankingResponse.builder()
                         .position(position)
-                        .userId(user.getId())
-                        .username(user.getUsername())
-                        .characterName(character.getName())
-                        .level(character.getLevel())
-                        .xp(character.getXp())
-                        .levelName(level != null ? level.getName() : "Unknown")
-                        .levelTitle(level != null ? level.getTitle() : "Unknown")
-                        .isMe(currentUserId != null && currentUserId.equals(user.getId()))
+                        .userId(row.userId())
+                        .username(row.username())
+                        .characterName(row.characterName())
+                        .level(levelOrder)
+                        .xp(RankingScoreCodec.xp(score))
+                        .levelName(level.name())
+                        .levelTitle(level.title())
+                        .isMe(currentUserId != null && currentUserId.equals(row.userId()))
                         .build());
                 position++;
             }
         }
 
-        log.debug("Ranking fetched with {} entries using optimized batch queries", ranking.size());
+        log.debug("Ranking fetched with {} entries hydrated from near-cache", ranking.size());
         return new PageImpl<>(ranking, pageable, cacheSize != null ? cacheSize : 0);
     }
 
@@ -6,22 +6,44 @@ import dev.gamified.GamifiedPlatform.domain.Levels;
 import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.MyRankingResponse;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingInfo;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingNeighborResponse;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GetMyRankingService {
 
+    private static final int DEFAULT_NEIGHBORS = 5;
+    private static final int MAX_NEIGHBORS = 25;
+
     private final PlayerCharacterRepository playerCharacterRepository;
     private final LevelRepository levelRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
 
     public MyRankingResponse execute() {
+        return execute(DEFAULT_NEIGHBORS);
+    }
+
+    /*
+     * Posição, total e percentil vêm do ZSET global (ZREVRANK + ZCARD em um único pipeline).
+     * O SQL só é usado quando o ranking ainda não está no Redis.
+     */
+    public MyRankingResponse execute(int neighbors) {
 
         Long userId = SecurityUtils.getCurrentUserId()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -31,7 +53,16 @@ public class GetMyRankingService {
         PlayerCharacter character = playerCharacterRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Character not found for user: " + userId));
 
-        RankingInfo rankingInfo = playerCharacterRepository.findPlayerPosition(character.getId());
+        List<RankingNeighborResponse> around = List.of();
+        RankingInfo rankingInfo = findPositionInCache(character.getId());
+
+        if (rankingInfo == null) {
+            log.debug("Ranking cache cold for character {}, falling back to SQL", character.getId());
+            rankingInfo = playerCharacterRepository.findPlayerPosition(character.getId());
+        } else {
+            around = findNeighbors(character.getId(), rankingInfo.position(),
+                    Math.max(0, Math.min(neighbors, MAX_NEIGHBORS)));
+        }
 
         Levels level = levelRepository.findTopByOrderLevelLessThanEqualOrderByOrderLevelDesc(character.getLevel())
                 .orElse(null);
@@ -50,6 +81,61 @@ public class GetMyRankingService {
                 .levelTitle(level != null ? level.getTitle() : "Unknown")
                 .percentile(Math.round(percentile *  BusinessConstants.RANKING_PERCENTAGE_MULTIPLIER) /
                         BusinessConstants.RANKING_PERCENTAGE_MULTIPLIER)
+                .neighbors(around)
                 .build();
     }
+
+    //Retorna null se o personagem ainda não estiver no ZSET (cache frio)
+    private RankingInfo findPositionInCache(Long characterId) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForZSet().reverseRank(RankingCacheKeys.GLOBAL, characterId);
+                ops.opsForZSet().zCard(RankingCacheKeys.GLOBAL);
+                return null;
+            }
+        });
+
+        if (results == null || results.size() < 2
+                || !(results.get(0) instanceof Number rank)
+                || !(results.get(1) instanceof Number total)
+                || total.longValue() == 0) {
+            return null;
+        }
+
+        return new RankingInfo(rank.longValue() + 1, total.longValue());
+    }
+
+    private List<RankingNeighborResponse> findNeighbors(Long characterId, long position, int neighbors) {
+        if (neighbors == 0) {
+            return List.of();
+        }
+
+        long rank = position - 1;
+        long start = Math.max(0, rank - neighbors);
+        Set<TypedTuple<Object>> window = redisTemplate.opsForZSet()
+                .reverseRangeWithScores(RankingCacheKeys.GLOBAL, start, rank + neighbors);
+
+        if (window == null || window.isEmpty()) {
+            return List.of();
+        }
+
+        List<RankingNeighborResponse> around = new ArrayList<>(window.size());
+        long current = start + 1;
+        for (TypedTuple<Object> entry : window) {
+            long id = ((Number) entry.getValue()).longValue();
+            double score = entry.getScore() != null ? entry.getScore() : 0.0;
+
+            around.add(RankingNeighborResponse.builder()
+                    .position(current++)
+                    .characterId(id)
+                    .level(RankingScoreCodec.level(score))
+                    .xp(RankingScoreCodec.xp(score))
+                    .isMe(characterId.equals(id))
+                    .build());
+        }
+        return around;
+    }
 }
@@ -0,0 +1,141 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
+import dev.gamified.GamifiedPlatform.enums.RankingPeriod;
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+/*
+ * Ranking de XP ganho por período (dia, semana, mês ou janela móvel de N dias).
+ * Os ZSETs são alimentados pelo RecordPeriodXpService; as janelas móveis são montadas com ZUNIONSTORE
+ * dos ZSETs diários e ficam em cache por alguns segundos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GetPeriodRankingService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RankingNearCache rankingNearCache;
+
+    @Value("${ranking.periods.rolling-ttl:60s}")
+    private Duration rollingTtl = Duration.ofSeconds(60);
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public Page<RankingResponse> execute(RankingPeriod period, Pageable pageable) {
+        log.info("Fetching {} ranking - page: {}, size: {}",
+                period, pageable.getPageNumber(), pageable.getPageSize());
+
+        validatePagination(pageable);
+
+        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        String key = resolveKey(period, zSetOps);
+
+        Long total = zSetOps.size(key);
+        long start = pageable.getOffset();
+        long end = start + pageable.getPageSize() - 1;
+
+        Set<ZSetOperations.TypedTuple<Object>> entries = zSetOps.reverseRangeWithScores(key, start, end);
+        if (entries == null || entries.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total != null ? total : 0);
+        }
+
+        Map<Long, Integer> xpById = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<Object> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                xpById.put(((Number) entry.getValue()).longValue(), entry.getScore().intValue());
+            }
+        }
+        List<Long> charIds = new ArrayList<>(xpById.keySet());
+
+        //Nível atual vem do ranking global (ZMSCORE), o restante do near-cache
+        List<Double> globalScores = zSetOps.score(RankingCacheKeys.GLOBAL, charIds.toArray());
+        Map<Long, RankingCharacterRow> rows = rankingNearCache.getRows(charIds);
+
+        List<RankingResponse> ranking = new ArrayList<>();
+        int position = (pageable.getPageNumber() * pageable.getPageSize()) + 1;
+        Long currentUserId = SecurityUtils.getCurrentUserId().orElse(null);
+
+        for (int i = 0; i < charIds.size(); i++) {
+            Long charId = charIds.get(i);
+            RankingCharacterRow row = rows.get(charId);
+            if (row == null) continue;
+
+            Double globalScore = globalScores != null && i < globalScores.size() ? globalScores.get(i) : null;
+            Integer levelOrder = globalScore != null ? RankingScoreCodec.level(globalScore) : null;
+            RankingNearCache.LevelLabel level = levelOrder != null
+                    ? rankingNearCache.level(levelOrder)
+                    : RankingNearCache.LevelLabel.UNKNOWN;
+
+            ranking.add(RankingResponse.builder()
+                    .position(position)
+                    .userId(row.userId())
+                    .username(row.username())
+                    .characterName(row.characterName())
+                    .level(levelOrder)
+                    .xp(xpById.get(charId))
+                    .levelName(level.name())
+                    .levelTitle(level.title())
+                    .isMe(currentUserId != null && currentUserId.equals(row.userId()))
+                    .build());
+            position++;
+        }
+
+        return new PageImpl<>(ranking, pageable, total != null ? total : 0);
+    }
+
+    private String resolveKey(RankingPeriod period, ZSetOperations<String, Object> zSetOps) {
+        LocalDate today = LocalDate.now(clock);
+        return switch (period) {
+            case DAILY -> RankingCacheKeys.daily(today);
+            case WEEKLY -> RankingCacheKeys.weekly(today);
+            case MONTHLY -> RankingCacheKeys.monthly(today);
+            case LAST_7_DAYS, LAST_30_DAYS -> rollingKey(period.getRollingDays(), today, zSetOps);
+        };
+    }
+
+    //Soma os ZSETs diários da janela; o resultado é reaproveitado até expirar
+    private String rollingKey(int days, LocalDate today, ZSetOperations<String, Object> zSetOps) {
+        String rollingKey = RankingCacheKeys.rolling(days, today);
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(rollingKey))) {
+            return rollingKey;
+        }
+
+        List<String> otherDays = new ArrayList<>(days - 1);
+        for (int i = 1; i < days; i++) {
+            otherDays.add(RankingCacheKeys.daily(today.minusDays(i)));
+        }
+        zSetOps.unionAndStore(RankingCacheKeys.daily(today), otherDays, rollingKey);
+        redisTemplate.expire(rollingKey, rollingTtl);
+        return rollingKey;
+    }
+
+    private void validatePagination(Pageable pageable) {
+        if (pageable.getPageSize() > 1000) {
+            throw new BusinessException("Page size cannot exceed 1000");
+        }
+        if (pageable.getOffset() < 0) {
+            throw new BusinessException("Invalid page offset");
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
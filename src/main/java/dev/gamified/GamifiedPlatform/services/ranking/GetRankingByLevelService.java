@@ -1,13 +1,9 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 
 import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
-import dev.gamified.GamifiedPlatform.domain.Levels;
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
-import dev.gamified.GamifiedPlatform.domain.User;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
-import dev.gamified.GamifiedPlatform.repository.LevelRepository;
-import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,13 +12,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,82 +25,83 @@ import java.util.stream.Collectors;
 
 public class GetRankingByLevelService {
 
-    private static final String RANKING_BY_LEVEL_PREFIX = "ranking_by_level:";
-    private final PlayerCharacterRepository playerCharacterRepository;
-    private final LevelRepository levelRepository;
     private final RedisTemplate<String, Object> redisTemplate;
-    private final RefreshRankingCacheService refreshRankingCache;
+    private final RankingNearCache rankingNearCache;
+    private final RankingRebuildCoordinator rankingRebuildCoordinator;
+    private final RankingSqlFallback rankingSqlFallback;
 
-    @Transactional
     public Page<RankingResponse> execute(Long levelId, Pageable pageable) {
 
         log.info("Fetching ranking for level: {} - page: {}, size: {}",
                 levelId, pageable.getPageNumber(), pageable.getPageSize());
 
-        Levels level = levelRepository.findById(levelId)
+        int orderLevel = rankingNearCache.findOrderLevel(levelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Level not found with id: " + levelId));
 
-        String levelKey = RANKING_BY_LEVEL_PREFIX + level.getOrderLevel();
+        String levelKey = RankingCacheKeys.byLevel(orderLevel);
         ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
 
         Long cacheSize = zSetOps.size(levelKey);
-        if (cacheSize == null || cacheSize == 0) {
-            refreshRankingCache.execute();
-            cacheSize = zSetOps.size(levelKey);
+        // Nível vazio com o ranking global populado é só um nível sem jogadores, não cache frio
+        if ((cacheSize == null || cacheSize == 0) && isGlobalRankingEmpty(zSetOps)) {
+            if (rankingRebuildCoordinator.awaitRebuild(RankingCacheKeys.GLOBAL)) {
+                cacheSize = zSetOps.size(levelKey);
+            }
+            if (cacheSize == null || cacheSize == 0) {
+                return rankingSqlFallback.levelPage(orderLevel, pageable);
+            }
         }
 
         long start = pageable.getOffset();
         long end = start + pageable.getPageSize() - 1;
 
-        Set<Object> characterIds = zSetOps.reverseRange(levelKey, start, end);
-        if (characterIds == null || characterIds.isEmpty()) {
+        Set<ZSetOperations.TypedTuple<Object>> entries = zSetOps.reverseRangeWithScores(levelKey, start, end);
+        if (entries == null || entries.isEmpty()) {
             return new PageImpl<>(List.of(), pageable, cacheSize != null ? cacheSize : 0);
         }
 
-        //Converte IDs para List<Long> mantendo a ordem do Redis
-        List<Long> charIds = characterIds.stream()
-                .map(id -> ((Number) id).longValue())
-                .toList();
-
-        //Reaproveita o mesmo método do global ranking
-        List<PlayerCharacter> characters = playerCharacterRepository.findAllByIdInWithUser(charIds);
-
-        //Mapa por ID para manter a ordem do Redis
-        Map<Long, PlayerCharacter> characterMap = characters.stream()
-                .collect(Collectors.toMap(PlayerCharacter::getId, c -> c));
-
-        Set<Integer> levelOrders = characters.stream()
-                .map(PlayerCharacter::getLevel)
-                .collect(Collectors.toSet());
+        //Scores mantendo a ordem do Redis; nível e XP exibidos são decodificados do score
+        Map<Long, Double> scoresById = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<Object> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                scoresById.put(((Number) entry.getValue()).longValue(), entry.getScore());
+            }
+        }
+        List<Long> charIds = new ArrayList<>(scoresById.keySet());
 
-        Map<Integer, Levels> levelsMap = levelRepository.findAllByOrderLevelIn(levelOrders)
-                .stream()
-                .collect(Collectors.toMap(Levels::getOrderLevel, l -> l));
+        //Mesmo near-cache do ranking global
+        Map<Long, RankingCharacterRow> rows = rankingNearCache.getRows(charIds);
 
         List<RankingResponse> ranking = new ArrayList<>();
         int position = (pageable.getPageNumber() * pageable.getPageSize()) + 1;
         Long currentUserId = SecurityUtils.getCurrentUserId().orElse(null);
 
         for (Long charId : charIds) {
-            PlayerCharacter character = characterMap.get(charId);
-            if (character == null) continue;
+            RankingCharacterRow row = rows.get(charId);
+            if (row == null) continue;
 
-            User user = character.getUser();
-            Levels charLevel = levelsMap.get(character.getLevel());
+            double score = scoresById.get(charId);
+            int levelOrder = RankingScoreCodec.level(score);
+            RankingNearCache.LevelLabel charLevel = rankingNearCache.level(levelOrder);
 
             ranking.add(RankingResponse.builder()
                     .position(position)
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .characterName(character.getName())
-                    .level(character.getLevel())
-                    .xp(character.getXp())
-                    .levelName(charLevel != null ? charLevel.getName() : "Unknown")
-                    .levelTitle(charLevel != null ? charLevel.getTitle() : "Unknown")
-                    .isMe(currentUserId != null && currentUserId.equals(user.getId()))
+                    .userId(row.userId())
+                    .username(row.username())
+                    .characterName(row.characterName())
+                    .level(levelOrder)
+                    .xp(RankingScoreCodec.xp(score))
+                    .levelName(charLevel.name())
+                    .levelTitle(charLevel.title())
+                    .isMe(currentUserId != null && currentUserId.equals(row.userId()))
                     .build());
             position++;
         }
         return new PageImpl<>(ranking, pageable, cacheSize != null ? cacheSize : 0);
     }
+
+    private boolean isGlobalRankingEmpty(ZSetOperations<String, Object> zSetOps) {
+        Long globalSize = zSetOps.size(RankingCacheKeys.GLOBAL);
+        return globalSize == null || globalSize == 0;
+    }
 }
@@ -0,0 +1,91 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Agrupa os personagens por nível em uma única passada, usando arrays primitivos indexados pelo orderLevel
+ * (sem boxing de Integer/Long nem um HashMap por nível).
+ * Também calcula uma impressão digital independente de ordem de cada nível, para detectar
+ * quais níveis mudaram desde a última reconstrução.
+ */
+final class LevelRankingPartition {
+
+    private static final int INITIAL_LEVELS = 16;
+    private static final int INITIAL_MEMBERS = 64;
+
+    private long[][] ids = new long[INITIAL_LEVELS][];
+    private long[][] scores = new long[INITIAL_LEVELS][];
+    private int[] sizes = new int[INITIAL_LEVELS];
+    private long[] fingerprints = new long[INITIAL_LEVELS];
+    private int maxLevel = 0;
+
+    //score: valor já codificado pelo RankingScoreCodec (inteiro exato de até 53 bits)
+    void add(int level, long characterId, double score) {
+        if (level < 0) {
+            throw new IllegalArgumentException("Level must not be negative: " + level);
+        }
+        ensureLevelCapacity(level);
+
+        int size = sizes[level];
+        if (ids[level] == null) {
+            ids[level] = new long[INITIAL_MEMBERS];
+            scores[level] = new long[INITIAL_MEMBERS];
+        } else if (size == ids[level].length) {
+            ids[level] = Arrays.copyOf(ids[level], size * 2);
+            scores[level] = Arrays.copyOf(scores[level], size * 2);
+        }
+
+        ids[level][size] = characterId;
+        long encoded = (long) score;
+        scores[level][size] = encoded;
+        sizes[level] = size + 1;
+        // Soma de hashes: o resultado não depende da ordem em que os personagens chegam
+        fingerprints[level] += mix(characterId * 31 + encoded);
+        maxLevel = Math.max(maxLevel, level);
+    }
+
+    int maxLevel() {
+        return maxLevel;
+    }
+
+    int size(int level) {
+        return level < sizes.length ? sizes[level] : 0;
+    }
+
+    //Impressão digital do conjunto (id, score) do nível; "0:0" quando o nível está vazio
+    String fingerprint(int level) {
+        return size(level) + ":" + Long.toHexString(level < fingerprints.length ? fingerprints[level] : 0L);
+    }
+
+    List<TypedTuple<Object>> members(int level) {
+        int size = size(level);
+        List<TypedTuple<Object>> members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            members.add(TypedTuple.of(ids[level][i], (double) scores[level][i]));
+        }
+        return members;
+    }
+
+    private void ensureLevelCapacity(int level) {
+        if (level < sizes.length) {
+            return;
+        }
+        int capacity = Math.max(level + 1, sizes.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        fingerprints = Arrays.copyOf(fingerprints, capacity);
+    }
+
+    //Finalizador do SplitMix64: espalha bem os bits para a soma não colidir com facilidade
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
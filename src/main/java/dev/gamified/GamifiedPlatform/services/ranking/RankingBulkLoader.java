@@ -0,0 +1,213 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ * Carga em massa dos ZSETs de ranking.
+ * Agrupa vários membros por ZADD e envia todos os comandos de um bloco em um único pipeline,
+ * trocando um round trip por personagem por um round trip por bloco.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankingBulkLoader {
+
+    /*
+     * KEYS: [lease, updates, global, temp1, final1, temp2, final2, ..., stale1, stale2, ...]
+     * ARGV: [valor esperado do lease, desde (epoch ms), divisor do nível no score, prefixo dos níveis,
+     *        número de pares temp/final]
+     * Retorna -1 sem tocar em nenhuma chave se o lease não tiver mais o valor esperado (fencing atômico).
+     * Scores são repassados como as strings devolvidas pelo ZSCORE para não perder precisão.
+     */
+    private static final RedisScript<Long> SWAP = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return -1 end " +
+            "local since, divisor, prefix, count = ARGV[2], tonumber(ARGV[3]), ARGV[4], tonumber(ARGV[5]) " +
+            "local tempGlobal, tempByLevel = nil, {} " +
+            "for i = 0, count - 1 do " +
+            "  local temp, target = KEYS[4 + 2 * i], KEYS[5 + 2 * i] " +
+            "  if target == KEYS[3] then tempGlobal = temp " +
+            "  else tempByLevel[string.sub(target, #prefix + 1)] = temp end " +
+            "end " +
+            "for i = 4 + 2 * count, #KEYS do redis.call('DEL', KEYS[i]) end " +
+            "local merged = 0 " +
+            "if tempGlobal then " +
+            "  for _, member in ipairs(redis.call('ZRANGEBYSCORE', KEYS[2], since, '+inf')) do " +
+            "    local live = redis.call('ZSCORE', KEYS[3], member) " +
+            "    local rebuilt = redis.call('ZSCORE', tempGlobal, member) " +
+            "    if live and (not rebuilt or tonumber(live) > tonumber(rebuilt)) then " +
+            "      redis.call('ZADD', tempGlobal, live, member) " +
+            "      local level = tostring(math.floor(tonumber(live) / divisor)) " +
+            "      for other, temp in pairs(tempByLevel) do " +
+            "        if other ~= level then redis.call('ZREM', temp, member) end " +
+            "      end " +
+            "      redis.call('ZADD', tempByLevel[level] or (prefix .. level), live, member) " +
+            "      merged = merged + 1 " +
+            "    end " +
+            "  end " +
+            "end " +
+            "for i = 0, count - 1 do " +
+            "  local temp, target = KEYS[4 + 2 * i], KEYS[5 + 2 * i] " +
+            "  if redis.call('EXISTS', temp) == 1 then redis.call('RENAME', temp, target) " +
+            "  else redis.call('DEL', target) end " +
+            "end " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. since) " +
+            "return merged ", Long.class);
+
+    private static final RedisSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${ranking.bulk-load.batch-size:500}")
+    private int batchSize = 500;
+
+    /*
+     * Envia os membros de cada chave em comandos ZADD de até batchSize membros, todos no mesmo pipeline.
+     * Retorna o número de comandos enviados.
+     */
+    public int load(Map<String, List<TypedTuple<Object>>> membersByKey) {
+        if (membersByKey.isEmpty()) {
+            return 0;
+        }
+
+        int commands = 0;
+        for (List<TypedTuple<Object>> members : membersByKey.values()) {
+            commands += (members.size() + batchSize - 1) / batchSize;
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+
+                membersByKey.forEach((key, members) -> {
+                    for (int from = 0; from < members.size(); from += batchSize) {
+                        List<TypedTuple<Object>> batch = members.subList(from, Math.min(from + batchSize, members.size()));
+                        ops.opsForZSet().add(key, new LinkedHashSet<>(batch));
+                    }
+                });
+                return null;
+            }
+        });
+
+        return commands;
+    }
+
+    /*
+     * Publica as chaves temporárias (RENAME) e remove as chaves obsoletas em um único script,
+     * para que leitores nunca vejam um ranking global e por nível de gerações diferentes.
+     *
+     * Antes do RENAME, os personagens atualizados pelo UpdateRankingScoreService desde mergeUpdatesSince
+     * (RankingCacheKeys.RECENT_UPDATES) levam o score ao vivo para o snapshot quando ele é maior:
+     * scores só crescem, então o maior valor é o mais recente e nenhum ganho de XP durante a reconstrução se perde.
+     * O personagem também é movido para o ZSET do nível correspondente a esse score.
+     * Retorna quantos personagens vieram do ranking ao vivo.
+     *
+     * O script só publica se o lease ainda tiver o valor deste nó; a verificação acontece dentro dele,
+     * então um lease expirado e assumido por outro nó nunca deixa um snapshot antigo sobrescrever o novo.
+     */
+    public long swap(ClusterLease lease, Map<String, String> tempToFinalKeys, Collection<String> keysToDelete,
+                     long mergeUpdatesSince) {
+        List<String> keys = new ArrayList<>(3 + tempToFinalKeys.size() * 2 + keysToDelete.size());
+        keys.add(lease.key());
+        keys.add(RankingCacheKeys.RECENT_UPDATES);
+        keys.add(RankingCacheKeys.GLOBAL);
+        tempToFinalKeys.forEach((temp, target) -> {
+            keys.add(temp);
+            keys.add(target);
+        });
+        keys.addAll(keysToDelete);
+
+        Long merged = redisTemplate.execute(SWAP, RedisSerializer.string(), LONG_RESULT, keys,
+                lease.value(),
+                String.valueOf(mergeUpdatesSince),
+                String.valueOf(1L << (RankingScoreCodec.XP_BITS + RankingScoreCodec.TIME_BITS)),
+                RankingCacheKeys.BY_LEVEL_PREFIX,
+                String.valueOf(tempToFinalKeys.size()));
+
+        if (merged != null && merged < 0) {
+            throw new IllegalStateException("Lease '" + lease.name() + "' lost (token " + lease.token()
+                    + "), discarding rebuild");
+        }
+        log.debug("Swapped {} ranking keys, removed {} stale keys, merged {} live updates",
+                tempToFinalKeys.size(), keysToDelete.size(), merged);
+        return merged != null ? merged : 0L;
+    }
+
+    //ZCARD de cada ZSET de nível em um único pipeline (orderLevel -> membros; 0 quando a chave não existe).
+    public Map<Integer, Long> levelSizes(Collection<Integer> levels) {
+        if (levels.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Integer> ordered = new ArrayList<>(levels);
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ordered.forEach(level -> ops.opsForZSet().zCard(RankingCacheKeys.byLevel(level)));
+                return null;
+            }
+        });
+
+        Map<Integer, Long> sizes = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            Object reply = i < replies.size() ? replies.get(i) : null;
+            sizes.put(ordered.get(i), reply instanceof Number number ? number.longValue() : 0L);
+        }
+        return sizes;
+    }
+
+    //Impressões digitais dos níveis gravadas na última reconstrução (orderLevel -> fingerprint).
+    public Map<Integer, String> readLevelFingerprints() {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(RankingCacheKeys.LEVEL_FINGERPRINTS);
+        Map<Integer, String> fingerprints = new HashMap<>();
+        entries.forEach((level, fingerprint) ->
+                fingerprints.put(Integer.valueOf(level.toString()), String.valueOf(fingerprint)));
+        return fingerprints;
+    }
+
+    //Substitui todas as impressões digitais de uma vez (MULTI/EXEC).
+    public void writeLevelFingerprints(Map<Integer, String> fingerprints) {
+        Map<String, Object> entries = new HashMap<>();
+        fingerprints.forEach((level, fingerprint) -> entries.put(String.valueOf(level), fingerprint));
+
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+
+                ops.multi();
+                ops.delete(RankingCacheKeys.LEVEL_FINGERPRINTS);
+                if (!entries.isEmpty()) {
+                    ops.opsForHash().putAll(RankingCacheKeys.LEVEL_FINGERPRINTS, entries);
+                }
+                return ops.exec();
+            }
+        });
+    }
+
+    //Remove as chaves temporárias de uma carga que falhou.
+    public void discard(Collection<String> tempKeys) {
+        if (!tempKeys.isEmpty()) {
+            redisTemplate.delete(tempKeys);
+        }
+    }
+}
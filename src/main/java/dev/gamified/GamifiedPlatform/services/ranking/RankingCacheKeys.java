@@ -0,0 +1,55 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+
+//Chaves Redis compartilhadas pelos serviços de ranking.
+public final class RankingCacheKeys {
+
+    private RankingCacheKeys() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    //ZSET com o ranking global (membro = id do personagem).
+    public static final String GLOBAL = "global_ranking";
+
+    //ZSET dos personagens atualizados incrementalmente (membro = id do personagem, score = epoch ms da atualização).
+    public static final String RECENT_UPDATES = "global_ranking:updates";
+
+    //Prefixo dos ZSETs de ranking por nível (ranking_by_level:{orderLevel}).
+    public static final String BY_LEVEL_PREFIX = "ranking_by_level:";
+
+    //HASH com a impressão digital de cada nível na última reconstrução (campo = orderLevel).
+    public static final String LEVEL_FINGERPRINTS = "ranking_by_level:fingerprints";
+
+    //Prefixo dos ZSETs de XP ganho por período (membro = id do personagem, score = XP ganho).
+    public static final String PERIOD_PREFIX = "ranking_xp:";
+
+    private static final DateTimeFormatter YEAR_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    public static String byLevel(int orderLevel) {
+        return BY_LEVEL_PREFIX + orderLevel;
+    }
+
+    //ranking_xp:daily:2026-10-18
+    public static String daily(LocalDate date) {
+        return PERIOD_PREFIX + "daily:" + date;
+    }
+
+    //ranking_xp:weekly:2026-W42 (semana ISO, segunda a domingo)
+    public static String weekly(LocalDate date) {
+        return PERIOD_PREFIX + "weekly:" + String.format("%d-W%02d",
+                date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    //ranking_xp:monthly:2026-10
+    public static String monthly(LocalDate date) {
+        return PERIOD_PREFIX + "monthly:" + date.format(YEAR_MONTH);
+    }
+
+    //ranking_xp:rolling:7d:2026-10-18 (resultado do ZUNIONSTORE dos últimos N dias até a data)
+    public static String rolling(int days, LocalDate until) {
+        return PERIOD_PREFIX + "rolling:" + days + "d:" + until;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.gamified.GamifiedPlatform.domain.Levels;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
+import dev.gamified.GamifiedPlatform.repository.LevelRepository;
+import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
+import dev.gamified.GamifiedPlatform.services.levels.LevelsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * Near-cache em memória (por instância) para hidratar as páginas de ranking.
+ * As primeiras páginas são pedidas milhares de vezes por minuto com o mesmo conteúdo;
+ * com as linhas e os nomes de nível em memória, uma página quente não vai ao banco.
+ *
+ * Limitado por tamanho e com TTL curto: alterações de username/nome de personagem
+ * ficam visíveis em no máximo um TTL. Mudanças de XP invalidam a linha na hora.
+ * A tabela de níveis é descartada após o commit de qualquer alteração de nível neste nó;
+ * um id ausente do snapshot é conferido no banco, então níveis criados em outro nó também são achados.
+ */
+@Component
+@Slf4j
+public class RankingNearCache {
+
+    private static final String ALL_LEVELS = "all";
+
+    private final PlayerCharacterRepository playerCharacterRepository;
+    private final LevelRepository levelRepository;
+    private final Cache<Long, RankingCharacterRow> rows;
+    private final Cache<String, LevelSnapshot> levels;
+
+    public RankingNearCache(PlayerCharacterRepository playerCharacterRepository,
+                            LevelRepository levelRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${ranking.near-cache.max-size:20000}") long maxSize,
+                            @Value("${ranking.near-cache.ttl:60s}") Duration ttl,
+                            @Value("${ranking.near-cache.levels-ttl:5m}") Duration levelsTtl) {
+        this.playerCharacterRepository = playerCharacterRepository;
+        this.levelRepository = levelRepository;
+        this.rows = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.levels = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(levelsTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rows, "ranking.near-cache.rows");
+    }
+
+    /*
+     * Retorna as linhas dos ids pedidos; apenas os ids ausentes do cache geram uma consulta ao banco.
+     * Ids que não existem mais no banco simplesmente não aparecem no mapa.
+     */
+    public Map<Long, RankingCharacterRow> getRows(Collection<Long> characterIds) {
+        if (characterIds.isEmpty()) {
+            return Map.of();
+        }
+        return rows.getAll(characterIds, this::loadRows);
+    }
+
+    //Nome/título do nível; níveis são praticamente imutáveis, então a tabela inteira é carregada de uma vez
+    public LevelLabel level(int orderLevel) {
+        return levelSnapshot().byOrderLevel().getOrDefault(orderLevel, LevelLabel.UNKNOWN);
+    }
+
+    public Optional<Integer> findOrderLevel(Long levelId) {
+        Integer cached = levelSnapshot().orderLevelById().get(levelId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Snapshot pode ser anterior à criação do nível (feita em outro nó); recarrega se ele existir
+        Optional<Integer> orderLevel = levelRepository.findById(levelId).map(Levels::getOrderLevel);
+        if (orderLevel.isPresent()) {
+            levels.invalidateAll();
+        }
+        return orderLevel;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCharacterXpChanged(CharacterXpChangedEvent event) {
+        rows.invalidate(event.characterId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLevelsChanged(LevelsChangedEvent event) {
+        levels.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        rows.invalidateAll();
+        levels.invalidateAll();
+    }
+
+    private Map<Long, RankingCharacterRow> loadRows(Set<? extends Long> missingIds) {
+        log.debug("Ranking near-cache miss for {} characters", missingIds.size());
+        return playerCharacterRepository.findRankingRowsByIdIn(Set.copyOf(missingIds)).stream()
+                .collect(Collectors.toMap(RankingCharacterRow::characterId, row -> row));
+    }
+
+    private LevelSnapshot levelSnapshot() {
+        return levels.get(ALL_LEVELS, key -> loadLevels());
+    }
+
+    private LevelSnapshot loadLevels() {
+        List<Levels> all = levelRepository.findAll();
+        return new LevelSnapshot(
+                all.stream().collect(Collectors.toUnmodifiableMap(Levels::getOrderLevel,
+                        l -> new LevelLabel(l.getName(), l.getTitle()))),
+                all.stream().collect(Collectors.toUnmodifiableMap(Levels::getId, Levels::getOrderLevel)));
+    }
+
+    public record LevelLabel(String name, String title) {
+        static final LevelLabel UNKNOWN = new LevelLabel("Unknown", "Unknown");
+    }
+
+    private record LevelSnapshot(Map<Integer, LevelLabel> byOrderLevel, Map<Long, Integer> orderLevelById) {
+    }
+}
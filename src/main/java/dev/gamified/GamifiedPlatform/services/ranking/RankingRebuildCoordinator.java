@@ -0,0 +1,136 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Singleflight da reconstrução do ranking disparada por cache frio no caminho da requisição.
+ *
+ * - No processo: todas as requisições concorrentes aguardam a mesma reconstrução (um único CompletableFuture).
+ * - Entre nós: a reconstrução usa o mesmo lease do cluster da rotina agendada; se outro nó já está
+ *   reconstruindo, este apenas aguarda a chave aparecer no Redis.
+ *
+ * Quem espera tem um tempo limite; ao estourar, o chamador serve uma página degradada pelo banco.
+ * Assim um Redis vazio gera no máximo uma reconstrução por vez no cluster, não uma por requisição.
+ */
+@Component
+@Slf4j
+public class RankingRebuildCoordinator {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final RefreshRankingCacheService refreshRankingCacheService;
+    private final ClusterLeaseService clusterLeaseService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration waitTimeout;
+    private final Duration leaseTtl;
+    private final Duration remoteWait;
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ranking-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RankingRebuildCoordinator(RefreshRankingCacheService refreshRankingCacheService,
+                                     ClusterLeaseService clusterLeaseService,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${ranking.cold-cache.wait-timeout:2s}") Duration waitTimeout,
+                                     @Value("${ranking.reconciliation.lease-ttl:30m}") Duration leaseTtl,
+                                     @Value("${ranking.cold-cache.remote-wait:60s}") Duration remoteWait) {
+        this.refreshRankingCacheService = refreshRankingCacheService;
+        this.clusterLeaseService = clusterLeaseService;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.waitTimeout = waitTimeout;
+        this.leaseTtl = leaseTtl;
+        this.remoteWait = remoteWait;
+    }
+
+    /*
+     * Garante que há (no máximo) uma reconstrução em andamento e aguarda até waitTimeout.
+     * Retorna true se a reconstrução terminou a tempo; false se o chamador deve usar o fallback SQL.
+     */
+    public boolean awaitRebuild(String key) {
+        CompletableFuture<Void> flight = joinOrStart(key);
+        try {
+            flight.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            meterRegistry.counter("ranking.rebuild.wait.timeouts").increment();
+            log.warn("Ranking rebuild still running after {} ms, serving degraded page", waitTimeout.toMillis());
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Ranking rebuild failed", e.getCause());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<Void> joinOrStart(String key) {
+        while (true) {
+            CompletableFuture<Void> current = inFlight.get();
+            if (current != null) {
+                meterRegistry.counter("ranking.rebuild.coalesced").increment();
+                return current;
+            }
+
+            CompletableFuture<Void> flight = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, flight)) {
+                try {
+                    executor.execute(() -> runFlight(key, flight));
+                } catch (RejectedExecutionException e) {
+                    inFlight.compareAndSet(flight, null);
+                    flight.completeExceptionally(e);
+                }
+                return flight;
+            }
+        }
+    }
+
+    private void runFlight(String key, CompletableFuture<Void> flight) {
+        try {
+            boolean ranHere = clusterLeaseService.runExclusively(RefreshRankingCacheService.LEASE_NAME,
+                    leaseTtl, Duration.ZERO, refreshRankingCacheService::execute);
+            if (!ranHere) {
+                waitForRemoteRebuild(key);
+            }
+            flight.complete(null);
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(flight, null);
+        }
+    }
+
+    //Outro nó detém o lease: espera a chave ser publicada (ou o lease ser liberado), com limite
+    private void waitForRemoteRebuild(String key) throws InterruptedException {
+        long deadline = System.nanoTime() + remoteWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(key))
+                    || clusterLeaseService.currentHolder(RefreshRankingCacheService.LEASE_NAME).isEmpty()) {
+                return;
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        log.warn("Gave up waiting for remote ranking rebuild of {}", key);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,86 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/*
+ * Codifica nível, XP e o momento em que o XP foi alcançado em um único score inteiro de 53 bits,
+ * representável sem perda em um double (score dos ZSETs do Redis).
+ *
+ *   [ nível: 8 bits ][ xp: 28 bits ][ tempo invertido (horas): 17 bits ]
+ *
+ * A ordem do ZSET passa a ser: maior nível, depois maior XP e, no empate, quem chegou primeiro
+ * (com precisão de hora; dentro da mesma hora o Redis desempata pelo membro).
+ *
+ * Limites: nível até MAX_LEVEL (255), XP até MAX_XP (268.435.455) e datas até ~15 anos após EPOCH.
+ * Acima disso o campo é saturado no seu limite, então um XP alto nunca invade a faixa do nível seguinte,
+ * mas personagens saturados empatam entre si. Cada saturação de nível ou XP é logada e contada
+ * em ranking.score.saturated (tag field).
+ */
+@Slf4j
+public final class RankingScoreCodec {
+
+    private RankingScoreCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static final int LEVEL_BITS = 8;
+    static final int XP_BITS = 28;
+    static final int TIME_BITS = 17;
+
+    public static final int MAX_LEVEL = (1 << LEVEL_BITS) - 1;
+    public static final int MAX_XP = (1 << XP_BITS) - 1;
+    //~14,9 anos em horas a partir de EPOCH
+    static final long MAX_TIME = (1L << TIME_BITS) - 1;
+
+    //Início da contagem do desempate (horas).
+    static final LocalDateTime EPOCH = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    public static double encode(int level, int xp, LocalDateTime achievedAt) {
+        long levelPart = saturate("level", level, MAX_LEVEL);
+        long xpPart = saturate("xp", xp, MAX_XP);
+        // Invertido: quem alcançou o score antes fica acima no ZREVRANGE
+        long timePart = MAX_TIME - hoursSinceEpoch(achievedAt);
+
+        return (double) ((levelPart << (XP_BITS + TIME_BITS)) | (xpPart << TIME_BITS) | timePart);
+    }
+
+    public static int level(double score) {
+        return (int) (((long) score) >>> (XP_BITS + TIME_BITS));
+    }
+
+    public static int xp(double score) {
+        return (int) ((((long) score) >>> TIME_BITS) & MAX_XP);
+    }
+
+    //Momento (com precisão de hora) em que o score foi alcançado.
+    public static LocalDateTime achievedAt(double score) {
+        long timePart = ((long) score) & MAX_TIME;
+        return EPOCH.plusHours(MAX_TIME - timePart);
+    }
+
+    //Sem data conhecida, o personagem perde os desempates
+    private static long hoursSinceEpoch(LocalDateTime achievedAt) {
+        if (achievedAt == null) {
+            return MAX_TIME;
+        }
+        long hours = ChronoUnit.HOURS.between(EPOCH.atOffset(ZoneOffset.UTC), achievedAt.atOffset(ZoneOffset.UTC));
+        return clamp(hours, MAX_TIME);
+    }
+
+    private static long saturate(String field, long value, long max) {
+        if (value > max) {
+            Metrics.counter("ranking.score.saturated", "field", field).increment();
+            log.warn("Ranking score {} {} above the encodable maximum {}, saturating", field, value, max);
+        }
+        return clamp(value, max);
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,70 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingFallbackRow;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
+import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Página de ranking servida direto do PostgreSQL enquanto os ZSETs estão frios.
+ * Lê apenas a página pedida (LIMIT/OFFSET sobre o índice de ranking), nunca a tabela inteira.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankingSqlFallback {
+
+    private final PlayerCharacterRepository playerCharacterRepository;
+    private final RankingNearCache rankingNearCache;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(readOnly = true)
+    public Page<RankingResponse> globalPage(Pageable pageable) {
+        meterRegistry.counter("ranking.fallback.sql", "scope", "global").increment();
+        log.warn("Serving global ranking page {} from database while the cache is rebuilt", pageable.getPageNumber());
+        return toPage(playerCharacterRepository.findRankingPage(pageable), pageable,
+                playerCharacterRepository.count());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RankingResponse> levelPage(int orderLevel, Pageable pageable) {
+        meterRegistry.counter("ranking.fallback.sql", "scope", "level").increment();
+        log.warn("Serving level {} ranking page {} from database while the cache is rebuilt",
+                orderLevel, pageable.getPageNumber());
+        return toPage(playerCharacterRepository.findRankingPageByLevel(orderLevel, pageable), pageable,
+                playerCharacterRepository.countByLevel(orderLevel));
+    }
+
+    private Page<RankingResponse> toPage(List<RankingFallbackRow> rows, Pageable pageable, long total) {
+        List<RankingResponse> ranking = new ArrayList<>(rows.size());
+        int position = (pageable.getPageNumber() * pageable.getPageSize()) + 1;
+        Long currentUserId = SecurityUtils.getCurrentUserId().orElse(null);
+
+        for (RankingFallbackRow row : rows) {
+            RankingNearCache.LevelLabel level = rankingNearCache.level(row.level());
+            ranking.add(RankingResponse.builder()
+                    .position(position++)
+                    .userId(row.userId())
+                    .username(row.username())
+                    .characterName(row.characterName())
+                    .level(row.level())
+                    .xp(row.xp())
+                    .levelName(level.name())
+                    .levelTitle(level.title())
+                    .isMe(currentUserId != null && currentUserId.equals(row.userId()))
+                    .build());
+        }
+        return new PageImpl<>(ranking, pageable, total);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/*
+ * Alimenta os rankings por período (diário, semanal e mensal) com o XP ganho em cada evento.
+ * Os ZSETs expiram sozinhos; os diários vivem o suficiente para compor a janela móvel de 30 dias.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecordPeriodXpService {
+
+    static final Duration DAILY_TTL = Duration.ofDays(32);
+    static final Duration WEEKLY_TTL = Duration.ofDays(35);
+    static final Duration MONTHLY_TTL = Duration.ofDays(400);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCharacterXpChanged(CharacterXpChangedEvent event) {
+        if (event.xpDelta() == null || event.xpDelta() <= 0) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        Map<String, Duration> keys = Map.of(
+                RankingCacheKeys.daily(today), DAILY_TTL,
+                RankingCacheKeys.weekly(today), WEEKLY_TTL,
+                RankingCacheKeys.monthly(today), MONTHLY_TTL);
+
+        try {
+            // ZINCRBY + EXPIRE das três chaves em uma única ida ao Redis
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    keys.forEach((key, ttl) -> {
+                        ops.opsForZSet().incrementScore(key, event.characterId(), event.xpDelta());
+                        ops.expire(key, ttl);
+                    });
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // Ranking por período é best-effort: o XP já foi confirmado no banco
+            log.error("Failed to record period XP for character {}", event.characterId(), e);
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
@@ -1,119 +1,223 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingScoreRow;
+import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLease;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
+/*
+ * Reconstrução completa dos ZSETs de ranking.
+ * O ranking é mantido incrementalmente pelo UpdateRankingScoreService; esta rotina roda raramente
+ * apenas para reconciliar divergências (Redis reiniciado, eventos perdidos, etc).
+ * Tanto a execução agendada quanto a manual rodam em um único nó do cluster (lease no Redis com token de fencing).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @EnableCaching
 public class RefreshRankingCacheService {
 
-    private static final String RANKING_CACHE_KEY = "global_ranking";
-    private static final String RANKING_BY_LEVEL_PREFIX = "ranking_by_level:";
     private final PlayerCharacterRepository playerCharacterRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final LevelRepository levelRepository;
+    private final RankingBulkLoader rankingBulkLoader;
+    private final MeterRegistry meterRegistry;
+    private final ClusterLeaseService clusterLeaseService;
 
-    @Scheduled(fixedRate = 300000)
+    static final String LEASE_NAME = "ranking-rebuild";
+
+    //Folga para diferença de relógio entre os nós ao escolher quais atualizações ao vivo mesclar no snapshot
+    static final long MERGE_CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Value("${ranking.reconciliation.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${ranking.reconciliation.lease-ttl:30m}")
+    private Duration leaseTtl = Duration.ofMinutes(30);
+
+    @Value("${ranking.reconciliation.lease-min-hold:5m}")
+    private Duration leaseMinHold = Duration.ofMinutes(5);
+
+    @Scheduled(cron = "${ranking.reconciliation.cron:0 0 4 * * ?}")
+    public void scheduledReconciliation() {
+        clusterLeaseService.runExclusively(LEASE_NAME, leaseTtl, leaseMinHold, this::execute);
+    }
+
+    /*
+     * Reconstrução solicitada por um administrador. Passa pelo mesmo lease da execução agendada
+     * e retorna false, sem executar, quando outro nó está reconstruindo.
+     */
     @CacheEvict(value = {"ranking", "rankingByLevel"}, allEntries = true)
-    public void execute() {
+    public boolean execute() {
+        return clusterLeaseService.runExclusively(LEASE_NAME, leaseTtl, Duration.ZERO, this::execute);
+    }
+
+    //As chaves só são publicadas se o lease ainda for deste nó (verificado dentro do script de swap)
+    void execute(ClusterLease lease) {
         log.info("Refreshing ranking cache...");
+        long startNanos = System.nanoTime();
+        long mergeUpdatesSince = System.currentTimeMillis() - MERGE_CLOCK_SKEW_MILLIS;
+        String runId = UUID.randomUUID().toString();
+        String tempGlobalKey = RankingCacheKeys.GLOBAL + ":temp:" + runId;
+        Map<String, String> tempToFinalKeys = new LinkedHashMap<>();
+        tempToFinalKeys.put(tempGlobalKey, RankingCacheKeys.GLOBAL);
+
         try {
-            Sort sort = Sort.by(Sort.Direction.DESC, "level", "xp");
-            List<PlayerCharacter> allCharacters = playerCharacterRepository.findAll(sort);
+            LevelRankingPartition partition = new LevelRankingPartition();
+            long total = streamIntoTempKeys(tempGlobalKey, partition);
 
-            if (allCharacters.isEmpty()) {
+            if (total == 0) {
                 log.warn("No characters found to populate ranking cache");
                 return;
             }
 
-            // Atualiza ranking global
-            updateGlobalRanking(allCharacters);
+            // Atualiza ranking por nível (apenas níveis cuja composição mudou)
+            LevelChanges levelChanges = loadChangedLevels(partition, runId, tempToFinalKeys);
 
-            // Atualiza ranking por nível
-            updateRankingByLevel(allCharacters);
+            // Publica ranking global e por nível de uma só vez, preservando os ganhos de XP feitos durante a leitura.
+            // Se o lease expirou e outro nó assumiu, o script não publica nada e o trabalho é descartado
+            long merged = rankingBulkLoader.swap(lease, tempToFinalKeys, levelChanges.staleKeys(), mergeUpdatesSince);
+            rankingBulkLoader.writeLevelFingerprints(levelChanges.fingerprints());
 
-            log.info("Ranking cache refreshed successfully. Total players: {}", allCharacters.size());
+            long elapsedNanos = System.nanoTime() - startNanos;
+            recordMetrics(total, elapsedNanos);
+            log.info("Ranking cache refreshed successfully. Total players: {} in {} ms ({} players/s), " +
+                            "{} level keys rebuilt, {} unchanged, {} live updates merged",
+                    total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput(total, elapsedNanos),
+                    tempToFinalKeys.size() - 1, levelChanges.unchanged(), merged);
         } catch (Exception e) {
+            // Limpa as chaves temporárias em caso de erro
+            rankingBulkLoader.discard(tempToFinalKeys.keySet());
+            meterRegistry.counter("ranking.rebuild.failures").increment();
             log.error("Error refreshing ranking cache", e);
         }
     }
 
-    private void updateGlobalRanking(List<PlayerCharacter> allCharacters) {
-        String tempKey = RANKING_CACHE_KEY + ":temp:" + UUID.randomUUID();
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+    /*
+     * Percorre tb_player_character em blocos paginados por id, sem carregar a tabela inteira em memória.
+     * Cada bloco vira um único pipeline Redis para o ranking global; os níveis são agrupados na mesma passada.
+     */
+    private long streamIntoTempKeys(String tempGlobalKey, LevelRankingPartition partition) {
+        long lastId = 0L;
+        long total = 0L;
+        int redisCommands = 0;
+
+        while (true) {
+            List<RankingScoreRow> chunk = playerCharacterRepository
+                    .findRankingScoresAfter(lastId, PageRequest.of(0, chunkSize));
+
+            if (chunk.isEmpty()) {
+                break;
+            }
 
-        try {
-            for (PlayerCharacter character : allCharacters) {
-                double score = (character.getLevel() * 1_000_000.0) + character.getXp();
-                zSetOps.add(tempKey, character.getId(), score);
+            List<TypedTuple<Object>> globalMembers = new ArrayList<>(chunk.size());
+            for (RankingScoreRow row : chunk) {
+                double score = RankingScoreCodec.encode(row.level(), row.xp(), row.xpAchievedAt());
+                globalMembers.add(TypedTuple.of(row.characterId(), score));
+                partition.add(row.level(), row.characterId(), score);
             }
 
-            // Verifica se a chave temporária tem dados antes de renomear
-            Long size = zSetOps.size(tempKey);
-            if (size != null && size > 0) {
-                redisTemplate.rename(tempKey, RANKING_CACHE_KEY);
-                log.debug("Global ranking updated with {} entries", size);
-            } else {
-                log.warn("Temporary global ranking key is empty, skipping rename");
+            redisCommands += rankingBulkLoader.load(Map.of(tempGlobalKey, globalMembers));
+            total += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).characterId();
+
+            if (chunk.size() < chunkSize) {
+                break;
             }
-        } catch (Exception e) {
-            // Limpa a chave temporária em caso de erro
-            redisTemplate.delete(tempKey);
-            throw e;
         }
-    }
 
-    private void updateRankingByLevel(List<PlayerCharacter> allCharacters) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        log.debug("Ranking rebuild sent {} ZADD commands for {} players", redisCommands, total);
+        return total;
+    }
 
-        for (int level = 1; level <= 10; level++) {
-            String levelKey = RANKING_BY_LEVEL_PREFIX + level;
-            String tempLevelKey = levelKey + ":temp:" + UUID.randomUUID();
+    /*
+     * Descobre os níveis em tb_levels (mais qualquer nível com personagens) e recarrega somente os que mudaram
+     * desde a última reconstrução. Níveis sem personagens têm a chave removida.
+     * Um nível só é pulado se a impressão digital bater e o ZSET no Redis ainda tiver todos os membros:
+     * uma chave removida, expulsa por memória ou divergente é recarregada mesmo com a impressão digital igual.
+     */
+    private LevelChanges loadChangedLevels(LevelRankingPartition partition, String runId,
+                                           Map<String, String> tempToFinalKeys) {
+        SortedSet<Integer> levels = new TreeSet<>(levelRepository.findAllOrderLevels());
+        for (int level = 0; level <= partition.maxLevel(); level++) {
+            if (partition.size(level) > 0) {
+                levels.add(level);
+            }
+        }
 
-            try {
-                int finalLevel = level;
-                List<PlayerCharacter> charactersAtLevel = allCharacters.stream()
-                        .filter(c -> c.getLevel().equals(finalLevel))
-                        .toList();
+        Map<Integer, String> previousFingerprints = rankingBulkLoader.readLevelFingerprints();
+        Map<Integer, String> fingerprints = new HashMap<>();
+        List<Integer> candidates = new ArrayList<>();
+        List<String> staleKeys = new ArrayList<>();
 
-                if (charactersAtLevel.isEmpty()) {
-                    log.debug("No characters found for level {}, skipping", level);
-                    // Remove a chave do nível se existir (caso não haja mais personagens)
-                    redisTemplate.delete(levelKey);
-                    continue;
-                }
+        for (int level : levels) {
+            if (partition.size(level) == 0) {
+                log.debug("No characters found for level {}, skipping", level);
+                staleKeys.add(RankingCacheKeys.byLevel(level));
+                continue;
+            }
 
-                // Adiciona os personagens do nível
-                for (PlayerCharacter character : charactersAtLevel) {
-                    zSetOps.add(tempLevelKey, character.getId(), character.getXp());
-                }
+            String fingerprint = partition.fingerprint(level);
+            fingerprints.put(level, fingerprint);
+            candidates.add(level);
+        }
 
-                // Verifica se a chave temporária tem dados antes de renomear
-                Long size = zSetOps.size(tempLevelKey);
-                if (size != null && size > 0) {
-                    redisTemplate.rename(tempLevelKey, levelKey);
-                    log.debug("Ranking for level {} updated with {} entries", level, size);
-                } else {
-                    log.warn("Temporary ranking key for level {} is empty", level);
+        List<Integer> unchangedInDatabase = candidates.stream()
+                .filter(level -> fingerprints.get(level).equals(previousFingerprints.get(level)))
+                .toList();
+        Map<Integer, Long> liveSizes = rankingBulkLoader.levelSizes(unchangedInDatabase);
+
+        Map<String, List<TypedTuple<Object>>> changedMembers = new HashMap<>();
+        int unchanged = 0;
+        for (int level : candidates) {
+            Long liveSize = liveSizes.get(level);
+            if (liveSize != null) {
+                if (liveSize == partition.size(level)) {
+                    unchanged++;
+                    continue;
                 }
-            } catch (Exception e) {
-                // Limpa a chave temporária em caso de erro
-                redisTemplate.delete(tempLevelKey);
-                log.error("Error updating ranking for level {}", level, e);
+                log.warn("Ranking key for level {} has {} members, expected {}; rebuilding it",
+                        level, liveSize, partition.size(level));
             }
+
+            String tempLevelKey = RankingCacheKeys.byLevel(level) + ":temp:" + runId;
+            tempToFinalKeys.put(tempLevelKey, RankingCacheKeys.byLevel(level));
+            changedMembers.put(tempLevelKey, partition.members(level));
         }
+
+        rankingBulkLoader.load(changedMembers);
+        return new LevelChanges(staleKeys, fingerprints, unchanged);
+    }
+
+    private record LevelChanges(List<String> staleKeys, Map<Integer, String> fingerprints, int unchanged) {
+    }
+
+    private void recordMetrics(long total, long elapsedNanos) {
+        Timer.builder("ranking.rebuild.duration")
+                .description("Tempo total da reconstrução dos ZSETs de ranking")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("ranking.rebuild.players").increment(total);
+        meterRegistry.summary("ranking.rebuild.throughput")
+                .record(throughput(total, elapsedNanos));
+    }
+
+    private static long throughput(long total, long elapsedNanos) {
+        return elapsedNanos > 0 ? (total * TimeUnit.SECONDS.toNanos(1)) / elapsedNanos : total;
     }
-}
\ No newline at end of file
+}
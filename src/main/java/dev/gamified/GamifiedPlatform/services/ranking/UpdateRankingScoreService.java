@@ -0,0 +1,66 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/*
+ * Atualiza os ZSETs de ranking (global e por nível) logo após o commit de cada ganho de XP.
+ * Mantém o ranking atualizado em milissegundos; a reconstrução completa fica apenas como reconciliação.
+ *
+ * Listeners de transações diferentes podem terminar fora de ordem. Como o score só cresce (nível, XP),
+ * o script compara com o score global atual e ignora um evento que não seja maior:
+ * um evento atrasado nunca rebaixa o personagem nem o devolve ao ZSET de um nível anterior.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UpdateRankingScoreService {
+
+    /*
+     * KEYS: [global, nível atual, nível anterior, atualizações recentes]
+     * ARGV: [personagem, score, agora (epoch ms)]
+     * Retorna 0 sem alterar nada quando o score global já é maior ou igual (evento repetido ou atrasado).
+     */
+    private static final RedisScript<Long> UPDATE_IF_GREATER = new DefaultRedisScript<>(
+            "local current = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+            "if current and tonumber(current) >= tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) " +
+            "if KEYS[3] ~= KEYS[2] then redis.call('ZREM', KEYS[3], ARGV[1]) end " +
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1]) " +
+            "redis.call('ZADD', KEYS[4], ARGV[3], ARGV[1]) " +
+            "return 1 ", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCharacterXpChanged(CharacterXpChangedEvent event) {
+        try {
+            // Grava o score absoluto só se for maior: reaplicar ou reordenar eventos não distorce o ranking.
+            // O registro em RECENT_UPDATES impede que uma reconstrução em andamento sobrescreva o score com o snapshot
+            Long applied = redisTemplate.execute(UPDATE_IF_GREATER,
+                    List.of(RankingCacheKeys.GLOBAL,
+                            RankingCacheKeys.byLevel(event.level()),
+                            RankingCacheKeys.byLevel(event.levelChanged() ? event.previousLevel() : event.level()),
+                            RankingCacheKeys.RECENT_UPDATES),
+                    event.characterId(), event.score(), System.currentTimeMillis());
+
+            if (applied == null || applied == 0) {
+                log.debug("Ignoring stale ranking update for character {} (level {}, xp {})",
+                        event.characterId(), event.level(), event.xp());
+                return;
+            }
+            log.debug("Ranking updated for character {} (+{} XP, level {} -> {})",
+                    event.characterId(), event.xpDelta(), event.previousLevel(), event.level());
+        } catch (Exception e) {
+            // A transação já foi confirmada; a reconciliação periódica corrige o ranking
+            log.error("Failed to update ranking for character {}", event.characterId(), e);
+        }
+    }
+}
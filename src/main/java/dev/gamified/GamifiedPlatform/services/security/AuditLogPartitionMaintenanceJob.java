@@ -0,0 +1,127 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Mantém as partições mensais de tb_security_audit_log (V33):
+ *  - cria com antecedência as partições dos próximos audit.partitions.months-ahead meses
+ *    (também na subida da aplicação, para nunca faltar a partição do mês corrente);
+ *  - remove as partições inteiramente mais antigas que audit.partitions.retention-months,
+ *    com DETACH CONCURRENTLY + DROP em vez de DELETE (sem varrer linhas nem inchar a tabela).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogPartitionMaintenanceJob {
+
+    static final String LEASE_NAME = "audit-partition-maintenance";
+    static final String ENSURE_PARTITION_SQL = "SELECT ensure_security_audit_partition(?)";
+    static final String LIST_PARTITIONS_SQL = "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'tb_security_audit_log'";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("tb_security_audit_log_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLeaseService clusterLeaseService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    // 0 desativa a retenção
+    @Value("${audit.partitions.retention-months:12}")
+    private int retentionMonths = 12;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try {
+            ensureFuturePartitions(LocalDate.now());
+        } catch (DataAccessException e) {
+            // Outro nó pode estar criando a mesma partição; o job agendado tenta de novo
+            log.error("Could not ensure audit log partitions on startup: {}", e.getMessage());
+        }
+    }
+
+    // Executa diariamente às 3:30 da manhã, em apenas um nó do cluster
+    @Scheduled(cron = "${audit.partitions.cron:0 30 3 * * ?}")
+    public void scheduledMaintenance() {
+        clusterLeaseService.runExclusively(LEASE_NAME, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                lease -> maintain(LocalDate.now()));
+    }
+
+    void maintain(LocalDate today) {
+        ensureFuturePartitions(today);
+        List<String> dropped = dropExpiredPartitions(today);
+        if (!dropped.isEmpty()) {
+            log.info("Audit log retention dropped partitions: {}", dropped);
+        }
+    }
+
+    List<String> ensureFuturePartitions(LocalDate today) {
+        YearMonth current = YearMonth.from(today);
+        List<String> partitions = new ArrayList<>(monthsAhead + 1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            partitions.add(jdbcTemplate.queryForObject(ENSURE_PARTITION_SQL, String.class,
+                    current.plusMonths(i).atDay(1)));
+        }
+        return partitions;
+    }
+
+    List<String> dropExpiredPartitions(LocalDate today) {
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        // Uma partição só sai quando todo o seu mês é mais antigo que o período de retenção
+        LocalDate cutoff = today.minusMonths(retentionMonths);
+
+        List<String> dropped = new ArrayList<>();
+        List<Partition> partitions = jdbcTemplate.query(LIST_PARTITIONS_SQL,
+                (rs, rowNum) -> new Partition(rs.getString(1), rs.getBoolean(2)));
+        for (Partition partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition.name());
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+
+            try {
+                // DETACH CONCURRENTLY não bloqueia leituras/gravações na tabela pai; FINALIZE conclui um detach interrompido
+                jdbcTemplate.execute("ALTER TABLE tb_security_audit_log DETACH PARTITION " + partition.name()
+                        + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                meterRegistry.counter("audit.partitions.dropped").increment();
+                dropped.add(partition.name());
+            } catch (DataAccessException e) {
+                meterRegistry.counter("audit.partitions.failures").increment();
+                log.error("Failed to drop audit log partition {}: {}", partition.name(), e.getMessage());
+            }
+        }
+        return dropped;
+    }
+
+    private record Partition(String name, boolean detachPending) {
+    }
+}
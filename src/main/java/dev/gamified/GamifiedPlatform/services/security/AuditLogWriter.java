@@ -0,0 +1,342 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterQueue;
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterTask;
+import dev.gamified.GamifiedPlatform.enums.AuditOverflowPolicy;
+import dev.gamified.GamifiedPlatform.services.async.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Pipeline de ingestão da auditoria: as requisições só publicam o evento num buffer circular sem locks
+ * e seguem adiante; uma única thread (audit-writer) drena o buffer e grava em lotes via JDBC batch,
+ * a cada audit.writer.batch-size eventos ou audit.writer.flush-interval, o que vier primeiro.
+ *
+ * Buffer cheio: aplica audit.buffer.overflow-policy (DROP, BLOCK ou SPILL), sempre contabilizado. O excedente
+ * que não pode ser descartado vai para o AuditSpillFile (disco local): a requisição nunca espera pelo banco.
+ * Falha no lote: violação de integridade (ex.: user_id de conta já removida) regrava evento a evento e só o
+ * evento inválido vai para o DLQ; qualquer outra falha (banco fora) grava o lote no spool local e suspende o
+ * banco por um backoff exponencial (audit.writer.retry-backoff até max-retry-backoff). Durante o backoff os
+ * lotes vão direto para o spool; no primeiro lote gravado com sucesso o spool é reenviado, um lote por ciclo.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    static final String INSERT_SQL = "INSERT INTO tb_security_audit_log " +
+            "(event_type, user_id, username, ip_address, user_agent, details, severity, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeadLetterQueue deadLetterQueue;
+    private final AuditSpillFile spillFile;
+    private final JsonMapper jsonMapper;
+    private final MpscRingBuffer<AuditRecord> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final long retryBackoffNanos;
+    private final long maxRetryBackoffNanos;
+
+    // Usados apenas pela thread escritora (ou pelo shutdown, depois que ela parou)
+    private final List<AuditRecord> batch;
+    private long currentBackoffNanos;  // 0 = banco disponível
+    private long nextDatabaseAttempt;
+
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter deadLettered;
+    private final Counter blocked;
+    private final Counter written;
+    private final Counter batches;
+    private final Counter failures;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          DeadLetterQueue deadLetterQueue,
+                          AuditSpillFile spillFile,
+                          JsonMapper jsonMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.buffer.capacity:65536}") int capacity,
+                          @Value("${audit.buffer.overflow-policy:BLOCK}") AuditOverflowPolicy overflowPolicy,
+                          @Value("${audit.buffer.block-timeout:50ms}") Duration blockTimeout,
+                          @Value("${audit.writer.batch-size:500}") int batchSize,
+                          @Value("${audit.writer.flush-interval:200ms}") Duration flushInterval,
+                          @Value("${audit.writer.retry-backoff:1s}") Duration retryBackoff,
+                          @Value("${audit.writer.max-retry-backoff:30s}") Duration maxRetryBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deadLetterQueue = deadLetterQueue;
+        this.spillFile = spillFile;
+        this.jsonMapper = jsonMapper;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.maxRetryBackoffNanos = maxRetryBackoff.toNanos();
+        this.batch = new ArrayList<>(batchSize);
+
+        Gauge.builder("audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Eventos de auditoria aguardando gravação")
+                .register(meterRegistry);
+        this.dropped = meterRegistry.counter("audit.buffer.dropped");
+        this.spilled = meterRegistry.counter("audit.buffer.spilled");
+        this.deadLettered = meterRegistry.counter("audit.writer.dead_lettered");
+        this.blocked = meterRegistry.counter("audit.buffer.blocked");
+        this.written = meterRegistry.counter("audit.writer.events");
+        this.batches = meterRegistry.counter("audit.writer.batches");
+        this.failures = meterRegistry.counter("audit.writer.failures");
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Tempo de gravação de um lote de auditoria")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            if (thread.isAlive()) {
+                log.warn("Audit writer did not stop in time, pending events left in the buffer");
+                return;
+            }
+        }
+        int remaining = flushPending();
+        log.info("Audit writer stopped, {} pending events flushed", remaining);
+    }
+
+    void submit(AuditRecord event) {
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                wakeWriter();
+            }
+            return;
+        }
+
+        if (overflowPolicy == AuditOverflowPolicy.BLOCK) {
+            blocked.increment();
+            if (offerWithinTimeout(event)) {
+                return;
+            }
+        }
+
+        if (event.isCritical() || overflowPolicy == AuditOverflowPolicy.SPILL) {
+            // Só disco local: a thread da requisição não disputa conexão com um banco possivelmente fora
+            if (spillFile.append(event)) {
+                spilled.increment();
+            }
+        } else {
+            dropped.increment();
+            log.debug("Audit buffer full, dropping {} event", event.eventType());
+        }
+    }
+
+    //Drena e grava tudo o que está no buffer; usado no shutdown e nos testes
+    int flushPending() {
+        int total = 0;
+        int drained;
+        do {
+            drained = buffer.drain(batch::add, batchSize - batch.size());
+            total += batch.size();
+            flush();
+        } while (drained > 0);
+        return total;
+    }
+
+    private void runWriter() {
+        long flushDeadline = 0L;
+        while (running) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drain(batch::add, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (wasEmpty && !batch.isEmpty()) {
+                // O prazo conta a partir do primeiro evento do lote: latência máxima de flush-interval
+                flushDeadline = now + flushIntervalNanos;
+            }
+
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - flushDeadline >= 0)) {
+                flush();
+            } else if (batch.isEmpty() && databaseAvailable(now) && spillFile.hasPending()
+                    && batch.addAll(spillFile.nextReplayBatch(batchSize))) {
+                // Ocioso e com o banco de pé: reenvia o spool local, um lote por ciclo
+                flush();
+            } else {
+                LockSupport.parkNanos(this, batch.isEmpty() ? flushIntervalNanos : flushDeadline - now);
+            }
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AuditRecord> events = List.copyOf(batch);
+        batch.clear();
+
+        if (!databaseAvailable(System.nanoTime())) {
+            spillFile.append(events);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), AuditLogWriter::bind);
+            written.increment(events.size());
+            batches.increment();
+            databaseRecovered();
+        } catch (DataIntegrityViolationException e) {
+            failures.increment();
+            log.warn("Audit batch of {} events rejected ({}), retrying one by one",
+                    events.size(), e.getMostSpecificCause().getMessage());
+            writeIndividually(events);
+        } catch (DataAccessException e) {
+            databaseFailed(events.size(), e);
+            spillFile.append(events);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeIndividually(List<AuditRecord> events) {
+        for (int i = 0; i < events.size(); i++) {
+            AuditRecord event = events.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                written.increment();
+            } catch (DataIntegrityViolationException e) {
+                // O banco está de pé e rejeitou só este evento: DLQ a partir da thread escritora
+                log.error("Audit event {} could not be written: {}", event.eventType(),
+                        e.getMostSpecificCause().getMessage());
+                deadLetter(event);
+            } catch (DataAccessException e) {
+                databaseFailed(events.size() - i, e);
+                spillFile.append(events.subList(i, events.size()));
+                return;
+            }
+        }
+    }
+
+    private boolean databaseAvailable(long now) {
+        return currentBackoffNanos == 0 || now - nextDatabaseAttempt >= 0;
+    }
+
+    private void databaseFailed(int events, DataAccessException e) {
+        failures.increment();
+        currentBackoffNanos = currentBackoffNanos == 0
+                ? retryBackoffNanos
+                : Math.min(currentBackoffNanos * 2, maxRetryBackoffNanos);
+        nextDatabaseAttempt = System.nanoTime() + currentBackoffNanos;
+        log.error("Audit batch of {} events failed, spilling to disk and retrying the database in {} ms",
+                events, TimeUnit.NANOSECONDS.toMillis(currentBackoffNanos), e);
+    }
+
+    private void databaseRecovered() {
+        if (currentBackoffNanos != 0) {
+            currentBackoffNanos = 0;
+            log.info("Audit database reachable again, replaying spilled events");
+        }
+    }
+
+    private boolean offerWithinTimeout(AuditRecord event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() - deadline < 0) {
+            wakeWriter();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void deadLetter(AuditRecord event) {
+        deadLettered.increment();
+        deadLetterQueue.add(new DeadLetteredAudit(event));
+    }
+
+    private static void bind(PreparedStatement ps, AuditRecord event) throws SQLException {
+        ps.setString(1, event.eventType());
+        ps.setObject(2, event.userId(), Types.BIGINT);
+        ps.setString(3, event.username());
+        ps.setString(4, event.ipAddress());
+        ps.setString(5, event.userAgent());
+        ps.setString(6, event.details());
+        ps.setString(7, event.severity());
+        ps.setTimestamp(8, Timestamp.valueOf(event.timestamp()));
+    }
+
+    //Descritor no DLQ; o replay é feito pelo SecurityAuditService (DeadLetterHandler do mesmo tipo)
+    private final class DeadLetteredAudit implements DeadLetterTask {
+        private final AuditRecord event;
+
+        private DeadLetteredAudit(AuditRecord event) {
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            submit(event);
+        }
+
+        @Override
+        public String taskType() {
+            return SecurityAuditService.DEAD_LETTER_TYPE;
+        }
+
+        @Override
+        public String payload() {
+            return jsonMapper.writeValueAsString(event);
+        }
+
+        @Override
+        public String toString() {
+            return "DeadLetteredAudit[" + event.eventType() + ", user=" + event.username() + "]";
+        }
+    }
+}
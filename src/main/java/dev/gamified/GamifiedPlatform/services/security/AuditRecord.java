@@ -0,0 +1,35 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import dev.gamified.GamifiedPlatform.domain.SecurityAuditLog;
+
+import java.time.LocalDateTime;
+
+/*
+ * Evento de auditoria imutável: é o que circula pelo buffer do AuditLogWriter e o payload gravado no DLQ.
+ */
+record AuditRecord(String eventType, Long userId, String username, String ipAddress, String userAgent,
+                   String details, String severity, LocalDateTime timestamp) {
+
+    static AuditRecord from(SecurityAuditLog auditLog) {
+        return new AuditRecord(auditLog.getEventType(), auditLog.getUserId(), auditLog.getUsername(),
+                auditLog.getIpAddress(), auditLog.getUserAgent(), auditLog.getDetails(), auditLog.getSeverity(),
+                auditLog.getTimestamp());
+    }
+
+    SecurityAuditLog toEntity() {
+        return SecurityAuditLog.builder()
+                .eventType(eventType)
+                .userId(userId)
+                .username(username)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .details(details)
+                .severity(severity)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    boolean isCritical() {
+        return "CRITICAL".equals(severity);
+    }
+}
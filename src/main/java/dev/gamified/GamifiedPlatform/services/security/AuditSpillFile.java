@@ -0,0 +1,193 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Spool local (NDJSON em disco) dos eventos de auditoria que não couberam no buffer ou não puderam ser gravados
+ * com o banco fora. Fica fora do Postgres de propósito: gravar aqui custa um append em arquivo,
+ * nunca uma conexão do Hikari, então pode ser usado pelas threads das requisições.
+ *
+ * O AuditLogWriter reenvia o conteúdo ao banco quando ele volta: o arquivo ativo é renomeado para
+ * audit-spill.replaying.ndjson e lido em lotes, enquanto novos eventos seguem para um arquivo ativo novo.
+ * Entrega pelo menos uma vez: se o processo cair no meio do replay, o restante do arquivo é reenviado na subida.
+ * Acima de audit.spill.max-size os eventos são descartados e contabilizados (audit.spill.dropped).
+ */
+@Component
+@Slf4j
+public class AuditSpillFile {
+
+    static final String ACTIVE_FILE = "audit-spill.ndjson";
+    static final String REPLAYING_FILE = "audit-spill.replaying.ndjson";
+
+    private final JsonMapper jsonMapper;
+    private final Path active;
+    private final Path replaying;
+    private final long maxBytes;
+    private final Counter spilled;
+    private final Counter dropped;
+
+    // Protegidos por this: produtores e a thread escritora gravam no arquivo ativo
+    private Writer writer;
+    private volatile long activeBytes;
+
+    // Usado apenas pela thread escritora
+    private BufferedReader replayReader;
+
+    public AuditSpillFile(JsonMapper jsonMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.spill.directory:${java.io.tmpdir}/gamified-audit-spill}") Path directory,
+                          @Value("${audit.spill.max-size:256MB}") DataSize maxSize) throws IOException {
+        this.jsonMapper = jsonMapper;
+        Files.createDirectories(directory);
+        this.active = directory.resolve(ACTIVE_FILE);
+        this.replaying = directory.resolve(REPLAYING_FILE);
+        this.maxBytes = maxSize.toBytes();
+        this.activeBytes = Files.exists(active) ? Files.size(active) : 0L;
+
+        this.spilled = meterRegistry.counter("audit.spill.events");
+        this.dropped = meterRegistry.counter("audit.spill.dropped");
+        Gauge.builder("audit.spill.bytes", this, spill -> spill.activeBytes)
+                .description("Tamanho do spool local de auditoria aguardando o banco")
+                .register(meterRegistry);
+
+        if (activeBytes > 0 || Files.exists(replaying)) {
+            log.warn("Audit spill files found in {}, they will be replayed once the database is reachable", directory);
+        }
+    }
+
+    boolean append(AuditRecord event) {
+        return append(List.of(event)) == 1;
+    }
+
+    //Retorna quantos eventos foram gravados; os demais foram descartados (limite de tamanho ou erro de disco)
+    synchronized int append(List<AuditRecord> events) {
+        int appended = 0;
+        try {
+            for (AuditRecord event : events) {
+                String line = jsonMapper.writeValueAsString(event) + "\n";
+                long bytes = line.getBytes(StandardCharsets.UTF_8).length;
+                if (activeBytes + bytes > maxBytes) {
+                    break;
+                }
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                writer.write(line);
+                activeBytes += bytes;
+                appended++;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.error("Could not append to audit spill file {}", active, e);
+            closeWriter();
+        }
+
+        spilled.increment(appended);
+        if (appended < events.size()) {
+            dropped.increment(events.size() - appended);
+            log.error("Audit spill file full or unavailable ({} bytes), dropped {} events",
+                    activeBytes, events.size() - appended);
+        }
+        return appended;
+    }
+
+    boolean hasPending() {
+        return replayReader != null || activeBytes > 0 || Files.exists(replaying);
+    }
+
+    /*
+     * Próximo lote a reenviar (thread escritora). Termina o arquivo em replay antes de rotacionar o ativo;
+     * lista vazia quando não há nada pendente.
+     */
+    List<AuditRecord> nextReplayBatch(int max) {
+        List<AuditRecord> events = new ArrayList<>(max);
+        try {
+            if (replayReader == null) {
+                if (!Files.exists(replaying) && !rotate()) {
+                    return events;
+                }
+                replayReader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8);
+            }
+
+            String line = null;
+            while (events.size() < max && (line = replayReader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(jsonMapper.readValue(line, AuditRecord.class));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping malformed audit spill line: {}", e.getMessage());
+                }
+            }
+            if (line == null) {
+                closeReader();
+                Files.deleteIfExists(replaying);
+            }
+        } catch (IOException e) {
+            log.error("Could not read audit spill file {}", replaying, e);
+            closeReader();
+        }
+        return events;
+    }
+
+    private synchronized boolean rotate() throws IOException {
+        if (activeBytes == 0) {
+            return false;
+        }
+        closeWriter();
+        Files.move(active, replaying, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        activeBytes = 0;
+        return true;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        closeWriter();
+        closeReader();
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit spill file: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private void closeReader() {
+        if (replayReader != null) {
+            try {
+                replayReader.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit spill replay file: {}", e.getMessage());
+            }
+            replayReader = null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+/*
+ * HyperLogLog pequeno (2^precision registradores de 1 byte) para contar valores distintos
+ * em memória constante: com precision 6 são 64 bytes por chave, erro padrão ~13%.
+ * Para poucos valores (o caso dos limiares de detecção) usa contagem linear, que é praticamente exata.
+ */
+final class HyperLogLogCounter {
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLogCounter(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    synchronized void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Posição do primeiro bit 1 nos bits restantes; o sentinela limita o valor quando eles são todos 0
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Tier local (por instância) na frente do rate limiting no Redis.
+ * - Chave bloqueada: depois que o Redis rejeita, as próximas requisições são rejeitadas em memória
+ *   até o reset informado pelo script, sem ir à rede (sob flood o pool do Lettuce não satura).
+ * - Cota antecipada: regras com lease-chunk > 1 reservam várias permissões por consulta ao Redis
+ *   e as consomem localmente por até lease-ttl. O limite global fica aproximado em até
+ *   (lease-chunk - 1) por nó; sobras não usadas expiram e são perdidas (o erro é a favor do limite).
+ * O Redis continua sendo a fonte da verdade: ele só é consultado de novo quando a cota acaba ou o bloqueio expira.
+ */
+@Component
+public class RateLimitLocalTier {
+
+    private final Cache<String, LocalQuota> quotas;
+    private final Duration leaseTtl;
+    private final Counter localRejections;
+    private final Counter localGrants;
+
+    public RateLimitLocalTier(MeterRegistry meterRegistry,
+                              @Value("${rate-limit.local.max-keys:100000}") long maxKeys,
+                              @Value("${rate-limit.local.lease-ttl:1s}") Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+        this.quotas = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(Expiry.<String, LocalQuota>writing(
+                        (key, quota) -> Duration.ofNanos(Math.max(0, quota.expiresAtNanos() - System.nanoTime()))))
+                .build();
+        this.localRejections = Counter.builder("rate.limit.local")
+                .description("Decisões de rate limiting tomadas em memória, sem consultar o Redis")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.localGrants = Counter.builder("rate.limit.local")
+                .description("Decisões de rate limiting tomadas em memória, sem consultar o Redis")
+                .tag("outcome", "granted")
+                .register(meterRegistry);
+    }
+
+    /*
+     * Decide em memória quando possível; null significa que o Redis precisa ser consultado.
+     */
+    RateLimitResult tryAcquire(String redisKey) {
+        LocalQuota quota = quotas.getIfPresent(redisKey);
+        if (quota == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (now < quota.blockedUntilNanos()) {
+            localRejections.increment();
+            return new RateLimitResult(false, quota.limit(), 0, secondsUntil(quota.blockedUntilNanos(), now));
+        }
+
+        if (now < quota.leaseExpiresAtNanos()) {
+            long left = quota.take();
+            if (left >= 0) {
+                localGrants.increment();
+                return new RateLimitResult(true, quota.limit(), (int) (quota.remoteRemaining() + left),
+                        secondsUntil(quota.resetAtNanos(), now));
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Registra a resposta do Redis: granted = permissões concedidas (uma é usada pela requisição atual).
+     */
+    void record(String redisKey, int limit, int granted, int remaining, long resetMillis) {
+        long now = System.nanoTime();
+        long resetAt = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, resetMillis));
+
+        if (granted <= 0 && resetMillis > 0) {
+            quotas.put(redisKey, new LocalQuota(limit, remaining, new AtomicLong(0), resetAt, 0, resetAt));
+        } else if (granted > 1) {
+            quotas.put(redisKey, new LocalQuota(limit, remaining, new AtomicLong(granted - 1), 0,
+                    now + leaseTtl.toNanos(), resetAt));
+        } else {
+            quotas.invalidate(redisKey);
+        }
+    }
+
+    //Bloqueio imposto de fora (detector de atividade suspeita), sem passar pelo Redis
+    void block(String redisKey, int limit, Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            return;
+        }
+        long blockedUntil = System.nanoTime() + duration.toNanos();
+        quotas.asMap().merge(redisKey, new LocalQuota(limit, 0, new AtomicLong(0), blockedUntil, 0, blockedUntil),
+                (current, blocked) -> current.blockedUntilNanos() >= blockedUntil ? current : blocked);
+    }
+
+    void invalidate(String redisKey) {
+        quotas.invalidate(redisKey);
+    }
+
+    private static long secondsUntil(long deadlineNanos, long now) {
+        return (TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadlineNanos - now)) + 999) / 1000;
+    }
+
+    //Estado local de uma chave; apenas o contador de permissões muda, via CAS (sem lock)
+    private record LocalQuota(int limit, int remoteRemaining, AtomicLong permits,
+                              long blockedUntilNanos, long leaseExpiresAtNanos, long resetAtNanos) {
+
+        //Retorna as permissões que sobraram após consumir uma, ou -1 se a cota acabou
+        long take() {
+            while (true) {
+                long current = permits.get();
+                if (current <= 0) {
+                    return -1;
+                }
+                if (permits.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+        }
+
+        long expiresAtNanos() {
+            return Math.max(blockedUntilNanos, leaseExpiresAtNanos);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+/*
+ * Resultado de uma verificação de rate limit, obtido em uma única ida ao Redis.
+ * resetSeconds: tempo até a janela atual expirar (arredondado para cima).
+ */
+public record RateLimitResult(boolean allowed, int limit, int remaining, long resetSeconds) {
+
+    //Usado quando o Redis falha: a requisição é permitida e nada é contabilizado
+    static RateLimitResult unlimited(int limit) {
+        return new RateLimitResult(true, limit, limit, 0);
+    }
+}
@@ -0,0 +1,104 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/*
+ * Scripts Lua dos algoritmos de rate limiting. Todos executam de forma atômica no Redis,
+ * usam o relógio do próprio Redis (TIME) para que todos os nós concordem sobre as janelas
+ * e retornam "permissões concedidas:restantes:ms até o reset".
+ * O último ARGV é a quantidade de permissões pedidas: 1 para uma requisição, mais quando o
+ * nó antecipa uma cota para o tier local (RateLimitLocalTier). Concede até o que couber no limite.
+ */
+final class RateLimitScripts {
+
+    private static final String NOW_MILLIS =
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) ";
+
+    /*
+     * Janela fixa. ARGV: janela em ms, limite, permissões.
+     * O PEXPIRE é aplicado sempre que a chave estiver sem TTL, então uma falha entre INCR e EXPIRE
+     * não deixa contadores eternos (que bloqueariam o usuário para sempre).
+     */
+    static final RedisScript<String> FIXED_WINDOW = new DefaultRedisScript<>(
+            "local window = tonumber(ARGV[1]) local limit = tonumber(ARGV[2]) " +
+            "local current = tonumber(redis.call('GET', KEYS[1])) or 0 " +
+            "local granted = math.max(0, math.min(tonumber(ARGV[3]), limit - current)) " +
+            "if granted > 0 then current = redis.call('INCRBY', KEYS[1], granted) end " +
+            "local ttl = redis.call('PTTL', KEYS[1]) " +
+            "if ttl < 0 then " +
+            "  if ttl == -1 then redis.call('PEXPIRE', KEYS[1], window) end " +
+            "  ttl = window " +
+            "end " +
+            "return string.format('%d:%d:%d', granted, math.max(0, limit - current), ttl)", String.class);
+
+    /*
+     * Log de janela deslizante (ZSET com o horário de cada requisição aceita). ARGV: janela em ms, limite, nonce, permissões.
+     * Requisições rejeitadas não entram no log, senão um cliente insistente nunca sairia do bloqueio.
+     * O reset é o momento em que a requisição mais antiga sai da janela e libera uma vaga.
+     */
+    static final RedisScript<String> SLIDING_WINDOW_LOG = new DefaultRedisScript<>(
+            NOW_MILLIS +
+            "local window = tonumber(ARGV[1]) local limit = tonumber(ARGV[2]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window) " +
+            "local count = redis.call('ZCARD', KEYS[1]) " +
+            "local granted = math.max(0, math.min(tonumber(ARGV[4]), limit - count)) " +
+            "for i = 1, granted do " +
+            "  redis.call('ZADD', KEYS[1], now, string.format('%d', now) .. ':' .. ARGV[3] .. ':' .. i) " +
+            "end " +
+            "count = count + granted " +
+            "local reset = window " +
+            "local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES') " +
+            "if oldest[2] then reset = math.max(0, tonumber(oldest[2]) + window - now) end " +
+            "if count > 0 then redis.call('PEXPIRE', KEYS[1], window) end " +
+            "return string.format('%d:%d:%d', granted, math.max(0, limit - count), reset)", String.class);
+
+    /*
+     * Contador de janela deslizante: hash com a janela atual (w), seu contador (c) e o da anterior (p).
+     * A janela anterior é ponderada pela fração que ainda se sobrepõe à janela deslizante.
+     * ARGV: janela em ms, limite, permissões.
+     */
+    static final RedisScript<String> SLIDING_WINDOW_COUNTER = new DefaultRedisScript<>(
+            NOW_MILLIS +
+            "local window = tonumber(ARGV[1]) local limit = tonumber(ARGV[2]) " +
+            "local idx = math.floor(now / window) " +
+            "local data = redis.call('HMGET', KEYS[1], 'w', 'c', 'p') " +
+            "local w = tonumber(data[1]) local c = tonumber(data[2]) or 0 local p = tonumber(data[3]) or 0 " +
+            "if w ~= idx then " +
+            "  if w == idx - 1 then p = c else p = 0 end " +
+            "  c = 0 " +
+            "end " +
+            "local elapsed = now - idx * window " +
+            "local weighted = p * (window - elapsed) / window + c " +
+            "local granted = math.max(0, math.min(tonumber(ARGV[3]), math.floor(limit - weighted))) " +
+            "c = c + granted weighted = weighted + granted " +
+            "redis.call('HSET', KEYS[1], 'w', string.format('%d', idx), 'c', c, 'p', p) " +
+            "redis.call('PEXPIRE', KEYS[1], window * 2) " +
+            "return string.format('%d:%d:%d', granted, math.max(0, math.floor(limit - weighted)), window - elapsed)",
+            String.class);
+
+    /*
+     * Token bucket na forma GCRA: guarda apenas o TAT (theoretical arrival time) em microssegundos.
+     * ARGV: intervalo de emissão em µs (janela / limite), burst, permissões.
+     * Rejeições não alteram o estado; o reset de uma rejeição é o tempo até a próxima requisição ser aceita.
+     */
+    static final RedisScript<String> TOKEN_BUCKET = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) " +
+            "local interval = tonumber(ARGV[1]) local burst = tonumber(ARGV[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1])) or now " +
+            "if tat < now then tat = now end " +
+            "local granted = math.min(tonumber(ARGV[3]), math.floor((now - tat) / interval + burst)) " +
+            "if granted < 1 then " +
+            "  return string.format('0:0:%d', math.ceil((tat + interval - burst * interval - now) / 1000)) " +
+            "end " +
+            "local newTat = tat + granted * interval " +
+            "local ttl = math.ceil((newTat - now) / 1000) " +
+            "redis.call('SET', KEYS[1], string.format('%d', newTat), 'PX', string.format('%d', ttl)) " +
+            "return string.format('%d:%d:%d', granted, math.floor((now - newTat) / interval + burst), ttl)",
+            String.class);
+
+    private RateLimitScripts() {
+    }
+}
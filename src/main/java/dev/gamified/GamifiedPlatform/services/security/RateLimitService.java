@@ -1,16 +1,30 @@
 package dev.gamified.GamifiedPlatform.services.security;
 
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.Rule;
+import dev.gamified.GamifiedPlatform.enums.RateLimitAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Serviço para implementar rate limiting usando Redis.
  * Protege endpoints contra abuso e ataques de força bruta.
+ * O algoritmo e os limites de cada caso de uso vêm de {@link RateLimitProperties}.
  */
 @Service
 @RequiredArgsConstructor
@@ -18,11 +32,16 @@ import java.util.concurrent.TimeUnit;
 public class RateLimitService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
+    private final RateLimitLocalTier localTier;
 
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
+    // ZSET ip -> instante (epoch ms) em que o bloqueio expira
+    private static final String BLOCKED_IPS_KEY = RATE_LIMIT_PREFIX + "blocked_ips";
 
     /**
-     * Verifica se o usuário/IP pode fazer uma requisição.
+     * Verifica se o usuário/IP pode fazer uma requisição (janela fixa).
      *
      * @param key Identificador único (username, email, IP, etc)
      * @param maxAttempts Número máximo de tentativas permitidas
@@ -30,102 +49,201 @@ public class RateLimitService {
      * @return true se a requisição é permitida, false se excedeu o limite
      */
     public boolean isAllowed(String key, int maxAttempts, Duration windowDuration) {
-        String redisKey = RATE_LIMIT_PREFIX + key;
+        return check(key, maxAttempts, windowDuration).allowed();
+    }
 
-        // Incrementa o contador
-        Long currentAttempts = redisTemplate.opsForValue().increment(redisKey);
+    /**
+     * Contabiliza uma tentativa (janela fixa) e retorna, na mesma ida ao Redis, se ela é permitida,
+     * quantas tentativas restam e em quantos segundos a janela reinicia.
+     */
+    public RateLimitResult check(String key, int maxAttempts, Duration windowDuration) {
+        return check(key, new Rule(RateLimitAlgorithm.FIXED_WINDOW, maxAttempts, windowDuration, null));
+    }
 
-        if (currentAttempts == null) {
-            log.error("Failed to increment rate limit counter for key: {}", key);
-            return true; // Em caso de erro, permite a requisição
+    /**
+     * Contabiliza uma tentativa usando o algoritmo da regra, em um único script atômico no Redis.
+     * Chaves bloqueadas e cotas antecipadas são resolvidas em memória pelo {@link RateLimitLocalTier}.
+     */
+    public RateLimitResult check(String key, Rule rule) {
+        RateLimitAlgorithm algorithm = rule.getAlgorithm();
+        String redisKey = redisKey(key, algorithm);
+
+        RateLimitResult local = localTier.tryAcquire(redisKey);
+        if (local != null) {
+            return local;
         }
 
-        // Se é a primeira tentativa, define o TTL
-        if (currentAttempts == 1) {
-            redisTemplate.expire(redisKey, windowDuration);
+        long windowMillis = rule.getWindow().toMillis();
+        String limit = String.valueOf(rule.getLimit());
+        String permits = String.valueOf(Math.max(1, rule.getLeaseChunk()));
+
+        long startNanos = System.nanoTime();
+        String reply;
+        try {
+            reply = switch (algorithm) {
+                case FIXED_WINDOW -> execute(RateLimitScripts.FIXED_WINDOW, redisKey,
+                        String.valueOf(windowMillis), limit, permits);
+                case SLIDING_WINDOW_LOG -> execute(RateLimitScripts.SLIDING_WINDOW_LOG, redisKey,
+                        String.valueOf(windowMillis), limit, Long.toHexString(ThreadLocalRandom.current().nextLong()),
+                        permits);
+                case SLIDING_WINDOW_COUNTER -> execute(RateLimitScripts.SLIDING_WINDOW_COUNTER, redisKey,
+                        String.valueOf(windowMillis), limit, permits);
+                case TOKEN_BUCKET -> execute(RateLimitScripts.TOKEN_BUCKET, redisKey,
+                        String.valueOf(emissionIntervalMicros(rule)), String.valueOf(rule.effectiveBurst()), permits);
+            };
+        } catch (RuntimeException e) {
+            log.error("Failed to evaluate rate limit for key: {}", key, e);
+            return RateLimitResult.unlimited(rule.getLimit()); // Em caso de erro, permite a requisição
+        } finally {
+            Timer.builder("rate.limit.check")
+                    .description("Custo por chamada de cada algoritmo de rate limiting")
+                    .tag("algorithm", algorithm.name())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        String[] parts = reply == null ? new String[0] : reply.split(":");
+        if (parts.length != 3) {
+            log.error("Failed to increment rate limit counter for key: {}", key);
+            return RateLimitResult.unlimited(rule.getLimit());
         }
 
-        boolean allowed = currentAttempts <= maxAttempts;
+        int granted = Integer.parseInt(parts[0]);
+        int remaining = Integer.parseInt(parts[1]);
+        long resetMillis = Math.max(0, Long.parseLong(parts[2]));
+        localTier.record(redisKey, rule.getLimit(), granted, remaining, resetMillis);
 
+        boolean allowed = granted > 0;
         if (!allowed) {
-            log.warn("Rate limit exceeded for key: {} ({}/{})", key, currentAttempts, maxAttempts);
+            log.warn("Rate limit exceeded for key: {} ({} {}/{})", key, algorithm, rule.getLimit(), rule.getWindow());
         }
 
-        return allowed;
+        // Permissões antecipadas continuam disponíveis para este nó
+        return new RateLimitResult(allowed, rule.getLimit(), remaining + Math.max(0, granted - 1),
+                (resetMillis + 999) / 1000);
     }
 
-    /**
-     * Reseta o contador de rate limit para uma chave específica.
-     * Útil após login bem-sucedido, por exemplo.
-     */
-    public void reset(String key) {
-        String redisKey = RATE_LIMIT_PREFIX + key;
-        redisTemplate.delete(redisKey);
-        log.debug("Rate limit reset for key: {}", key);
+    private static String redisKey(String key, RateLimitAlgorithm algorithm) {
+        return RATE_LIMIT_PREFIX + key + algorithm.getKeySuffix();
     }
 
-    /**
-     * Obtém o número de tentativas restantes.
-     */
-    public int getRemainingAttempts(String key, int maxAttempts) {
-        String redisKey = RATE_LIMIT_PREFIX + key;
-        Object attempts = redisTemplate.opsForValue().get(redisKey);
-
-        if (attempts instanceof Number) {
-            int currentAttempts = ((Number) attempts).intValue();
-            return Math.max(0, maxAttempts - currentAttempts);
-        }
+    private String execute(RedisScript<String> script, String redisKey, String... args) {
+        return redisTemplate.execute(script, RedisSerializer.string(), RedisSerializer.string(),
+                List.of(redisKey), (Object[]) args);
+    }
 
-        return maxAttempts;
+    //Intervalo entre requisições no ritmo sustentado (janela / limite), em µs para não perder precisão
+    private static long emissionIntervalMicros(Rule rule) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(rule.getWindow().toNanos()) / Math.max(1, rule.getLimit()));
     }
 
     /**
-     * Obtém o tempo restante até o reset do rate limit em segundos.
+     * Reseta o contador de rate limit para uma chave específica.
+     * Útil após login bem-sucedido, por exemplo.
+     * Remove a chave de todos os algoritmos, já que a regra pode ter mudado de algoritmo.
      */
-    public long getResetTime(String key) {
-        String redisKey = RATE_LIMIT_PREFIX + key;
-        Long ttl = redisTemplate.getExpire(redisKey, TimeUnit.SECONDS);
-        return ttl != null && ttl > 0 ? ttl : 0;
+    public void reset(String key) {
+        List<String> redisKeys = Arrays.stream(RateLimitAlgorithm.values())
+                .map(algorithm -> redisKey(key, algorithm))
+                .toList();
+        redisKeys.forEach(localTier::invalidate);
+        redisTemplate.delete(redisKeys);
+        log.debug("Rate limit reset for key: {}", key);
     }
 
     /**
      * Rate limiting para tentativas de login.
-     * Limite: 5 tentativas a cada 15 minutos
+     * Padrão: 5 tentativas a cada 15 minutos (log de janela deslizante)
      */
     public boolean isLoginAllowed(String identifier) {
-        return isAllowed("login:" + identifier, 5, Duration.ofMinutes(15));
+        return checkLogin(identifier).allowed();
+    }
+
+    public RateLimitResult checkLogin(String identifier) {
+        return check("login:" + identifier, rateLimitProperties.rule(RateLimitProperties.LOGIN));
     }
 
     /**
      * Rate limiting para envio de emails de verificação.
-     * Limite: 3 emails a cada 1 hora
+     * Padrão: 3 emails a cada 1 hora
      */
     public boolean isEmailVerificationAllowed(String email) {
-        return isAllowed("email_verification:" + email, 3, Duration.ofHours(1));
+        return checkEmailVerification(email).allowed();
+    }
+
+    public RateLimitResult checkEmailVerification(String email) {
+        return check("email_verification:" + email, rateLimitProperties.rule(RateLimitProperties.EMAIL_VERIFICATION));
     }
 
     /**
      * Rate limiting para submissão de missões.
-     * Limite: 10 submissões a cada 5 minutos
+     * Padrão: 10 submissões a cada 5 minutos (contador de janela deslizante)
      */
     public boolean isMissionSubmissionAllowed(Long userId) {
-        return isAllowed("mission_submission:" + userId, 10, Duration.ofMinutes(5));
+        return check("mission_submission:" + userId,
+                rateLimitProperties.rule(RateLimitProperties.MISSION_SUBMISSION)).allowed();
     }
 
     /**
      * Rate limiting genérico por IP.
-     * Limite: 100 requisições por minuto
+     * Padrão: 100 requisições por minuto com rajada de até 20 (token bucket)
      */
     public boolean isIpAllowed(String ipAddress) {
-        return isAllowed("ip:" + ipAddress, 100, Duration.ofMinutes(1));
+        return checkIp(ipAddress).allowed();
+    }
+
+    public RateLimitResult checkIp(String ipAddress) {
+        return check("ip:" + ipAddress, rateLimitProperties.rule(RateLimitProperties.IP));
     }
 
     /**
      * Rate limiting para submissão de boss.
-     * Limite: 3 tentativas a cada 1 hora
+     * Padrão: 3 tentativas a cada 1 hora (log de janela deslizante)
      */
     public boolean isBossSubmissionAllowed(Long userId) {
-        return isAllowed("boss_submission:" + userId, 3, Duration.ofHours(1));
+        return check("boss_submission:" + userId,
+                rateLimitProperties.rule(RateLimitProperties.BOSS_SUBMISSION)).allowed();
     }
-}
 
+    /**
+     * Bloqueia todas as requisições de um IP (regra "ip") por um período.
+     * O bloqueio vale na hora nesta instância (tier local) e chega às demais pelo Redis
+     * em até rate-limit.blocklist.refresh-interval, sem custo extra por requisição.
+     */
+    public void blockIp(String ipAddress, Duration duration) {
+        Rule rule = rateLimitProperties.rule(RateLimitProperties.IP);
+        localTier.block(redisKey("ip:" + ipAddress, rule.getAlgorithm()), rule.getLimit(), duration);
+        try {
+            redisTemplate.opsForZSet().add(BLOCKED_IPS_KEY, ipAddress, System.currentTimeMillis() + duration.toMillis());
+        } catch (RuntimeException e) {
+            log.error("Failed to share block for IP: {}", ipAddress, e);
+        }
+        log.warn("IP {} blocked for {}", ipAddress, duration);
+    }
+
+    //Copia para o tier local os bloqueios criados por outras instâncias
+    @Scheduled(fixedDelayString = "${rate-limit.blocklist.refresh-interval:5s}")
+    public void refreshBlockedIps() {
+        long now = System.currentTimeMillis();
+        Set<TypedTuple<Object>> blocked;
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(BLOCKED_IPS_KEY, 0, now);
+            blocked = redisTemplate.opsForZSet().rangeByScoreWithScores(BLOCKED_IPS_KEY, now, Double.POSITIVE_INFINITY);
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh blocked IPs: {}", e.getMessage());
+            return;
+        }
+        if (blocked == null || blocked.isEmpty()) {
+            return;
+        }
+
+        Rule rule = rateLimitProperties.rule(RateLimitProperties.IP);
+        for (TypedTuple<Object> entry : blocked) {
+            if (entry.getValue() == null || entry.getScore() == null) {
+                continue;
+            }
+            localTier.block(redisKey("ip:" + entry.getValue(), rule.getAlgorithm()), rule.getLimit(),
+                    Duration.ofMillis(entry.getScore().longValue() - now));
+        }
+    }
+}
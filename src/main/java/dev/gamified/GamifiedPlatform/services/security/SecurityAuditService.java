@@ -1,24 +1,38 @@
 package dev.gamified.GamifiedPlatform.services.security;
 
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterHandler;
 import dev.gamified.GamifiedPlatform.domain.SecurityAuditLog;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
 import dev.gamified.GamifiedPlatform.repository.SecurityAuditLogRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
 
 /**
  * Serviço para logs de auditoria de segurança.
  * Rastreia eventos críticos para detecção de ameaças e investigação.
+ * Os eventos são publicados no AuditLogWriter (buffer + gravação em lote) sem bloquear a requisição;
+ * eventos rejeitados pelo banco (violação de integridade) vão para o DLQ e são regravados aqui, com o horário
+ * original; com o banco fora eles esperam no spool local do AuditLogWriter (AuditSpillFile).
+ * Cada evento também passa pelo SuspiciousActivityDetector, cujos alertas viram eventos SUSPICIOUS_ACTIVITY.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class SecurityAuditService {
+public class SecurityAuditService implements DeadLetterHandler {
+
+    public static final String DEAD_LETTER_TYPE = "security-audit";
 
     private final SecurityAuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final DownstreamBulkheads bulkheads;
+    private final JsonMapper jsonMapper;
+    private final SuspiciousActivityDetector suspiciousActivityDetector;
 
-    @Async
     public void logLoginSuccess(Long userId, String username, String ipAddress, String userAgent) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("LOGIN_SUCCESS")
@@ -30,11 +44,10 @@ public class SecurityAuditService {
                 .details("User logged in successfully")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.info("AUDIT: Login successful - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logLoginFailure(String username, String ipAddress, String userAgent, String reason) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("LOGIN_FAILED")
@@ -45,11 +58,10 @@ public class SecurityAuditService {
                 .details("Login failed: " + reason)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.warn("AUDIT: Login failed - user: {}, ip: {}, reason: {}", username, ipAddress, reason);
     }
 
-    @Async
     public void logPasswordChange(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("PASSWORD_CHANGED")
@@ -60,11 +72,10 @@ public class SecurityAuditService {
                 .details("Password changed successfully")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.info("AUDIT: Password changed - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logLogout(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("LOGOUT")
@@ -75,11 +86,10 @@ public class SecurityAuditService {
                 .details("User logged out")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.info("AUDIT: Logout - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logLogoutAllDevices(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("LOGOUT_ALL_DEVICES")
@@ -90,11 +100,10 @@ public class SecurityAuditService {
                 .details("User logged out from all devices")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.warn("AUDIT: Logout all devices - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logUnauthorizedAccess(Long userId, String username, String ipAddress, String resource) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("UNAUTHORIZED_ACCESS")
@@ -105,12 +114,11 @@ public class SecurityAuditService {
                 .details("Attempted to access unauthorized resource: " + resource)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.error("AUDIT: Unauthorized access attempt - user: {}, ip: {}, resource: {}",
                   username, ipAddress, resource);
     }
 
-    @Async
     public void logAccountCreated(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("ACCOUNT_CREATED")
@@ -121,11 +129,10 @@ public class SecurityAuditService {
                 .details("New account created")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.info("AUDIT: Account created - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logAccountDeleted(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("ACCOUNT_DELETED")
@@ -136,11 +143,10 @@ public class SecurityAuditService {
                 .details("Account deleted")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.warn("AUDIT: Account deleted - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logTokenRefresh(Long userId, String username, String ipAddress) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("TOKEN_REFRESHED")
@@ -151,11 +157,10 @@ public class SecurityAuditService {
                 .details("Access token refreshed")
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.debug("AUDIT: Token refreshed - user: {}, ip: {}", username, ipAddress);
     }
 
-    @Async
     public void logSuspiciousActivity(Long userId, String username, String ipAddress, String details) {
         SecurityAuditLog auditLog = SecurityAuditLog.builder()
                 .eventType("SUSPICIOUS_ACTIVITY")
@@ -166,9 +171,28 @@ public class SecurityAuditService {
                 .details(details)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        submit(auditLog);
         log.error("AUDIT: Suspicious activity detected - user: {}, ip: {}, details: {}",
                   username, ipAddress, details);
     }
-}
 
+    @Override
+    public String taskType() {
+        return DEAD_LETTER_TYPE;
+    }
+
+    @Override
+    public void replay(String payload) {
+        SecurityAuditLog auditLog = jsonMapper.readValue(payload, AuditRecord.class).toEntity();
+        bulkheads.run(Downstream.DATABASE, () -> auditLogRepository.save(auditLog));
+    }
+
+    private void submit(SecurityAuditLog auditLog) {
+        // Fixa o horário do evento na chamada, não no momento da gravação/replay
+        auditLog.setTimestamp(LocalDateTime.now());
+        AuditRecord record = AuditRecord.from(auditLog);
+        auditLogWriter.submit(record);
+        suspiciousActivityDetector.observe(record).ifPresent(activity ->
+                logSuspiciousActivity(null, activity.username(), activity.ipAddress(), activity.details()));
+    }
+}
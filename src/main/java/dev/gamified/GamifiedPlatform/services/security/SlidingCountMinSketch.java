@@ -0,0 +1,103 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Count-min sketch com janela deslizante: a janela é dividida em "slots" fatias, cada uma com sua própria
+ * matriz depth x width de contadores. A estimativa soma as fatias vivas; a fatia mais antiga é zerada
+ * quando o relógio volta a ela. Memória fixa (slots * depth * width ints), independente do número de chaves.
+ * A estimativa nunca fica abaixo do valor real; colisões só podem aumentá-la.
+ */
+final class SlidingCountMinSketch {
+
+    private static final long SEED = new SecureRandom().nextLong();
+
+    private final int depth;
+    private final int width;
+    private final int slots;
+    private final long slotNanos;
+    private final AtomicIntegerArray[] counters;
+    private final AtomicLongArray slotEpochs;
+
+    SlidingCountMinSketch(int depth, int width, int slots, long windowNanos) {
+        if (depth < 1 || width < 1 || slots < 1 || windowNanos < slots) {
+            throw new IllegalArgumentException("Invalid sketch dimensions");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.slots = slots;
+        this.slotNanos = windowNanos / slots;
+        this.counters = new AtomicIntegerArray[slots];
+        this.slotEpochs = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            counters[i] = new AtomicIntegerArray(depth * width);
+            slotEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    //Contabiliza uma ocorrência e retorna a estimativa da janela já incluindo-a
+    int increment(String key, long nowNanos) {
+        long epoch = Math.floorDiv(nowNanos, slotNanos);
+        int slot = slotFor(epoch);
+        long hash = hash(key);
+        for (int row = 0; row < depth; row++) {
+            counters[slot].incrementAndGet(index(hash, row));
+        }
+        return estimate(hash, epoch);
+    }
+
+    int estimate(String key, long nowNanos) {
+        return estimate(hash(key), Math.floorDiv(nowNanos, slotNanos));
+    }
+
+    private int estimate(long hash, long epoch) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            int sum = 0;
+            for (int s = 0; s < slots; s++) {
+                long slotEpoch = slotEpochs.get(s);
+                if (slotEpoch > epoch - slots && slotEpoch <= epoch) {
+                    sum += counters[s].get(index);
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    //Zera a fatia quando ela pertence a uma volta anterior do relógio (acontece uma vez por slotNanos)
+    private int slotFor(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) slots);
+        if (slotEpochs.get(slot) != epoch) {
+            synchronized (counters[slot]) {
+                if (slotEpochs.get(slot) != epoch) {
+                    AtomicIntegerArray slotCounters = counters[slot];
+                    for (int i = 0; i < slotCounters.length(); i++) {
+                        slotCounters.set(i, 0);
+                    }
+                    slotEpochs.set(slot, epoch);
+                }
+            }
+        }
+        return slot;
+    }
+
+    //Duplo hashing (Kirsch-Mitzenmacher): h1 + row * h2 simula "depth" funções independentes
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+
+    /*
+     * XXH64 dos bytes UTF-8 da chave (também alimenta o HyperLogLog do detector). A semente é sorteada por
+     * processo: sem ela um atacante poderia calcular offline usernames que caem no mesmo registrador do HLL.
+     */
+    static long hash(String key) {
+        return XxHash64.hash(key.getBytes(StandardCharsets.UTF_8), SEED);
+    }
+}
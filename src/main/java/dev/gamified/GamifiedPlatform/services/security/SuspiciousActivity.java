@@ -0,0 +1,7 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+/*
+ * Alerta gerado pelo SuspiciousActivityDetector; blocked indica se o IP foi bloqueado automaticamente.
+ */
+public record SuspiciousActivity(String rule, String ipAddress, String username, String details, boolean blocked) {
+}
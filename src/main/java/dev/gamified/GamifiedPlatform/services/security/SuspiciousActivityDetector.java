@@ -0,0 +1,137 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * Detector de atividade suspeita alimentado pelos eventos de auditoria, em memória e no momento do evento
+ * (sem consultas em tb_security_audit_log):
+ *  - falhas por IP e por username numa janela deslizante, em um único count-min sketch de tamanho fixo;
+ *  - usernames distintos por IP (credential stuffing) em um HyperLogLog de 64 bytes por IP,
+ *    renovado a cada janela e limitado a max-tracked-ips entradas.
+ * Regras por IP podem bloquear o IP no RateLimitService; a regra por username só gera alerta,
+ * já que ataques distribuídos contra uma conta vêm de IPs legítimos também.
+ * Cada instância enxerga apenas o tráfego que recebe; o bloqueio é compartilhado pelo Redis.
+ * O IP do evento é sempre o da conexão (SecurityUtils.getClientIp, X-Forwarded-For só de proxies confiáveis):
+ * como o bloqueio vale para o cluster inteiro, ele nunca pode vir de um cabeçalho que o cliente controla.
+ */
+@Component
+@Slf4j
+public class SuspiciousActivityDetector {
+
+    static final String RULE_IP_FAILURES = "ip-failures";
+    static final String RULE_DISTINCT_USERNAMES = "distinct-usernames";
+    static final String RULE_USER_FAILURES = "user-failures";
+
+    private static final Set<String> FAILURE_EVENTS = Set.of("LOGIN_FAILED", "UNAUTHORIZED_ACCESS");
+    private static final int SKETCH_SLOTS = 5;
+    private static final int HLL_PRECISION = 6;
+
+    private final RateLimitService rateLimitService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean autoBlock;
+    private final Duration window;
+    private final Duration blockDuration;
+    private final int ipFailureThreshold;
+    private final int userFailureThreshold;
+    private final int distinctUsernameThreshold;
+    private final SlidingCountMinSketch failures;
+    private final Cache<String, HyperLogLogCounter> usernamesByIp;
+    private final Cache<String, Boolean> alerted;
+
+    public SuspiciousActivityDetector(RateLimitService rateLimitService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${audit.detector.enabled:true}") boolean enabled,
+                                      @Value("${audit.detector.window:5m}") Duration window,
+                                      @Value("${audit.detector.ip-failures:20}") int ipFailureThreshold,
+                                      @Value("${audit.detector.user-failures:10}") int userFailureThreshold,
+                                      @Value("${audit.detector.distinct-usernames-per-ip:8}") int distinctUsernameThreshold,
+                                      @Value("${audit.detector.auto-block:true}") boolean autoBlock,
+                                      @Value("${audit.detector.block-duration:15m}") Duration blockDuration,
+                                      @Value("${audit.detector.max-tracked-ips:50000}") long maxTrackedIps,
+                                      @Value("${audit.detector.sketch-width:4096}") int sketchWidth,
+                                      @Value("${audit.detector.sketch-depth:4}") int sketchDepth) {
+        this.rateLimitService = rateLimitService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.autoBlock = autoBlock;
+        this.window = window;
+        this.blockDuration = blockDuration;
+        this.ipFailureThreshold = ipFailureThreshold;
+        this.userFailureThreshold = userFailureThreshold;
+        this.distinctUsernameThreshold = distinctUsernameThreshold;
+        this.failures = new SlidingCountMinSketch(sketchDepth, sketchWidth, SKETCH_SLOTS, window.toNanos());
+        this.usernamesByIp = Caffeine.newBuilder()
+                .maximumSize(maxTrackedIps)
+                .expireAfterWrite(window)
+                .build();
+        // Um alerta por regra e chave enquanto durar o bloqueio, para não inundar a auditoria
+        this.alerted = Caffeine.newBuilder()
+                .maximumSize(maxTrackedIps)
+                .expireAfterWrite(blockDuration)
+                .build();
+    }
+
+    public Optional<SuspiciousActivity> observe(AuditRecord record) {
+        return observe(record, System.nanoTime());
+    }
+
+    Optional<SuspiciousActivity> observe(AuditRecord record, long nowNanos) {
+        if (!enabled || !FAILURE_EVENTS.contains(record.eventType())) {
+            return Optional.empty();
+        }
+        String ip = record.ipAddress();
+        String username = record.username();
+
+        int ipFailures = ip != null ? failures.increment("ip:" + ip, nowNanos) : 0;
+        int userFailures = username != null ? failures.increment("user:" + username, nowNanos) : 0;
+        long distinctUsernames = 0;
+        if (ip != null && username != null) {
+            HyperLogLogCounter counter = usernamesByIp.get(ip, key -> new HyperLogLogCounter(HLL_PRECISION));
+            counter.add(SlidingCountMinSketch.hash(username));
+            distinctUsernames = counter.estimate();
+        }
+
+        if (ipFailures >= ipFailureThreshold) {
+            return raise(RULE_IP_FAILURES, ip, ip, username, true,
+                    ipFailures + " failures from IP " + ip + " in " + window);
+        }
+        if (distinctUsernames >= distinctUsernameThreshold) {
+            return raise(RULE_DISTINCT_USERNAMES, ip, ip, username, true,
+                    "~" + distinctUsernames + " distinct usernames failed from IP " + ip + " in " + window);
+        }
+        if (userFailures >= userFailureThreshold) {
+            return raise(RULE_USER_FAILURES, username, ip, username, false,
+                    userFailures + " failures for username " + username + " in " + window);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<SuspiciousActivity> raise(String rule, String subject, String ip, String username,
+                                               boolean blockIp, String reason) {
+        if (alerted.asMap().putIfAbsent(rule + ":" + subject, Boolean.TRUE) != null) {
+            return Optional.empty();
+        }
+        meterRegistry.counter("security.detector.alerts", "rule", rule).increment();
+
+        boolean blocked = blockIp && autoBlock;
+        if (blocked) {
+            rateLimitService.blockIp(ip, blockDuration);
+            meterRegistry.counter("security.detector.blocked").increment();
+        }
+
+        String details = "Auto-detected (" + rule + "): " + reason
+                + (blocked ? " - IP blocked for " + blockDuration : "");
+        log.warn("Suspicious activity detected: {}", details);
+        return Optional.of(new SuspiciousActivity(rule, ip, username, details, blocked));
+    }
+}
@@ -0,0 +1,9 @@
+-- Momento em que o personagem alcançou o XP atual.
+-- Usado como critério de desempate no score do ranking (quem chegou primeiro fica na frente).
+ALTER TABLE tb_player_character
+ADD COLUMN xp_achieved_at TIMESTAMP;
+
+UPDATE tb_player_character
+SET xp_achieved_at = COALESCE(updated_at, created_at, NOW());
+
+COMMENT ON COLUMN tb_player_character.xp_achieved_at IS 'Momento em que o XP atual foi alcançado (desempate do ranking)';
@@ -0,0 +1,16 @@
+-- Dead-letter queue durável: tarefas assíncronas rejeitadas pelo executor (ex.: gravação de auditoria).
+-- O payload é o descritor serializado da tarefa; o DeadLetterReplayer reexecuta com backoff exponencial.
+CREATE TABLE tb_dead_letter (
+    id BIGSERIAL PRIMARY KEY,
+    task_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    next_attempt_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_dead_letter_status_next_attempt ON tb_dead_letter (status, next_attempt_at);
+
+COMMENT ON COLUMN tb_dead_letter.status IS 'PENDING (aguardando nova tentativa) ou EXHAUSTED (tentativas esgotadas / sem handler)';
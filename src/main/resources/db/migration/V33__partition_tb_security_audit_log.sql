@@ -0,0 +1,76 @@
+-- Migration: Particionamento mensal de tb_security_audit_log
+-- Description: converte a tabela de auditoria em uma tabela particionada por RANGE(timestamp), uma partição por mês.
+-- Inserções e índices passam a tocar só a partição do mês corrente; consultas com intervalo de tempo
+-- ignoram as demais partições; a retenção remove partições inteiras (DROP) em vez de DELETE.
+-- As partições futuras e a retenção são mantidas pelo AuditLogPartitionMaintenanceJob.
+
+-- 1. Tira a tabela atual do caminho, preservando a sequência de ids
+ALTER TABLE tb_security_audit_log RENAME TO tb_security_audit_log_legacy;
+ALTER INDEX tb_security_audit_log_pkey RENAME TO tb_security_audit_log_legacy_pkey;
+ALTER TABLE tb_security_audit_log_legacy ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE tb_security_audit_log_id_seq OWNED BY NONE;
+
+-- 2. Tabela particionada: a chave de partição precisa fazer parte da chave primária
+CREATE TABLE tb_security_audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('tb_security_audit_log_id_seq'),
+    event_type VARCHAR(50) NOT NULL,
+    user_id BIGINT,
+    username VARCHAR(100),
+    ip_address VARCHAR(45) NOT NULL,
+    user_agent VARCHAR(500),
+    details VARCHAR(2000),
+    severity VARCHAR(20) NOT NULL,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_security_audit_log PRIMARY KEY (id, timestamp),
+    CONSTRAINT fk_audit_log_user FOREIGN KEY (user_id)
+        REFERENCES tb_user(id) ON DELETE SET NULL
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE tb_security_audit_log_id_seq OWNED BY tb_security_audit_log.id;
+
+-- 3. Cria (se não existir) a partição do mês que contém p_month; usada aqui e pelo job de manutenção
+CREATE OR REPLACE FUNCTION ensure_security_audit_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name  TEXT := 'tb_security_audit_log_y' || to_char(v_start, 'YYYY') || 'm' || to_char(v_start, 'MM');
+BEGIN
+    IF to_regclass(v_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF tb_security_audit_log FOR VALUES FROM (%L) TO (%L)',
+                       v_name, v_start, v_end);
+    END IF;
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 4. Partições do primeiro mês com dados até 3 meses à frente
+DO $$
+DECLARE
+    v_month DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM tb_security_audit_log_legacy), now()))::date;
+BEGIN
+    WHILE v_month <= (date_trunc('month', now()) + INTERVAL '3 months')::date LOOP
+        PERFORM ensure_security_audit_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- 5. Copia o histórico e remove a tabela antiga
+INSERT INTO tb_security_audit_log (id, event_type, user_id, username, ip_address, user_agent, details, severity, timestamp)
+SELECT id, event_type, user_id, username, ip_address, user_agent, details, severity, timestamp
+FROM tb_security_audit_log_legacy;
+
+DROP TABLE tb_security_audit_log_legacy;
+
+-- 6. Índices criados na tabela pai são replicados em cada partição (B-trees pequenas, por mês).
+-- O índice isolado em timestamp deixa de ser necessário: o corte por tempo é feito pela poda de partições.
+CREATE INDEX idx_security_audit_user_timestamp ON tb_security_audit_log (user_id, timestamp DESC);
+CREATE INDEX idx_security_audit_event_timestamp ON tb_security_audit_log (event_type, timestamp DESC);
+CREATE INDEX idx_security_audit_severity_timestamp ON tb_security_audit_log (severity, timestamp DESC);
+CREATE INDEX idx_security_audit_ip_timestamp ON tb_security_audit_log (ip_address, timestamp DESC);
+
+COMMENT ON TABLE tb_security_audit_log IS 'Logs de auditoria de eventos de segurança (particionada por mês em timestamp)';
+COMMENT ON COLUMN tb_security_audit_log.event_type IS 'Tipo do evento: LOGIN_SUCCESS, LOGIN_FAILED, PASSWORD_CHANGED, etc';
+COMMENT ON COLUMN tb_security_audit_log.severity IS 'Nível de severidade: INFO, WARNING, CRITICAL';
+COMMENT ON COLUMN tb_security_audit_log.ip_address IS 'Endereço IP de origem do evento';
+COMMENT ON COLUMN tb_security_audit_log.details IS 'Detalhes adicionais sobre o evento';
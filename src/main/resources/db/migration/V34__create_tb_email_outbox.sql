@@ -0,0 +1,18 @@
+-- Outbox de emails: a intenção de envio é gravada na mesma transação do cadastro/recuperação de senha
+-- e entregue depois pelo EmailDeliveryWorker, fora da transação. Linhas entregues são removidas.
+CREATE TABLE tb_email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    next_attempt_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_email_outbox_status_next_attempt ON tb_email_outbox (status, next_attempt_at);
+
+COMMENT ON COLUMN tb_email_outbox.status IS 'PENDING (aguardando entrega ou nova tentativa) ou FAILED (tentativas esgotadas)';
+COMMENT ON COLUMN tb_email_outbox.next_attempt_at IS 'Próxima tentativa; enquanto um worker entrega o lote, marca o fim do claim';
@@ -0,0 +1,50 @@
+-- Estatísticas materializadas para os relatórios administrativos.
+-- Mantidas incrementalmente (upsert atômico na mesma transação da mudança de status em tb_user_missions
+-- e tb_user_bosses) e reconciliadas toda noite pelo AdminStatsReconciliationJob.
+-- attempts = linhas já iniciadas (started_at preenchido); completed/defeated/failed = linhas no status atual.
+CREATE TABLE tb_mission_stats (
+    mission_id BIGINT PRIMARY KEY REFERENCES tb_missions (id) ON DELETE CASCADE,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE tb_boss_stats (
+    boss_id BIGINT PRIMARY KEY REFERENCES tb_bosses (id) ON DELETE CASCADE,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    defeated BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Totais de tentativas do nível saem da soma de tb_mission_stats; aqui fica apenas o que não é somável
+CREATE TABLE tb_level_stats (
+    level_id BIGINT PRIMARY KEY REFERENCES tb_levels (id) ON DELETE CASCADE,
+    distinct_users BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Carga inicial a partir do estado atual
+INSERT INTO tb_mission_stats (mission_id, attempts, completed, failed)
+SELECT mission_id,
+       COUNT(*) FILTER (WHERE started_at IS NOT NULL),
+       COUNT(*) FILTER (WHERE status = 'COMPLETED'),
+       COUNT(*) FILTER (WHERE status = 'FAILED')
+FROM tb_user_missions
+GROUP BY mission_id;
+
+INSERT INTO tb_boss_stats (boss_id, attempts, defeated, failed)
+SELECT boss_id,
+       COUNT(*) FILTER (WHERE started_at IS NOT NULL),
+       COUNT(*) FILTER (WHERE status = 'DEFEATED'),
+       COUNT(*) FILTER (WHERE status = 'FAILED')
+FROM tb_user_bosses
+GROUP BY boss_id;
+
+INSERT INTO tb_level_stats (level_id, distinct_users)
+SELECT m.level_id, COUNT(DISTINCT um.user_id)
+FROM tb_user_missions um
+JOIN tb_missions m ON m.id = um.mission_id
+WHERE um.started_at IS NOT NULL
+GROUP BY m.level_id;
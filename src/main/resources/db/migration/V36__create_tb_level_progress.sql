@@ -0,0 +1,22 @@
+-- Histograma de progresso por nível: quantos usuários têm exatamente N missões concluídas no nível
+-- (entre os que já iniciaram alguma missão dele). Mantido pelo AdminStatsRecorder e reconciliado
+-- pelo AdminStatsReconciliationJob; taxa de conclusão e progresso médio saem daqui sem varrer usuários.
+CREATE TABLE tb_level_progress (
+    level_id BIGINT NOT NULL REFERENCES tb_levels (id) ON DELETE CASCADE,
+    completed_missions INTEGER NOT NULL,
+    users BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (level_id, completed_missions)
+);
+
+-- Carga inicial em uma única passada agrupada
+INSERT INTO tb_level_progress (level_id, completed_missions, users)
+SELECT level_id, completed_missions, COUNT(*)
+FROM (SELECT m.level_id,
+             um.user_id,
+             COUNT(*) FILTER (WHERE um.status = 'COMPLETED') AS completed_missions
+      FROM tb_user_missions um
+      JOIN tb_missions m ON m.id = um.mission_id
+      WHERE um.started_at IS NOT NULL
+      GROUP BY m.level_id, um.user_id) per_user
+GROUP BY level_id, completed_missions;
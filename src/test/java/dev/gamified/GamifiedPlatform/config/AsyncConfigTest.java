@@ -0,0 +1,142 @@
+package dev.gamified.GamifiedPlatform.config;
+
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterQueue;
+import dev.gamified.GamifiedPlatform.enums.AsyncExecutorMode;
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/*
+ * Comportamento do executor nos dois modos sob tarefas bloqueadas em I/O.
+ * As tarefas ficam presas em um latch em vez de dormir, então cada estado é alcançado de forma determinística.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncConfig Tests")
+class AsyncConfigTest {
+
+    private static final int DATABASE_PERMITS = 2;
+    private static final int TASKS = 10;
+
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+
+    @Test
+    @DisplayName("Modo PLATFORM: com a thread e a fila ocupadas, a tarefa seguinte vai para o DLQ")
+    void platformModeRejectsIntoDlqWhenSaturated() throws Exception {
+        AsyncConfig config = new AsyncConfig(deadLetterQueue, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(config, "mode", AsyncExecutorMode.PLATFORM);
+        ReflectionTestUtils.setField(config, "corePoolSize", 1);
+        ReflectionTestUtils.setField(config, "maxPoolSize", 1);
+        ReflectionTestUtils.setField(config, "queueCapacity", 1);
+        Executor executor = config.taskExecutor();
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        Runnable blocking = () -> {
+            running.countDown();
+            awaitQuietly(release);
+            finished.countDown();
+        };
+        Runnable overflow = () -> fail("rejected task must not run");
+
+        try {
+            executor.execute(blocking);
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            executor.execute(blocking);
+            executor.execute(overflow);
+
+            verify(deadLetterQueue, times(1)).add(overflow);
+            verifyNoMoreInteractions(deadLetterQueue);
+        } finally {
+            release.countDown();
+        }
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        shutdown(executor);
+    }
+
+    @Test
+    @DisplayName("Modo VIRTUAL: todas as tarefas completam e nunca passam do número de permissões do banco")
+    void virtualModeCompletesWithinBulkhead() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncConfig config = new AsyncConfig(deadLetterQueue, meterRegistry);
+        ReflectionTestUtils.setField(config, "mode", AsyncExecutorMode.VIRTUAL);
+        Executor executor = config.taskExecutor();
+        DownstreamBulkheads bulkheads = new DownstreamBulkheads(meterRegistry, DATABASE_PERMITS, 1, 1, 1,
+                Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(TASKS);
+
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                executor.execute(() -> {
+                    bulkheads.run(Downstream.DATABASE, () -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        awaitQuietly(release);
+                        concurrent.decrementAndGet();
+                    });
+                    completed.incrementAndGet();
+                    finished.countDown();
+                });
+            }
+
+            // Todas as tarefas começaram: as permissões estão em uso e o restante espera no bulkhead
+            awaitCondition(() -> bulkheads.inFlight(Downstream.DATABASE) == DATABASE_PERMITS
+                    && bulkheads.waiting(Downstream.DATABASE) == TASKS - DATABASE_PERMITS);
+            assertEquals(DATABASE_PERMITS, maxConcurrent.get());
+        } finally {
+            release.countDown();
+        }
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(TASKS, completed.get());
+        assertTrue(maxConcurrent.get() <= DATABASE_PERMITS);
+        verifyNoInteractions(deadLetterQueue);
+        shutdown(executor);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void shutdown(Executor executor) throws Exception {
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
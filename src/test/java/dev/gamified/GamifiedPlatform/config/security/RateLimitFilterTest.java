@@ -0,0 +1,185 @@
+package dev.gamified.GamifiedPlatform.config.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.KeyType;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.RouteRule;
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties.Rule;
+import dev.gamified.GamifiedPlatform.enums.RateLimitAlgorithm;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitResult;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    @Mock private RateLimitService rateLimitService;
+    @Mock private FilterChain filterChain;
+
+    private RateLimitProperties rateLimitProperties;
+    private RateLimitFilter filter;
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Rule submissionRule = new Rule(RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 20, Duration.ofMinutes(1), null);
+    private final Rule authRule = new Rule(RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 30, Duration.ofMinutes(1), null);
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setRoutes(List.of(
+                new RouteRule("auth", List.of("/auth/**"), List.of(), KeyType.IP, authRule),
+                new RouteRule("submissions", List.of("/bosses/*/submit"), List.of("POST"), KeyType.USER, submissionRule)));
+        JwtDecoder jwtDecoder = NimbusJwtDecoder
+                .withSecretKey(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .build();
+        filter = new RateLimitFilter(rateLimitService, rateLimitProperties, jwtDecoder);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar com 429 e Retry-After antes do resto da cadeia quando o IP excede o limite")
+    void shouldRejectWhenIpLimitExceeded() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(false, 100, 0, 7));
+        MockHttpServletRequest request = request("GET", "/levels");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("7", response.getHeader("Retry-After"));
+        assertEquals("100", response.getHeader(RateLimitHeaders.LIMIT));
+        assertEquals("0", response.getHeader(RateLimitHeaders.REMAINING));
+        assertTrue(response.getContentAsString().contains("Too Many Requests"));
+        verifyNoInteractions(filterChain);
+        verify(rateLimitService, never()).check(anyString(), any(Rule.class));
+    }
+
+    @Test
+    @DisplayName("Grupo por IP usa o endereço do cliente e os headers refletem o limite mais apertado")
+    void shouldApplyIpRouteAndEmitTightestHeaders() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+        when(rateLimitService.check("route:auth:ip:10.0.0.1", authRule)).thenReturn(new RateLimitResult(true, 30, 2, 40));
+        MockHttpServletRequest request = request("POST", "/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertEquals("30", response.getHeader(RateLimitHeaders.LIMIT));
+        assertEquals("2", response.getHeader(RateLimitHeaders.REMAINING));
+        assertEquals("40", response.getHeader(RateLimitHeaders.RESET));
+        assertNull(response.getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Grupo por usuário usa o claim userId do JWT")
+    void shouldKeyUserRouteByJwtUserId() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+        when(rateLimitService.check(eq("route:submissions:user:42"), eq(submissionRule)))
+                .thenReturn(new RateLimitResult(false, 20, 0, 15));
+        MockHttpServletRequest request = request("POST", "/bosses/3/submit");
+        request.addHeader("Authorization", "Bearer " + token(42L, SECRET));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("15", response.getHeader("Retry-After"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @DisplayName("Grupo por usuário cai para o IP em requisições sem token válido")
+    void shouldFallbackToIpWithoutToken() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+        when(rateLimitService.check("route:submissions:ip:10.0.0.1", submissionRule))
+                .thenReturn(new RateLimitResult(true, 20, 19, 60));
+        MockHttpServletRequest request = request("POST", "/bosses/3/submit");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(rateLimitService).check("route:submissions:ip:10.0.0.1", submissionRule);
+    }
+
+    @Test
+    @DisplayName("Token com assinatura inválida não escolhe a chave do usuário: cai para o IP")
+    void shouldIgnoreForgedToken() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+        when(rateLimitService.check("route:submissions:ip:10.0.0.1", submissionRule))
+                .thenReturn(new RateLimitResult(true, 20, 19, 60));
+        MockHttpServletRequest request = request("POST", "/bosses/3/submit");
+        request.addHeader("Authorization", "Bearer " + token(42L, "ffffffffffffffffffffffffffffffff"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(rateLimitService).check("route:submissions:ip:10.0.0.1", submissionRule);
+        verify(rateLimitService, never()).check(eq("route:submissions:user:42"), any(Rule.class));
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For enviado pelo cliente não altera o IP usado nos limites")
+    void shouldIgnoreClientSuppliedForwardedFor() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+        MockHttpServletRequest request = request("GET", "/levels");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        request.addHeader("X-Real-IP", "203.0.113.8");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(rateLimitService).checkIp("10.0.0.1");
+        verify(rateLimitService, never()).checkIp("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Rotas com método diferente e caminhos excluídos não são limitados pelo grupo")
+    void shouldSkipNonMatchingMethodAndExcludedPaths() throws Exception {
+        when(rateLimitService.checkIp("10.0.0.1")).thenReturn(new RateLimitResult(true, 100, 90, 1));
+
+        filter.doFilter(request("GET", "/bosses/3/submit"), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request("GET", "/actuator/health"), new MockHttpServletResponse(), filterChain);
+
+        verify(rateLimitService, times(1)).checkIp("10.0.0.1");
+        verify(rateLimitService, never()).check(anyString(), any(Rule.class));
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static String token(Long userId, String secret) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256),
+                new JWTClaimsSet.Builder().subject("player").claim("userId", userId).build());
+        jwt.sign(new MACSigner(secret));
+        return jwt.serialize();
+    }
+}
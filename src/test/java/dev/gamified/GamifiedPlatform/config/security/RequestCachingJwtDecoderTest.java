@@ -0,0 +1,86 @@
+package dev.gamified.GamifiedPlatform.config.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RequestCachingJwtDecoder Tests")
+class RequestCachingJwtDecoderTest {
+
+    @Mock private JwtDecoder delegate;
+
+    private RequestCachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new RequestCachingJwtDecoder(delegate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Rate limit e resource server decodificam o mesmo token uma única vez por requisição")
+    void shouldVerifyTokenOncePerRequest() {
+        Jwt jwt = jwt("token-a");
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("token-a"));
+        assertSame(jwt, decoder.decode("token-a"));
+
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("Token inválido também é verificado uma vez e a falha é repetida")
+    void shouldCacheVerificationFailure() {
+        when(delegate.decode("forged")).thenThrow(new BadJwtException("bad signature"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+
+        verify(delegate, times(1)).decode("forged");
+    }
+
+    @Test
+    @DisplayName("Outro token na mesma requisição ou chamada fora de requisição sempre delega")
+    void shouldDelegateForOtherTokenOrOutsideRequest() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a"));
+        when(delegate.decode("token-b")).thenReturn(jwt("token-b"));
+
+        decoder.decode("token-a");
+        decoder.decode("token-b");
+        RequestContextHolder.resetRequestAttributes();
+        decoder.decode("token-b");
+
+        verify(delegate, times(1)).decode("token-a");
+        verify(delegate, times(2)).decode("token-b");
+    }
+
+    private static Jwt jwt(String token) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("userId", 42L)
+                .issuedAt(Instant.now())
+                .build();
+    }
+}
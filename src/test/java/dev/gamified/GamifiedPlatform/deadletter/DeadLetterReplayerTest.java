@@ -0,0 +1,283 @@
+package dev.gamified.GamifiedPlatform.deadletter;
+
+import dev.gamified.GamifiedPlatform.domain.DeadLetterEntry;
+import dev.gamified.GamifiedPlatform.dtos.response.deadletter.DeadLetterReplayResponse;
+import dev.gamified.GamifiedPlatform.enums.DeadLetterStatus;
+import dev.gamified.GamifiedPlatform.repository.DeadLetterEntryRepository;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeadLetterQueue / DeadLetterReplayer Tests")
+class DeadLetterReplayerTest {
+
+    @Mock
+    private DeadLetterEntryRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadLetterQueue deadLetterQueue;
+    private final List<String> replayedPayloads = new ArrayList<>();
+    private final RuntimeException[] failure = new RuntimeException[1];
+    private DeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetterQueue = new DeadLetterQueue(repository, transactionManager, meterRegistry, 2, 16,
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+        DeadLetterHandler handler = new DeadLetterHandler() {
+            @Override
+            public String taskType() {
+                return "test";
+            }
+
+            @Override
+            public void replay(String payload) {
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+                replayedPayloads.add(payload);
+            }
+        };
+        replayer = new DeadLetterReplayer(repository, deadLetterQueue, clusterLeaseService, meterRegistry,
+                List.of(handler));
+    }
+
+    @Test
+    @DisplayName("Deve persistir o descritor da tarefa como PENDING")
+    void shouldPersistDescriptor() {
+        when(repository.countByStatus(DeadLetterStatus.PENDING)).thenReturn(0L);
+        deadLetterQueue.refreshSize();
+
+        deadLetterQueue.add(task("payload-1"));
+        assertEquals(0, deadLetterQueue.flushPending());
+
+        verify(repository).save(argThat(entry -> "test".equals(entry.getTaskType())
+                && "payload-1".equals(entry.getPayload())
+                && entry.getStatus() == DeadLetterStatus.PENDING));
+        assertEquals(1, deadLetterQueue.size());
+    }
+
+    @Test
+    @DisplayName("Runnable sem descritor é registrado como EXHAUSTED e não será reexecutado")
+    void shouldStoreOpaqueRunnableAsExhausted() {
+        when(repository.countByStatus(DeadLetterStatus.PENDING)).thenReturn(0L);
+        deadLetterQueue.refreshSize();
+
+        deadLetterQueue.add(() -> { });
+        deadLetterQueue.flushPending();
+
+        verify(repository).save(argThat(entry -> DeadLetterQueue.OPAQUE_TYPE.equals(entry.getTaskType())
+                && entry.getStatus() == DeadLetterStatus.EXHAUSTED));
+        // Entradas EXHAUSTED não ocupam a capacidade
+        assertEquals(0, deadLetterQueue.size());
+    }
+
+    @Test
+    @DisplayName("Capacidade conta apenas entradas PENDING")
+    void shouldAcceptTasks_whenOnlyExhaustedEntriesAccumulate() {
+        when(repository.countByStatus(DeadLetterStatus.PENDING)).thenReturn(1L);
+        deadLetterQueue.refreshSize();
+
+        deadLetterQueue.add(task("payload-1"));
+        deadLetterQueue.flushPending();
+
+        verify(repository).save(any());
+        verify(repository, never()).count();
+        assertEquals(0.0, meterRegistry.counter("dlq.dropped").count());
+    }
+
+    @Test
+    @DisplayName("add() não abre conexão nem transação na thread de quem teve a tarefa rejeitada")
+    void shouldNotTouchDatabaseOnCallerThread() {
+        deadLetterQueue.add(task("payload-1"));
+        deadLetterQueue.add(() -> { });
+
+        verifyNoInteractions(repository, transactionManager);
+        assertEquals(2.0, meterRegistry.get("dlq.handoff.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Falha ao gravar mantém as entradas em memória para a próxima tentativa")
+    void shouldKeepEntriesInMemoryWhenDatabaseIsDown() {
+        when(repository.save(any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        deadLetterQueue.add(task("payload-1"));
+
+        assertEquals(1, deadLetterQueue.flushPending());
+        assertEquals(1.0, meterRegistry.counter("dlq.persist.failures").count());
+        assertEquals(0, deadLetterQueue.flushPending());
+        assertEquals(1.0, meterRegistry.counter("dlq.persisted").count());
+        verify(repository, times(2)).save(any());
+    }
+
+    @Test
+    @DisplayName("Buffer em memória cheio descarta e contabiliza sem bloquear")
+    void shouldDropWhenHandoffIsFull() {
+        deadLetterQueue = new DeadLetterQueue(repository, transactionManager, meterRegistry, 100, 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+        deadLetterQueue.add(task("payload-1"));
+        deadLetterQueue.add(task("payload-2"));
+
+        assertEquals(1.0, meterRegistry.counter("dlq.dropped").count());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Purge remove em lotes até o último lote incompleto")
+    void shouldPurgeInBatches() {
+        LocalDateTime before = LocalDateTime.now();
+        when(repository.deleteBatch("EXHAUSTED", before, 1000)).thenReturn(1000, 1000, 3);
+
+        assertEquals(2003, deadLetterQueue.purge(DeadLetterStatus.EXHAUSTED, before));
+        verify(repository, times(3)).deleteBatch("EXHAUSTED", before, 1000);
+    }
+
+    @Test
+    @DisplayName("Retenção remove entradas EXHAUSTED mais antigas que a idade máxima")
+    void shouldPurgeExpiredExhaustedEntries() {
+        DeadLetterRetentionJob retentionJob = new DeadLetterRetentionJob(deadLetterQueue, clusterLeaseService, meterRegistry);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 3, 45);
+        when(repository.deleteBatch("EXHAUSTED", now.minusDays(30), 1000)).thenReturn(7);
+
+        assertEquals(7, retentionJob.purgeExhausted(now));
+        assertEquals(7.0, meterRegistry.counter("dlq.purged").count());
+    }
+
+    @Test
+    @DisplayName("Deve descartar tarefas quando a capacidade for atingida")
+    void shouldDropWhenFull() {
+        when(repository.countByStatus(DeadLetterStatus.PENDING)).thenReturn(2L);
+        deadLetterQueue.refreshSize();
+
+        deadLetterQueue.add(task("payload-1"));
+        deadLetterQueue.flushPending();
+
+        verify(repository, never()).save(any());
+        assertEquals(1.0, meterRegistry.counter("dlq.dropped").count());
+    }
+
+    @Test
+    @DisplayName("Replay bem-sucedido remove a entrada")
+    void shouldDeleteEntryAfterSuccessfulReplay() {
+        DeadLetterEntry entry = entry(0);
+        when(repository.findDue(eq(DeadLetterStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+
+        DeadLetterReplayResponse response = replayer.replayDue();
+
+        assertEquals(new DeadLetterReplayResponse(1, 0), response);
+        assertEquals(List.of("payload"), replayedPayloads);
+        verify(repository).delete(entry);
+    }
+
+    @Test
+    @DisplayName("Falha agenda nova tentativa com backoff exponencial")
+    void shouldRescheduleWithBackoffOnFailure() {
+        failure[0] = new IllegalStateException("db down");
+        DeadLetterEntry entry = entry(2);
+        when(repository.findDue(eq(DeadLetterStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+
+        LocalDateTime before = LocalDateTime.now();
+        DeadLetterReplayResponse response = replayer.replayDue();
+
+        assertEquals(new DeadLetterReplayResponse(0, 1), response);
+        assertEquals(3, entry.getAttempts());
+        assertEquals(DeadLetterStatus.PENDING, entry.getStatus());
+        // 30s * 2^(3-1) = 2 minutos
+        assertFalse(entry.getNextAttemptAt().isBefore(before.plusMinutes(2)));
+        assertTrue(entry.getLastError().contains("db down"));
+        verify(repository).save(entry);
+        verify(repository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Entrada vira EXHAUSTED ao atingir o máximo de tentativas")
+    void shouldExhaustAfterMaxAttempts() {
+        failure[0] = new IllegalStateException("still down");
+        DeadLetterEntry entry = entry(7);
+        when(repository.findDue(eq(DeadLetterStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+
+        replayer.replayDue();
+
+        assertEquals(DeadLetterStatus.EXHAUSTED, entry.getStatus());
+        assertEquals(1.0, meterRegistry.counter("dlq.exhausted", "type", "test").count());
+    }
+
+    @Test
+    @DisplayName("Replay manual reinicia as tentativas de uma entrada EXHAUSTED")
+    void shouldReplayExhaustedEntryManually() {
+        DeadLetterEntry entry = entry(8);
+        entry.setStatus(DeadLetterStatus.EXHAUSTED);
+        when(repository.findById(1L)).thenReturn(Optional.of(entry));
+
+        assertEquals(new DeadLetterReplayResponse(1, 0), replayer.replay(1L));
+        verify(repository).delete(entry);
+    }
+
+    @Test
+    @DisplayName("Backoff é exponencial e limitado ao máximo")
+    void shouldCapBackoff() {
+        assertEquals(Duration.ofSeconds(30), replayer.backoff(1));
+        assertEquals(Duration.ofMinutes(4), replayer.backoff(4));
+        assertEquals(Duration.ofHours(1), replayer.backoff(20));
+    }
+
+    private static DeadLetterTask task(String payload) {
+        return new DeadLetterTask() {
+            @Override
+            public String taskType() {
+                return "test";
+            }
+
+            @Override
+            public String payload() {
+                return payload;
+            }
+
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    private static DeadLetterEntry entry(int attempts) {
+        return DeadLetterEntry.builder()
+                .id(1L)
+                .taskType("test")
+                .payload("payload")
+                .status(DeadLetterStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package dev.gamified.GamifiedPlatform.services.admin;
+
+import dev.gamified.GamifiedPlatform.domain.LevelProgress;
+import dev.gamified.GamifiedPlatform.domain.LevelStats;
+import dev.gamified.GamifiedPlatform.domain.MissionStats;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelProgressCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.LevelUserCount;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
+import dev.gamified.GamifiedPlatform.repository.*;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdminStatsReconciliationJob Tests")
+class AdminStatsReconciliationJobTest {
+
+    @Mock
+    private UserMissionRepository userMissionRepository;
+
+    @Mock
+    private UserBossRepository userBossRepository;
+
+    @Mock
+    private MissionStatsRepository missionStatsRepository;
+
+    @Mock
+    private BossStatsRepository bossStatsRepository;
+
+    @Mock
+    private LevelStatsRepository levelStatsRepository;
+
+    @Mock
+    private LevelProgressRepository levelProgressRepository;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdminStatsReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new AdminStatsReconciliationJob(userMissionRepository, userBossRepository, missionStatsRepository,
+                bossStatsRepository, levelStatsRepository, levelProgressRepository, clusterLeaseService, meterRegistry, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Contadores iguais à verdade não geram escrita")
+    void reconcile_shouldNotWrite_whenNoDrift() {
+        when(userMissionRepository.findStatusHistogramByMission())
+                .thenReturn(List.of(new MissionStatusHistogram(1L, "M1", 5L, 3L, 1L)));
+        when(missionStatsRepository.findAll()).thenReturn(List.of(missionStats(1L, 5L, 3L, 1L)));
+        when(userMissionRepository.countStartedUsersByLevel()).thenReturn(List.of(new LevelUserCount(9L, 4L)));
+        when(levelStatsRepository.findAll()).thenReturn(List.of(levelStats(9L, 4L)));
+
+        assertEquals(0, job.reconcile());
+
+        verify(missionStatsRepository, never()).increment(anyLong(), anyLong(), anyLong(), anyLong());
+        verify(bossStatsRepository, never()).increment(anyLong(), anyLong(), anyLong(), anyLong());
+        verify(levelStatsRepository, never()).increment(anyLong(), anyLong());
+        verify(levelProgressRepository, never()).increment(anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Histograma de progresso divergente é corrigido faixa a faixa")
+    void reconcile_shouldFixProgressHistogram() {
+        when(userMissionRepository.findProgressHistogramByLevel()).thenReturn(List.of(
+                new LevelProgressCount(9L, 0, 2L),
+                new LevelProgressCount(9L, 3, 1L)));
+        // A faixa 2 ficou com um usuário que na verdade tem 3 missões concluídas
+        when(levelProgressRepository.findAll()).thenReturn(List.of(
+                LevelProgress.builder().levelId(9L).completedMissions(0).users(2L).build(),
+                LevelProgress.builder().levelId(9L).completedMissions(2).users(1L).build()));
+
+        assertEquals(2, job.reconcile());
+
+        verify(levelProgressRepository).increment(9L, 2, -1L);
+        verify(levelProgressRepository).increment(9L, 3, 1L);
+        verify(levelProgressRepository, never()).increment(eq(9L), eq(0), anyLong());
+    }
+
+    @Test
+    @DisplayName("Divergências são corrigidas como deltas, inclusive linhas que só existem de um dos lados")
+    void reconcile_shouldApplyDeltas() {
+        when(userMissionRepository.findStatusHistogramByMission()).thenReturn(List.of(
+                new MissionStatusHistogram(1L, "M1", 5L, 3L, 1L),
+                new MissionStatusHistogram(2L, "M2", 2L, 0L, 2L)));
+        // Missão 1 perdeu um completed; missão 3 teve as linhas apagadas em cascata
+        when(missionStatsRepository.findAll()).thenReturn(List.of(
+                missionStats(1L, 5L, 2L, 1L),
+                missionStats(3L, 4L, 1L, 0L)));
+        when(userBossRepository.findStatusHistogramByBoss())
+                .thenReturn(List.of(new BossStatusHistogram(7L, "B7", 3L, 1L, 1L)));
+        when(bossStatsRepository.findAll()).thenReturn(List.of());
+        when(userMissionRepository.countStartedUsersByLevel()).thenReturn(List.of(new LevelUserCount(9L, 4L)));
+        when(levelStatsRepository.findAll()).thenReturn(List.of(levelStats(9L, 6L)));
+
+        assertEquals(5, job.reconcile());
+
+        verify(missionStatsRepository).increment(1L, 0, 1, 0);
+        verify(missionStatsRepository).increment(2L, 2, 0, 2);
+        verify(missionStatsRepository).increment(3L, -4, -1, 0);
+        verify(bossStatsRepository).increment(7L, 3, 1, 1);
+        verify(levelStatsRepository).increment(9L, -2);
+        assertEquals(3.0, meterRegistry.counter("admin.stats.reconcile.corrections", "table", "mission").count());
+    }
+
+    @Test
+    @DisplayName("Execução agendada deve passar pelo lease do cluster")
+    void scheduledReconciliation_shouldUseLease() {
+        job.scheduledReconciliation();
+
+        verify(clusterLeaseService).runExclusively(eq(AdminStatsReconciliationJob.LEASE_NAME), any(), any(), any());
+        verifyNoInteractions(userMissionRepository, missionStatsRepository);
+    }
+
+    private static MissionStats missionStats(Long id, long attempts, long completed, long failed) {
+        return MissionStats.builder().missionId(id).attempts(attempts).completed(completed).failed(failed).build();
+    }
+
+    private static LevelStats levelStats(Long id, long users) {
+        return LevelStats.builder().levelId(id).distinctUsers(users).build();
+    }
+}
@@ -0,0 +1,151 @@
+package dev.gamified.GamifiedPlatform.services.admin;
+
+import dev.gamified.GamifiedPlatform.domain.*;
+import dev.gamified.GamifiedPlatform.enums.BossFightStatus;
+import dev.gamified.GamifiedPlatform.enums.MissionStatus;
+import dev.gamified.GamifiedPlatform.repository.BossStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelProgressRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.MissionStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdminStatsRecorder Tests")
+class AdminStatsRecorderTest {
+
+    @Mock
+    private MissionStatsRepository missionStatsRepository;
+
+    @Mock
+    private BossStatsRepository bossStatsRepository;
+
+    @Mock
+    private LevelStatsRepository levelStatsRepository;
+
+    @Mock
+    private LevelProgressRepository levelProgressRepository;
+
+    @Mock
+    private UserMissionRepository userMissionRepository;
+
+    @InjectMocks
+    private AdminStatsRecorder recorder;
+
+    private UserMission userMission;
+    private UserBoss userBoss;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(7L).build();
+        Levels level = Levels.builder().id(3L).build();
+        Mission mission = Mission.builder().id(10L).level(level).build();
+        userMission = UserMission.builder().user(user).mission(mission).status(MissionStatus.AVAILABLE).build();
+        userBoss = UserBoss.builder().user(user).boss(Boss.builder().id(20L).level(level).build())
+                .status(BossFightStatus.UNLOCKED).build();
+    }
+
+    @Test
+    @DisplayName("Primeiro início conta tentativa e, se for a primeira missão do usuário no nível, um usuário distinto")
+    void firstStart_countsAttemptAndDistinctUser() {
+        when(userMissionRepository.hasStartedMissionInLevel(7L, 3L)).thenReturn(false);
+
+        recorder.missionStarting(userMission);
+
+        verify(missionStatsRepository).increment(10L, 1, 0, 0);
+        verify(levelStatsRepository).increment(3L, 1);
+        verify(levelProgressRepository).increment(3L, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Início e avaliação travam as tabelas na mesma ordem: mission_stats, level_stats, level_progress")
+    void startAndEvaluation_lockTablesInSameOrder() {
+        when(userMissionRepository.hasStartedMissionInLevel(7L, 3L)).thenReturn(false);
+        when(userMissionRepository.countCompletedMissionsByUserAndLevel(7L, 3L)).thenReturn(1L);
+        InOrder inOrder = inOrder(missionStatsRepository, levelStatsRepository, levelProgressRepository);
+
+        recorder.missionStarting(userMission);
+        inOrder.verify(missionStatsRepository).increment(10L, 1, 0, 0);
+        inOrder.verify(levelStatsRepository).increment(3L, 1);
+        inOrder.verify(levelProgressRepository).increment(3L, 0, 1);
+
+        userMission.setStatus(MissionStatus.COMPLETED);
+        recorder.missionEvaluated(userMission, true);
+        inOrder.verify(missionStatsRepository).increment(10L, 0, 1, 0);
+        inOrder.verify(levelProgressRepository).increment(3L, 0, -1);
+        inOrder.verify(levelProgressRepository).increment(3L, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Usuário que já iniciou outra missão do nível não é contado de novo")
+    void firstStart_doesNotRecountUserInLevel() {
+        when(userMissionRepository.hasStartedMissionInLevel(7L, 3L)).thenReturn(true);
+
+        recorder.missionStarting(userMission);
+
+        verify(missionStatsRepository).increment(10L, 1, 0, 0);
+        verifyNoInteractions(levelStatsRepository, levelProgressRepository);
+    }
+
+    @Test
+    @DisplayName("Recomeçar após falha não é nova tentativa e tira a linha de failed")
+    void restartAfterFailure_decrementsFailed() {
+        userMission.setStatus(MissionStatus.FAILED);
+        userMission.setStartedAt(LocalDateTime.now().minusDays(1));
+
+        recorder.missionStarting(userMission);
+
+        verify(missionStatsRepository).increment(10L, 0, 0, -1);
+        verifyNoInteractions(levelStatsRepository, userMissionRepository);
+    }
+
+    @Test
+    @DisplayName("Aprovação soma em completed e sobe o usuário uma faixa no histograma do nível")
+    void approval_countsCompletedAndMovesProgressBucket() {
+        userMission.setStatus(MissionStatus.COMPLETED);
+        when(userMissionRepository.countCompletedMissionsByUserAndLevel(7L, 3L)).thenReturn(3L);
+
+        recorder.missionEvaluated(userMission, true);
+
+        verify(missionStatsRepository).increment(10L, 0, 1, 0);
+        verify(levelProgressRepository).increment(3L, 2, -1);
+        verify(levelProgressRepository).increment(3L, 3, 1);
+    }
+
+    @Test
+    @DisplayName("Reprovação soma em failed sem mexer no progresso do nível")
+    void rejection_countsFailed() {
+        recorder.missionEvaluated(userMission, false);
+
+        verify(missionStatsRepository).increment(10L, 0, 0, 1);
+        verifyNoInteractions(levelProgressRepository, userMissionRepository);
+    }
+
+    @Test
+    @DisplayName("Luta contra boss: primeiro início, nova tentativa após falha e avaliação")
+    void bossFight_transitions() {
+        recorder.bossFightStarting(userBoss);
+
+        userBoss.setStartedAt(LocalDateTime.now());
+        userBoss.setStatus(BossFightStatus.FAILED);
+        recorder.bossFightStarting(userBoss);
+
+        recorder.bossFightEvaluated(userBoss, true);
+
+        verify(bossStatsRepository).increment(20L, 1, 0, 0);
+        verify(bossStatsRepository).increment(20L, 0, 0, -1);
+        verify(bossStatsRepository).increment(20L, 0, 1, 0);
+        verifyNoInteractions(missionStatsRepository, levelStatsRepository);
+    }
+}
@@ -1,19 +1,24 @@
 package dev.gamified.GamifiedPlatform.services.admin;
 
-import dev.gamified.GamifiedPlatform.domain.Boss;
-import dev.gamified.GamifiedPlatform.domain.Mission;
 import dev.gamified.GamifiedPlatform.dtos.response.admin.AdminDashboardResponse;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.BossStatusHistogram;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatusHistogram;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
 import dev.gamified.GamifiedPlatform.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,28 +43,23 @@ class GetAdminDashboardServiceTest {
     private BadgeRepository badgeRepository;
 
     @Mock
-    private UserMissionRepository userMissionRepository;
+    private MissionStatsRepository missionStatsRepository;
 
     @Mock
-    private UserBossRepository userBossRepository;
+    private BossStatsRepository bossStatsRepository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private GetAdminDashboardService getAdminDashboardService;
 
-    private Mission mission;
-    private Boss boss;
-
     @BeforeEach
     void setUp() {
-        mission = Mission.builder()
-                .id(1L)
-                .title("Test Mission")
-                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        getAdminDashboardService = service(GetAdminDashboardService.QUERIES);
+    }
 
-        boss = Boss.builder()
-                .id(1L)
-                .name("Dragon Boss")
-                .build();
+    @AfterEach
+    void tearDown() {
+        getAdminDashboardService.shutdown();
     }
 
     @Test
@@ -71,8 +71,8 @@ class GetAdminDashboardServiceTest {
         when(bossRepository.count()).thenReturn(10L);
         when(levelRepository.count()).thenReturn(20L);
         when(badgeRepository.count()).thenReturn(30L);
-        when(missionRepository.findAll()).thenReturn(Collections.emptyList());
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -94,8 +94,8 @@ class GetAdminDashboardServiceTest {
         when(bossRepository.count()).thenReturn(0L);
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
-        when(missionRepository.findAll()).thenReturn(Collections.emptyList());
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -113,19 +113,12 @@ class GetAdminDashboardServiceTest {
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
 
-        Mission mission2 = Mission.builder().id(2L).title("Mission 2").build();
-        when(missionRepository.findAll()).thenReturn(List.of(mission, mission2));
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // Missão 1: 10 tentativas, 8 completadas = 80%
-        when(userMissionRepository.countByMissionId(1L)).thenReturn(10L);
-        when(userMissionRepository.countCompletedByMissionId(1L)).thenReturn(8L);
-        when(userMissionRepository.countFailedByMissionId(1L)).thenReturn(2L);
-
-        // Missão 2: 20 tentativas, 10 completadas = 50%
-        when(userMissionRepository.countByMissionId(2L)).thenReturn(20L);
-        when(userMissionRepository.countCompletedByMissionId(2L)).thenReturn(10L);
-        when(userMissionRepository.countFailedByMissionId(2L)).thenReturn(10L);
+        when(missionStatsRepository.findHistograms()).thenReturn(List.of(
+                // Missão 1: 10 tentativas, 8 completadas = 80%
+                new MissionStatusHistogram(1L, "Test Mission", 10L, 8L, 2L),
+                // Missão 2: 20 tentativas, 10 completadas = 50%
+                new MissionStatusHistogram(2L, "Mission 2", 20L, 10L, 10L)));
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -144,19 +137,12 @@ class GetAdminDashboardServiceTest {
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
 
-        Mission hardMission = Mission.builder().id(2L).title("Hard Mission").build();
-        when(missionRepository.findAll()).thenReturn(List.of(mission, hardMission));
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // Missão fácil: 10 tentativas, 2 falhas = 20% taxa de falha
-        when(userMissionRepository.countByMissionId(1L)).thenReturn(10L);
-        when(userMissionRepository.countCompletedByMissionId(1L)).thenReturn(8L);
-        when(userMissionRepository.countFailedByMissionId(1L)).thenReturn(2L);
-
-        // Missão difícil: 20 tentativas, 15 falhas = 75% taxa de falha
-        when(userMissionRepository.countByMissionId(2L)).thenReturn(20L);
-        when(userMissionRepository.countCompletedByMissionId(2L)).thenReturn(5L);
-        when(userMissionRepository.countFailedByMissionId(2L)).thenReturn(15L);
+        when(missionStatsRepository.findHistograms()).thenReturn(List.of(
+                // Missão fácil: 10 tentativas, 2 falhas = 20% taxa de falha
+                new MissionStatusHistogram(1L, "Test Mission", 10L, 8L, 2L),
+                // Missão difícil: 20 tentativas, 15 falhas = 75% taxa de falha
+                new MissionStatusHistogram(2L, "Hard Mission", 20L, 5L, 15L)));
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -176,8 +162,8 @@ class GetAdminDashboardServiceTest {
         when(bossRepository.count()).thenReturn(0L);
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
-        when(missionRepository.findAll()).thenReturn(Collections.emptyList());
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -194,18 +180,12 @@ class GetAdminDashboardServiceTest {
         when(bossRepository.count()).thenReturn(2L);
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
-        when(missionRepository.findAll()).thenReturn(Collections.emptyList());
-
-        Boss strongBoss = Boss.builder().id(2L).name("Invincible Dragon").build();
-        when(bossRepository.findAll()).thenReturn(List.of(boss, strongBoss));
-
-        // Boss 1: 20 tentativas, 15 derrotas = 75% taxa de derrota
-        when(userBossRepository.countByBossId(1L)).thenReturn(20L);
-        when(userBossRepository.countDefeatedByBossId(1L)).thenReturn(15L);
-
-        // Boss 2: 30 tentativas, 5 derrotas = 16.67% taxa de derrota (mais invicto)
-        when(userBossRepository.countByBossId(2L)).thenReturn(30L);
-        when(userBossRepository.countDefeatedByBossId(2L)).thenReturn(5L);
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(List.of(
+                // Boss 1: 20 tentativas, 15 derrotas = 75% taxa de derrota
+                new BossStatusHistogram(1L, "Dragon Boss", 20L, 15L, 5L),
+                // Boss 2: 30 tentativas, 5 derrotas = 16.67% taxa de derrota (mais invicto)
+                new BossStatusHistogram(2L, "Invincible Dragon", 30L, 5L, 25L)));
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
@@ -213,6 +193,25 @@ class GetAdminDashboardServiceTest {
         assertNotNull(response.bossDefeatedStats());
         assertEquals(2L, response.bossDefeatedStats().bossId());
         assertEquals("Invincible Dragon", response.bossDefeatedStats().bossName());
+        assertEquals(30L, response.bossDefeatedStats().totalAttempts());
+        assertEquals(5L, response.bossDefeatedStats().defeated());
+    }
+
+    @Test
+    @DisplayName("Deve montar o dashboard a partir dos contadores materializados, sem consultas por missão/boss")
+    void shouldNotIssuePerEntityQueries() {
+        when(missionStatsRepository.findHistograms()).thenReturn(List.of(
+                new MissionStatusHistogram(1L, "Test Mission", 10L, 8L, 2L)));
+        when(bossStatsRepository.findHistograms()).thenReturn(List.of(
+                new BossStatusHistogram(1L, "Dragon Boss", 20L, 15L, 5L)));
+
+        getAdminDashboardService.execute();
+
+        verify(missionStatsRepository).findHistograms();
+        verify(bossStatsRepository).findHistograms();
+        verifyNoMoreInteractions(missionStatsRepository, bossStatsRepository);
+        verify(missionRepository, never()).findAll();
+        verify(bossRepository, never()).findAll();
     }
 
     @Test
@@ -224,13 +223,117 @@ class GetAdminDashboardServiceTest {
         when(bossRepository.count()).thenReturn(0L);
         when(levelRepository.count()).thenReturn(0L);
         when(badgeRepository.count()).thenReturn(0L);
-        when(missionRepository.findAll()).thenReturn(Collections.emptyList());
-        when(bossRepository.findAll()).thenReturn(Collections.emptyList());
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
 
         AdminDashboardResponse response = getAdminDashboardService.execute();
 
         assertNotNull(response);
         assertNull(response.bossDefeatedStats());
     }
-}
 
+    @Test
+    @DisplayName("Consultas independentes devem rodar em paralelo")
+    void shouldRunIndependentQueriesConcurrently() {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        when(userRepository.count()).thenAnswer(invocation -> awaitPeer(bothRunning, 100L));
+        when(badgeRepository.count()).thenAnswer(invocation -> awaitPeer(bothRunning, 30L));
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+
+        AdminDashboardResponse response = getAdminDashboardService.execute();
+
+        // Em série, a primeira consulta esperaria a segunda até estourar o prazo
+        assertFalse(response.partial());
+        assertEquals(100L, response.totalUsers());
+        assertEquals(30L, response.totalBadges());
+    }
+
+    @Test
+    @DisplayName("Consulta que estoura o prazo deve virar resultado parcial marcado")
+    void shouldReturnPartialResultWhenQueryTimesOut() {
+        when(userRepository.count()).thenReturn(100L);
+        when(badgeRepository.count()).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return 30L;
+        });
+        when(missionStatsRepository.findHistograms()).thenReturn(List.of(
+                new MissionStatusHistogram(1L, "Test Mission", 10L, 8L, 2L)));
+        when(bossStatsRepository.findHistograms()).thenThrow(new IllegalStateException("connection reset"));
+
+        AdminDashboardResponse response = getAdminDashboardService.execute();
+
+        assertTrue(response.partial());
+        assertEquals(List.of("bossStats", "totalBadges"), response.unavailableSections());
+        assertEquals(100L, response.totalUsers());
+        assertNull(response.totalBadges());
+        assertNull(response.bossDefeatedStats());
+        assertEquals(80.0, response.averageCompletionRate());
+    }
+
+    @Test
+    @DisplayName("Todas as consultas de uma requisição devem rodar numa única leva")
+    void shouldRunAllQueriesOfARequestInOneWave() {
+        CountDownLatch allRunning = new CountDownLatch(GetAdminDashboardService.QUERIES);
+        when(userRepository.count()).thenAnswer(invocation -> awaitPeer(allRunning, 100L));
+        when(userRepository.countActiveUsers()).thenAnswer(invocation -> awaitPeer(allRunning, 80L));
+        when(missionRepository.count()).thenAnswer(invocation -> awaitPeer(allRunning, 50L));
+        when(bossRepository.count()).thenAnswer(invocation -> awaitPeer(allRunning, 10L));
+        when(levelRepository.count()).thenAnswer(invocation -> awaitPeer(allRunning, 20L));
+        when(badgeRepository.count()).thenAnswer(invocation -> awaitPeer(allRunning, 30L));
+        when(missionStatsRepository.findHistograms())
+                .thenAnswer(invocation -> awaitPeer(allRunning, Collections.emptyList()));
+        when(bossStatsRepository.findHistograms())
+                .thenAnswer(invocation -> awaitPeer(allRunning, Collections.emptyList()));
+
+        AdminDashboardResponse response = getAdminDashboardService.execute();
+
+        assertFalse(response.partial());
+        assertEquals(30L, response.totalBadges());
+    }
+
+    @Test
+    @DisplayName("Sem permissões livres: responde saturado e contabiliza separado do timeout das consultas")
+    void shouldReportPermitTimeoutSeparately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(badgeRepository.count()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 30L;
+        });
+        when(missionStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+        when(bossStatsRepository.findHistograms()).thenReturn(Collections.emptyList());
+
+        Thread first = new Thread(getAdminDashboardService::execute);
+        first.start();
+        try {
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            // A primeira requisição ainda segura a permissão da consulta lenta
+            assertThrows(DownstreamSaturatedException.class, getAdminDashboardService::execute);
+            assertEquals(1.0, meterRegistry.counter("admin.dashboard.permit.timeouts").count());
+        } finally {
+            release.countDown();
+            first.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Limite menor que o número de consultas de uma requisição deve ser rejeitado")
+    void shouldRejectLimitBelowQueriesPerRequest() {
+        assertThrows(IllegalStateException.class, () -> service(GetAdminDashboardService.QUERIES - 1));
+    }
+
+    private GetAdminDashboardService service(int maxConcurrentQueries) {
+        return new GetAdminDashboardService(userRepository, missionRepository, bossRepository,
+                levelRepository, badgeRepository, missionStatsRepository, bossStatsRepository,
+                meterRegistry, Duration.ofMillis(500), Duration.ofMillis(50), maxConcurrentQueries);
+    }
+
+    private static <T> T awaitPeer(CountDownLatch latch, T value) throws InterruptedException {
+        latch.countDown();
+        assertTrue(latch.await(400, TimeUnit.MILLISECONDS));
+        return value;
+    }
+}
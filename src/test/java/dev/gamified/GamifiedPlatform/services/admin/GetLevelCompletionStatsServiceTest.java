@@ -0,0 +1,89 @@
+package dev.gamified.GamifiedPlatform.services.admin;
+
+import dev.gamified.GamifiedPlatform.domain.LevelProgress;
+import dev.gamified.GamifiedPlatform.domain.LevelStats;
+import dev.gamified.GamifiedPlatform.domain.Levels;
+import dev.gamified.GamifiedPlatform.dtos.response.admin.MissionStatsRow;
+import dev.gamified.GamifiedPlatform.dtos.response.levels.LevelCompletionStatsResponse;
+import dev.gamified.GamifiedPlatform.repository.LevelProgressRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelRepository;
+import dev.gamified.GamifiedPlatform.repository.LevelStatsRepository;
+import dev.gamified.GamifiedPlatform.repository.MissionStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GetLevelCompletionStatsService Tests")
+class GetLevelCompletionStatsServiceTest {
+
+    @Mock
+    private LevelRepository levelRepository;
+
+    @Mock
+    private MissionStatsRepository missionStatsRepository;
+
+    @Mock
+    private LevelStatsRepository levelStatsRepository;
+
+    @Mock
+    private LevelProgressRepository levelProgressRepository;
+
+    @InjectMocks
+    private GetLevelCompletionStatsService service;
+
+    @Test
+    @DisplayName("Deve calcular conclusão e progresso médio a partir do histograma do nível")
+    void shouldComputeCompletionFromProgressHistogram() {
+        when(levelRepository.findAll()).thenReturn(List.of(
+                Levels.builder().id(1L).name("Level 1").orderLevel(1).build()));
+        when(missionStatsRepository.findAllRows()).thenReturn(List.of(
+                new MissionStatsRow(10L, "M1", 1L, "Level 1", 4L, 3L, 1L),
+                new MissionStatsRow(11L, "M2", 1L, "Level 1", 3L, 2L, 0L)));
+        when(levelStatsRepository.findAll()).thenReturn(List.of(
+                LevelStats.builder().levelId(1L).distinctUsers(4L).build()));
+        // 1 usuário sem missões concluídas, 1 com uma, 2 com as duas
+        when(levelProgressRepository.findAll()).thenReturn(List.of(
+                bucket(1L, 0, 1L), bucket(1L, 1, 1L), bucket(1L, 2, 2L)));
+
+        LevelCompletionStatsResponse stats = service.execute().get(0);
+
+        assertEquals(4L, stats.totalUsers());
+        assertEquals(2L, stats.totalMissions());
+        assertEquals(2L, stats.usersCompleted());
+        assertEquals(50.0, stats.completionRate());
+        // (0 + 0.5 + 1 + 1) / 4 = 62.5%
+        assertEquals(62.5, stats.averageProgress());
+        assertEquals(2, stats.missionStats().size());
+        assertEquals(75.0, stats.missionStats().get(0).completionRate());
+    }
+
+    @Test
+    @DisplayName("Nível sem usuários ou sem missões retorna taxas zeradas")
+    void shouldReturnZeroRatesForEmptyLevel() {
+        when(levelRepository.findAll()).thenReturn(List.of(
+                Levels.builder().id(2L).name("Level 2").orderLevel(2).build()));
+        when(missionStatsRepository.findAllRows()).thenReturn(List.of());
+        when(levelStatsRepository.findAll()).thenReturn(List.of());
+        when(levelProgressRepository.findAll()).thenReturn(List.of(bucket(2L, 0, 3L)));
+
+        LevelCompletionStatsResponse stats = service.execute().get(0);
+
+        assertEquals(0L, stats.totalUsers());
+        assertEquals(0L, stats.usersCompleted());
+        assertEquals(0.0, stats.completionRate());
+        assertEquals(0.0, stats.averageProgress());
+    }
+
+    private static LevelProgress bucket(Long levelId, int completed, long users) {
+        return LevelProgress.builder().levelId(levelId).completedMissions(completed).users(users).build();
+    }
+}
@@ -0,0 +1,230 @@
+package dev.gamified.GamifiedPlatform.services.admin.export;
+
+import dev.gamified.GamifiedPlatform.enums.ExportDataset;
+import dev.gamified.GamifiedPlatform.enums.ExportFormat;
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private Connection connection;
+    @Mock private PreparedStatement statement;
+    @Mock private ResultSet resultSet;
+    @Mock private ResultSetMetaData metaData;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdminExportService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = service(500, 2, Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("CSV deve escapar aspas e vírgulas e neutralizar fórmulas vindas de usuários")
+    void export_shouldWriteCsvWithQuotingAndFormulaGuard() throws Exception {
+        stubQuery(new String[]{"id", "username", "started_at"},
+                new Object[]{1L, "=HYPERLINK(\"x\")", Timestamp.valueOf(LocalDateTime.of(2025, 1, 10, 8, 30))},
+                new Object[]{2L, "ana, maria", null});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.export(ExportDataset.MISSION_ATTEMPTS, ExportFormat.CSV, FROM, TO, out);
+
+        assertEquals(2, rows);
+        assertEquals("id,username,started_at\r\n"
+                        + "1,\"'=HYPERLINK(\"\"x\"\")\",2025-01-10T08:30\r\n"
+                        + "2,\"ana, maria\",\r\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(2.0, meterRegistry.counter("admin.export.rows", "dataset", "mission-attempts").count());
+    }
+
+    @Test
+    @DisplayName("CSV deve neutralizar também células que começam com tab ou CR")
+    void export_shouldGuardTabAndCarriageReturnPrefixes() throws Exception {
+        stubQuery(new String[]{"username", "details"},
+                new Object[]{"\t=1+1", "\r=1+1"});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(ExportDataset.AUDIT_LOGS, ExportFormat.CSV, FROM, TO, out);
+
+        assertEquals("username,details\r\n'\t=1+1,\"'\r=1+1\"\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve limitar a transação por timeout e a sessão ociosa no PostgreSQL")
+    void export_shouldApplyTransactionAndIdleTimeouts() throws Exception {
+        stubQuery(new String[]{"id"}, new Object[]{1L});
+
+        service.export(ExportDataset.AUDIT_LOGS, ExportFormat.NDJSON, FROM, TO, new ByteArrayOutputStream());
+
+        verify(transactionManager).getTransaction(argThat(definition -> definition.getTimeout() == 900));
+        verify(jdbcTemplate).execute("SET LOCAL idle_in_transaction_session_timeout = 60000");
+    }
+
+    @Test
+    @DisplayName("Deve abortar a leitura do cursor quando a duração máxima vence")
+    void export_shouldAbortWhenMaxDurationExpires() throws Exception {
+        service = service(1, 2, Duration.ZERO);
+        stubQuery(new String[]{"id"}, new Object[]{1L}, new Object[]{2L});
+
+        assertThrows(QueryTimeoutException.class, () -> service.export(ExportDataset.AUDIT_LOGS,
+                ExportFormat.NDJSON, FROM, TO, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Acima de max-concurrent exportações simultâneas deve responder saturado")
+    void export_shouldRejectWhenAllExportSlotsAreBusy() throws Exception {
+        service = service(500, 1, Duration.ofMinutes(15));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 0L;
+                });
+
+        Thread first = new Thread(() -> {
+            try {
+                service.export(ExportDataset.AUDIT_LOGS, ExportFormat.NDJSON, FROM, TO, new ByteArrayOutputStream());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        first.start();
+        try {
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            assertThrows(DownstreamSaturatedException.class, () -> service.export(ExportDataset.BOSS_FIGHTS,
+                    ExportFormat.CSV, FROM, TO, new ByteArrayOutputStream()));
+            assertEquals(1.0, meterRegistry.counter("admin.export.rejected").count());
+        } finally {
+            release.countDown();
+            first.join();
+        }
+    }
+
+    @Test
+    @DisplayName("NDJSON deve escrever um objeto por linha usando cursor forward-only com fetch size")
+    void export_shouldStreamNdjsonThroughForwardOnlyCursor() throws Exception {
+        stubQuery(new String[]{"id", "event_type"},
+                new Object[]{10L, "LOGIN_FAILED"});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(ExportDataset.AUDIT_LOGS, ExportFormat.NDJSON, FROM, TO, out);
+
+        assertEquals("{\"id\":10,\"event_type\":\"LOGIN_FAILED\"}\n", out.toString(StandardCharsets.UTF_8));
+        verify(connection).prepareStatement(AdminExportService.AUDIT_LOGS_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        verify(statement).setFetchSize(500);
+        verify(statement).setTimestamp(1, Timestamp.valueOf(FROM));
+        verify(statement).setTimestamp(2, Timestamp.valueOf(TO));
+        // Cursor do PostgreSQL só funciona com autocommit desligado
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar intervalo em que o início não é anterior ao fim")
+    void export_shouldRejectInvalidRange() {
+        assertThrows(BusinessException.class, () -> service.export(ExportDataset.BADGE_UNLOCKS, ExportFormat.CSV,
+                TO, FROM, new ByteArrayOutputStream()));
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("prepare reserva a vaga sem tocar no banco e close a devolve uma única vez")
+    void prepare_shouldHoldSlotUntilClosed() throws Exception {
+        service = service(500, 1, Duration.ofMinutes(15));
+
+        AdminExportService.PreparedExport export =
+                service.prepare(ExportDataset.AUDIT_LOGS, ExportFormat.NDJSON, FROM, TO);
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+        assertThrows(DownstreamSaturatedException.class,
+                () -> service.prepare(ExportDataset.BOSS_FIGHTS, ExportFormat.CSV, FROM, TO));
+
+        export.close();
+        export.close();
+        service.prepare(ExportDataset.BOSS_FIGHTS, ExportFormat.CSV, FROM, TO).close();
+        assertThrows(IllegalStateException.class, () -> export.writeTo(new ByteArrayOutputStream()));
+        assertThrows(DownstreamSaturatedException.class, () -> {
+            try (AdminExportService.PreparedExport first =
+                         service.prepare(ExportDataset.AUDIT_LOGS, ExportFormat.CSV, FROM, TO)) {
+                service.prepare(ExportDataset.AUDIT_LOGS, ExportFormat.CSV, FROM, TO);
+            }
+        });
+    }
+
+    private AdminExportService service(int fetchSize, int maxConcurrent, Duration maxDuration) {
+        return new AdminExportService(jdbcTemplate, JsonMapper.builder().build(), meterRegistry,
+                transactionManager, fetchSize, maxConcurrent, Duration.ofMillis(50), maxDuration,
+                Duration.ofSeconds(60));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubQuery(String[] columns, Object[]... rows) throws SQLException {
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(columns[i]);
+        }
+
+        // next(): true para cada linha e false no fim
+        Boolean[] remaining = new Boolean[rows.length];
+        Arrays.fill(remaining, true);
+        remaining[rows.length - 1] = false;
+        when(resultSet.next()).thenReturn(true, remaining);
+        for (int column = 0; column < columns.length; column++) {
+            Object[] values = new Object[rows.length];
+            for (int row = 0; row < rows.length; row++) {
+                values[row] = rows[row][column];
+            }
+            when(resultSet.getObject(column + 1)).thenReturn(values[0],
+                    Arrays.copyOfRange(values, 1, values.length));
+        }
+
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(connection);
+                    return invocation.getArgument(1, ResultSetExtractor.class).extractData(resultSet);
+                });
+    }
+}
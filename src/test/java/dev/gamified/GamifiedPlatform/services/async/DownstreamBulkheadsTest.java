@@ -0,0 +1,142 @@
+package dev.gamified.GamifiedPlatform.services.async;
+
+import dev.gamified.GamifiedPlatform.enums.Downstream;
+import dev.gamified.GamifiedPlatform.exceptions.DownstreamSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DownstreamBulkheads Tests")
+class DownstreamBulkheadsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamBulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheads = new DownstreamBulkheads(meterRegistry, 1, 2, 2, 1, Duration.ofMillis(100), Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Deve liberar a permissão ao final, inclusive quando a ação falha")
+    void shouldReleasePermitAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> bulkheads.run(Downstream.DATABASE, () -> {
+            assertEquals(1, bulkheads.inFlight(Downstream.DATABASE));
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0, bulkheads.inFlight(Downstream.DATABASE));
+        assertDoesNotThrow(() -> bulkheads.run(Downstream.DATABASE, () -> { }));
+    }
+
+    @Test
+    @DisplayName("Stream segura a permissão até ser fechado e a devolve uma única vez")
+    void shouldHoldPermitUntilStreamClosed() throws Exception {
+        InputStream stream = bulkheads.openStream(Downstream.MINIO, () -> new ByteArrayInputStream(new byte[]{1, 2}));
+        InputStream second = bulkheads.openStream(Downstream.MINIO, () -> new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(2, bulkheads.inFlight(Downstream.MINIO));
+        assertThrows(DownstreamSaturatedException.class,
+                () -> bulkheads.openStream(Downstream.MINIO, () -> new ByteArrayInputStream(new byte[0])));
+
+        assertEquals(1, stream.read());
+        stream.close();
+        stream.close();
+        assertEquals(1, bulkheads.inFlight(Downstream.MINIO));
+
+        second.close();
+        assertEquals(0, bulkheads.inFlight(Downstream.MINIO));
+    }
+
+    @Test
+    @DisplayName("Falha ao abrir o stream devolve a permissão na hora")
+    void shouldReleasePermitWhenOpenFails() {
+        assertThrows(IOException.class, () -> bulkheads.openStream(Downstream.MINIO, () -> {
+            throw new IOException("minio down");
+        }));
+
+        assertEquals(0, bulkheads.inFlight(Downstream.MINIO));
+    }
+
+    @Test
+    @DisplayName("Downloads abertos não consomem as permissões de upload e remoção")
+    void shouldIsolateDownloadsFromUploads() throws Exception {
+        InputStream download = bulkheads.openStream(Downstream.MINIO_DOWNLOAD, () -> new ByteArrayInputStream(new byte[0]));
+
+        assertThrows(DownstreamSaturatedException.class,
+                () -> bulkheads.openStream(Downstream.MINIO_DOWNLOAD, () -> new ByteArrayInputStream(new byte[0])));
+        assertEquals("ok", bulkheads.callOnRequest(Downstream.MINIO, () -> "ok"));
+        assertEquals(0, bulkheads.inFlight(Downstream.MINIO));
+
+        download.close();
+        assertEquals(0, bulkheads.inFlight(Downstream.MINIO_DOWNLOAD));
+    }
+
+    @Test
+    @DisplayName("Threads de requisição desistem após o timeout curto, não o das tarefas em segundo plano")
+    void shouldUseShortTimeoutOnRequestPath() throws Exception {
+        bulkheads = new DownstreamBulkheads(meterRegistry, 1, 1, 1, 1, Duration.ofMinutes(5), Duration.ofMillis(10));
+        InputStream download = bulkheads.openStream(Downstream.MINIO_DOWNLOAD, () -> new ByteArrayInputStream(new byte[0]));
+        InputStream upload = bulkheads.openStream(Downstream.MINIO, () -> new ByteArrayInputStream(new byte[0]));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(DownstreamSaturatedException.class,
+                    () -> bulkheads.openStream(Downstream.MINIO_DOWNLOAD, () -> new ByteArrayInputStream(new byte[0])));
+            assertThrows(DownstreamSaturatedException.class,
+                    () -> bulkheads.callOnRequest(Downstream.MINIO, () -> "never"));
+        });
+
+        download.close();
+        upload.close();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quando nenhuma permissão for liberada no tempo de espera")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> bulkheads.run(Downstream.DATABASE, () -> {
+                holding.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+            DownstreamSaturatedException ex = assertThrows(DownstreamSaturatedException.class,
+                    () -> bulkheads.run(Downstream.DATABASE, () -> { }));
+            assertEquals(Downstream.DATABASE, ex.getDownstream());
+            assertEquals(1.0, meterRegistry.counter("async.downstream.rejected", "downstream", "database").count());
+
+            // Cada dependência tem o seu próprio limite
+            assertDoesNotThrow(() -> bulkheads.run(Downstream.SMTP, () -> { }));
+
+            release.countDown();
+            holder.get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.gamified.GamifiedPlatform.services.async;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MpscRingBuffer Tests")
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("Capacidade é arredondada para potência de 2 e offer falha quando cheio")
+    void shouldRejectWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(99));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    @DisplayName("Consumidor recebe os elementos em ordem FIFO")
+    void shouldDrainInOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drain(drained::add, 3));
+        assertEquals(2, buffer.drain(drained::add, 10));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    @DisplayName("Vários produtores concorrentes: nenhum elemento perdido ou duplicado e ordem por produtor")
+    void shouldNotLoseElementsUnderContention() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(new long[]{producer, i})) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            long[] nextExpected = new long[producers];
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received < producers * perProducer && System.nanoTime() < deadline) {
+                long[] element = buffer.poll();
+                if (element == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int producer = (int) element[0];
+                assertEquals(nextExpected[producer], element[1]);
+                nextExpected[producer]++;
+                received++;
+            }
+
+            assertEquals(producers * perProducer, received);
+            assertNull(buffer.poll());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
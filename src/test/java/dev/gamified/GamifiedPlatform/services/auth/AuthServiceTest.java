@@ -7,7 +7,9 @@ import dev.gamified.GamifiedPlatform.dtos.request.auth.LoginRequest;
 import dev.gamified.GamifiedPlatform.dtos.response.login.LoginResponse;
 import dev.gamified.GamifiedPlatform.exceptions.AccessDeniedException;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import dev.gamified.GamifiedPlatform.exceptions.RateLimitExceededException;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.security.RateLimitResult;
 import dev.gamified.GamifiedPlatform.services.security.RateLimitService;
 import dev.gamified.GamifiedPlatform.services.security.SecurityAuditService;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,14 +58,17 @@ class AuthServiceTest {
         String ip = "1.2.3.4";
         String agent = "Chrome";
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(false);
-        when(rateLimitService.getResetTime("login:lucas")).thenReturn(600L); // 10 min
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(false, 5, 0, 600L)); // 10 min
 
-        BusinessException ex = assertThrows(BusinessException.class,
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
                 () -> authService.authenticate(req, ip, agent));
 
         assertTrue(ex.getMessage().contains("Too many login attempts"));
         assertTrue(ex.getMessage().contains("10"));
+        // Dados para os headers X-RateLimit-* vêm da mesma chamada ao Redis
+        assertEquals(5, ex.getLimit());
+        assertEquals(0, ex.getRemaining());
+        assertEquals(600L, ex.getResetSeconds());
 
         verify(auditService).logSuspiciousActivity(
                 isNull(),
@@ -83,7 +88,7 @@ class AuthServiceTest {
         String ip = "1.2.3.4";
         String agent = "Chrome";
 
-        when(rateLimitService.isLoginAllowed("ghost")).thenReturn(true);
+        when(rateLimitService.checkLogin("ghost")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("ghost")).thenReturn(Optional.empty());
 
         BusinessException ex = assertThrows(BusinessException.class,
@@ -112,7 +117,7 @@ class AuthServiceTest {
         User user = baseUser();
         user.setProvider(null);
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(true);
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("lucas")).thenReturn(Optional.of(user));
 
         BusinessException ex = assertThrows(BusinessException.class,
@@ -140,7 +145,7 @@ class AuthServiceTest {
 
         User user = baseUser();
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(true);
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("lucas")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("wrong", user.getPassword())).thenReturn(false);
 
@@ -170,7 +175,7 @@ class AuthServiceTest {
         User user = baseUser();
         user.setEmailVerified(false);
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(true);
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("lucas")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("123", user.getPassword())).thenReturn(true);
 
@@ -200,7 +205,7 @@ class AuthServiceTest {
         User user = baseUser();
         user.setActive(false);
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(true);
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("lucas")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("123", user.getPassword())).thenReturn(true);
 
@@ -229,7 +234,7 @@ class AuthServiceTest {
 
         User user = baseUser();
 
-        when(rateLimitService.isLoginAllowed("lucas")).thenReturn(true);
+        when(rateLimitService.checkLogin("lucas")).thenReturn(new RateLimitResult(true, 5, 4, 900L));
         when(userRepository.findUserByUsername("lucas")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("123", user.getPassword())).thenReturn(true);
 
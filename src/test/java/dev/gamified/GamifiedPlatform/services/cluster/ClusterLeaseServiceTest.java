@@ -0,0 +1,103 @@
+package dev.gamified.GamifiedPlatform.services.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClusterLeaseService Tests")
+class ClusterLeaseServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClusterLeaseService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ClusterLeaseService(redisTemplate, meterRegistry, "node-a");
+    }
+
+    @Test
+    @DisplayName("Deve executar a tarefa com o token de fencing e liberar o lease ao final")
+    @SuppressWarnings("unchecked")
+    void shouldRunTaskWhenLeaseAcquired() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(42L, 1L);
+        AtomicReference<ClusterLease> seen = new AtomicReference<>();
+
+        boolean ran = service.runExclusively("job", Duration.ofMinutes(1), Duration.ZERO, seen::set);
+
+        assertTrue(ran);
+        assertEquals(42L, seen.get().token());
+        assertEquals("node-a", seen.get().holder());
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("cluster_lease:job", "cluster_lease:job:fencing")),
+                eq("node-a"), eq("60000"));
+        // Sem tempo mínimo de retenção o lease é removido (0 ms restantes)
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("cluster_lease:job")), eq("node-a|42"), eq("0"));
+        assertEquals(1.0, meterRegistry.counter("cluster.lease.acquired", "name", "job").count());
+    }
+
+    @Test
+    @DisplayName("Deve pular a tarefa quando outro nó detém o lease")
+    @SuppressWarnings("unchecked")
+    void shouldSkipWhenLeaseHeldElsewhere() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(0L);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenReturn(new ClusterLeaseService.LeaseHolder("node-b", 41L, 30_000L));
+
+        boolean ran = service.runExclusively("job", Duration.ofMinutes(1), Duration.ZERO,
+                lease -> fail("não deveria executar"));
+
+        assertFalse(ran);
+        assertEquals(1.0, meterRegistry.counter("cluster.lease.skipped", "name", "job").count());
+        assertEquals(0.0, meterRegistry.get("cluster.lease.held").tag("name", "job").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Falha no Redis deve pular a tarefa em vez de executar em todos os nós")
+    @SuppressWarnings("unchecked")
+    void shouldSkipWhenRedisUnavailable() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenThrow(new RuntimeException("Redis down"));
+
+        assertTrue(service.tryAcquire("job", Duration.ofMinutes(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fencing: lease só é válido para o mesmo nó e o mesmo token")
+    @SuppressWarnings("unchecked")
+    void shouldValidateFencingToken() {
+        ClusterLease lease = new ClusterLease("job", "node-a", 5L, Instant.now());
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenReturn(new ClusterLeaseService.LeaseHolder("node-a", 5L, 1000L))
+                .thenReturn(new ClusterLeaseService.LeaseHolder("node-b", 6L, 1000L))
+                .thenReturn(null);
+
+        assertTrue(service.isHeld(lease));
+        assertFalse(service.isHeld(lease));
+        assertFalse(service.isHeld(lease));
+    }
+}
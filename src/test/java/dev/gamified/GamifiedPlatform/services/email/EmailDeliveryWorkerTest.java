@@ -0,0 +1,192 @@
+package dev.gamified.GamifiedPlatform.services.email;
+
+import dev.gamified.GamifiedPlatform.domain.EmailOutboxMessage;
+import dev.gamified.GamifiedPlatform.enums.EmailOutboxStatus;
+import dev.gamified.GamifiedPlatform.repository.EmailOutboxRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDeliveryWorker Tests")
+class EmailDeliveryWorkerTest {
+
+    @Mock
+    private EmailOutboxRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocalSmtpServer smtpServer;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailDeliveryWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+        meterRegistry = new SimpleMeterRegistry();
+        worker = workerFor(smtpServer.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("Deve entregar o lote inteiro por uma única conexão SMTP e removê-lo do outbox")
+    @SuppressWarnings("unchecked")
+    void shouldDeliverBatchOverSingleConnection() {
+        when(repository.lockDue(any(LocalDateTime.class), eq(20)))
+                .thenReturn(List.of(pending(1L, "a@email.com"), pending(2L, "b@email.com"), pending(3L, "c@email.com")));
+
+        assertEquals(3, worker.deliverBatch());
+
+        assertEquals(1, smtpServer.connections());
+        assertEquals(3, smtpServer.messages().size());
+        assertTrue(smtpServer.messages().get(0).contains("Body 1"));
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(repository).deleteAllByIdInBatch(deleted.capture());
+        assertEquals(List.of(1L, 2L, 3L), deleted.getValue());
+        verify(repository, never()).saveAll(any());
+        assertEquals(3.0, meterRegistry.counter("email.outbox.sent").count());
+        assertEquals(3, meterRegistry.timer("email.outbox.latency").count());
+    }
+
+    @Test
+    @DisplayName("Destinatário recusado volta para a fila com backoff sem atrasar os demais")
+    @SuppressWarnings("unchecked")
+    void shouldRetryOnlyRejectedRecipient() {
+        EmailOutboxMessage rejected = pending(2L, "reject@email.com");
+        when(repository.lockDue(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(pending(1L, "a@email.com"), rejected));
+
+        worker.deliverBatch();
+
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(repository).deleteAllByIdInBatch(deleted.capture());
+        assertEquals(List.of(1L), deleted.getValue());
+        verify(repository).saveAll(List.of(rejected));
+        assertEquals(EmailOutboxStatus.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertNotNull(rejected.getLastError());
+        // Primeira falha: base-backoff (30s)
+        assertTrue(rejected.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(25)));
+        assertTrue(rejected.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(35)));
+    }
+
+    @Test
+    @DisplayName("Servidor SMTP fora do ar: o lote é reagendado sem consumir tentativas")
+    void shouldRescheduleWholeBatchWithoutConsumingAttemptsWhenSmtpIsDown() throws IOException {
+        int port = smtpServer.port();
+        smtpServer.close();
+        worker = workerFor(port);
+        EmailOutboxMessage fresh = pending(1L, "a@email.com");
+        EmailOutboxMessage lastTry = pending(2L, "b@email.com");
+        lastTry.setAttempts(5);
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(fresh, lastTry));
+
+        worker.deliverBatch();
+
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        verify(repository).saveAll(List.of(fresh, lastTry));
+        assertEquals(EmailOutboxStatus.PENDING, fresh.getStatus());
+        assertEquals(EmailOutboxStatus.PENDING, lastTry.getStatus());
+        assertEquals(0, fresh.getAttempts());
+        assertEquals(5, lastTry.getAttempts());
+        assertNotNull(lastTry.getLastError());
+        assertTrue(lastTry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(25)));
+        assertEquals(2.0, meterRegistry.counter("email.outbox.deferred").count());
+        assertEquals(0.0, meterRegistry.counter("email.outbox.failures").count());
+        assertEquals(0.0, meterRegistry.counter("email.outbox.exhausted").count());
+    }
+
+    @Test
+    @DisplayName("Destinatário recusado na última tentativa vira FAILED")
+    void shouldFailRejectedRecipientAfterMaxAttempts() {
+        EmailOutboxMessage rejected = pending(2L, "reject@email.com");
+        rejected.setAttempts(5);
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(rejected));
+
+        worker.deliverBatch();
+
+        verify(repository).saveAll(List.of(rejected));
+        assertEquals(EmailOutboxStatus.FAILED, rejected.getStatus());
+        assertEquals(6, rejected.getAttempts());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.exhausted").count());
+    }
+
+    @Test
+    @DisplayName("Retenção remove emails FAILED em lotes até esgotar")
+    void shouldPurgeFailedEmailsInBatches() {
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+        when(repository.deleteBatch("FAILED", before, 1000)).thenReturn(1000, 1000, 7);
+
+        assertEquals(2007, worker.purgeFailed(before));
+
+        verify(repository, times(3)).deleteBatch("FAILED", before, 1000);
+    }
+
+    @Test
+    @DisplayName("Sem emails vencidos não deve abrir conexão SMTP")
+    void shouldNotConnectWhenOutboxIsEmpty() {
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, worker.deliverBatch());
+
+        assertEquals(0, smtpServer.connections());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Backoff deve dobrar a cada tentativa até o máximo")
+    void shouldBackoffExponentially() {
+        assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+        assertEquals(Duration.ofMinutes(2), worker.backoff(3));
+        assertEquals(Duration.ofHours(1), worker.backoff(20));
+    }
+
+    private EmailDeliveryWorker workerFor(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return new EmailDeliveryWorker(repository, mailSender,
+                new DownstreamBulkheads(new SimpleMeterRegistry(), 1, 1, 1, 1, Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                transactionManager, meterRegistry, "noreply@gamified.com",
+                1, 20, Duration.ofSeconds(1), 6, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    private static EmailOutboxMessage pending(Long id, String recipient) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Subject " + id)
+                .body("Body " + id)
+                .status(EmailOutboxStatus.PENDING)
+                .createdAt(LocalDateTime.now().minusSeconds(1))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
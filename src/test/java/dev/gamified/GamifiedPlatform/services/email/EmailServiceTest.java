@@ -1,14 +1,18 @@
 package dev.gamified.GamifiedPlatform.services.email;
 
+import dev.gamified.GamifiedPlatform.domain.EmailOutboxMessage;
+import dev.gamified.GamifiedPlatform.enums.EmailOutboxStatus;
+import dev.gamified.GamifiedPlatform.repository.EmailOutboxRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,47 +24,60 @@ import static org.mockito.Mockito.*;
 class EmailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EmailService emailService;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@gamified.com");
         ReflectionTestUtils.setField(emailService, "baseUrl", "https://gamified.com");
     }
 
     @Test
-    @DisplayName("Deve enviar email de verificação com sucesso")
-    void shouldSendVerificationEmailSuccessfully() {
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
-        assertDoesNotThrow(() -> emailService.sendVerificationEmail("user@email.com", "user", "token123"));
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
-    }
+    @DisplayName("Deve gravar o email de verificação no outbox e avisar os workers")
+    void shouldQueueVerificationEmail() {
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        when(outboxRepository.save(captor.capture())).thenAnswer(invocation -> {
+            EmailOutboxMessage message = invocation.getArgument(0);
+            message.setId(10L);
+            return message;
+        });
 
-    @Test
-    @DisplayName("Deve lançar exceção ao falhar envio de email de verificação")
-    void shouldThrowOnVerificationEmailFailure() {
-        doThrow(new RuntimeException("fail")).when(mailSender).send(any(SimpleMailMessage.class));
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> emailService.sendVerificationEmail("user@email.com", "user", "token123"));
-        assertTrue(ex.getMessage().contains("Failed to send verification email"));
+        emailService.sendVerificationEmail("user@email.com", "user", "token123");
+
+        EmailOutboxMessage queued = captor.getValue();
+        assertEquals("user@email.com", queued.getRecipient());
+        assertEquals(EmailOutboxStatus.PENDING, queued.getStatus());
+        assertNotNull(queued.getNextAttemptAt());
+        assertTrue(queued.getBody().contains("https://gamified.com/auth/verify-email?token=token123"));
+        verify(eventPublisher).publishEvent(new EmailQueuedEvent(10L));
     }
 
     @Test
-    @DisplayName("Deve enviar email de redefinição de senha com sucesso")
-    void shouldSendPasswordResetEmailSuccessfully() {
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
-        assertDoesNotThrow(() -> emailService.sendPasswordResetEmail("user@email.com", "user", "token456"));
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+    @DisplayName("Deve gravar o email de redefinição de senha no outbox")
+    void shouldQueuePasswordResetEmail() {
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        when(outboxRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        emailService.sendPasswordResetEmail("user@email.com", "user", "token456");
+
+        assertTrue(captor.getValue().getSubject().contains("Redefinição de senha"));
+        assertTrue(captor.getValue().getBody().contains("https://gamified.com/reset-password?token=token456"));
+        verify(eventPublisher).publishEvent(any(EmailQueuedEvent.class));
     }
 
     @Test
-    @DisplayName("Deve lançar exceção ao falhar envio de email de redefinição de senha")
-    void shouldThrowOnPasswordResetEmailFailure() {
-        doThrow(new RuntimeException("fail")).when(mailSender).send(any(SimpleMailMessage.class));
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> emailService.sendPasswordResetEmail("user@email.com", "user", "token456"));
-        assertTrue(ex.getMessage().contains("Failed to send password reset email"));
+    @DisplayName("Falha ao gravar no outbox deve propagar para desfazer a transação de quem chamou")
+    void shouldPropagateOutboxFailure() {
+        when(outboxRepository.save(any(EmailOutboxMessage.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> emailService.sendVerificationEmail("user@email.com", "user", "token123"));
+        verifyNoInteractions(eventPublisher);
     }
 }
-
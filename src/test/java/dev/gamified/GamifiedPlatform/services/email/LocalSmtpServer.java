@@ -0,0 +1,100 @@
+package dev.gamified.GamifiedPlatform.services.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Servidor SMTP mínimo para testes: aceita tudo, exceto destinatários que contenham "reject",
+ * e guarda as mensagens recebidas. Conta as conexões para verificar o reaproveitamento por lote.
+ */
+final class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptLoop, "local-smtp");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    List<String> messages() {
+        return messages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> handle(socket), "local-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO") && command.contains("REJECT")) {
+                    reply(out, "550 mailbox unavailable");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 end data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    reply(out, "250 queued");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException ignored) {
+            // cliente encerrou a conexão
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
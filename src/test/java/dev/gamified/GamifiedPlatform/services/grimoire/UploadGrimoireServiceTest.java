@@ -11,6 +11,8 @@ import dev.gamified.GamifiedPlatform.repository.GrimoireDownloadRepository;
 import dev.gamified.GamifiedPlatform.repository.GrimoireRepository;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.minio.MinioClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,9 +21,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,6 +49,10 @@ class UploadGrimoireServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private DownstreamBulkheads bulkheads =
+            new DownstreamBulkheads(new SimpleMeterRegistry(), 1, 1, 1, 1, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
     @InjectMocks
     private UploadGrimoireService uploadGrimoireService;
 
@@ -10,6 +10,7 @@ import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.repository.UserMissionRepository;
 import dev.gamified.GamifiedPlatform.repository.UserRepository;
+import dev.gamified.GamifiedPlatform.services.admin.AdminStatsRecorder;
 import dev.gamified.GamifiedPlatform.services.mission.userMission.EvaluateMission;
 import dev.gamified.GamifiedPlatform.services.notification.NotificationService;
 import dev.gamified.GamifiedPlatform.services.playerCharacter.AddXpToCharacterService;
@@ -47,6 +48,9 @@ class EvaluateMissionTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private AdminStatsRecorder adminStatsRecorder;
+
     @InjectMocks
     private EvaluateMission evaluateMission;
 
@@ -149,6 +153,7 @@ class EvaluateMissionTest {
 
             verify(userMissionRepository).save(userMission);
             verify(addXpToCharacterService).execute(character.getId(), mission.getXpReward());
+            verify(adminStatsRecorder).missionEvaluated(userMission, true);
             verify(notificationService).createMissionEvaluatedNotification(
                     eq(student),
                     eq(mission.getTitle()),
@@ -185,6 +190,7 @@ class EvaluateMissionTest {
 
             verify(userMissionRepository).save(userMission);
             verify(addXpToCharacterService, never()).execute(anyLong(), anyInt());
+            verify(adminStatsRecorder).missionEvaluated(userMission, false);
             verify(notificationService).createMissionEvaluatedNotification(
                     eq(student),
                     eq(mission.getTitle()),
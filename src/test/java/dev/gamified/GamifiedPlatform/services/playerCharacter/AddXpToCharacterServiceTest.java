@@ -6,6 +6,7 @@ import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import dev.gamified.GamifiedPlatform.services.levels.CalculateLevelByXpService;
+import dev.gamified.GamifiedPlatform.services.ranking.CharacterXpChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -28,11 +30,14 @@ class AddXpToCharacterServiceTest {
     @Mock
     private CalculateLevelByXpService calculateLevelByXp;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private AddXpToCharacterService service;
 
     @BeforeEach
     void setUp() {
-        service = new AddXpToCharacterService(characterRepository, calculateLevelByXp);
+        service = new AddXpToCharacterService(characterRepository, calculateLevelByXp, eventPublisher);
     }
 
     @Test
@@ -50,6 +55,7 @@ class AddXpToCharacterServiceTest {
         verify(characterRepository).findById(characterId);
         verifyNoInteractions(calculateLevelByXp);
         verify(characterRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -68,6 +74,7 @@ class AddXpToCharacterServiceTest {
         verify(characterRepository).findById(characterId);
         verifyNoInteractions(calculateLevelByXp);
         verify(characterRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -86,6 +93,7 @@ class AddXpToCharacterServiceTest {
         verify(characterRepository).findById(characterId);
         verifyNoInteractions(calculateLevelByXp);
         verify(characterRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -117,6 +125,32 @@ class AddXpToCharacterServiceTest {
         assertSame(character, captor.getValue());
     }
 
+    @Test
+    @DisplayName("Deve publicar evento de ranking com nível anterior, novo nível e XP total")
+    void execute_shouldPublishRankingEvent_withPreviousAndNewState() {
+        Long characterId = 1L;
+        PlayerCharacter character = baseCharacter(3, 50);
+
+        when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
+
+        LevelResponse levelResponse = mock(LevelResponse.class);
+        when(levelResponse.orderLevel()).thenReturn(4);
+        when(calculateLevelByXp.execute(80)).thenReturn(levelResponse);
+
+        service.execute(characterId, 30);
+
+        ArgumentCaptor<CharacterXpChangedEvent> captor = ArgumentCaptor.forClass(CharacterXpChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+
+        CharacterXpChangedEvent event = captor.getValue();
+        assertEquals(characterId, event.characterId());
+        assertEquals(3, event.previousLevel());
+        assertEquals(4, event.level());
+        assertEquals(80, event.xp());
+        assertEquals(30, event.xpDelta());
+        assertTrue(event.levelChanged());
+    }
+
     @Test
     @DisplayName("Deve manter nível quando cálculo retornar o mesmo nível")
     void execute_shouldKeepSameLevel_whenCalculatedLevelIsSame() {
@@ -1,13 +1,9 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 
 import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
-import dev.gamified.GamifiedPlatform.domain.Levels;
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
-import dev.gamified.GamifiedPlatform.domain.User;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
 import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
-import dev.gamified.GamifiedPlatform.repository.LevelRepository;
-import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,13 +23,13 @@ import static org.mockito.Mockito.*;
 class GetGlobalRankingServiceTest {
 
     @Mock
-    private PlayerCharacterRepository playerCharacterRepository;
+    private RedisTemplate<String, Object> redisTemplate;
     @Mock
-    private LevelRepository levelRepository;
+    private RankingRebuildCoordinator rankingRebuildCoordinator;
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private RankingSqlFallback rankingSqlFallback;
     @Mock
-    private RefreshRankingCacheService refreshRankingCacheService;
+    private RankingNearCache rankingNearCache;
     @Mock
     private ZSetOperations<String, Object> zSetOperations;
 
@@ -42,10 +38,10 @@ class GetGlobalRankingServiceTest {
     @BeforeEach
     void setUp() {
         service = new GetGlobalRankingService(
-                playerCharacterRepository,
-                levelRepository,
                 redisTemplate,
-                refreshRankingCacheService
+                rankingNearCache,
+                rankingRebuildCoordinator,
+                rankingSqlFallback
         );
     }
 
@@ -59,28 +55,44 @@ class GetGlobalRankingServiceTest {
 
         assertEquals("Page size cannot exceed 1000", ex.getMessage());
 
-        verifyNoInteractions(redisTemplate, refreshRankingCacheService, playerCharacterRepository, levelRepository);
+        verifyNoInteractions(redisTemplate, rankingRebuildCoordinator, rankingNearCache);
     }
 
     @Test
-    @DisplayName("Deve chamar refresh quando cache estiver vazio e retornar página vazia se ainda não houver IDs")
-    void execute_shouldRefreshCache_whenCacheIsEmpty_andReturnEmptyWhenNoIds() {
+    @DisplayName("Deve aguardar a reconstrução única quando o cache estiver vazio e ler o ZSET em seguida")
+    void execute_shouldAwaitRebuild_whenCacheIsEmpty() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        // 1ª chamada: cache vazio -> refresh
-        when(zSetOperations.size("global_ranking")).thenReturn(0L, 0L);
-        when(zSetOperations.reverseRange("global_ranking", 0, 9)).thenReturn(Collections.emptySet());
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.size("global_ranking")).thenReturn(0L, 5L);
+        when(rankingRebuildCoordinator.awaitRebuild("global_ranking")).thenReturn(true);
+        when(zSetOperations.reverseRangeWithScores("global_ranking", 0, 9)).thenReturn(Collections.emptySet());
 
         Page<RankingResponse> page = service.execute(pageable);
 
-        assertNotNull(page);
         assertTrue(page.getContent().isEmpty());
-        assertEquals(0, page.getTotalElements());
+        assertEquals(5, page.getTotalElements());
 
-        verify(refreshRankingCacheService).execute();
         verify(zSetOperations, times(2)).size("global_ranking");
-        verify(zSetOperations).reverseRange("global_ranking", 0, 9);
-        verifyNoInteractions(playerCharacterRepository, levelRepository);
+        verify(zSetOperations).reverseRangeWithScores("global_ranking", 0, 9);
+        verifyNoInteractions(rankingSqlFallback);
+    }
+
+    @Test
+    @DisplayName("Deve servir página degradada pelo banco quando a reconstrução não terminar a tempo")
+    void execute_shouldServeSqlFallback_whenRebuildTimesOut() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<RankingResponse> degraded = new PageImpl<>(List.of(), pageable, 7);
+
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.size("global_ranking")).thenReturn(0L);
+        when(rankingRebuildCoordinator.awaitRebuild("global_ranking")).thenReturn(false);
+        when(rankingSqlFallback.globalPage(pageable)).thenReturn(degraded);
+
+        assertSame(degraded, service.execute(pageable));
+
+        verify(zSetOperations, never()).reverseRangeWithScores(anyString(), anyLong(), anyLong());
+        verifyNoInteractions(rankingNearCache);
     }
 
     @Test
@@ -88,16 +100,16 @@ class GetGlobalRankingServiceTest {
     void execute_shouldReturnEmptyPage_whenReverseRangeReturnsNullOrEmpty() {
         Pageable pageable = PageRequest.of(0, 10);
 
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
         when(zSetOperations.size("global_ranking")).thenReturn(100L);
-        when(zSetOperations.reverseRange("global_ranking", 0, 9)).thenReturn(null);
+        when(zSetOperations.reverseRangeWithScores("global_ranking", 0, 9)).thenReturn(null);
 
         Page<RankingResponse> page = service.execute(pageable);
 
         assertTrue(page.getContent().isEmpty());
         assertEquals(100L, page.getTotalElements());
 
-        verify(refreshRankingCacheService, never()).execute();
-        verifyNoInteractions(playerCharacterRepository, levelRepository);
+        verifyNoInteractions(rankingRebuildCoordinator, rankingNearCache);
     }
 
     @Test
@@ -106,27 +118,22 @@ class GetGlobalRankingServiceTest {
         Pageable pageable = PageRequest.of(0, 3);
 
         // cache com 50 players
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
         when(zSetOperations.size("global_ranking")).thenReturn(50L);
 
         // ordem do ranking (desc) vinda do Redis
-        Set<Object> redisIds = new LinkedHashSet<>(List.of(30L, 10L, 20L));
-        when(zSetOperations.reverseRange("global_ranking", 0, 2)).thenReturn(redisIds);
+        when(zSetOperations.reverseRangeWithScores("global_ranking", 0, 2)).thenReturn(new LinkedHashSet<>(List.of(
+                scored(30L, 5, 10), scored(10L, 3, 150), scored(20L, 2, 999))));
 
-        // personagens (repo pode retornar fora de ordem)
-        PlayerCharacter c10 = character(10L, "Char10", 3, 150, user(1L, "u1"));
-        PlayerCharacter c20 = character(20L, "Char20", 2, 999, user(2L, "u2"));
-        PlayerCharacter c30 = character(30L, "Char30", 5, 10, user(3L, "u3")); // será "isMe"
+        // linhas do near-cache (mapa sem ordem definida)
+        when(rankingNearCache.getRows(List.of(30L, 10L, 20L))).thenReturn(Map.of(
+                10L, row(10L, 1L, "u1", "Char10"),
+                20L, row(20L, 2L, "u2", "Char20"),
+                30L, row(30L, 3L, "u3", "Char30"))); // será "isMe"
 
-        when(playerCharacterRepository.findAllByIdInWithUser(List.of(30L, 10L, 20L)))
-                .thenReturn(List.of(c10, c20, c30)); // fora de ordem de propósito
-
-        // levels
-        Levels level2 = level(2, "L2", "Title2");
-        Levels level3 = level(3, "L3", "Title3");
-        Levels level5 = level(5, "L5", "Title5");
-
-        when(levelRepository.findAllByOrderLevelIn(new HashSet<>(List.of(3, 2, 5))))
-                .thenReturn(List.of(level2, level3, level5));
+        when(rankingNearCache.level(2)).thenReturn(new RankingNearCache.LevelLabel("L2", "Title2"));
+        when(rankingNearCache.level(3)).thenReturn(new RankingNearCache.LevelLabel("L3", "Title3"));
+        when(rankingNearCache.level(5)).thenReturn(new RankingNearCache.LevelLabel("L5", "Title5"));
 
         try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
             mocked.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(3L));
@@ -157,66 +164,44 @@ class GetGlobalRankingServiceTest {
 
             assertEquals(3, r3.position());
             assertEquals(2L, r3.userId());
+            assertEquals(999, r3.xp());
             assertFalse(r3.isMe());
         }
 
-        verify(refreshRankingCacheService, never()).execute();
-        verify(playerCharacterRepository).findAllByIdInWithUser(List.of(30L, 10L, 20L));
-        verify(levelRepository).findAllByOrderLevelIn(anySet());
+        verifyNoInteractions(rankingRebuildCoordinator);
+        verify(rankingNearCache).getRows(List.of(30L, 10L, 20L));
     }
 
     @Test
-    @DisplayName("Deve preencher levelName e levelTitle como Unknown quando level não existir")
-    void execute_shouldUseUnknown_whenLevelNotFoundInDb() {
-        Pageable pageable = PageRequest.of(0, 1);
-
-        when(zSetOperations.size("global_ranking")).thenReturn(1L);
-        when(zSetOperations.reverseRange("global_ranking", 0, 0))
-                .thenReturn(new LinkedHashSet<>(List.of(10L)));
-
-        PlayerCharacter c10 = character(10L, "Char10", 99, 10, user(7L, "u7"));
-        when(playerCharacterRepository.findAllByIdInWithUser(List.of(10L)))
-                .thenReturn(List.of(c10));
+    @DisplayName("Deve ignorar IDs do ZSET sem linha correspondente sem deixar buracos na posição")
+    void execute_shouldSkipMissingRows() {
+        Pageable pageable = PageRequest.of(0, 2);
 
-        // não retorna o level 99
-        when(levelRepository.findAllByOrderLevelIn(Set.of(99)))
-                .thenReturn(List.of());
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.size("global_ranking")).thenReturn(2L);
+        when(zSetOperations.reverseRangeWithScores("global_ranking", 0, 1)).thenReturn(new LinkedHashSet<>(List.of(
+                scored(40L, 4, 1200), scored(10L, 4, 100))));
+        when(rankingNearCache.getRows(List.of(40L, 10L))).thenReturn(Map.of(10L, row(10L, 7L, "u7", "Char10")));
+        when(rankingNearCache.level(4)).thenReturn(new RankingNearCache.LevelLabel("L4", "Title4"));
 
         try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
             mocked.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.empty());
 
-            Page<RankingResponse> page = service.execute(pageable);
+            List<RankingResponse> content = service.execute(pageable).getContent();
 
-            RankingResponse r = page.getContent().get(0);
-            assertEquals("Unknown", r.levelName());
-            assertEquals("Unknown", r.levelTitle());
-            assertFalse(r.isMe());
+            assertEquals(1, content.size());
+            assertEquals(1, content.get(0).position());
+            assertEquals(100, content.get(0).xp());
+            assertEquals("L4", content.get(0).levelName());
+            assertFalse(content.get(0).isMe());
         }
     }
 
-    private User user(Long id, String username) {
-        User u = new User();
-        u.setId(id);
-        u.setUsername(username);
-        return u;
-    }
-
-    private PlayerCharacter character(Long id, String name, int level, int xp, User user) {
-        PlayerCharacter c = new PlayerCharacter();
-        c.setId(id);
-        c.setName(name);
-        c.setLevel(level);
-        c.setXp(xp);
-        c.setUser(user);
-        return c;
+    private ZSetOperations.TypedTuple<Object> scored(Long id, int level, int xp) {
+        return ZSetOperations.TypedTuple.of(id, RankingScoreCodec.encode(level, xp, null));
     }
 
-    private Levels level(int orderLevel, String name, String title) {
-        Levels l = new Levels();
-        l.setOrderLevel(orderLevel);
-        l.setName(name);
-        l.setTitle(title);
-        return l;
+    private RankingCharacterRow row(Long characterId, Long userId, String username, String characterName) {
+        return new RankingCharacterRow(characterId, userId, username, characterName);
     }
 }
-
@@ -5,6 +5,7 @@ import dev.gamified.GamifiedPlatform.domain.Levels;
 import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.MyRankingResponse;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingInfo;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingNeighborResponse;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
 import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
@@ -16,11 +17,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +43,12 @@ class GetMyRankingServiceTest {
     @Mock
     private LevelRepository levelRepository;
 
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, Object> zSetOperations;
+
     @InjectMocks
     private GetMyRankingService getMyRankingService;
 
@@ -193,4 +209,65 @@ class GetMyRankingServiceTest {
             assertEquals(1.0, result.percentile()); // Top 1%
         }
     }
+
+    @Test
+    @DisplayName("Deve usar ZREVRANK/ZCARD do Redis sem consultar a posição no banco")
+    @SuppressWarnings("unchecked")
+    void shouldUseRedisRank_whenCacheIsWarm() {
+        Long userId = 1L;
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(userId));
+
+            when(playerCharacterRepository.findByUserId(userId)).thenReturn(Optional.of(playerCharacter));
+            when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(1, 100L));
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.reverseRangeWithScores("global_ranking", 0, 2)).thenReturn(new LinkedHashSet<>(List.of(
+                    TypedTuple.<Object>of(7, RankingScoreCodec.encode(4, 100, null)),
+                    TypedTuple.<Object>of(1, RankingScoreCodec.encode(3, 600, null)),
+                    TypedTuple.<Object>of(9, RankingScoreCodec.encode(3, 500, null)))));
+            when(levelRepository.findTopByOrderLevelLessThanEqualOrderByOrderLevelDesc(anyInt()))
+                    .thenReturn(Optional.of(level));
+
+            MyRankingResponse result = getMyRankingService.execute(1);
+
+            assertEquals(2L, result.position());
+            assertEquals(100L, result.totalPlayers());
+            assertEquals(99.0, result.percentile());
+
+            List<RankingNeighborResponse> neighbors = result.neighbors();
+            assertEquals(3, neighbors.size());
+            assertEquals(1L, neighbors.get(0).position());
+            assertEquals(7L, neighbors.get(0).characterId());
+            assertEquals(4, neighbors.get(0).level());
+            assertEquals(100, neighbors.get(0).xp());
+            assertFalse(neighbors.get(0).isMe());
+            assertTrue(neighbors.get(1).isMe());
+            assertEquals(3L, neighbors.get(2).position());
+
+            verify(playerCharacterRepository, never()).findPlayerPosition(anyLong());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve voltar para o SQL quando o personagem não estiver no ZSET")
+    @SuppressWarnings("unchecked")
+    void shouldFallbackToSql_whenCharacterNotInCache() {
+        Long userId = 1L;
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(userId));
+
+            when(playerCharacterRepository.findByUserId(userId)).thenReturn(Optional.of(playerCharacter));
+            when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(null, 0L));
+            when(playerCharacterRepository.findPlayerPosition(playerCharacter.getId()))
+                    .thenReturn(new RankingInfo(3L, 10L));
+
+            MyRankingResponse result = getMyRankingService.execute(5);
+
+            assertEquals(3L, result.position());
+            assertTrue(result.neighbors().isEmpty());
+            verify(redisTemplate, never()).opsForZSet();
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
+import dev.gamified.GamifiedPlatform.enums.RankingPeriod;
+import dev.gamified.GamifiedPlatform.exceptions.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GetPeriodRankingService Tests")
+class GetPeriodRankingServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ZSetOperations<String, Object> zSetOps;
+    @Mock
+    private RankingNearCache rankingNearCache;
+
+    private GetPeriodRankingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GetPeriodRankingService(redisTemplate, rankingNearCache);
+        service.setClock(Clock.fixed(Instant.parse("2026-10-18T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Deve paginar o ranking semanal pelo XP ganho e buscar o nível atual no ranking global")
+    void shouldBuildWeeklyRanking() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.size("ranking_xp:weekly:2026-W42")).thenReturn(40L);
+        when(zSetOps.reverseRangeWithScores("ranking_xp:weekly:2026-W42", 0, 1)).thenReturn(new LinkedHashSet<>(List.of(
+                TypedTuple.<Object>of(20L, 900.0), TypedTuple.<Object>of(10L, 300.0))));
+        when(zSetOps.score(eq("global_ranking"), any(Object[].class))).thenReturn(Arrays.asList(
+                RankingScoreCodec.encode(2, 1500, null), null));
+        when(rankingNearCache.getRows(List.of(20L, 10L))).thenReturn(Map.of(
+                10L, new RankingCharacterRow(10L, 1L, "u1", "Char10"),
+                20L, new RankingCharacterRow(20L, 2L, "u2", "Char20")));
+        when(rankingNearCache.level(2)).thenReturn(new RankingNearCache.LevelLabel("L2", "Title2"));
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+
+            Page<RankingResponse> page = service.execute(RankingPeriod.WEEKLY, PageRequest.of(0, 2));
+
+            assertEquals(40L, page.getTotalElements());
+            RankingResponse first = page.getContent().get(0);
+            assertEquals(1, first.position());
+            assertEquals("u2", first.username());
+            assertEquals(900, first.xp());
+            assertEquals(2, first.level());
+            assertEquals("L2", first.levelName());
+            assertFalse(first.isMe());
+
+            RankingResponse second = page.getContent().get(1);
+            assertEquals(300, second.xp());
+            assertNull(second.level());
+            assertEquals("Unknown", second.levelName());
+            assertTrue(second.isMe());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve montar a janela móvel com ZUNIONSTORE dos ZSETs diários quando não estiver em cache")
+    @SuppressWarnings("unchecked")
+    void shouldUnionDailyKeysForRollingWindow() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.hasKey("ranking_xp:rolling:7d:2026-10-18")).thenReturn(false);
+        when(zSetOps.size("ranking_xp:rolling:7d:2026-10-18")).thenReturn(0L);
+
+        Page<RankingResponse> page = service.execute(RankingPeriod.LAST_7_DAYS, PageRequest.of(0, 10));
+
+        assertTrue(page.getContent().isEmpty());
+        ArgumentCaptor<Collection<String>> others = ArgumentCaptor.forClass(Collection.class);
+        verify(zSetOps).unionAndStore(eq("ranking_xp:daily:2026-10-18"), others.capture(),
+                eq("ranking_xp:rolling:7d:2026-10-18"));
+        assertEquals(6, others.getValue().size());
+        assertTrue(others.getValue().contains("ranking_xp:daily:2026-10-12"));
+        verify(redisTemplate).expire("ranking_xp:rolling:7d:2026-10-18", Duration.ofSeconds(60));
+        verifyNoInteractions(rankingNearCache);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a janela móvel já calculada")
+    void shouldReuseCachedRollingWindow() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.hasKey("ranking_xp:rolling:30d:2026-10-18")).thenReturn(true);
+
+        service.execute(RankingPeriod.LAST_30_DAYS, PageRequest.of(0, 10));
+
+        verify(zSetOps, never()).unionAndStore(any(), anyCollection(), any());
+        verify(zSetOps).reverseRangeWithScores("ranking_xp:rolling:30d:2026-10-18", 0, 9);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o mesmo limite de página do ranking global")
+    void shouldRejectLargePages() {
+        assertThrows(BusinessException.class,
+                () -> service.execute(RankingPeriod.DAILY, PageRequest.of(0, 1001)));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período desconhecido")
+    void shouldRejectUnknownPeriod() {
+        assertEquals(RankingPeriod.LAST_7_DAYS, RankingPeriod.fromPath("last-7-days"));
+        assertEquals(RankingPeriod.MONTHLY, RankingPeriod.fromPath("MONTHLY"));
+        assertThrows(BusinessException.class, () -> RankingPeriod.fromPath("yearly"));
+    }
+}
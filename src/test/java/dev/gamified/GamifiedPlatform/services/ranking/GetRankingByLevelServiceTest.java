@@ -1,18 +1,13 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 
 import dev.gamified.GamifiedPlatform.config.security.SecurityUtils;
-import dev.gamified.GamifiedPlatform.domain.Levels;
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
-import dev.gamified.GamifiedPlatform.domain.User;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
 import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingResponse;
 import dev.gamified.GamifiedPlatform.exceptions.ResourceNotFoundException;
-import dev.gamified.GamifiedPlatform.repository.LevelRepository;
-import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -28,10 +23,10 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class GetRankingByLevelServiceTest {
 
-    @Mock private PlayerCharacterRepository playerCharacterRepository;
-    @Mock private LevelRepository levelRepository;
     @Mock private RedisTemplate<String, Object> redisTemplate;
-    @Mock private RefreshRankingCacheService refreshRankingCacheService;
+    @Mock private RankingRebuildCoordinator rankingRebuildCoordinator;
+    @Mock private RankingSqlFallback rankingSqlFallback;
+    @Mock private RankingNearCache rankingNearCache;
     @Mock private ZSetOperations<String, Object> zSetOperations;
 
     private GetRankingByLevelService service;
@@ -39,10 +34,10 @@ class GetRankingByLevelServiceTest {
     @BeforeEach
     void setUp() {
         service = new GetRankingByLevelService(
-                playerCharacterRepository,
-                levelRepository,
                 redisTemplate,
-                refreshRankingCacheService
+                rankingNearCache,
+                rankingRebuildCoordinator,
+                rankingSqlFallback
         );
     }
 
@@ -52,43 +47,52 @@ class GetRankingByLevelServiceTest {
         Long levelId = 99L;
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(levelRepository.findById(levelId)).thenReturn(Optional.empty());
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> service.execute(levelId, pageable));
 
-        verify(levelRepository).findById(levelId);
-        verifyNoInteractions(redisTemplate, refreshRankingCacheService, playerCharacterRepository);
+        verify(rankingNearCache).findOrderLevel(levelId);
+        verifyNoInteractions(redisTemplate, rankingRebuildCoordinator);
     }
 
     @Test
-    @DisplayName("Deve chamar refresh quando cache do ranking por level estiver vazio e retornar vazio se não houver IDs")
-    void execute_shouldRefreshCache_whenCacheEmpty_andReturnEmptyWhenNoIds() {
+    @DisplayName("Nível sem jogadores com ranking global populado não deve disparar reconstrução")
+    void execute_shouldNotRebuild_whenOnlyLevelIsEmpty() {
         Long levelId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
 
-        Levels level = new Levels();
-        level.setId(levelId);
-        level.setOrderLevel(3);
-
-        when(levelRepository.findById(levelId)).thenReturn(Optional.of(level));
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.of(3));
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
 
-        // cache vazio -> refresh -> continua vazio
-        when(zSetOperations.size("ranking_by_level:3")).thenReturn(0L, 0L);
-        when(zSetOperations.reverseRange("ranking_by_level:3", 0, 9)).thenReturn(Collections.emptySet());
+        when(zSetOperations.size("ranking_by_level:3")).thenReturn(0L);
+        when(zSetOperations.size("global_ranking")).thenReturn(100L);
+        when(zSetOperations.reverseRangeWithScores("ranking_by_level:3", 0, 9)).thenReturn(Collections.emptySet());
 
         Page<RankingResponse> page = service.execute(levelId, pageable);
 
-        assertNotNull(page);
         assertTrue(page.getContent().isEmpty());
-        assertEquals(0, page.getTotalElements());
+        assertEquals(0L, page.getTotalElements());
+        verifyNoInteractions(rankingRebuildCoordinator, rankingSqlFallback);
+        verify(rankingNearCache, never()).getRows(anyList());
+    }
 
-        verify(refreshRankingCacheService).execute();
-        verify(zSetOperations, times(2)).size("ranking_by_level:3");
-        verify(zSetOperations).reverseRange("ranking_by_level:3", 0, 9);
+    @Test
+    @DisplayName("Cache frio: aguarda a reconstrução única e cai para o banco se ela não terminar")
+    void execute_shouldFallbackToSql_whenCacheColdAndRebuildTimesOut() {
+        Long levelId = 1L;
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<RankingResponse> degraded = new PageImpl<>(List.of(), pageable, 3);
+
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.of(3));
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.size("ranking_by_level:3")).thenReturn(0L);
+        when(zSetOperations.size("global_ranking")).thenReturn(0L);
+        when(rankingRebuildCoordinator.awaitRebuild("global_ranking")).thenReturn(false);
+        when(rankingSqlFallback.levelPage(3, pageable)).thenReturn(degraded);
 
-        verifyNoInteractions(playerCharacterRepository);
+        assertSame(degraded, service.execute(levelId, pageable));
+        verify(zSetOperations, never()).reverseRangeWithScores(anyString(), anyLong(), anyLong());
     }
 
     @Test
@@ -97,23 +101,19 @@ class GetRankingByLevelServiceTest {
         Long levelId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
 
-        Levels level = new Levels();
-        level.setId(levelId);
-        level.setOrderLevel(3);
-
-        when(levelRepository.findById(levelId)).thenReturn(Optional.of(level));
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.of(3));
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
 
         when(zSetOperations.size("ranking_by_level:3")).thenReturn(50L);
-        when(zSetOperations.reverseRange("ranking_by_level:3", 0, 9)).thenReturn(null);
+        when(zSetOperations.reverseRangeWithScores("ranking_by_level:3", 0, 9)).thenReturn(null);
 
         Page<RankingResponse> page = service.execute(levelId, pageable);
 
         assertTrue(page.getContent().isEmpty());
         assertEquals(50L, page.getTotalElements());
 
-        verify(refreshRankingCacheService, never()).execute();
-        verifyNoInteractions(playerCharacterRepository);
+        verifyNoInteractions(rankingRebuildCoordinator);
+        verify(rankingNearCache, never()).getRows(anyList());
     }
 
     @Test
@@ -122,32 +122,18 @@ class GetRankingByLevelServiceTest {
         Long levelId = 1L;
         Pageable pageable = PageRequest.of(0, 3);
 
-        Levels requestedLevel = new Levels();
-        requestedLevel.setId(levelId);
-        requestedLevel.setOrderLevel(3);
-
-        when(levelRepository.findById(levelId)).thenReturn(Optional.of(requestedLevel));
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.of(3));
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
 
         when(zSetOperations.size("ranking_by_level:3")).thenReturn(3L);
+        when(zSetOperations.reverseRangeWithScores("ranking_by_level:3", 0, 2)).thenReturn(new LinkedHashSet<>(List.of(
+                scored(30L, 3, 10), scored(10L, 3, 150), scored(20L, 3, 999))));
 
-        Set<Object> ids = new LinkedHashSet<>(List.of(30L, 10L, 20L));
-        when(zSetOperations.reverseRange("ranking_by_level:3", 0, 2)).thenReturn(ids);
-
-        PlayerCharacter c10 = character(10L, "Char10", 3, 150, user(1L, "u1"));
-        PlayerCharacter c20 = character(20L, "Char20", 3, 999, user(2L, "u2"));
-        PlayerCharacter c30 = character(30L, "Char30", 3, 10,  user(3L, "u3"));
-
-        when(playerCharacterRepository.findAllByIdInWithUser(anyList()))
-                .thenReturn(List.of(c10, c20, c30));
-
-        Levels levelInfo = new Levels();
-        levelInfo.setOrderLevel(3);
-        levelInfo.setName("Level 3");
-        levelInfo.setTitle("Adept");
-
-        when(levelRepository.findAllByOrderLevelIn(Set.of(3)))
-                .thenReturn(List.of(levelInfo));
+        when(rankingNearCache.getRows(List.of(30L, 10L, 20L))).thenReturn(Map.of(
+                10L, new RankingCharacterRow(10L, 1L, "u1", "Char10"),
+                20L, new RankingCharacterRow(20L, 2L, "u2", "Char20"),
+                30L, new RankingCharacterRow(30L, 3L, "u3", "Char30")));
+        when(rankingNearCache.level(3)).thenReturn(new RankingNearCache.LevelLabel("Level 3", "Adept"));
 
         try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
             mocked.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(3L));
@@ -178,43 +164,26 @@ class GetRankingByLevelServiceTest {
             assertEquals("Adept", r1.levelTitle());
         }
 
-        // Captura a lista usada no batch pra garantir ordem
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<Long>> idCaptor = ArgumentCaptor.forClass((Class) List.class);
-
-        verify(playerCharacterRepository).findAllByIdInWithUser(idCaptor.capture());
-        assertEquals(List.of(30L, 10L, 20L), idCaptor.getValue());
-
-        verify(levelRepository).findAllByOrderLevelIn(Set.of(3));
-        verify(refreshRankingCacheService, never()).execute();
+        verify(rankingNearCache).getRows(List.of(30L, 10L, 20L));
+        verifyNoInteractions(rankingRebuildCoordinator);
     }
 
-
-
     @Test
     @DisplayName("Deve usar Unknown quando não encontrar informações do level do personagem")
     void execute_shouldUseUnknown_whenLevelInfoNotFound() {
         Long levelId = 1L;
         Pageable pageable = PageRequest.of(0, 1);
 
-        Levels requestedLevel = new Levels();
-        requestedLevel.setId(levelId);
-        requestedLevel.setOrderLevel(2);
-
-        when(levelRepository.findById(levelId)).thenReturn(Optional.of(requestedLevel));
+        when(rankingNearCache.findOrderLevel(levelId)).thenReturn(Optional.of(2));
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
 
         when(zSetOperations.size("ranking_by_level:2")).thenReturn(1L);
-        when(zSetOperations.reverseRange("ranking_by_level:2", 0, 0))
-                .thenReturn(new LinkedHashSet<>(List.of(10L)));
-
-        PlayerCharacter c10 = character(10L, "Char10", 2, 10, user(7L, "u7"));
+        when(zSetOperations.reverseRangeWithScores("ranking_by_level:2", 0, 0))
+                .thenReturn(new LinkedHashSet<>(List.of(scored(10L, 2, 10))));
 
-        when(playerCharacterRepository.findAllByIdInWithUser(List.of(10L)))
-                .thenReturn(List.of(c10));
-
-        when(levelRepository.findAllByOrderLevelIn(Set.of(2)))
-                .thenReturn(List.of());
+        when(rankingNearCache.getRows(List.of(10L)))
+                .thenReturn(Map.of(10L, new RankingCharacterRow(10L, 7L, "u7", "Char10")));
+        when(rankingNearCache.level(2)).thenReturn(RankingNearCache.LevelLabel.UNKNOWN);
 
         try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
             mocked.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.empty());
@@ -228,27 +197,9 @@ class GetRankingByLevelServiceTest {
             assertEquals("Unknown", r.levelTitle());
             assertFalse(r.isMe());
         }
-
-        verify(playerCharacterRepository).findAllByIdInWithUser(List.of(10L));
-        verify(levelRepository).findAllByOrderLevelIn(Set.of(2));
-    }
-
-
-    private User user(Long id, String username) {
-        User u = new User();
-        u.setId(id);
-        u.setUsername(username);
-        return u;
     }
 
-    private PlayerCharacter character(Long id, String name, int level, int xp, User user) {
-        PlayerCharacter c = new PlayerCharacter();
-        c.setId(id);
-        c.setName(name);
-        c.setLevel(level);
-        c.setXp(xp);
-        c.setUser(user);
-        return c;
+    private ZSetOperations.TypedTuple<Object> scored(Long id, int level, int xp) {
+        return ZSetOperations.TypedTuple.of(id, RankingScoreCodec.encode(level, xp, null));
     }
 }
-
@@ -0,0 +1,48 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LevelRankingPartition Tests")
+class LevelRankingPartitionTest {
+
+    @Test
+    @DisplayName("Deve agrupar por nível crescendo os arrays além da capacidade inicial")
+    void shouldGroupByLevel_andGrowBeyondInitialCapacity() {
+        LevelRankingPartition partition = new LevelRankingPartition();
+        for (int i = 0; i < 200; i++) {
+            partition.add(40, i, i * 10);
+        }
+        partition.add(2, 999L, 5);
+
+        assertEquals(40, partition.maxLevel());
+        assertEquals(200, partition.size(40));
+        assertEquals(1, partition.size(2));
+        assertEquals(0, partition.size(3));
+        assertEquals(0, partition.size(1000));
+        assertEquals(1990.0, partition.members(40).get(199).getScore());
+        assertEquals(999L, partition.members(2).get(0).getValue());
+    }
+
+    @Test
+    @DisplayName("Impressão digital não depende da ordem e muda quando o XP muda")
+    void fingerprint_shouldBeOrderIndependent_andSensitiveToXp() {
+        LevelRankingPartition a = new LevelRankingPartition();
+        a.add(1, 1L, 10);
+        a.add(1, 2L, 20);
+
+        LevelRankingPartition b = new LevelRankingPartition();
+        b.add(1, 2L, 20);
+        b.add(1, 1L, 10);
+
+        LevelRankingPartition c = new LevelRankingPartition();
+        c.add(1, 1L, 10);
+        c.add(1, 2L, 21);
+
+        assertEquals(a.fingerprint(1), b.fingerprint(1));
+        assertNotEquals(a.fingerprint(1), c.fingerprint(1));
+        assertEquals("0:0", a.fingerprint(5));
+    }
+}
@@ -0,0 +1,138 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RankingBulkLoader Tests")
+class RankingBulkLoaderTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisOperations<String, Object> operations;
+    @Mock
+    private ZSetOperations<String, Object> zSetOps;
+
+    private static final ClusterLease LEASE = new ClusterLease("ranking-rebuild", "node-a", 7L, Instant.now());
+
+    private RankingBulkLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new RankingBulkLoader(redisTemplate);
+        ReflectionTestUtils.setField(loader, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar membros em ZADDs de até batchSize dentro de um único pipeline")
+    @SuppressWarnings("unchecked")
+    void load_shouldSplitMembersIntoBatches_inSinglePipeline() {
+        when(operations.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+            return List.of();
+        });
+
+        Map<String, List<TypedTuple<Object>>> members = new LinkedHashMap<>();
+        members.put("global_ranking:temp:x", tuples(5));
+        members.put("ranking_by_level:1:temp:x", tuples(1));
+
+        int commands = loader.load(members);
+
+        assertEquals(4, commands);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(zSetOps, times(3)).add(eq("global_ranking:temp:x"), anySet());
+        verify(zSetOps, times(1)).add(eq("ranking_by_level:1:temp:x"), anySet());
+    }
+
+    @Test
+    @DisplayName("Deve publicar as chaves em um único script que mescla as atualizações ao vivo")
+    @SuppressWarnings("unchecked")
+    void swap_shouldRenameDeleteAndMergeInSingleScript() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(2L);
+
+        Map<String, String> renames = new LinkedHashMap<>();
+        renames.put("global_ranking:temp:x", "global_ranking");
+        renames.put("ranking_by_level:1:temp:x", "ranking_by_level:1");
+
+        assertEquals(2L, loader.swap(LEASE, renames, List.of("ranking_by_level:2"), 1_000L));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                keys.capture(), args.capture());
+        assertEquals(List.of("cluster_lease:ranking-rebuild", "global_ranking:updates", "global_ranking",
+                "global_ranking:temp:x", "global_ranking",
+                "ranking_by_level:1:temp:x", "ranking_by_level:1",
+                "ranking_by_level:2"), keys.getValue());
+        // Valor do lease, desde, divisor do nível (2^45), prefixo dos níveis e número de pares temp/final
+        assertEquals(List.of("node-a|7", "1000", String.valueOf(1L << 45), "ranking_by_level:", "2"),
+                Arrays.asList(args.getValue()));
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando o script recusar a publicação por o lease ter mudado de dono")
+    @SuppressWarnings("unchecked")
+    void swap_shouldFailWhenLeaseWasLost() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(-1L);
+
+        assertThrows(IllegalStateException.class,
+                () -> loader.swap(LEASE, Map.of("global_ranking:temp:x", "global_ranking"), List.of(), 1_000L));
+    }
+
+    @Test
+    @DisplayName("Deve ler o ZCARD dos níveis em um único pipeline, tratando chave ausente como vazia")
+    @SuppressWarnings("unchecked")
+    void levelSizes_shouldReadCardinalitiesInSinglePipeline() {
+        when(operations.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+            return Arrays.asList(3L, null);
+        });
+
+        Map<Integer, Long> sizes = loader.levelSizes(List.of(1, 2));
+
+        assertEquals(Map.of(1, 3L, 2, 0L), sizes);
+        verify(zSetOps).zCard("ranking_by_level:1");
+        verify(zSetOps).zCard("ranking_by_level:2");
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o Redis quando não houver membros")
+    void load_shouldSkipRedis_whenEmpty() {
+        assertEquals(0, loader.load(Map.of()));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private List<TypedTuple<Object>> tuples(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> TypedTuple.<Object>of((long) i, (double) i))
+                .toList();
+    }
+}
@@ -0,0 +1,117 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.domain.Levels;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingCharacterRow;
+import dev.gamified.GamifiedPlatform.repository.LevelRepository;
+import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
+import dev.gamified.GamifiedPlatform.services.levels.LevelsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RankingNearCache Tests")
+class RankingNearCacheTest {
+
+    @Mock
+    private PlayerCharacterRepository playerCharacterRepository;
+    @Mock
+    private LevelRepository levelRepository;
+
+    private RankingNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new RankingNearCache(playerCharacterRepository, levelRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Página quente não deve consultar o banco novamente")
+    void shouldServeHotRowsFromMemory() {
+        when(playerCharacterRepository.findRankingRowsByIdIn(anyCollection()))
+                .thenReturn(List.of(row(1L, 10L, "u1"), row(2L, 20L, "u2")));
+
+        nearCache.getRows(List.of(1L, 2L));
+        Map<Long, RankingCharacterRow> rows = nearCache.getRows(List.of(2L, 1L));
+
+        assertEquals("u2", rows.get(2L).username());
+        assertEquals(20L, rows.get(2L).userId());
+        verify(playerCharacterRepository, times(1)).findRankingRowsByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve buscar apenas os ids ausentes e recarregar a linha invalidada por mudança de XP")
+    void shouldLoadOnlyMissingIds_andReloadAfterXpChange() {
+        when(playerCharacterRepository.findRankingRowsByIdIn(Set.of(1L)))
+                .thenReturn(List.of(row(1L, 10L, "u1")));
+        when(playerCharacterRepository.findRankingRowsByIdIn(Set.of(2L)))
+                .thenReturn(List.of(row(2L, 20L, "u2")));
+
+        nearCache.getRows(List.of(1L));
+        nearCache.getRows(List.of(1L, 2L));
+        nearCache.onCharacterXpChanged(new CharacterXpChangedEvent(1L, 1, 1, 50, 50, null));
+        nearCache.getRows(List.of(1L, 2L));
+
+        verify(playerCharacterRepository, times(2)).findRankingRowsByIdIn(Set.of(1L));
+        verify(playerCharacterRepository, times(1)).findRankingRowsByIdIn(Set.of(2L));
+    }
+
+    @Test
+    @DisplayName("Deve carregar a tabela de níveis uma única vez e resolver por orderLevel e por id")
+    void shouldCacheLevelLabels() {
+        when(levelRepository.findAll()).thenReturn(List.of(level(7L, 1, "Novice", "Apprentice")));
+
+        assertEquals("Novice", nearCache.level(1).name());
+        assertEquals("Apprentice", nearCache.level(1).title());
+        assertEquals(RankingNearCache.LevelLabel.UNKNOWN, nearCache.level(99));
+        assertEquals(Optional.of(1), nearCache.findOrderLevel(7L));
+        assertTrue(nearCache.findOrderLevel(8L).isEmpty());
+
+        verify(levelRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve recarregar os níveis após alteração e achar nível criado depois do snapshot")
+    void shouldReloadLevels_afterChangeOrUnknownId() {
+        when(levelRepository.findAll())
+                .thenReturn(List.of(level(7L, 1, "Novice", "Apprentice")))
+                .thenReturn(List.of(level(7L, 1, "Rookie", "Apprentice"), level(8L, 2, "Adept", "Journeyman")));
+        when(levelRepository.findById(8L)).thenReturn(Optional.of(level(8L, 2, "Adept", "Journeyman")));
+
+        assertEquals("Novice", nearCache.level(1).name());
+        // Nível criado em outro nó: não está no snapshot, mas existe no banco
+        assertEquals(Optional.of(2), nearCache.findOrderLevel(8L));
+        assertEquals("Adept", nearCache.level(2).name());
+
+        nearCache.onLevelsChanged(new LevelsChangedEvent(7L));
+        assertEquals("Rookie", nearCache.level(1).name());
+        verify(levelRepository, times(3)).findAll();
+    }
+
+    private RankingCharacterRow row(Long characterId, Long userId, String username) {
+        return new RankingCharacterRow(characterId, userId, username, "Char" + characterId);
+    }
+
+    private Levels level(Long id, int orderLevel, String name, String title) {
+        Levels level = new Levels();
+        level.setId(id);
+        level.setOrderLevel(orderLevel);
+        level.setName(name);
+        level.setTitle(title);
+        return level;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RankingRebuildCoordinator Tests")
+class RankingRebuildCoordinatorTest {
+
+    @Mock
+    private RefreshRankingCacheService refreshRankingCacheService;
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RankingRebuildCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coordinator = new RankingRebuildCoordinator(refreshRankingCacheService, clusterLeaseService, redisTemplate,
+                meterRegistry, Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Requisições concorrentes com cache frio devem compartilhar uma única reconstrução")
+    void concurrentRequestsShouldCoalesce() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        when(clusterLeaseService.runExclusively(eq(RefreshRankingCacheService.LEASE_NAME), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    rebuildStarted.countDown();
+                    releaseRebuild.await(5, TimeUnit.SECONDS);
+                    return true;
+                });
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> coordinator.awaitRebuild(RankingCacheKeys.GLOBAL)));
+            }
+            assertTrue(rebuildStarted.await(2, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            releaseRebuild.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(3, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(clusterLeaseService, times(1)).runExclusively(any(), any(), any(), any());
+        assertEquals(callers - 1, meterRegistry.counter("ranking.rebuild.coalesced").count());
+    }
+
+    @Test
+    @DisplayName("Quem espera além do limite deve receber false para servir a página pelo banco")
+    void waiterShouldTimeOut() {
+        coordinator = new RankingRebuildCoordinator(refreshRankingCacheService, clusterLeaseService, redisTemplate,
+                meterRegistry, Duration.ofMillis(50), Duration.ofMinutes(1), Duration.ofMillis(300));
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        when(clusterLeaseService.runExclusively(any(), any(), any(), any())).thenAnswer(invocation -> {
+            releaseRebuild.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        assertFalse(coordinator.awaitRebuild(RankingCacheKeys.GLOBAL));
+        releaseRebuild.countDown();
+        assertEquals(1.0, meterRegistry.counter("ranking.rebuild.wait.timeouts").count());
+    }
+
+    @Test
+    @DisplayName("Com o lease em outro nó deve aguardar a chave ser publicada no Redis")
+    void shouldWaitForRemoteRebuild() {
+        when(clusterLeaseService.runExclusively(any(), any(), any(), any())).thenReturn(false);
+        when(redisTemplate.hasKey(RankingCacheKeys.GLOBAL)).thenReturn(false, true);
+        when(clusterLeaseService.currentHolder(RefreshRankingCacheService.LEASE_NAME))
+                .thenReturn(Optional.of(new ClusterLeaseService.LeaseHolder("node-b", 3L, 10_000L)));
+
+        assertTrue(coordinator.awaitRebuild(RankingCacheKeys.GLOBAL));
+        verify(redisTemplate, times(2)).hasKey(RankingCacheKeys.GLOBAL);
+        verifyNoInteractions(refreshRankingCacheService);
+    }
+}
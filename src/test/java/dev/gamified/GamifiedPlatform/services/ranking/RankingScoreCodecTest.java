@@ -0,0 +1,89 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RankingScoreCodec Tests")
+class RankingScoreCodecTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 5, 10, 8, 30);
+
+    @Test
+    @DisplayName("Deve decodificar nível, XP e momento sem perda de precisão")
+    void shouldRoundTripFields() {
+        double score = RankingScoreCodec.encode(42, 123_456, T0);
+
+        assertEquals(42, RankingScoreCodec.level(score));
+        assertEquals(123_456, RankingScoreCodec.xp(score));
+        assertEquals(T0.truncatedTo(ChronoUnit.HOURS), RankingScoreCodec.achievedAt(score));
+    }
+
+    @Test
+    @DisplayName("Score máximo deve caber nos 53 bits exatos do double")
+    void shouldFitInDoubleMantissa() {
+        LocalDateTime epoch = RankingScoreCodec.EPOCH;
+        double max = RankingScoreCodec.encode(RankingScoreCodec.MAX_LEVEL, RankingScoreCodec.MAX_XP, epoch);
+
+        assertTrue(max < 0x1p53);
+        assertEquals((long) max, (long) (double) (long) max);
+        assertNotEquals(max, max - 1);
+    }
+
+    @Test
+    @DisplayName("Nível domina XP, XP domina o tempo e quem chegou antes vence o empate")
+    void shouldOrderByLevelThenXpThenEarliest() {
+        double higherLevel = RankingScoreCodec.encode(3, 0, T0.plusYears(5));
+        double higherXp = RankingScoreCodec.encode(2, RankingScoreCodec.MAX_XP, T0);
+        double sameXpEarlier = RankingScoreCodec.encode(2, 500, T0);
+        double sameXpLater = RankingScoreCodec.encode(2, 500, T0.plusHours(1));
+
+        assertTrue(higherLevel > higherXp);
+        assertTrue(higherXp > sameXpEarlier);
+        assertTrue(sameXpEarlier > sameXpLater);
+    }
+
+    @Test
+    @DisplayName("Valores fora da faixa devem ser saturados sem invadir o campo vizinho")
+    void shouldClampOutOfRangeValues() {
+        double score = RankingScoreCodec.encode(2, Integer.MAX_VALUE, T0);
+
+        assertEquals(2, RankingScoreCodec.level(score));
+        assertEquals(RankingScoreCodec.MAX_XP, RankingScoreCodec.xp(score));
+        assertTrue(RankingScoreCodec.encode(5, 10, null) < RankingScoreCodec.encode(5, 10, T0));
+    }
+
+    @Test
+    @DisplayName("Campo de XP comporta centenas de milhões de XP; o desempate é por hora")
+    void shouldCoverLargeXpWithHourlyTieBreak() {
+        assertEquals(268_435_455, RankingScoreCodec.MAX_XP);
+        assertEquals(255, RankingScoreCodec.MAX_LEVEL);
+
+        double score = RankingScoreCodec.encode(7, 50_000_000, T0);
+        assertEquals(50_000_000, RankingScoreCodec.xp(score));
+        assertEquals(7, RankingScoreCodec.level(score));
+        assertEquals(RankingScoreCodec.encode(2, 500, T0), RankingScoreCodec.encode(2, 500, T0.plusMinutes(20)));
+    }
+
+    @Test
+    @DisplayName("Saturação de nível ou XP é contada em ranking.score.saturated")
+    void shouldCountSaturation() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            RankingScoreCodec.encode(RankingScoreCodec.MAX_LEVEL + 1, RankingScoreCodec.MAX_XP + 1, T0);
+            RankingScoreCodec.encode(RankingScoreCodec.MAX_LEVEL, RankingScoreCodec.MAX_XP, T0);
+
+            assertEquals(1.0, registry.counter("ranking.score.saturated", "field", "level").count());
+            assertEquals(1.0, registry.counter("ranking.score.saturated", "field", "xp").count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
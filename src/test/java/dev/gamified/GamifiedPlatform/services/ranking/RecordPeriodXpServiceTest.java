@@ -0,0 +1,88 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RecordPeriodXpService Tests")
+class RecordPeriodXpServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisOperations<String, Object> operations;
+    @Mock
+    private ZSetOperations<String, Object> zSetOps;
+
+    private RecordPeriodXpService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RecordPeriodXpService(redisTemplate);
+        service.setClock(Clock.fixed(Instant.parse("2026-10-18T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Deve somar o XP ganho nos ZSETs diário, semanal e mensal com expiração")
+    @SuppressWarnings("unchecked")
+    void shouldIncrementAllPeriodKeys() {
+        when(operations.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(operations);
+            return List.of();
+        });
+
+        service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 2, 2, 350, 50, null));
+
+        verify(zSetOps).incrementScore("ranking_xp:daily:2026-10-18", 10L, 50);
+        verify(zSetOps).incrementScore("ranking_xp:weekly:2026-W42", 10L, 50);
+        verify(zSetOps).incrementScore("ranking_xp:monthly:2026-10", 10L, 50);
+        verify(operations).expire("ranking_xp:daily:2026-10-18", RecordPeriodXpService.DAILY_TTL);
+        verify(operations).expire("ranking_xp:weekly:2026-W42", RecordPeriodXpService.WEEKLY_TTL);
+        verify(operations).expire("ranking_xp:monthly:2026-10", RecordPeriodXpService.MONTHLY_TTL);
+    }
+
+    @Test
+    @DisplayName("Não deve tocar no Redis quando não houver ganho de XP")
+    void shouldIgnoreNonPositiveDelta() {
+        service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 2, 2, 350, 0, null));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Erro no Redis não deve propagar")
+    @SuppressWarnings("unchecked")
+    void shouldSwallowRedisErrors() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenThrow(new RuntimeException("Redis down"));
+
+        assertDoesNotThrow(() -> service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 1, 1, 10, 10, null)));
+    }
+
+    @Test
+    @DisplayName("Semana ISO na virada do ano deve usar o ano da semana")
+    void weeklyKeyShouldUseWeekBasedYear() {
+        // 2027-01-01 é sexta-feira: pertence à semana 53 de 2026
+        assertEquals("ranking_xp:weekly:2026-W53",
+                RankingCacheKeys.weekly(LocalDate.of(2027, 1, 1)));
+    }
+}
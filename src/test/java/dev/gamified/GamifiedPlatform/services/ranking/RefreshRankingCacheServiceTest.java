@@ -1,24 +1,31 @@
 package dev.gamified.GamifiedPlatform.services.ranking;
 
-import dev.gamified.GamifiedPlatform.domain.PlayerCharacter;
+import dev.gamified.GamifiedPlatform.dtos.response.ranking.RankingScoreRow;
+import dev.gamified.GamifiedPlatform.repository.LevelRepository;
 import dev.gamified.GamifiedPlatform.repository.PlayerCharacterRepository;
-import org.junit.jupiter.api.AfterEach;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLease;
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,54 +35,188 @@ class RefreshRankingCacheServiceTest {
     @Mock
     private PlayerCharacterRepository playerCharacterRepository;
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private LevelRepository levelRepository;
     @Mock
-    private ZSetOperations<String, Object> zSetOps;
-    @InjectMocks
-    private RefreshRankingCacheService refreshRankingCacheService;
+    private RankingBulkLoader rankingBulkLoader;
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    private static final ClusterLease LEASE =
+            new ClusterLease(RefreshRankingCacheService.LEASE_NAME, "node-a", 7L, Instant.now());
 
-    private AutoCloseable autoCloseable;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshRankingCacheService refreshRankingCacheService;
 
     @BeforeEach
     void setUp() {
-        autoCloseable = MockitoAnnotations.openMocks(this);
-        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        meterRegistry = new SimpleMeterRegistry();
+        refreshRankingCacheService = new RefreshRankingCacheService(
+                playerCharacterRepository, levelRepository, rankingBulkLoader, meterRegistry, clusterLeaseService);
     }
 
     @Test
     @DisplayName("Atualização atômica do ranking não lança exceção")
+    @SuppressWarnings("unchecked")
     void testAtualizacaoAtomica() {
-        PlayerCharacter pc = new PlayerCharacter();
-        pc.setId(1L);
-        pc.setLevel(1);
-        pc.setXp(100);
-        List<PlayerCharacter> pcs = List.of(pc);
-        when(playerCharacterRepository.findAll(any(org.springframework.data.domain.Sort.class))).thenReturn(pcs);
-        when(zSetOps.add(any(), any(), anyDouble())).thenReturn(true);
-        when(zSetOps.size(contains("global_ranking:temp:"))).thenReturn(1L);
-        when(zSetOps.size(contains("ranking_by_level:1:temp:"))).thenReturn(1L);
-        for (int i = 2; i <= 10; i++) {
-            when(zSetOps.size(contains("ranking_by_level:" + i + ":temp:"))).thenReturn(0L);
-        }
-        doNothing().when(redisTemplate).rename(contains("global_ranking:temp:"), eq("global_ranking"));
-        when(redisTemplate.delete(any(String.class))).thenReturn(true);
-        when(redisTemplate.delete(any(Collection.class))).thenReturn(1L);
-        refreshRankingCacheService.execute();
-        verify(zSetOps, atLeastOnce()).add(any(), any(), anyDouble());
-        verify(redisTemplate, atLeastOnce()).delete(any(String.class));
-        verify(redisTemplate).rename(contains("global_ranking:temp:"), eq("global_ranking"));
+        List<RankingScoreRow> rows = List.of(new RankingScoreRow(1L, 1, 100, null));
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        when(levelRepository.findAllOrderLevels()).thenReturn(List.of(1, 2, 11));
+
+        refreshRankingCacheService.execute(LEASE);
+
+        ArgumentCaptor<Map<String, List<TypedTuple<Object>>>> loadCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(rankingBulkLoader, times(2)).load(loadCaptor.capture());
+
+        Map<String, List<TypedTuple<Object>>> global = loadCaptor.getAllValues().get(0);
+        assertEquals(1, global.size());
+        String globalKey = global.keySet().iterator().next();
+        assertTrue(globalKey.startsWith("global_ranking:temp:"));
+        assertEquals(1L, global.get(globalKey).get(0).getValue());
+        double score = RankingScoreCodec.encode(1, 100, null);
+        assertEquals(score, global.get(globalKey).get(0).getScore());
+
+        Map<String, List<TypedTuple<Object>>> levels = loadCaptor.getAllValues().get(1);
+        assertEquals(1, levels.size());
+        String levelKey = levels.keySet().iterator().next();
+        assertTrue(levelKey.startsWith("ranking_by_level:1:temp:"));
+        assertEquals(score, levels.get(levelKey).get(0).getScore());
+
+        ArgumentCaptor<Map<String, String>> swapCaptor = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Collection<String>> deleteCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(rankingBulkLoader).swap(eq(LEASE), swapCaptor.capture(), deleteCaptor.capture(), anyLong());
+        assertTrue(swapCaptor.getValue().containsValue("global_ranking"));
+        assertTrue(swapCaptor.getValue().containsValue("ranking_by_level:1"));
+        // Níveis descobertos em tb_levels (inclusive acima de 10) sem personagens são removidos
+        assertEquals(List.of("ranking_by_level:2", "ranking_by_level:11"), deleteCaptor.getValue());
+
+        ArgumentCaptor<Map<Integer, String>> fingerprintCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(rankingBulkLoader).writeLevelFingerprints(fingerprintCaptor.capture());
+        assertEquals(Set.of(1), fingerprintCaptor.getValue().keySet());
+
+        assertEquals(1, meterRegistry.timer("ranking.rebuild.duration").count());
+        assertEquals(1.0, meterRegistry.counter("ranking.rebuild.players").count());
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir apenas os níveis cuja composição mudou")
+    @SuppressWarnings("unchecked")
+    void testSomenteNiveisAlterados() {
+        LevelRankingPartition previous = new LevelRankingPartition();
+        previous.add(1, 1L, RankingScoreCodec.encode(1, 100, null));
+        previous.add(2, 2L, RankingScoreCodec.encode(2, 50, null));
+
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new RankingScoreRow(1L, 1, 100, null),
+                new RankingScoreRow(2L, 2, 80, null),
+                new RankingScoreRow(3L, 12, 5, null)));
+        when(levelRepository.findAllOrderLevels()).thenReturn(List.of(1, 2));
+        when(rankingBulkLoader.readLevelFingerprints())
+                .thenReturn(Map.of(1, previous.fingerprint(1), 2, previous.fingerprint(2)));
+        when(rankingBulkLoader.levelSizes(List.of(1))).thenReturn(Map.of(1, 1L));
+
+        refreshRankingCacheService.execute(LEASE);
+
+        ArgumentCaptor<Map<String, String>> swapCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(rankingBulkLoader).swap(eq(LEASE), swapCaptor.capture(), any(), anyLong());
+        Collection<String> finalKeys = swapCaptor.getValue().values();
+        assertTrue(finalKeys.contains("ranking_by_level:2"));
+        // Nível 12 não existe em tb_levels, mas tem personagens
+        assertTrue(finalKeys.contains("ranking_by_level:12"));
+        assertFalse(finalKeys.contains("ranking_by_level:1"));
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o nível quando o ZSET divergir mesmo com a impressão digital igual")
+    @SuppressWarnings("unchecked")
+    void testNivelDivergenteNoRedis() {
+        LevelRankingPartition previous = new LevelRankingPartition();
+        previous.add(1, 1L, RankingScoreCodec.encode(1, 100, null));
+
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new RankingScoreRow(1L, 1, 100, null)));
+        when(levelRepository.findAllOrderLevels()).thenReturn(List.of(1));
+        when(rankingBulkLoader.readLevelFingerprints()).thenReturn(Map.of(1, previous.fingerprint(1)));
+        // Chave removida ou expulsa do Redis enquanto o hash de impressões digitais sobreviveu
+        when(rankingBulkLoader.levelSizes(List.of(1))).thenReturn(Map.of(1, 0L));
+
+        refreshRankingCacheService.execute(LEASE);
+
+        ArgumentCaptor<Map<String, String>> swapCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(rankingBulkLoader).swap(eq(LEASE), swapCaptor.capture(), any(), anyLong());
+        assertTrue(swapCaptor.getValue().containsValue("ranking_by_level:1"));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer a tabela em blocos por keyset até o último bloco incompleto")
+    void testPaginacaoPorKeyset() {
+        ReflectionTestUtils.setField(refreshRankingCacheService, "chunkSize", 2);
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new RankingScoreRow(1L, 1, 10, null), new RankingScoreRow(5L, 2, 20, null)));
+        when(playerCharacterRepository.findRankingScoresAfter(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(new RankingScoreRow(9L, 1, 30, null)));
+
+        refreshRankingCacheService.execute(LEASE);
+
+        verify(playerCharacterRepository).findRankingScoresAfter(eq(0L), any(Pageable.class));
+        verify(playerCharacterRepository).findRankingScoresAfter(eq(5L), any(Pageable.class));
+        verify(playerCharacterRepository, never()).findRankingScoresAfter(eq(9L), any(Pageable.class));
+        // Um pipeline por bloco lido do banco + um para os níveis
+        verify(rankingBulkLoader, times(3)).load(any());
+        assertEquals(3.0, meterRegistry.counter("ranking.rebuild.players").count());
+    }
+
+    @Test
+    @DisplayName("Não deve publicar chaves quando não houver personagens")
+    void testSemPersonagens() {
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        refreshRankingCacheService.execute(LEASE);
+
+        verify(rankingBulkLoader, never()).load(any());
+        verify(rankingBulkLoader, never()).swap(any(), any(), any(), anyLong());
     }
 
     @Test
     @DisplayName("Erro no Redis é tratado e logado")
     void testErroRedis() {
-        when(playerCharacterRepository.findAll(any(org.springframework.data.domain.Sort.class))).thenThrow(new RuntimeException("Redis error"));
-        refreshRankingCacheService.execute();
-        // Não lança exceção
+        when(playerCharacterRepository.findRankingScoresAfter(anyLong(), any(Pageable.class))).thenThrow(new RuntimeException("Redis error"));
+        refreshRankingCacheService.execute(LEASE);
+        // Não lança exceção e descarta as chaves temporárias
+        verify(rankingBulkLoader).discard(any());
+        assertEquals(1.0, meterRegistry.counter("ranking.rebuild.failures").count());
     }
 
-    @AfterEach
-    void tearDown() throws Exception {
-        if (autoCloseable != null) autoCloseable.close();
+    @Test
+    @DisplayName("Execução agendada deve passar pelo lease do cluster")
+    void testExecucaoAgendadaUsaLease() {
+        refreshRankingCacheService.scheduledReconciliation();
+
+        verify(clusterLeaseService).runExclusively(eq(RefreshRankingCacheService.LEASE_NAME), any(), any(), any());
+        verifyNoInteractions(playerCharacterRepository);
+    }
+
+    @Test
+    @DisplayName("Atualização manual passa pelo lease e informa quando outro nó está reconstruindo")
+    void testExecucaoManualUsaLease() {
+        when(clusterLeaseService.runExclusively(eq(RefreshRankingCacheService.LEASE_NAME), any(), any(), any()))
+                .thenReturn(false);
+
+        assertFalse(refreshRankingCacheService.execute());
+        verifyNoInteractions(playerCharacterRepository, rankingBulkLoader);
+    }
+
+    @Test
+    @DisplayName("Não deve publicar as chaves quando o lease foi perdido durante a reconstrução")
+    void testFencingDescartaReconstrucao() {
+        when(playerCharacterRepository.findRankingScoresAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new RankingScoreRow(1L, 1, 100, null)));
+        when(rankingBulkLoader.swap(eq(LEASE), any(), any(), anyLong()))
+                .thenThrow(new IllegalStateException("Lease 'ranking-rebuild' lost"));
+
+        refreshRankingCacheService.execute(LEASE);
+
+        verify(rankingBulkLoader, never()).writeLevelFingerprints(any());
+        verify(rankingBulkLoader).discard(any());
+        assertEquals(1.0, meterRegistry.counter("ranking.rebuild.failures").count());
     }
 }
@@ -0,0 +1,99 @@
+package dev.gamified.GamifiedPlatform.services.ranking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UpdateRankingScoreService Tests")
+class UpdateRankingScoreServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private static final LocalDateTime ACHIEVED_AT = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private UpdateRankingScoreService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UpdateRankingScoreService(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar score global e do nível em um único script condicional quando o nível não muda")
+    @SuppressWarnings("unchecked")
+    void shouldUpdateGlobalAndLevelScore_whenLevelUnchanged() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 2, 2, 350, 50, ACHIEVED_AT));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        // Sem mudança de nível o "nível anterior" é o próprio nível: nada é removido
+        assertEquals(List.of("global_ranking", "ranking_by_level:2", "ranking_by_level:2", "global_ranking:updates"),
+                keys.getValue());
+        assertEquals(10L, args.getValue()[0]);
+        assertEquals(RankingScoreCodec.encode(2, 350, ACHIEVED_AT), args.getValue()[1]);
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("Deve mover o personagem para o ZSET do novo nível ao subir de nível")
+    @SuppressWarnings("unchecked")
+    void shouldMoveCharacterBetweenLevelKeys_whenLevelChanged() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 2, 3, 1200, 300, ACHIEVED_AT));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertEquals(List.of("global_ranking", "ranking_by_level:3", "ranking_by_level:2", "global_ranking:updates"),
+                keys.getValue());
+        assertEquals(RankingScoreCodec.encode(3, 1200, ACHIEVED_AT), args.getValue()[1]);
+    }
+
+    @Test
+    @DisplayName("Script só grava quando o score é maior que o atual (GT), ignorando eventos fora de ordem")
+    @SuppressWarnings("unchecked")
+    void shouldOnlyApplyGreaterScores() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertDoesNotThrow(() -> service.onCharacterXpChanged(
+                new CharacterXpChangedEvent(10L, 1, 2, 500, 100, ACHIEVED_AT)));
+
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        verify(redisTemplate).execute(script.capture(), anyList(), any(Object[].class));
+        String source = script.getValue().getScriptAsString();
+        assertTrue(source.indexOf("tonumber(current) >= tonumber(ARGV[2]) then return 0")
+                < source.indexOf("redis.call('ZADD'"));
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("Erro no Redis não deve propagar após o commit")
+    @SuppressWarnings("unchecked")
+    void shouldSwallowRedisErrors() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        assertDoesNotThrow(() -> service.onCharacterXpChanged(new CharacterXpChangedEvent(10L, 1, 1, 10, 10, ACHIEVED_AT)));
+    }
+}
@@ -0,0 +1,136 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import dev.gamified.GamifiedPlatform.services.cluster.ClusterLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogPartitionMaintenanceJob Tests")
+class AuditLogPartitionMaintenanceJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogPartitionMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new AuditLogPartitionMaintenanceJob(jdbcTemplate, clusterLeaseService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve garantir as partições do mês corrente e dos próximos meses")
+    void shouldEnsureCurrentAndFuturePartitions() {
+        when(jdbcTemplate.queryForObject(eq(AuditLogPartitionMaintenanceJob.ENSURE_PARTITION_SQL), eq(String.class), any(LocalDate.class)))
+                .thenReturn("tb_security_audit_log_y2026m10");
+
+        job.ensureFuturePartitions(TODAY);
+
+        for (LocalDate month : List.of(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1),
+                LocalDate.of(2026, 12, 1), LocalDate.of(2027, 1, 1))) {
+            verify(jdbcTemplate).queryForObject(AuditLogPartitionMaintenanceJob.ENSURE_PARTITION_SQL, String.class, month);
+        }
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve remover apenas partições inteiramente fora da retenção, ignorando outras tabelas filhas")
+    void shouldDropOnlyExpiredPartitions() throws SQLException {
+        stubPartitions(
+                "tb_security_audit_log_y2025m09", false,
+                "tb_security_audit_log_y2025m10", false,
+                "tb_security_audit_log_y2026m10", false,
+                "tb_security_audit_log_archive", false);
+
+        List<String> dropped = job.dropExpiredPartitions(TODAY);
+
+        // Corte em 2025-10-18: outubro/2025 ainda tem linhas dentro da retenção
+        assertEquals(List.of("tb_security_audit_log_y2025m09"), dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE tb_security_audit_log DETACH PARTITION tb_security_audit_log_y2025m09 CONCURRENTLY");
+        verify(jdbcTemplate).execute("DROP TABLE tb_security_audit_log_y2025m09");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+        assertEquals(1.0, meterRegistry.counter("audit.partitions.dropped").count());
+    }
+
+    @Test
+    @DisplayName("Deve finalizar um detach interrompido e seguir quando uma partição falhar")
+    void shouldFinalizePendingDetachAndContinueOnFailure() throws SQLException {
+        stubPartitions(
+                "tb_security_audit_log_y2024m01", true,
+                "tb_security_audit_log_y2024m02", false);
+        lenient().doThrow(new DataAccessResourceFailureException("lock timeout")).when(jdbcTemplate)
+                .execute("ALTER TABLE tb_security_audit_log DETACH PARTITION tb_security_audit_log_y2024m02 CONCURRENTLY");
+
+        List<String> dropped = job.dropExpiredPartitions(TODAY);
+
+        assertEquals(List.of("tb_security_audit_log_y2024m01"), dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE tb_security_audit_log DETACH PARTITION tb_security_audit_log_y2024m01 FINALIZE");
+        verify(jdbcTemplate, never()).execute("DROP TABLE tb_security_audit_log_y2024m02");
+        assertEquals(1.0, meterRegistry.counter("audit.partitions.failures").count());
+    }
+
+    @Test
+    @DisplayName("Retenção 0 não deve remover partições")
+    void shouldNotDropWhenRetentionDisabled() {
+        ReflectionTestUtils.setField(job, "retentionMonths", 0);
+
+        assertEquals(List.of(), job.dropExpiredPartitions(TODAY));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Execução agendada deve passar pelo lease do cluster")
+    void shouldRunUnderClusterLease() {
+        job.scheduledMaintenance();
+
+        verify(clusterLeaseService).runExclusively(eq(AuditLogPartitionMaintenanceJob.LEASE_NAME), any(), any(), any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPartitions(Object... nameAndPending) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < nameAndPending.length; i += 2) {
+            rows.add(new Object[]{nameAndPending[i], nameAndPending[i + 1]});
+        }
+        when(jdbcTemplate.query(eq(AuditLogPartitionMaintenanceJob.LIST_PARTITIONS_SQL), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getString(1)).thenReturn((String) row[0]);
+                        when(rs.getBoolean(2)).thenReturn((Boolean) row[1]);
+                        mapped.add(mapper.mapRow(rs, mapped.size()));
+                    }
+                    return mapped;
+                });
+    }
+}
@@ -0,0 +1,238 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import dev.gamified.GamifiedPlatform.deadletter.DeadLetterQueue;
+import dev.gamified.GamifiedPlatform.enums.AuditOverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogWriter Tests")
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+
+    @TempDir
+    Path spillDirectory;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private SimpleMeterRegistry meterRegistry;
+    private AuditSpillFile spillFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        spillFile = new AuditSpillFile(jsonMapper, meterRegistry, spillDirectory, DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    @DisplayName("Deve gravar em lotes de batch-size com um único batchUpdate por lote")
+    @SuppressWarnings("unchecked")
+    void shouldFlushInBatches() {
+        AuditLogWriter writer = writer(16, AuditOverflowPolicy.DROP, 2);
+        for (int i = 0; i < 3; i++) {
+            writer.submit(event("INFO"));
+        }
+
+        assertEquals(3, writer.flushPending());
+
+        ArgumentCaptor<Collection<AuditRecord>> batchCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AuditLogWriter.INSERT_SQL), batchCaptor.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(2, 1), batchCaptor.getAllValues().stream().map(Collection::size).toList());
+        assertEquals(3.0, meterRegistry.counter("audit.writer.events").count());
+        assertEquals(2.0, meterRegistry.counter("audit.writer.batches").count());
+    }
+
+    @Test
+    @DisplayName("Política DROP: descarta o excedente, exceto eventos CRITICAL que vão para o spool local")
+    void shouldDropOverflowButSpillCritical() {
+        AuditLogWriter writer = writer(2, AuditOverflowPolicy.DROP, 10);
+        writer.submit(event("INFO"));
+        writer.submit(event("INFO"));
+
+        writer.submit(event("WARNING"));
+        AuditRecord critical = event("CRITICAL");
+        writer.submit(critical);
+
+        assertEquals(1.0, meterRegistry.counter("audit.buffer.dropped").count());
+        assertEquals(1.0, meterRegistry.counter("audit.buffer.spilled").count());
+        assertEquals(List.of(critical), spillFile.nextReplayBatch(10));
+        verifyNoInteractions(deadLetterQueue, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Política SPILL: o excedente vai para o spool local, nunca para o banco na thread da requisição")
+    void shouldSpillOverflow() {
+        AuditLogWriter writer = writer(1, AuditOverflowPolicy.SPILL, 10);
+        writer.submit(event("INFO"));
+        AuditRecord overflow = event("INFO");
+
+        writer.submit(overflow);
+
+        assertTrue(spillFile.hasPending());
+        assertEquals(List.of(overflow), spillFile.nextReplayBatch(10));
+        assertFalse(spillFile.hasPending());
+        verifyNoInteractions(deadLetterQueue, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Política BLOCK: espera por espaço até o timeout e então descarta")
+    void shouldBlockThenDrop() {
+        AuditLogWriter writer = writer(1, AuditOverflowPolicy.BLOCK, 10);
+        writer.submit(event("INFO"));
+
+        writer.submit(event("INFO"));
+
+        assertEquals(1.0, meterRegistry.counter("audit.buffer.blocked").count());
+        assertEquals(1.0, meterRegistry.counter("audit.buffer.dropped").count());
+        verifyNoInteractions(deadLetterQueue);
+    }
+
+    @Test
+    @DisplayName("Violação de integridade no lote: regrava evento a evento e só o inválido vai para o DLQ")
+    void shouldRetryIndividuallyOnIntegrityViolation() {
+        AuditLogWriter writer = writer(16, AuditOverflowPolicy.DROP, 10);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_audit_log_user"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("fk_audit_log_user"));
+
+        writer.submit(event("INFO"));
+        writer.submit(event("INFO"));
+        writer.flushPending();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+        verify(deadLetterQueue, times(1)).add(any());
+        assertEquals(1.0, meterRegistry.counter("audit.writer.events").count());
+        assertEquals(1.0, meterRegistry.counter("audit.writer.failures").count());
+    }
+
+    @Test
+    @DisplayName("Banco indisponível: o lote vai para o spool local e o banco não é tentado durante o backoff")
+    void shouldSpillWholeBatchAndBackOffWhenDatabaseIsDown() {
+        AuditLogWriter writer = writer(16, AuditOverflowPolicy.DROP, 10, Duration.ofHours(1));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        writer.submit(event("INFO"));
+        writer.submit(event("INFO"));
+        writer.flushPending();
+        writer.submit(event("WARNING"));
+        writer.flushPending();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        verifyNoInteractions(deadLetterQueue);
+        assertEquals(3, spillFile.nextReplayBatch(10).size());
+        assertEquals(1.0, meterRegistry.counter("audit.writer.failures").count());
+    }
+
+    @Test
+    @DisplayName("Banco de volta após o backoff: a thread escritora reenvia o spool local")
+    void shouldReplaySpilledEventsOnceDatabaseRecovers() throws Exception {
+        AuditLogWriter writer = writer(16, AuditOverflowPolicy.DROP, 10, Duration.ofMillis(20));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new int[0][]);
+
+        writer.submit(event("INFO"));
+        writer.submit(event("INFO"));
+        writer.flushPending();
+        assertTrue(spillFile.hasPending());
+
+        writer.start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.counter("audit.writer.events").count() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            writer.stop();
+        }
+
+        assertEquals(2.0, meterRegistry.counter("audit.writer.events").count());
+        assertFalse(spillFile.hasPending());
+        verifyNoInteractions(deadLetterQueue);
+    }
+
+    @Test
+    @DisplayName("Vários produtores concorrentes: todos os eventos são gravados, nenhum descartado")
+    void shouldWriteEveryEventFromConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 500;
+        // Buffer menor que o total: produtores esperam a thread escritora (backpressure) em vez de descartar
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, deadLetterQueue, spillFile, jsonMapper, meterRegistry,
+                64, AuditOverflowPolicy.BLOCK, Duration.ofSeconds(5), 50, Duration.ofMillis(10),
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+        writer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        writer.submit(event("WARNING"));
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            writer.stop();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(producers * perProducer, meterRegistry.counter("audit.writer.events").count());
+        assertEquals(0.0, meterRegistry.counter("audit.buffer.dropped").count());
+        assertEquals(0.0, meterRegistry.counter("audit.buffer.spilled").count());
+        assertFalse(spillFile.hasPending());
+    }
+
+    private AuditLogWriter writer(int capacity, AuditOverflowPolicy policy, int batchSize) {
+        return writer(capacity, policy, batchSize, Duration.ofSeconds(1));
+    }
+
+    private AuditLogWriter writer(int capacity, AuditOverflowPolicy policy, int batchSize, Duration retryBackoff) {
+        return new AuditLogWriter(jdbcTemplate, deadLetterQueue, spillFile, jsonMapper, meterRegistry, capacity, policy,
+                Duration.ofMillis(5), batchSize, Duration.ofMillis(10), retryBackoff, Duration.ofSeconds(30));
+    }
+
+    private static AuditRecord event(String severity) {
+        return new AuditRecord("LOGIN_FAILED", null, "user", "10.0.0.1", "agent", "Login failed", severity,
+                LocalDateTime.of(2025, 1, 10, 8, 30));
+    }
+}
@@ -0,0 +1,87 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimitLocalTier Tests")
+class RateLimitLocalTierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitLocalTier localTier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        localTier = new RateLimitLocalTier(meterRegistry, 1000, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Sem estado local a decisão fica com o Redis")
+    void shouldDelegateWhenUnknownKey() {
+        assertNull(localTier.tryAcquire("rate_limit:ip:1"));
+    }
+
+    @Test
+    @DisplayName("Chave bloqueada é rejeitada em memória até o reset")
+    void shouldRejectWhileBlocked() {
+        localTier.record("rate_limit:ip:1", 100, 0, 0, 60_000);
+
+        RateLimitResult result = localTier.tryAcquire("rate_limit:ip:1");
+
+        assertNotNull(result);
+        assertFalse(result.allowed());
+        assertEquals(100, result.limit());
+        assertEquals(60L, result.resetSeconds());
+    }
+
+    @Test
+    @DisplayName("Bloqueio expirado volta a consultar o Redis")
+    void shouldDelegateAfterBlockExpires() throws InterruptedException {
+        localTier.record("rate_limit:ip:1", 100, 0, 0, 1);
+        Thread.sleep(5);
+
+        assertNull(localTier.tryAcquire("rate_limit:ip:1"));
+    }
+
+    @Test
+    @DisplayName("Permissão única não deixa estado local")
+    void shouldNotKeepStateForSinglePermit() {
+        localTier.record("rate_limit:ip:1", 100, 0, 0, 60_000);
+        localTier.record("rate_limit:ip:1", 100, 1, 10, 60_000);
+
+        assertNull(localTier.tryAcquire("rate_limit:ip:1"));
+    }
+
+    @Test
+    @DisplayName("Cota antecipada nunca é consumida além do concedido, mesmo com concorrência")
+    void shouldNotOverspendLeaseConcurrently() throws InterruptedException {
+        // 50 concedidas: uma para a requisição que consultou o Redis, 49 ficam em memória
+        localTier.record("rate_limit:ip:1", 100, 50, 10, 60_000);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                RateLimitResult result = localTier.tryAcquire("rate_limit:ip:1");
+                if (result != null && result.allowed()) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(49, granted.get());
+        assertEquals(49.0, meterRegistry.counter("rate.limit.local", "outcome", "granted").count());
+    }
+}
@@ -1,16 +1,24 @@
 package dev.gamified.GamifiedPlatform.services.security;
 
+import dev.gamified.GamifiedPlatform.config.RateLimitProperties;
+import dev.gamified.GamifiedPlatform.enums.RateLimitAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,42 +35,48 @@ class RateLimitServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
-    @InjectMocks
+    private RateLimitProperties rateLimitProperties;
+    private SimpleMeterRegistry meterRegistry;
     private RateLimitService rateLimitService;
 
     @BeforeEach
     void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(redisTemplate, rateLimitProperties, meterRegistry,
+                new RateLimitLocalTier(meterRegistry, 1000, Duration.ofSeconds(1)));
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
     }
 
     @Test
     @DisplayName("Deve permitir requisição quando dentro do limite")
     void shouldAllowRequestWhenWithinLimit() {
-        when(valueOperations.increment("rate_limit:test_key")).thenReturn(1L);
-        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(true);
+        givenScriptReply("1:4:900000");
 
         boolean allowed = rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(15));
 
         assertTrue(allowed);
-        verify(valueOperations).increment("rate_limit:test_key");
-        verify(redisTemplate).expire(eq("rate_limit:test_key"), any(Duration.class));
+        // Uma única chamada: INCR e TTL no mesmo script, sem EXPIRE separado
+        verify(redisTemplate).execute(eq(RateLimitScripts.FIXED_WINDOW), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("rate_limit:test_key")), eq("900000"), eq("5"), eq("1"));
+        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+        verifyNoInteractions(valueOperations);
     }
 
     @Test
     @DisplayName("Deve bloquear requisição quando exceder limite")
     void shouldBlockRequestWhenLimitExceeded() {
-        when(valueOperations.increment("rate_limit:test_key")).thenReturn(6L);
+        givenScriptReply("0:0:120000");
 
         boolean allowed = rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(15));
 
         assertFalse(allowed);
-        verify(valueOperations).increment("rate_limit:test_key");
     }
 
     @Test
-    @DisplayName("Deve permitir quando contador retorna null (erro)")
+    @DisplayName("Deve permitir quando o script retorna null (erro)")
     void shouldAllowWhenCounterReturnsNull() {
-        when(valueOperations.increment("rate_limit:test_key")).thenReturn(null);
+        givenScriptReply(null);
 
         boolean allowed = rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(15));
 
@@ -70,95 +84,201 @@ class RateLimitServiceTest {
     }
 
     @Test
-    @DisplayName("Deve definir TTL apenas na primeira tentativa")
-    void shouldSetTtlOnlyOnFirstAttempt() {
-        when(valueOperations.increment("rate_limit:test_key")).thenReturn(3L);
+    @DisplayName("Deve permitir quando o Redis está indisponível")
+    void shouldAllowWhenRedisFails() {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenThrow(new RuntimeException("Redis down"));
 
-        rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(15));
+        RateLimitResult result = rateLimitService.check("test_key", 5, Duration.ofMinutes(15));
 
-        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+        assertTrue(result.allowed());
+        assertEquals(5, result.remaining());
+    }
+
+    @Test
+    @DisplayName("check deve retornar restantes e tempo de reset da mesma chamada")
+    void shouldReturnRemainingAndResetFromSingleCall() {
+        givenScriptReply("1:2:119001");
+
+        RateLimitResult result = rateLimitService.check("test_key", 5, Duration.ofMinutes(15));
+
+        assertTrue(result.allowed());
+        assertEquals(5, result.limit());
+        assertEquals(2, result.remaining());
+        // Arredonda para cima: o cliente não deve tentar antes da janela expirar
+        assertEquals(120L, result.resetSeconds());
+        verify(redisTemplate, never()).getExpire(anyString(), any(TimeUnit.class));
+    }
+
+    @Test
+    @DisplayName("Restantes não ficam negativos após exceder o limite")
+    void shouldClampRemainingAtZero() {
+        givenScriptReply("0:0:1000");
+
+        RateLimitResult result = rateLimitService.check("test_key", 5, Duration.ofMinutes(15));
+
+        assertFalse(result.allowed());
+        assertEquals(0, result.remaining());
+        assertEquals(1L, result.resetSeconds());
     }
 
     @Test
     @DisplayName("Deve resetar o rate limit")
     void shouldResetRateLimit() {
-        when(redisTemplate.delete("rate_limit:test_key")).thenReturn(true);
-
         rateLimitService.reset("test_key");
 
-        verify(redisTemplate).delete("rate_limit:test_key");
+        // Remove a chave de todos os algoritmos (a regra pode ter trocado de algoritmo)
+        verify(redisTemplate).delete(List.of("rate_limit:test_key", "rate_limit:test_key:swl",
+                "rate_limit:test_key:swc", "rate_limit:test_key:gcra"));
     }
 
     @Test
-    @DisplayName("Deve retornar tentativas restantes")
-    void shouldReturnRemainingAttempts() {
-        when(valueOperations.get("rate_limit:test_key")).thenReturn(3);
+    @DisplayName("isLoginAllowed deve usar limites corretos")
+    void shouldUseCorrectLimitsForLogin() {
+        givenScriptReply("1:4:900000");
 
-        int remaining = rateLimitService.getRemainingAttempts("test_key", 5);
+        boolean allowed = rateLimitService.isLoginAllowed("user123");
 
-        assertEquals(2, remaining);
+        assertTrue(allowed);
+        // Padrão do login: log de janela deslizante (ZSET), 5 em 15 minutos
+        verify(redisTemplate).execute(eq(RateLimitScripts.SLIDING_WINDOW_LOG), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("rate_limit:login:user123:swl")),
+                eq("900000"), eq("5"), anyString(), eq("1"));
     }
 
     @Test
-    @DisplayName("Deve retornar max quando não há tentativas")
-    void shouldReturnMaxWhenNoAttempts() {
-        when(valueOperations.get("rate_limit:test_key")).thenReturn(null);
+    @DisplayName("isLoginAllowed deve bloquear após 5 tentativas")
+    void shouldBlockLoginAfterFiveAttempts() {
+        givenScriptReply("0:0:600000");
 
-        int remaining = rateLimitService.getRemainingAttempts("test_key", 5);
+        boolean allowed = rateLimitService.isLoginAllowed("user123");
 
-        assertEquals(5, remaining);
+        assertFalse(allowed);
     }
 
     @Test
-    @DisplayName("Deve retornar zero quando excedeu limite")
-    void shouldReturnZeroWhenExceededLimit() {
-        when(valueOperations.get("rate_limit:test_key")).thenReturn(10);
+    @DisplayName("isIpAllowed deve usar GCRA com intervalo de emissão e burst da regra")
+    void shouldUseTokenBucketForIp() {
+        givenScriptReply("1:19:600");
 
-        int remaining = rateLimitService.getRemainingAttempts("test_key", 5);
+        assertTrue(rateLimitService.isIpAllowed("10.0.0.1"));
 
-        assertEquals(0, remaining);
+        // 100 por minuto => uma requisição a cada 600 ms (600000 µs), rajada de 20, reserva de 5 permissões
+        verify(redisTemplate).execute(eq(RateLimitScripts.TOKEN_BUCKET), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("rate_limit:ip:10.0.0.1:gcra")), eq("600000"), eq("20"), eq("5"));
+        assertEquals(1, meterRegistry.timer("rate.limit.check", "algorithm", "TOKEN_BUCKET").count());
     }
 
     @Test
-    @DisplayName("Deve retornar tempo de reset")
-    void shouldReturnResetTime() {
-        when(redisTemplate.getExpire("rate_limit:test_key", TimeUnit.SECONDS)).thenReturn(120L);
+    @DisplayName("isMissionSubmissionAllowed deve usar o contador de janela deslizante")
+    void shouldUseSlidingWindowCounterForMissionSubmission() {
+        givenScriptReply("0:0:42000");
 
-        long resetTime = rateLimitService.getResetTime("test_key");
+        assertFalse(rateLimitService.isMissionSubmissionAllowed(7L));
 
-        assertEquals(120L, resetTime);
+        verify(redisTemplate).execute(eq(RateLimitScripts.SLIDING_WINDOW_COUNTER), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("rate_limit:mission_submission:7:swc")), eq("300000"), eq("10"), eq("1"));
     }
 
     @Test
-    @DisplayName("Deve retornar zero quando TTL é null ou negativo")
-    void shouldReturnZeroWhenTtlIsNullOrNegative() {
-        when(redisTemplate.getExpire("rate_limit:test_key", TimeUnit.SECONDS)).thenReturn(-1L);
+    @DisplayName("Regras configuradas por propriedade substituem os padrões")
+    void shouldUseConfiguredRule() {
+        rateLimitProperties.getRules().put(RateLimitProperties.BOSS_SUBMISSION,
+                new RateLimitProperties.Rule(RateLimitAlgorithm.FIXED_WINDOW, 1, Duration.ofMinutes(10), null));
+        givenScriptReply("1:0:600000");
 
-        long resetTime = rateLimitService.getResetTime("test_key");
+        assertTrue(rateLimitService.isBossSubmissionAllowed(3L));
 
-        assertEquals(0, resetTime);
+        verify(redisTemplate).execute(eq(RateLimitScripts.FIXED_WINDOW), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("rate_limit:boss_submission:3")), eq("600000"), eq("1"), eq("1"));
     }
 
     @Test
-    @DisplayName("isLoginAllowed deve usar limites corretos")
-    void shouldUseCorrectLimitsForLogin() {
-        when(valueOperations.increment("rate_limit:login:user123")).thenReturn(1L);
-        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(true);
+    @DisplayName("Depois de rejeitada pelo Redis, a chave é rejeitada em memória até o reset")
+    @SuppressWarnings("unchecked")
+    void shouldRejectLocallyAfterRemoteRejection() {
+        givenScriptReply("0:0:30000");
+
+        assertFalse(rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(1)));
+        RateLimitResult second = rateLimitService.check("test_key", 5, Duration.ofMinutes(1));
+
+        assertFalse(second.allowed());
+        assertTrue(second.resetSeconds() > 0 && second.resetSeconds() <= 30);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+        assertEquals(1.0, meterRegistry.counter("rate.limit.local", "outcome", "rejected").count());
+    }
 
-        boolean allowed = rateLimitService.isLoginAllowed("user123");
+    @Test
+    @DisplayName("Permissões antecipadas do Redis são consumidas em memória")
+    @SuppressWarnings("unchecked")
+    void shouldConsumeLeasedPermitsLocally() {
+        // IP: lease-chunk 5 => uma ida ao Redis atende 5 requisições
+        givenScriptReply("5:15:3000");
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimitService.isIpAllowed("10.0.0.2"));
+        }
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+        assertEquals(4.0, meterRegistry.counter("rate.limit.local", "outcome", "granted").count());
+
+        // Cota esgotada: volta ao Redis
+        rateLimitService.isIpAllowed("10.0.0.2");
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+    }
 
-        assertTrue(allowed);
-        verify(valueOperations).increment("rate_limit:login:user123");
+    @Test
+    @DisplayName("reset deve descartar também o bloqueio local")
+    @SuppressWarnings("unchecked")
+    void shouldClearLocalBlockOnReset() {
+        givenScriptReply("0:0:30000");
+        rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(1));
+
+        rateLimitService.reset("test_key");
+        rateLimitService.isAllowed("test_key", 5, Duration.ofMinutes(1));
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
     }
 
     @Test
-    @DisplayName("isLoginAllowed deve bloquear após 5 tentativas")
-    void shouldBlockLoginAfterFiveAttempts() {
-        when(valueOperations.increment("rate_limit:login:user123")).thenReturn(6L);
+    @DisplayName("blockIp deve rejeitar o IP em memória e compartilhar o bloqueio pelo Redis")
+    void shouldBlockIpLocallyAndShareThroughRedis() {
+        ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        rateLimitService.blockIp("10.0.0.9", Duration.ofMinutes(15));
+        RateLimitResult result = rateLimitService.checkIp("10.0.0.9");
+
+        assertFalse(result.allowed());
+        assertTrue(result.resetSeconds() > 14 * 60);
+        verify(zSetOperations).add(eq("rate_limit:blocked_ips"), eq("10.0.0.9"), anyDouble());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+    }
 
-        boolean allowed = rateLimitService.isLoginAllowed("user123");
+    @Test
+    @DisplayName("refreshBlockedIps deve trazer para o tier local os bloqueios de outras instâncias")
+    void shouldLoadBlocksFromOtherInstances() {
+        ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores(eq("rate_limit:blocked_ips"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of(TypedTuple.of("10.0.0.7", (double) System.currentTimeMillis() + 60_000)));
+
+        rateLimitService.refreshBlockedIps();
+
+        assertFalse(rateLimitService.isIpAllowed("10.0.0.7"));
+        verify(zSetOperations).removeRangeByScore(eq("rate_limit:blocked_ips"), eq(0.0), anyDouble());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+    }
 
-        assertFalse(allowed);
+    @SuppressWarnings("unchecked")
+    private void givenScriptReply(String reply) {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(reply);
     }
 }
-
@@ -2,13 +2,20 @@ package dev.gamified.GamifiedPlatform.services.security;
 
 import dev.gamified.GamifiedPlatform.domain.SecurityAuditLog;
 import dev.gamified.GamifiedPlatform.repository.SecurityAuditLogRepository;
+import dev.gamified.GamifiedPlatform.services.async.DownstreamBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -21,7 +28,17 @@ class SecurityAuditServiceTest {
     @Mock
     private SecurityAuditLogRepository auditLogRepository;
 
-    @InjectMocks
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private SuspiciousActivityDetector suspiciousActivityDetector;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final DownstreamBulkheads bulkheads =
+            new DownstreamBulkheads(new SimpleMeterRegistry(), 1, 1, 1, 1, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
     private SecurityAuditService securityAuditService;
 
     private static final Long USER_ID = 1L;
@@ -29,116 +46,158 @@ class SecurityAuditServiceTest {
     private static final String IP_ADDRESS = "192.168.1.1";
     private static final String USER_AGENT = "Mozilla/5.0";
 
+    @BeforeEach
+    void setUp() {
+        securityAuditService = new SecurityAuditService(auditLogRepository, auditLogWriter, bulkheads, jsonMapper,
+                suspiciousActivityDetector);
+    }
+
+    @Test
+    @DisplayName("Alerta do detector deve virar um evento SUSPICIOUS_ACTIVITY")
+    void shouldLogDetectorAlertAsSuspiciousActivity() {
+        when(suspiciousActivityDetector.observe(any(AuditRecord.class)))
+                .thenReturn(Optional.of(new SuspiciousActivity("ip-failures", IP_ADDRESS, USERNAME,
+                        "Auto-detected (ip-failures)", true)))
+                .thenReturn(Optional.empty());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
+
+        securityAuditService.logLoginFailure(USERNAME, IP_ADDRESS, USER_AGENT, "Invalid password");
+
+        verify(auditLogWriter, times(2)).submit(logCaptor.capture());
+        AuditRecord alert = logCaptor.getAllValues().get(1);
+        assertEquals("SUSPICIOUS_ACTIVITY", alert.eventType());
+        assertEquals(IP_ADDRESS, alert.ipAddress());
+        assertEquals("Auto-detected (ip-failures)", alert.details());
+    }
+
     @Test
     @DisplayName("Deve registrar log de login bem-sucedido")
     void shouldLogLoginSuccess() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logLoginSuccess(USER_ID, USERNAME, IP_ADDRESS, USER_AGENT);
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("LOGIN_SUCCESS", savedLog.getEventType());
-        assertEquals(USER_ID, savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
-        assertEquals(USER_AGENT, savedLog.getUserAgent());
-        assertEquals("INFO", savedLog.getSeverity());
-        assertEquals("User logged in successfully", savedLog.getDetails());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("LOGIN_SUCCESS", savedLog.eventType());
+        assertEquals(USER_ID, savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
+        assertEquals(USER_AGENT, savedLog.userAgent());
+        assertEquals("INFO", savedLog.severity());
+        assertEquals("User logged in successfully", savedLog.details());
     }
 
     @Test
     @DisplayName("Deve registrar log de falha no login")
     void shouldLogLoginFailure() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logLoginFailure(USERNAME, IP_ADDRESS, USER_AGENT, "Invalid password");
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("LOGIN_FAILED", savedLog.getEventType());
-        assertNull(savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
-        assertEquals(USER_AGENT, savedLog.getUserAgent());
-        assertEquals("WARNING", savedLog.getSeverity());
-        assertEquals("Login failed: Invalid password", savedLog.getDetails());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("LOGIN_FAILED", savedLog.eventType());
+        assertNull(savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
+        assertEquals(USER_AGENT, savedLog.userAgent());
+        assertEquals("WARNING", savedLog.severity());
+        assertEquals("Login failed: Invalid password", savedLog.details());
     }
 
     @Test
     @DisplayName("Deve registrar log de alteração de senha")
     void shouldLogPasswordChange() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logPasswordChange(USER_ID, USERNAME, IP_ADDRESS);
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("PASSWORD_CHANGED", savedLog.getEventType());
-        assertEquals(USER_ID, savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
-        assertEquals("INFO", savedLog.getSeverity());
-        assertEquals("Password changed successfully", savedLog.getDetails());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("PASSWORD_CHANGED", savedLog.eventType());
+        assertEquals(USER_ID, savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
+        assertEquals("INFO", savedLog.severity());
+        assertEquals("Password changed successfully", savedLog.details());
     }
 
     @Test
     @DisplayName("Deve registrar log de logout")
     void shouldLogLogout() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logLogout(USER_ID, USERNAME, IP_ADDRESS);
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("LOGOUT", savedLog.getEventType());
-        assertEquals(USER_ID, savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
-        assertEquals("INFO", savedLog.getSeverity());
-        assertEquals("User logged out", savedLog.getDetails());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("LOGOUT", savedLog.eventType());
+        assertEquals(USER_ID, savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
+        assertEquals("INFO", savedLog.severity());
+        assertEquals("User logged out", savedLog.details());
     }
 
     @Test
     @DisplayName("Deve registrar log de logout de todos os dispositivos")
     void shouldLogLogoutAllDevices() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logLogoutAllDevices(USER_ID, USERNAME, IP_ADDRESS);
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("LOGOUT_ALL_DEVICES", savedLog.getEventType());
-        assertEquals(USER_ID, savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
-        assertEquals("WARNING", savedLog.getSeverity());
-        assertEquals("User logged out from all devices", savedLog.getDetails());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("LOGOUT_ALL_DEVICES", savedLog.eventType());
+        assertEquals(USER_ID, savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
+        assertEquals("WARNING", savedLog.severity());
+        assertEquals("User logged out from all devices", savedLog.details());
     }
 
     @Test
     @DisplayName("Deve registrar log de acesso não autorizado")
     void shouldLogUnauthorizedAccess() {
-        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
-        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+        ArgumentCaptor<AuditRecord> logCaptor = ArgumentCaptor.forClass(AuditRecord.class);
 
         securityAuditService.logUnauthorizedAccess(USER_ID, USERNAME, IP_ADDRESS, "/api/admin/users");
 
-        SecurityAuditLog savedLog = logCaptor.getValue();
-        assertEquals("UNAUTHORIZED_ACCESS", savedLog.getEventType());
-        assertEquals(USER_ID, savedLog.getUserId());
-        assertEquals(USERNAME, savedLog.getUsername());
-        assertEquals(IP_ADDRESS, savedLog.getIpAddress());
+        verify(auditLogWriter).submit(logCaptor.capture());
+        AuditRecord savedLog = logCaptor.getValue();
+        assertEquals("UNAUTHORIZED_ACCESS", savedLog.eventType());
+        assertEquals(USER_ID, savedLog.userId());
+        assertEquals(USERNAME, savedLog.username());
+        assertEquals(IP_ADDRESS, savedLog.ipAddress());
     }
 
     @Test
-    @DisplayName("Deve salvar log no repositório")
-    void shouldSaveLogToRepository() {
-        when(auditLogRepository.save(any(SecurityAuditLog.class))).thenReturn(new SecurityAuditLog());
-
+    @DisplayName("Deve publicar o evento no writer sem gravar direto no repositório")
+    void shouldSubmitToWriterInsteadOfRepository() {
         securityAuditService.logLoginSuccess(USER_ID, USERNAME, IP_ADDRESS, USER_AGENT);
 
-        verify(auditLogRepository).save(any(SecurityAuditLog.class));
+        verify(auditLogWriter).submit(any(AuditRecord.class));
+        verifyNoInteractions(auditLogRepository);
     }
-}
 
+    @Test
+    @DisplayName("Replay do DLQ deve regravar o evento com o horário original")
+    void shouldReplayDeadLetteredEventWithOriginalTimestamp() {
+        LocalDateTime occurredAt = LocalDateTime.of(2025, 1, 10, 8, 30);
+        AuditRecord event = new AuditRecord("LOGIN_FAILED", null, USERNAME, IP_ADDRESS, USER_AGENT,
+                "Login failed: Invalid password", "WARNING", occurredAt);
+        ArgumentCaptor<SecurityAuditLog> logCaptor = ArgumentCaptor.forClass(SecurityAuditLog.class);
+        when(auditLogRepository.save(logCaptor.capture())).thenReturn(new SecurityAuditLog());
+
+        securityAuditService.replay(jsonMapper.writeValueAsString(event));
+
+        SecurityAuditLog savedLog = logCaptor.getValue();
+        assertEquals("LOGIN_FAILED", savedLog.getEventType());
+        assertEquals(USERNAME, savedLog.getUsername());
+        assertEquals(USER_AGENT, savedLog.getUserAgent());
+        assertEquals("Login failed: Invalid password", savedLog.getDetails());
+        assertEquals(occurredAt, savedLog.getTimestamp());
+        assertNull(savedLog.getId());
+    }
+}
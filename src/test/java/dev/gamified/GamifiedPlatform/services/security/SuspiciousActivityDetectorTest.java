@@ -0,0 +1,148 @@
+package dev.gamified.GamifiedPlatform.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SuspiciousActivityDetector Tests")
+class SuspiciousActivityDetectorTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SuspiciousActivityDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new SuspiciousActivityDetector(rateLimitService, meterRegistry, true, Duration.ofMinutes(5),
+                5, 4, 3, true, Duration.ofMinutes(15), 1000, 1024, 4);
+    }
+
+    @Test
+    @DisplayName("Deve bloquear o IP ao atingir o limite de falhas na janela, alertando uma única vez")
+    void shouldBlockIpAfterTooManyFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(detector.observe(failure("10.0.0.1", null), i * MINUTE / 10).isEmpty());
+        }
+
+        Optional<SuspiciousActivity> alert = detector.observe(failure("10.0.0.1", null), MINUTE);
+        Optional<SuspiciousActivity> repeated = detector.observe(failure("10.0.0.1", null), MINUTE);
+
+        assertTrue(alert.isPresent());
+        assertEquals(SuspiciousActivityDetector.RULE_IP_FAILURES, alert.get().rule());
+        assertTrue(alert.get().blocked());
+        assertTrue(repeated.isEmpty());
+        verify(rateLimitService, times(1)).blockIp("10.0.0.1", Duration.ofMinutes(15));
+        assertEquals(1.0, meterRegistry.counter("security.detector.blocked").count());
+    }
+
+    @Test
+    @DisplayName("Falhas fora da janela deslizante não devem contar")
+    void shouldForgetFailuresOutsideWindow() {
+        for (int i = 0; i < 4; i++) {
+            detector.observe(failure("10.0.0.2", null), i * MINUTE);
+        }
+
+        // 10 minutos depois as falhas anteriores já saíram da janela de 5 minutos
+        assertTrue(detector.observe(failure("10.0.0.2", null), 10 * MINUTE).isEmpty());
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    @DisplayName("Muitos usernames distintos vindos do mesmo IP indicam credential stuffing")
+    void shouldDetectCredentialStuffing() {
+        detector.observe(failure("10.0.0.3", "user-a"), 0);
+        detector.observe(failure("10.0.0.3", "user-b"), 0);
+
+        Optional<SuspiciousActivity> alert = detector.observe(failure("10.0.0.3", "user-c"), 0);
+
+        assertTrue(alert.isPresent());
+        assertEquals(SuspiciousActivityDetector.RULE_DISTINCT_USERNAMES, alert.get().rule());
+        verify(rateLimitService).blockIp("10.0.0.3", Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("Falhas distribuídas contra um username só geram alerta, sem bloquear IPs")
+    void shouldOnlyAlertForDistributedAttackOnUsername() {
+        Optional<SuspiciousActivity> alert = Optional.empty();
+        for (int i = 0; i < 4; i++) {
+            alert = detector.observe(failure("10.1.0." + i, "bob"), 0);
+        }
+
+        assertTrue(alert.isPresent());
+        assertEquals(SuspiciousActivityDetector.RULE_USER_FAILURES, alert.get().rule());
+        assertFalse(alert.get().blocked());
+        verify(rateLimitService, never()).blockIp(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Eventos que não são falhas devem ser ignorados")
+    void shouldIgnoreNonFailureEvents() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(detector.observe(event("LOGIN_SUCCESS", "10.0.0.4", "carol"), 0).isEmpty());
+            assertTrue(detector.observe(event("SUSPICIOUS_ACTIVITY", "10.0.0.4", "carol"), 0).isEmpty());
+        }
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    @DisplayName("HyperLogLog deve estimar poucos valores distintos com precisão")
+    void hyperLogLogShouldBeAccurateForSmallCardinalities() {
+        HyperLogLogCounter counter = new HyperLogLogCounter(6);
+        for (int i = 0; i < 10; i++) {
+            counter.add(SlidingCountMinSketch.hash("user-" + i));
+            counter.add(SlidingCountMinSketch.hash("user-" + i));
+        }
+        assertEquals(10, counter.estimate(), 1);
+    }
+
+    @Test
+    @DisplayName("Usernames que colidem em String.hashCode() devem contar como distintos")
+    void shouldNotBeEvadedByHashCodeCollisions() {
+        // "Aa", "BB" e "C#" têm o mesmo hashCode (2112)
+        detector.observe(failure("10.0.0.5", "Aa"), 0);
+        detector.observe(failure("10.0.0.5", "BB"), 0);
+
+        Optional<SuspiciousActivity> alert = detector.observe(failure("10.0.0.5", "C#"), 0);
+
+        assertTrue(alert.isPresent());
+        assertEquals(SuspiciousActivityDetector.RULE_DISTINCT_USERNAMES, alert.get().rule());
+        assertNotEquals(SlidingCountMinSketch.hash("Aa"), SlidingCountMinSketch.hash("BB"));
+    }
+
+    @Test
+    @DisplayName("XXH64 deve reproduzir os vetores de referência")
+    void xxHash64ShouldMatchReferenceVectors() {
+        assertEquals(0xEF46DB3751D8E999L, XxHash64.hash(new byte[0], 0));
+        assertEquals(0x44BC2CF5AD770999L, XxHash64.hash("abc".getBytes(StandardCharsets.UTF_8), 0));
+        assertEquals(0xFBCEA83C8A378BF1L,
+                XxHash64.hash("Nobody inspects the spammish repetition".getBytes(StandardCharsets.UTF_8), 0));
+    }
+
+    private static AuditRecord failure(String ip, String username) {
+        return event("LOGIN_FAILED", ip, username);
+    }
+
+    private static AuditRecord event(String eventType, String ip, String username) {
+        return new AuditRecord(eventType, null, username, ip, "agent", "details", "WARNING", LocalDateTime.now());
+    }
+}